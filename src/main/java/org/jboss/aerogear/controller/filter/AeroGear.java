@@ -29,8 +29,12 @@ import java.io.IOException;
 
 /**
  * A Servlet Filter that intercept all request for the current web application and delegates to an instance of {@link Router}.
+ * </p>
+ * The filter supports asynchronous requests and also intercepts the asynchronous dispatch of a request whose endpoint
+ * returned a {@link java.util.concurrent.Future}.
  */
-@WebFilter(filterName = "aerogear-controller", urlPatterns = "/*")
+@WebFilter(filterName = "aerogear-controller", urlPatterns = "/*", asyncSupported = true, dispatcherTypes = {
+        DispatcherType.REQUEST, DispatcherType.ASYNC })
 public class AeroGear implements Filter {
 
     @Inject
@@ -60,4 +60,12 @@ public interface AeroGearLogger extends BasicLogger {
     @Message(id = 8, value = "CORS Bad Request Method: Received '%s', allowed: '%s'")
     void badCorsRequestMethod(String actualMethod, Set<String> allowedMethods);
 
+    @LogMessage(level = Logger.Level.DEBUG)
+    @Message(id = 21, value = "Could not dispatch the completed asynchronous request for '%s': '%s'")
+    void asyncDispatchFailed(String requestPath, IllegalStateException exception);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 23, value = "Streaming the response for '%s' failed")
+    void streamFailed(String requestPath, @Cause Throwable exception);
+
 }
@@ -17,16 +17,22 @@
 
 package org.jboss.aerogear.controller.log;
 
+import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Set;
 
 import javax.servlet.ServletException;
 
 import org.jboss.aerogear.controller.router.Consumer;
+import org.jboss.aerogear.controller.router.MediaType;
 import org.jboss.aerogear.controller.router.RequestMethod;
 import org.jboss.aerogear.controller.router.Responders;
+import org.jboss.aerogear.controller.router.async.AsyncTimeoutException;
+import org.jboss.aerogear.controller.router.bulkhead.BulkheadRejectedException;
 import org.jboss.aerogear.controller.router.parameter.MissingRequestParameterException;
 import org.jboss.aerogear.controller.router.parameter.Parameter;
+import org.jboss.aerogear.controller.router.rest.compression.RequestEntityTooLargeException;
+import org.jboss.aerogear.controller.router.rest.compression.UnsupportedContentEncodingException;
 import org.jboss.aerogear.controller.router.rest.pagination.PaginationRequestException;
 import org.jboss.logging.LogMessage;
 import org.jboss.logging.Logger;
@@ -80,4 +86,40 @@ public interface ExceptionBundle {
     @Message(id = 15, value = "No routes were found in the deployment. Please verify that you have implemented RoutingModule, and that the deployment has a beans.xml file in WEB-INF")
     RuntimeException noRoutesAvailable();
 
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 16, value = "No CDI bean was found for the route target class '%s'. Please verify that the class is a managed bean.")
+    RuntimeException noControllerBeanFound(Class<?> targetClass);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 17, value = "No Converter found for type '%s'. Please register one by producing a ConverterConfiguration.")
+    RuntimeException noConverterForType(Class<?> type);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 18, value = "Unsupported Content-Encoding '%s' for request body. Supported encodings are 'gzip', 'deflate' and 'identity'.")
+    UnsupportedContentEncodingException unsupportedContentEncoding(String contentEncoding);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 19, value = "The decompressed request body exceeds the maximum size of '%s' bytes.")
+    RequestEntityTooLargeException requestEntityTooLarge(long maximumSize);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 20, value = "The endpoint for request path '%s' did not complete within '%s' milliseconds.")
+    AsyncTimeoutException asyncTimeout(String requestPath, long timeout);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 22, value = "The Responder for media type '%s' cannot stream an ElementStream, it must implement StreamingResponder.")
+    RuntimeException responderCannotStream(MediaType mediaType);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 24, value = "The thread pool of isolation group '%s' is full, rejected request for '%s'.")
+    BulkheadRejectedException bulkheadFull(String group, String requestPath);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 25, value = "The paginated endpoint '%s' must return its results synchronously, it can neither be isolated nor return a Future.")
+    RuntimeException paginatedEndpointMustBeSynchronous(Method method);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 26, value = "Argument %s of the endpoint '%s' is a primitive constant equal to its default value, which cannot be told apart from a request parameter. Declare it as a request parameter with a default value instead.")
+    RuntimeException ambiguousPrimitiveArgument(int index, Method method);
+
 }
@@ -21,9 +21,14 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
+import javax.inject.Inject;
+
+import org.jboss.aerogear.controller.router.parameter.Converters;
 import org.jboss.aerogear.controller.router.parameter.Parameter;
 import org.jboss.aerogear.controller.util.RequestUtils;
 
+import com.google.common.base.Defaults;
+
 /**
  * AbstractRoutingModule simplifies the process of configuring Routes by implementing {@link RoutingModule} and providing helper
  * methods. 
@@ -49,6 +54,18 @@ public abstract class AbstractRoutingModule implements RoutingModule {
     public static final MediaType JSP = MediaType.JSP;
     public static final MediaType HTML = MediaType.HTML;
     private final List<RouteBuilder> routes = new LinkedList<RouteBuilder>();
+    private Converters converters = new Converters();
+
+    /**
+     * Sets the {@link Converters} used to convert the values of request parameters, which is injected by CDI. Without
+     * it only the built in converters are used.
+     * 
+     * @param converters the {@link Converters} to use for the routes built by this module.
+     */
+    @Inject
+    public void setConverters(final Converters converters) {
+        this.converters = converters;
+    }
 
     /**
      * "Hook" for the template method {@link #build()}, which subclasses should implement to define the routes of the
@@ -79,12 +96,12 @@ public abstract class AbstractRoutingModule implements RoutingModule {
         } catch (final Exception e) {
             throw new AeroGearException(e);
         }
-        return Routes.from(routes);
+        return Routes.from(routes, converters);
     }
 
     public <T> T param(Class<T> type) {
         addParameter(Parameter.param(type));
-        return null;
+        return Defaults.defaultValue(type);
     }
 
     public String param(String str) {
@@ -92,9 +109,14 @@ public abstract class AbstractRoutingModule implements RoutingModule {
         return null;
     }
 
+    /**
+     * Declares a request parameter of the passed-in type. Primitive types are supported, in which case the primitive's
+     * default value is returned so that it can be passed to the target method. Note that a primitive constant equal to
+     * that default value cannot be told apart from a request parameter, such a route is rejected when it is built.
+     */
     public <T> T param(String id, Class<T> type) {
         addParameter(Parameter.param(id, type));
-        return null;
+        return Defaults.defaultValue(type);
     }
 
     public String param(String id, String defaultValue) {
@@ -17,23 +17,142 @@
 
 package org.jboss.aerogear.controller.router;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
 
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+
 /**
  * ControllerFactory is a factory for target endpoint classes in AeroGear.
+ * </p>
+ * The CDI {@link Bean} of each target class is resolved once and cached, either up front by {@link #prepare(Set, BeanManager)}
+ * or on first use. How an instance is obtained depends on the scope of the bean:
+ * <ul>
+ * <li>For normal-scoped beans, like {@code @RequestScoped} or {@code @ApplicationScoped}, and other pseudo-scopes the
+ * contextual reference is looked up once and shared, as the container resolves the contextual instance for each call.</li>
+ * <li>For {@code @Dependent} beans a new instance is created for each request and destroyed, together with its
+ * dependencies, when the returned {@link ControllerInstance} is released.</li>
+ * </ul>
  */
+@ApplicationScoped
 public class ControllerFactory {
 
+    private final ConcurrentMap<Class<?>, ControllerProvider> providers = new ConcurrentHashMap<Class<?>, ControllerProvider>();
+
+    /**
+     * Resolves and caches the CDI beans of the passed-in target endpoint classes.
+     * 
+     * @param targetClasses the target endpoint classes of the configured routes.
+     * @param beanManager the CDI bean manager that should be used to look up the types.
+     */
+    public void prepare(final Set<Class<?>> targetClasses, final BeanManager beanManager) {
+        for (Class<?> targetClass : targetClasses) {
+            providerFor(targetClass, beanManager);
+        }
+    }
+
     /**
      * Creates an instance of the passed-in type by delegating to CDI (beanManager).
      * 
      * @param targetClass the type of the target endpoint class.
      * @param beanManager the CDI bean manager that should be used to look up the type.
-     * @return Object an instance of the target class.
+     * @return {@link ControllerInstance} holding an instance of the target class, which must be released after use.
      */
-    public Object createController(Class<?> targetClass, BeanManager beanManager) {
-        Bean next = beanManager.getBeans(targetClass).iterator().next();
-        return next.create(beanManager.createCreationalContext(next));
+    public ControllerInstance createController(final Class<?> targetClass, final BeanManager beanManager) {
+        return providerFor(targetClass, beanManager).get();
+    }
+
+    private ControllerProvider providerFor(final Class<?> targetClass, final BeanManager beanManager) {
+        final ControllerProvider provider = providers.get(targetClass);
+        if (provider != null) {
+            return provider;
+        }
+        final ControllerProvider created = createProvider(targetClass, beanManager);
+        final ControllerProvider existing = providers.putIfAbsent(targetClass, created);
+        return existing == null ? created : existing;
+    }
+
+    private static ControllerProvider createProvider(final Class<?> targetClass, final BeanManager beanManager) {
+        final Bean<?> bean = beanManager.resolve(beanManager.getBeans(targetClass));
+        if (bean == null) {
+            throw ExceptionBundle.MESSAGES.noControllerBeanFound(targetClass);
+        }
+        if (Dependent.class.equals(bean.getScope())) {
+            return new DependentProvider(bean, beanManager);
+        }
+        return new ContextualReferenceProvider(
+                beanManager.getReference(bean, targetClass, beanManager.createCreationalContext(bean)));
+    }
+
+    private interface ControllerProvider {
+        ControllerInstance get();
+    }
+
+    /**
+     * Shares a single contextual reference, which is never destroyed by AeroGear.
+     */
+    private static final class ContextualReferenceProvider implements ControllerProvider {
+
+        private final ControllerInstance instance;
+
+        ContextualReferenceProvider(final Object reference) {
+            instance = new ControllerInstance() {
+                @Override
+                public Object get() {
+                    return reference;
+                }
+
+                @Override
+                public void release() {
+                }
+            };
+        }
+
+        @Override
+        public ControllerInstance get() {
+            return instance;
+        }
+    }
+
+    /**
+     * Creates a new instance per call that is destroyed when it is released.
+     */
+    private static final class DependentProvider implements ControllerProvider {
+
+        private final Bean<?> bean;
+        private final BeanManager beanManager;
+
+        DependentProvider(final Bean<?> bean, final BeanManager beanManager) {
+            this.bean = bean;
+            this.beanManager = beanManager;
+        }
+
+        @Override
+        public ControllerInstance get() {
+            return create(bean, beanManager);
+        }
+
+        private static <T> ControllerInstance create(final Bean<T> bean, final BeanManager beanManager) {
+            final CreationalContext<T> creationalContext = beanManager.createCreationalContext(bean);
+            final T instance = bean.create(creationalContext);
+            return new ControllerInstance() {
+                @Override
+                public Object get() {
+                    return instance;
+                }
+
+                @Override
+                public void release() {
+                    bean.destroy(instance, creationalContext);
+                }
+            };
+        }
     }
 }
@@ -0,0 +1,40 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+/**
+ * ControllerInstance is a handle to a target endpoint instance obtained from a {@link ControllerFactory}.
+ * </p>
+ * The instance must be released once the request it was obtained for has finished so that {@code @Dependent}
+ * instances, and their dependencies, can be destroyed.
+ */
+public interface ControllerInstance {
+
+    /**
+     * Returns the target endpoint instance.
+     * 
+     * @return {@code Object} the instance of the target endpoint class.
+     */
+    Object get();
+
+    /**
+     * Releases the target endpoint instance. For a contextual reference of a normal-scoped bean this is a no-op.
+     */
+    void release();
+
+}
@@ -0,0 +1,166 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+
+import org.jboss.aerogear.controller.router.rest.compression.DecompressingRequest;
+
+/**
+ * ControllerInstances holds the {@link ControllerInstance}s obtained while a request is processed, so that they are
+ * released once the request has finished instead of as soon as the target endpoint method returns.
+ * </p>
+ * An endpoint result, like an Iterator over a cursor, a Future or an
+ * {@link org.jboss.aerogear.controller.router.async.ElementStream}, may still use the endpoint instance while the
+ * response is written. The {@link DefaultRouter} therefore attaches a ControllerInstances to each request it dispatches,
+ * and releases the instances when the dispatch returns or, if the request was put into asynchronous mode, when the
+ * asynchronous request completes.
+ * </p>
+ * The inflaters of a {@link DecompressingRequest} are released the same way, as such a result may also still be
+ * reading the request body, for example through an Iterator parameter.
+ */
+final class ControllerInstances implements AsyncListener {
+
+    /**
+     * The name of the request attribute under which the ControllerInstances of the current request are stored.
+     */
+    static final String ATTRIBUTE_NAME = "org.jboss.aerogear.controller.controllerInstances";
+
+    private final List<ControllerInstance> instances = new ArrayList<ControllerInstance>();
+    private final List<DecompressingRequest> bodies = new ArrayList<DecompressingRequest>(1);
+    private boolean released;
+
+    private ControllerInstances() {
+    }
+
+    /**
+     * Returns the ControllerInstances of the passed-in request, attaching a new one if the request has none yet.
+     * 
+     * @param request the current {@link HttpServletRequest}.
+     * @return {@link ControllerInstances} of the request.
+     */
+    static ControllerInstances attach(final HttpServletRequest request) {
+        final ControllerInstances attached = (ControllerInstances) request.getAttribute(ATTRIBUTE_NAME);
+        if (attached != null) {
+            return attached;
+        }
+        final ControllerInstances controllerInstances = new ControllerInstances();
+        request.setAttribute(ATTRIBUTE_NAME, controllerInstances);
+        return controllerInstances;
+    }
+
+    /**
+     * Releases the passed-in instance once the request has finished. If the request was not dispatched by the
+     * {@link DefaultRouter}, or has already finished, the instance is released right away.
+     * 
+     * @param request the current {@link HttpServletRequest}.
+     * @param instance the {@link ControllerInstance} to release.
+     */
+    static void releaseWhenFinished(final HttpServletRequest request, final ControllerInstance instance) {
+        final ControllerInstances controllerInstances = (ControllerInstances) request.getAttribute(ATTRIBUTE_NAME);
+        if (controllerInstances == null || !controllerInstances.add(instance)) {
+            instance.release();
+        }
+    }
+
+    /**
+     * Releases the inflaters of the passed-in decompressed body once the request has finished. If the request was not
+     * dispatched by the {@link DefaultRouter}, or has already finished, they are released right away.
+     * 
+     * @param request the current {@link HttpServletRequest}.
+     * @param body the {@link DecompressingRequest} to release.
+     */
+    static void releaseWhenFinished(final HttpServletRequest request, final DecompressingRequest body) {
+        final ControllerInstances controllerInstances = (ControllerInstances) request.getAttribute(ATTRIBUTE_NAME);
+        if (controllerInstances == null || !controllerInstances.add(body)) {
+            body.release();
+        }
+    }
+
+    /**
+     * Called when a dispatch of the request returns. The instances are released unless the request is in asynchronous
+     * mode, in which case they are released when it completes.
+     * 
+     * @param request the current {@link HttpServletRequest}.
+     */
+    void dispatched(final HttpServletRequest request) {
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(this);
+        } else {
+            release();
+        }
+    }
+
+    private synchronized boolean add(final ControllerInstance instance) {
+        if (released) {
+            return false;
+        }
+        instances.add(instance);
+        return true;
+    }
+
+    private synchronized boolean add(final DecompressingRequest body) {
+        if (released) {
+            return false;
+        }
+        bodies.add(body);
+        return true;
+    }
+
+    private void release() {
+        final List<ControllerInstance> toRelease;
+        final List<DecompressingRequest> bodiesToRelease;
+        synchronized (this) {
+            released = true;
+            toRelease = new ArrayList<ControllerInstance>(instances);
+            instances.clear();
+            bodiesToRelease = new ArrayList<DecompressingRequest>(bodies);
+            bodies.clear();
+        }
+        for (ControllerInstance instance : toRelease) {
+            instance.release();
+        }
+        for (DecompressingRequest body : bodiesToRelease) {
+            body.release();
+        }
+    }
+
+    @Override
+    public void onComplete(final AsyncEvent event) throws IOException {
+        release();
+    }
+
+    @Override
+    public void onTimeout(final AsyncEvent event) throws IOException {
+    }
+
+    @Override
+    public void onError(final AsyncEvent event) throws IOException {
+    }
+
+    @Override
+    public void onStartAsync(final AsyncEvent event) throws IOException {
+    }
+
+}
@@ -27,7 +27,9 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.jboss.aerogear.controller.router.parameter.Converters;
 import org.jboss.aerogear.controller.router.parameter.Parameter;
+import org.jboss.aerogear.controller.util.BindingPlan;
 import org.jboss.aerogear.controller.util.RequestUtils;
 
 /**
@@ -35,14 +37,24 @@ import org.jboss.aerogear.controller.util.RequestUtils;
  */
 public class DefaultRoute implements Route {
     private final String path;
+    private final PathTemplate pathTemplate;
     private final Class<?> targetClass;
     private final Method targetMethod;
+    private final MethodInvoker targetInvoker;
     private final Set<RequestMethod> methods;
     private final Set<String> roles;
     private final Set<String> consumes;
     private final Set<MediaType> produces;
+    private final boolean compressed;
+    private final boolean etag;
+    private final long cacheTtl;
+    private final long cacheMaximumSize;
+    private final boolean coalesced;
+    private final long asyncTimeout;
+    private final String isolationGroup;
     private final Set<Class<? extends Throwable>> throwables;
     private final List<Parameter<?>> parameters;
+    private final BindingPlan bindingPlan;
 
     /**
      * Constructs a Route with the specified {@code RouteDescriptor} configuration options.
@@ -50,15 +62,35 @@ public class DefaultRoute implements Route {
      * @param descriptor the {@link RouteDescriptor} with the configured values.
      */
     public DefaultRoute(RouteDescriptor descriptor) {
+        this(descriptor, new Converters());
+    }
+
+    /**
+     * Constructs a Route with the specified {@code RouteDescriptor} configuration options.
+     * 
+     * @param descriptor the {@link RouteDescriptor} with the configured values.
+     * @param converters the {@link Converters} used to convert the values of the route's request parameters.
+     */
+    public DefaultRoute(RouteDescriptor descriptor, Converters converters) {
         path = descriptor.getPath();
+        pathTemplate = path == null ? null : new PathTemplate(path);
         methods = asSet(descriptor.getMethods());
         targetMethod = descriptor.getTargetMethod();
+        targetInvoker = targetMethod == null ? null : MethodInvoker.of(targetMethod);
         targetClass = descriptor.getTargetClass();
         roles = asSet(firstNonNull(descriptor.getRoles(), new String[] {}));
         consumes = asSet(descriptor.getConsumes(), MediaType.HTML.getType());
         parameters = firstNonNull(descriptor.getParameters(), Collections.<Parameter<?>> emptyList());
+        bindingPlan = BindingPlan.compile(parameters, converters);
         produces = asSet(firstNonNull(descriptor.getProduces(), defaultMediaTypes()));
         throwables = firstNonNull(descriptor.getThrowables(), emptyThrowableSet());
+        compressed = descriptor.isCompressed();
+        etag = descriptor.isETagEnabled();
+        cacheTtl = descriptor.getCacheTtl();
+        cacheMaximumSize = descriptor.getCacheMaximumSize();
+        coalesced = descriptor.isCoalesced();
+        asyncTimeout = descriptor.getAsyncTimeout();
+        isolationGroup = descriptor.getIsolationGroup();
     }
 
     @Override
@@ -71,6 +103,11 @@ public class DefaultRoute implements Route {
         return path;
     }
 
+    @Override
+    public PathTemplate getPathTemplate() {
+        return pathTemplate;
+    }
+
     @Override
     public Class<?> getTargetClass() {
         return targetClass;
@@ -86,7 +123,7 @@ public class DefaultRoute implements Route {
     }
 
     private boolean isPathCompatible(String realPath) {
-        return RequestUtils.segmentsMatch(this.path, realPath);
+        return pathTemplate != null && pathTemplate.matches(realPath);
     }
 
     @Override
@@ -94,6 +131,11 @@ public class DefaultRoute implements Route {
         return targetMethod;
     }
 
+    @Override
+    public MethodInvoker getTargetInvoker() {
+        return targetInvoker;
+    }
+
     @Override
     public boolean isParameterized() {
         return path.contains("{");
@@ -124,10 +166,50 @@ public class DefaultRoute implements Route {
         return Collections.<Parameter<?>> unmodifiableList(parameters);
     }
 
+    @Override
+    public BindingPlan getBindingPlan() {
+        return bindingPlan;
+    }
+
     public Set<String> consumes() {
         return Collections.unmodifiableSet(consumes);
     }
 
+    @Override
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    @Override
+    public boolean isETagEnabled() {
+        return etag;
+    }
+
+    @Override
+    public long getCacheTtl() {
+        return cacheTtl;
+    }
+
+    @Override
+    public long getCacheMaximumSize() {
+        return cacheMaximumSize;
+    }
+
+    @Override
+    public boolean isCoalesced() {
+        return coalesced;
+    }
+
+    @Override
+    public long getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
+    @Override
+    public String getIsolationGroup() {
+        return isolationGroup;
+    }
+
     @Override
     public boolean canHandle(final Throwable throwable) {
         for (Class<? extends Throwable> t : throwables) {
@@ -138,6 +220,11 @@ public class DefaultRoute implements Route {
         return false;
     }
 
+    @Override
+    public Set<Class<? extends Throwable>> getThrowables() {
+        return Collections.unmodifiableSet(throwables);
+    }
+
     @Override
     public String toString() {
         return new StringBuilder("DefaultRoute[").append("path=").append(path)
@@ -17,21 +17,46 @@
 
 package org.jboss.aerogear.controller.router;
 
-import static org.jboss.aerogear.controller.util.ParameterExtractor.extractArguments;
+import static org.jboss.aerogear.controller.util.ParameterExtractor.extractArgumentValues;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
+import org.jboss.aerogear.controller.router.async.AsyncDispatcher;
+import org.jboss.aerogear.controller.router.async.AsyncResult;
+import org.jboss.aerogear.controller.router.bulkhead.Bulkheads;
+import org.jboss.aerogear.controller.router.rest.compression.DecompressingRequest;
+import org.jboss.aerogear.controller.router.rest.compression.RequestDecompressor;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
 /**
  * Default implementation of {@link RouteProcessor} that is the target of a processing chain of CDI decorators. 
  * </p> 
+ * Compressed request bodies are decompressed by the {@link RequestDecompressor} before they are handed to a
+ * {@link Consumer}. As the result of the endpoint may still read the body, through an Iterator parameter, the
+ * inflaters are released once the request has finished, see {@link ControllerInstances}, and for an isolated route not
+ * before its invocation has completed on the group's thread. Concurrent, identical, requests to a coalesced {@link Route} share a
+ * single invocation of the endpoint through the {@link RequestCoalescer}.
+ * </p>
+ * Endpoints returning a {@link java.util.concurrent.Future} are processed asynchronously by the {@link AsyncDispatcher}.
+ * When the request is dispatched again the outcome of the future is returned instead of invoking the endpoint.
+ * Endpoints of isolated routes are invoked by the thread pool of their isolation group, see {@link Bulkheads}, and are
+ * processed asynchronously in the same way.
  */
 public class DefaultRouteProcessor implements RouteProcessor {
 
     private EndpointInvoker endpointInvoker;
+    private RequestDecompressor decompressor;
+    private RequestCoalescer coalescer;
+    private AsyncDispatcher asyncDispatcher;
+    private Bulkheads bulkheads;
     private final Map<String, Consumer> consumers = new HashMap<String, Consumer>();
 
     /**
@@ -40,18 +65,96 @@ public class DefaultRouteProcessor implements RouteProcessor {
     public DefaultRouteProcessor() {
     }
 
-    @Inject
     public DefaultRouteProcessor(Instance<Consumer> consumers, EndpointInvoker endpointInvoker) {
+        this(consumers, endpointInvoker, new RequestDecompressor());
+    }
+
+    public DefaultRouteProcessor(Instance<Consumer> consumers, EndpointInvoker endpointInvoker,
+            RequestDecompressor decompressor) {
+        this(consumers, endpointInvoker, decompressor, new RequestCoalescer());
+    }
+
+    public DefaultRouteProcessor(Instance<Consumer> consumers, EndpointInvoker endpointInvoker,
+            RequestDecompressor decompressor, RequestCoalescer coalescer) {
+        this(consumers, endpointInvoker, decompressor, coalescer, new AsyncDispatcher());
+    }
+
+    public DefaultRouteProcessor(Instance<Consumer> consumers, EndpointInvoker endpointInvoker,
+            RequestDecompressor decompressor, RequestCoalescer coalescer, AsyncDispatcher asyncDispatcher) {
+        this(consumers, endpointInvoker, decompressor, coalescer, asyncDispatcher, new Bulkheads());
+    }
+
+    @Inject
+    public DefaultRouteProcessor(Instance<Consumer> consumers, EndpointInvoker endpointInvoker,
+            RequestDecompressor decompressor, RequestCoalescer coalescer, AsyncDispatcher asyncDispatcher,
+            Bulkheads bulkheads) {
         this.endpointInvoker = endpointInvoker;
+        this.decompressor = decompressor;
+        this.coalescer = coalescer;
+        this.asyncDispatcher = asyncDispatcher;
+        this.bulkheads = bulkheads;
         for (Consumer consumer : consumers) {
             this.consumers.put(consumer.mediaType(), consumer);
         }
     }
 
     @Override
-    public InvocationResult process(RouteContext routeContext) throws Exception {
-        final Map<String, Object> arguments = extractArguments(routeContext, consumers);
-        return new InvocationResult(endpointInvoker.invoke(routeContext, arguments.values().toArray()), routeContext);
+    public InvocationResult process(final RouteContext routeContext) throws Exception {
+        final Optional<AsyncResult> resumed = asyncDispatcher.resumed(routeContext.getRequest());
+        if (resumed.isPresent()) {
+            return new InvocationResult(asyncDispatcher.handle(routeContext, resumed.get().get()), routeContext);
+        }
+        final Optional<DecompressingRequest> decompressing = decompressor.decompress(routeContext.getRequest());
+        if (!decompressing.isPresent()) {
+            final Object[] arguments = extractArgumentValues(routeContext, consumers);
+            return new InvocationResult(invoke(routeContext, arguments), routeContext);
+        }
+        final RouteContext decompressingContext = new RouteContext(routeContext.getRoute(),
+                routeContext.getRequestPath(), routeContext.getPathParameters(), decompressing.get(),
+                routeContext.getResponse(), routeContext.getRoutes());
+        boolean releasedOnCompletion = false;
+        try {
+            final Object[] arguments = extractArgumentValues(decompressingContext, consumers);
+            if (routeContext.getRoute().getIsolationGroup() == null) {
+                return new InvocationResult(invoke(routeContext, arguments), routeContext);
+            }
+            final ListenableFuture<Object> invocation = submit(routeContext, arguments);
+            invocation.addListener(new Runnable() {
+                @Override
+                public void run() {
+                    ControllerInstances.releaseWhenFinished(routeContext.getRequest(), decompressing.get());
+                }
+            }, MoreExecutors.sameThreadExecutor());
+            releasedOnCompletion = true;
+            return new InvocationResult(asyncDispatcher.handle(routeContext, invocation), routeContext);
+        } finally {
+            if (!releasedOnCompletion) {
+                ControllerInstances.releaseWhenFinished(routeContext.getRequest(), decompressing.get());
+            }
+        }
+    }
+
+    private Object invoke(final RouteContext routeContext, final Object[] arguments) throws Exception {
+        if (routeContext.getRoute().getIsolationGroup() == null) {
+            return asyncDispatcher.handle(routeContext, invokeEndpoint(routeContext, arguments));
+        }
+        return asyncDispatcher.handle(routeContext, submit(routeContext, arguments));
+    }
+
+    private ListenableFuture<Object> submit(final RouteContext routeContext, final Object[] arguments) {
+        return bulkheads.submit(routeContext, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return invokeEndpoint(routeContext, arguments);
+            }
+        });
+    }
+
+    private Object invokeEndpoint(final RouteContext routeContext, final Object[] arguments) throws Exception {
+        if (routeContext.getRoute().isCoalesced()) {
+            return coalescer.invoke(routeContext, arguments, endpointInvoker);
+        }
+        return endpointInvoker.invoke(routeContext, arguments);
     }
 
 }
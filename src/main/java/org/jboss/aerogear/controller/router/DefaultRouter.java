@@ -21,9 +21,8 @@ import static org.jboss.aerogear.controller.util.RequestUtils.extractMethod;
 import static org.jboss.aerogear.controller.util.RequestUtils.extractPath;
 import static org.jboss.aerogear.controller.util.RequestUtils.extractAcceptHeader;
 
-import java.util.Collections;
-
 import javax.enterprise.inject.Instance;
+import javax.enterprise.inject.spi.BeanManager;
 import javax.inject.Inject;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -31,7 +30,8 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.jboss.aerogear.controller.log.ExceptionBundle;
-import org.jboss.aerogear.controller.util.RequestUtils;
+
+import com.google.common.base.Optional;
 
 /**
  * Default implementation of {@link Router}. 
@@ -43,38 +43,109 @@ import org.jboss.aerogear.controller.util.RequestUtils;
  * The CDI implementation will scan for an instance of {@link RoutingModule} upon deployment, and its<br>
  * {@link RoutingModule#build()} method will be called to assemble the routes configured for this application.<br>
  * To simplify this process {@link AbstractRoutingModule} is provided, please refer its javadoc for sample usage.
+ * 
+ * <h3>RouteCacheConfiguration</h3> 
+ * Resolved routes are cached by a {@link RouteCache}. Its size can be configured by producing a<br>
+ * {@link RouteCacheConfiguration}, see {@link RouteCacheConfig}.
+ * 
+ * <h3>ControllerFactory</h3> 
+ * The CDI beans of the target endpoint classes are resolved by the {@link ControllerFactory} when the router is<br>
+ * created, instead of on each request.
+ * 
+ * <h3>Routes event</h3> 
+ * Once the routes have been built they are fired as a CDI event, so that beans can prepare for them by observing<br>
+ * {@link Routes}. For example, {@link org.jboss.aerogear.controller.router.rest.JsonCodec} creates its readers and<br>
+ * writers for the entity and return types of the routes.
  */
 public class DefaultRouter implements Router {
 
     private Routes routes;
+    private RouteCache routeCache;
     private RouteProcessor routeProcessor;
 
     public DefaultRouter() {
     }
 
-    @Inject
     public DefaultRouter(Instance<RoutingModule> instance, RouteProcessor routeProcessor) {
+        this(instance, routeProcessor, RouteCacheConfig.defaultConfig());
+    }
+
+    @Inject
+    public DefaultRouter(Instance<RoutingModule> instance, RouteProcessor routeProcessor,
+            Instance<RouteCacheConfiguration> routeCacheConfigInstance, ControllerFactory controllerFactory,
+            BeanManager beanManager) {
+        this(instance, routeProcessor, routeCacheConfigInstance.isUnsatisfied() ? RouteCacheConfig.defaultConfig()
+                : routeCacheConfigInstance.get());
+        controllerFactory.prepare(routes.getTargetClasses(), beanManager);
+        beanManager.fireEvent(routes);
+    }
+
+    private DefaultRouter(Instance<RoutingModule> instance, RouteProcessor routeProcessor,
+            RouteCacheConfiguration routeCacheConfig) {
         if (instance.isUnsatisfied()) {
             throw ExceptionBundle.MESSAGES.noRoutesAvailable();
         }
         this.routes = instance.get().build();
+        this.routeCache = new RouteCache(routes, routeCacheConfig);
         this.routeProcessor = routeProcessor;
     }
 
+    /**
+     * Determines if there is a {@link Route} for the passed-in request. 
+     * </p>
+     * If a route is found the resulting {@link RouteMatch} is stored as a request attribute, named 
+     * {@link RouteMatch#ATTRIBUTE_NAME}, which will be picked up by {@link #dispatch} so that the request only has to be 
+     * resolved once.
+     */
     @Override
     public boolean hasRouteFor(HttpServletRequest request) {
-        return routes.hasRouteFor(extractMethod(request), extractPath(request), extractAcceptHeader(request));
+        final Optional<RouteMatch> routeMatch = match(request);
+        if (routeMatch.isPresent()) {
+            request.setAttribute(RouteMatch.ATTRIBUTE_NAME, routeMatch.get());
+            return true;
+        }
+        return false;
     }
 
     @Override
     public void dispatch(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException {
+        final ControllerInstances controllerInstances = ControllerInstances.attach(request);
         try {
-            String requestPath = RequestUtils.extractPath(request);
-            Route route = routes.routeFor(extractMethod(request), requestPath, extractAcceptHeader(request));
-            routeProcessor.process(new RouteContext(route, requestPath, request, response, routes));
+            final RouteMatch routeMatch = routeMatch(request);
+            routeProcessor.process(new RouteContext(routeMatch.getRoute(), routeMatch.getRequestPath(),
+                    routeMatch.getPathParameters(), request, response, routes));
         } catch (Exception e) {
             throw new ServletException(e.getMessage(), e);
+        } finally {
+            controllerInstances.dispatched(request);
+        }
+    }
+
+    private RouteMatch routeMatch(final HttpServletRequest request) {
+        final RouteMatch routeMatch = (RouteMatch) request.getAttribute(RouteMatch.ATTRIBUTE_NAME);
+        if (routeMatch != null) {
+            request.removeAttribute(RouteMatch.ATTRIBUTE_NAME);
+            return routeMatch;
         }
+        final Optional<RouteMatch> match = match(request);
+        if (!match.isPresent()) {
+            throw ExceptionBundle.MESSAGES.routeNotFound(extractMethod(request), extractPath(request),
+                    extractAcceptHeader(request));
+        }
+        return match.get();
+    }
+
+    private Optional<RouteMatch> match(final HttpServletRequest request) {
+        return routeCache.match(request);
+    }
+
+    /**
+     * Returns the {@link RouteCache} used to resolve requests, which can be queried for its hit rate.
+     * 
+     * @return {@link RouteCache} the cache of resolved routes.
+     */
+    public RouteCache getRouteCache() {
+        return routeCache;
     }
 
 }
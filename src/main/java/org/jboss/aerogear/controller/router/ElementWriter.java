@@ -0,0 +1,54 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+/**
+ * An ElementWriter writes the body of a streamed response one element at a time.
+ * </p>
+ * ElementWriters are opened by a {@link StreamingResponder}, and are only used by one thread at a time.
+ */
+public interface ElementWriter {
+
+    /**
+     * Writes a single element to the response body.
+     * 
+     * @param element the element to write, may be {@code null}.
+     * @throws Exception if the element could not be written, for example because the client went away.
+     */
+    void write(Object element) throws Exception;
+
+    /**
+     * Sends the elements written so far to the client. Called when the next element is not available yet.
+     * 
+     * @throws Exception if the response could not be flushed.
+     */
+    void flush() throws Exception;
+
+    /**
+     * Completes the response body after the last element has been written.
+     * 
+     * @throws Exception if the response body could not be completed.
+     */
+    void close() throws Exception;
+
+    /**
+     * Abandons the response body after a failure, releasing any resources held without completing it.
+     */
+    void abort();
+
+}
@@ -21,6 +21,13 @@ import javax.inject.Inject;
 
 /**
  * EndpointInvoker is responsible for invoking target endpoint methods in AeroGear Controller.
+ * </p>
+ * The target methods are invoked through the {@link MethodInvoker} bound to each {@link Route}, which is also used for
+ * error routes and paginated routes as they are invoked through this class.
+ * </p>
+ * The target endpoint instance is obtained from the {@link ControllerFactory} and released once the request has
+ * finished, see {@link ControllerInstances}, so that {@code @Dependent} endpoints are destroyed after their result has
+ * been written.
  */
 public class EndpointInvoker {
 
@@ -43,11 +50,12 @@ public class EndpointInvoker {
      */
     public Object invoke(final RouteContext routeContext, final Object[] args) throws Exception {
         final Route route = routeContext.getRoute();
-        return route.getTargetMethod().invoke(getController(route), args);
-    }
-
-    private Object getController(Route route) {
-        return controllerFactory.createController(route.getTargetClass(), beanManager);
+        final ControllerInstance controller = controllerFactory.createController(route.getTargetClass(), beanManager);
+        try {
+            return route.getTargetInvoker().invoke(controller.get(), args);
+        } finally {
+            ControllerInstances.releaseWhenFinished(routeContext.getRequest(), controller);
+        }
     }
 
 }
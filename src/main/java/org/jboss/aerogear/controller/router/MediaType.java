@@ -18,6 +18,7 @@
 package org.jboss.aerogear.controller.router;
 
 import org.jboss.aerogear.controller.router.rest.JsonResponder;
+import org.jboss.aerogear.controller.router.rest.SmileResponder;
 import org.jboss.aerogear.controller.view.HtmlViewResponder;
 import org.jboss.aerogear.controller.view.JspViewResponder;
 
@@ -26,6 +27,7 @@ public class MediaType {
     public static final MediaType HTML = new MediaType("text/html", HtmlViewResponder.class);
     public static final MediaType JSP = new MediaType(HTML.getType(), JspViewResponder.class);
     public static final MediaType JSON = new MediaType("application/json", JsonResponder.class);
+    public static final MediaType SMILE = new MediaType("application/x-jackson-smile", SmileResponder.class);
 
     public static final String ANY = "*/*";
 
@@ -0,0 +1,105 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import net.sf.cglib.reflect.FastClass;
+import net.sf.cglib.reflect.FastMethod;
+
+/**
+ * MethodInvoker invokes the target method of a {@link Route}.
+ * </p>
+ * An invoker is bound once, when the Route is created. For public methods of public classes the invoker uses a cglib
+ * generated {@link FastClass}, which calls the method directly instead of going through {@link Method#invoke}. For any
+ * other method, or if the class cannot be generated, it falls back to reflection.
+ * </p>
+ * Just like reflection, an exception thrown by the target method is wrapped in an {@link InvocationTargetException}.
+ */
+public abstract class MethodInvoker {
+
+    /**
+     * Creates a MethodInvoker for the passed-in method.
+     * 
+     * @param method the method to be invoked.
+     * @return {@link MethodInvoker} that invokes the method.
+     */
+    public static MethodInvoker of(final Method method) {
+        if (Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            try {
+                return new FastMethodInvoker(FastClass.create(method.getDeclaringClass()).getMethod(method));
+            } catch (final RuntimeException e) {
+                return new ReflectiveMethodInvoker(method);
+            }
+        }
+        return new ReflectiveMethodInvoker(method);
+    }
+
+    /**
+     * Invokes the method on the passed-in target.
+     * 
+     * @param target the object to invoke the method on.
+     * @param args the arguments to the method.
+     * @return {@code Object} the value returned by the method, or {@code null} if the method is void.
+     * @throws InvocationTargetException if the method threw an exception.
+     * @throws IllegalAccessException if the method cannot be accessed reflectively.
+     */
+    public abstract Object invoke(Object target, Object[] args) throws InvocationTargetException, IllegalAccessException;
+
+    private static final class FastMethodInvoker extends MethodInvoker {
+
+        private final FastMethod method;
+
+        FastMethodInvoker(final FastMethod method) {
+            this.method = method;
+        }
+
+        @Override
+        public Object invoke(final Object target, final Object[] args) throws InvocationTargetException {
+            return method.invoke(target, args);
+        }
+
+        @Override
+        public String toString() {
+            return "FastMethodInvoker[method=" + method.getJavaMethod() + "]";
+        }
+    }
+
+    private static final class ReflectiveMethodInvoker extends MethodInvoker {
+
+        private final Method method;
+
+        ReflectiveMethodInvoker(final Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public Object invoke(final Object target, final Object[] args) throws InvocationTargetException,
+                IllegalAccessException {
+            return method.invoke(target, args);
+        }
+
+        @Override
+        public String toString() {
+            return "ReflectiveMethodInvoker[method=" + method + "]";
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import com.google.common.base.Optional;
+
+/**
+ * PathParameters are the placeholder values of a request path, bound when the request was matched against a
+ * {@link PathTemplate}.
+ * </p>
+ * Only the start and end index of each value is recorded, the value itself is extracted from the request path when it
+ * is asked for.
+ */
+public final class PathParameters {
+
+    /**
+     * PathParameters that contain no values.
+     */
+    public static final PathParameters EMPTY = new PathParameters(null, null, null);
+
+    private final PathTemplate template;
+    private final String path;
+    private final int[] spans;
+
+    PathParameters(final PathTemplate template, final String path, final int[] spans) {
+        this.template = template;
+        this.path = path;
+        this.spans = spans;
+    }
+
+    /**
+     * Returns the value of the named path parameter.
+     *
+     * @param name the name of the placeholder, without curly braces.
+     * @return {@code Optional<String>} the value from the request path, or absent if there is no such placeholder.
+     */
+    public Optional<String> get(final String name) {
+        final int index = indexOf(name);
+        return index == -1 ? Optional.<String> absent() : Optional.of(path.substring(spans[index * 2], spans[index * 2 + 1]));
+    }
+
+    /**
+     * Determines if the named path parameter exists.
+     *
+     * @param name the name of the placeholder, without curly braces.
+     * @return {@code true} if a value is bound for the named placeholder.
+     */
+    public boolean contains(final String name) {
+        return indexOf(name) != -1;
+    }
+
+    private int indexOf(final String name) {
+        if (template != null) {
+            for (int i = 0; i < template.size(); i++) {
+                if (name.equals(template.placeholderName(i))) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "PathParameters[template=" + template + ", path=" + path + "]";
+    }
+
+}
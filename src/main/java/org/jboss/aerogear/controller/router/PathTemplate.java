@@ -0,0 +1,187 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PathTemplate is the precompiled form of a route path, for example '/cars/{color}/{brand}'.
+ * </p>
+ * The template is split into its segments once, when the owning {@link Route} is created. Matching a request path
+ * scans the path by character index and compares it against those segments in place, so no regular expression is
+ * evaluated and nothing is allocated per match.
+ */
+public final class PathTemplate {
+
+    private final String template;
+    private final String[] segments;
+    private final String[] placeholders;
+
+    /**
+     * Sole constructor.
+     *
+     * @param template the route path, which may contain placeholders of the form '{name}'.
+     */
+    public PathTemplate(final String template) {
+        this.template = template;
+        final List<String> parsed = new ArrayList<String>();
+        final int length = template.length();
+        for (int start = nextSegment(template, 0); start < length; start = nextSegment(template, segmentEnd(template, start))) {
+            parsed.add(template.substring(start, segmentEnd(template, start)));
+        }
+        segments = parsed.toArray(new String[parsed.size()]);
+        placeholders = new String[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            final String segment = segments[i];
+            if (segment.charAt(0) == '{') {
+                placeholders[i] = segment.substring(1, segment.length() - 1);
+            }
+        }
+    }
+
+    /**
+     * Returns the template that this PathTemplate was compiled from.
+     *
+     * @return {@code String} the template path.
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Returns the number of segments in this template.
+     *
+     * @return {@code int} the number of segments.
+     */
+    public int size() {
+        return segments.length;
+    }
+
+    /**
+     * Returns the segment at the specified index, as it appears in the template.
+     *
+     * @param index the index of the segment.
+     * @return {@code String} the segment, including the curly braces for placeholders.
+     */
+    public String segment(final int index) {
+        return segments[index];
+    }
+
+    /**
+     * Determines if the segment at the specified index is a placeholder.
+     *
+     * @param index the index of the segment.
+     * @return {@code true} if the segment is a placeholder, for example '{id}'.
+     */
+    public boolean isPlaceholder(final int index) {
+        return placeholders[index] != null;
+    }
+
+    /**
+     * Returns the name of the placeholder at the specified index.
+     *
+     * @param index the index of the segment.
+     * @return {@code String} the placeholder name without the curly braces, or {@code null} if the segment is static.
+     */
+    public String placeholderName(final int index) {
+        return placeholders[index];
+    }
+
+    /**
+     * Determines if the passed-in request path matches this template. Empty segments, for example caused by a
+     * trailing slash, are ignored.
+     *
+     * @param path the request path.
+     * @return {@code true} if the path has the same number of segments as this template and all static segments
+     *         are equal.
+     */
+    public boolean matches(final String path) {
+        return scan(path, null);
+    }
+
+    /**
+     * Binds the placeholders of this template to the values of the passed-in request path.
+     *
+     * @param path the request path.
+     * @return {@link PathParameters} holding the position of each placeholder value in the path, or
+     *         {@link PathParameters#EMPTY} if the path does not match this template.
+     */
+    public PathParameters bind(final String path) {
+        final int[] spans = new int[segments.length * 2];
+        return scan(path, spans) ? new PathParameters(this, path, spans) : PathParameters.EMPTY;
+    }
+
+    /*
+     * Compares the path against the segments of this template and, if 'spans' is not null, records the start and
+     * end index of every segment in it.
+     */
+    private boolean scan(final String path, final int[] spans) {
+        final int length = path.length();
+        int start = nextSegment(path, 0);
+        for (int i = 0; i < segments.length; i++) {
+            if (start == length) {
+                return false;
+            }
+            final int end = segmentEnd(path, start);
+            if (placeholders[i] == null && !regionEquals(segments[i], path, start, end)) {
+                return false;
+            }
+            if (spans != null) {
+                spans[i * 2] = start;
+                spans[i * 2 + 1] = end;
+            }
+            start = nextSegment(path, end);
+        }
+        return start == length;
+    }
+
+    @Override
+    public String toString() {
+        return "PathTemplate[template=" + template + "]";
+    }
+
+    /**
+     * Returns the index of the first character of the next non-empty segment, or the length of the path if there are
+     * no more segments.
+     */
+    static int nextSegment(final String path, final int from) {
+        final int length = path.length();
+        int i = from;
+        while (i < length && path.charAt(i) == '/') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the index just past the last character of the segment starting at 'start'.
+     */
+    static int segmentEnd(final String path, final int start) {
+        final int end = path.indexOf('/', start);
+        return end == -1 ? path.length() : end;
+    }
+
+    /**
+     * Determines if the segment equals the characters of the path between 'start' and 'end'.
+     */
+    static boolean regionEquals(final String segment, final String path, final int start, final int end) {
+        return segment.length() == end - start && segment.regionMatches(0, path, start, end - start);
+    }
+
+}
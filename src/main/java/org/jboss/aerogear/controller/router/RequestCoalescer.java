@@ -0,0 +1,218 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+import org.jboss.aerogear.controller.router.async.ElementStream;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+
+/**
+ * RequestCoalescer lets concurrent, identical, requests to a {@link Route} declared with
+ * {@link RouteBuilder.TargetEndpoint#coalesced()} share a single invocation of the route's endpoint.
+ * </p>
+ * The first request, the leader, invokes the endpoint through the {@link EndpointInvoker}. Requests that arrive while it
+ * is in flight and have the same route, bound arguments and negotiated {@link MediaType} wait for the leader and get its
+ * result, or its exception. The invocation is forgotten as soon as it completes, so this is not a cache.
+ * </p>
+ * Only GET and HEAD requests are coalesced. A result that can only be consumed once, an {@link Iterator}, an
+ * {@link Iterable} that is not a {@link Collection} or an {@link ElementStream}, is not shared: waiting requests
+ * invoke the endpoint themselves.
+ * </p>
+ * Waiting requests wait for at most the route's {@link Route#getAsyncTimeout() timeout}, if one is configured, and
+ * then fail with an {@link org.jboss.aerogear.controller.router.async.AsyncTimeoutException} instead of piling up
+ * behind a leader that does not complete.
+ */
+@ApplicationScoped
+public class RequestCoalescer {
+
+    private final Responders responders;
+    private final ConcurrentMap<Key, Flight> flights = new ConcurrentHashMap<Key, Flight>();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * Constructs a RequestCoalescer that keys requests by their raw 'Accept' header instead of the negotiated media type.
+     * Also required by CDI so that it can generate proxies for instances of this class.
+     */
+    public RequestCoalescer() {
+        this(null);
+    }
+
+    @Inject
+    public RequestCoalescer(final Responders responders) {
+        this.responders = responders;
+    }
+
+    /**
+     * Invokes the endpoint of the passed-in route, or waits for the identical invocation that is in flight.
+     * 
+     * @param routeContext the {@link RouteContext} of the current request.
+     * @param arguments the arguments bound for the endpoint.
+     * @param endpointInvoker the {@link EndpointInvoker} used to invoke the endpoint.
+     * @return {@code Object} the result of the endpoint.
+     * @throws Exception if the endpoint threw an exception, or the leader did not complete within the route's timeout.
+     */
+    public Object invoke(final RouteContext routeContext, final Object[] arguments, final EndpointInvoker endpointInvoker)
+            throws Exception {
+        if (!isCoalescable(routeContext)) {
+            return endpointInvoker.invoke(routeContext, arguments);
+        }
+        final Key key = new Key(routeContext.getRoute(), arguments, mediaType(routeContext));
+        final Flight flight = new Flight();
+        final Flight inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            coalescedCount.incrementAndGet();
+            return inFlight.await(routeContext) ? inFlight.result() : endpointInvoker.invoke(routeContext, arguments);
+        }
+        try {
+            final Object result = endpointInvoker.invoke(routeContext, arguments);
+            flight.complete(result);
+            return result;
+        } catch (final Throwable t) {
+            flight.fail(t);
+            Throwables.propagateIfPossible(t, Exception.class);
+            throw new AeroGearException(t);
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Returns the number of requests that waited for the invocation of an identical request.
+     * 
+     * @return {@code long} the number of coalesced requests.
+     */
+    public long coalescedCount() {
+        return coalescedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "RequestCoalescer[coalescedCount=" + coalescedCount + ", inFlight=" + flights.size() + "]";
+    }
+
+    private static boolean isCoalescable(final RouteContext routeContext) {
+        final String method = routeContext.getRequest().getMethod();
+        return RequestMethod.GET.toString().equalsIgnoreCase(method) || RequestMethod.HEAD.toString().equalsIgnoreCase(method);
+    }
+
+    private Object mediaType(final RouteContext routeContext) {
+        if (responders != null) {
+            final Optional<MediaType> mediaType = responders.negotiate(routeContext);
+            return mediaType.isPresent() ? mediaType.get() : null;
+        }
+        return routeContext.getRequest().getHeader("Accept");
+    }
+
+    private static boolean isShareable(final Object result) {
+        return !(result instanceof Iterator) && !(result instanceof Iterable && !(result instanceof Collection))
+                && !(result instanceof ElementStream);
+    }
+
+    /**
+     * An invocation in flight. The result is published by the leader before the latch is released.
+     */
+    private static final class Flight {
+
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Object result;
+        private volatile Throwable failure;
+        private volatile boolean shareable;
+
+        void complete(final Object result) {
+            this.result = result;
+            this.shareable = isShareable(result);
+            done.countDown();
+        }
+
+        void fail(final Throwable failure) {
+            this.failure = failure;
+            this.shareable = true;
+            done.countDown();
+        }
+
+        /*
+         * Returns false if the leader's result cannot be shared. A null result can be shared.
+         */
+        boolean await(final RouteContext routeContext) throws Exception {
+            final long timeout = routeContext.getRoute().getAsyncTimeout();
+            if (timeout <= 0) {
+                done.await();
+            } else if (!done.await(timeout, TimeUnit.MILLISECONDS)) {
+                throw ExceptionBundle.MESSAGES.asyncTimeout(routeContext.getRequestPath(), timeout);
+            }
+            if (failure != null) {
+                Throwables.propagateIfPossible(failure, Exception.class);
+                throw new AeroGearException(failure);
+            }
+            return shareable;
+        }
+
+        Object result() {
+            return result;
+        }
+    }
+
+    private static final class Key {
+
+        private final Route route;
+        private final Object[] arguments;
+        private final Object mediaType;
+        private final int hashCode;
+
+        Key(final Route route, final Object[] arguments, final Object mediaType) {
+            this.route = route;
+            this.arguments = arguments;
+            this.mediaType = mediaType;
+            this.hashCode = 31 * (31 * System.identityHashCode(route) + Arrays.deepHashCode(arguments))
+                    + (mediaType == null ? 0 : mediaType.hashCode());
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return route == other.route && Arrays.deepEquals(arguments, other.arguments)
+                    && (mediaType == null ? other.mediaType == null : mediaType.equals(other.mediaType));
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+
+import com.google.common.base.Optional;
+
+/**
+ * RequestSnapshot gives the parameter binders of a route indexed access to the parameters and cookies of the current
+ * request.
+ * </p>
+ * The parameter map and the cookie index are each built at most once per request, and only when they are first
+ * needed, so a route with several cookie parameters no longer scans the cookie array once per parameter.
+ * A RequestSnapshot is obtained from {@link RouteContext#getRequestSnapshot()}.
+ */
+public final class RequestSnapshot {
+
+    private final HttpServletRequest request;
+    private Map<String, String[]> parameters;
+    private Map<String, String> cookies;
+
+    /**
+     * Sole constructor.
+     * 
+     * @param request the {@link HttpServletRequest} to take values from.
+     */
+    public RequestSnapshot(final HttpServletRequest request) {
+        this.request = request;
+    }
+
+    /**
+     * Returns the query and form parameters of the request.
+     * 
+     * @return {@code Map<String, String[]>} the parameter map of the request, never {@code null}.
+     */
+    public Map<String, String[]> getParameterMap() {
+        if (parameters == null) {
+            final Map<String, String[]> map = request.getParameterMap();
+            parameters = map == null ? Collections.<String, String[]> emptyMap() : map;
+        }
+        return parameters;
+    }
+
+    /**
+     * Returns the value of the cookie with the passed-in name. If the request contains more than one cookie with that
+     * name, the first one is returned.
+     * 
+     * @param name the name of the cookie.
+     * @return {@code Optional<String>} the value of the cookie, or an absent Optional if there is no such cookie.
+     */
+    public Optional<String> getCookie(final String name) {
+        if (cookies == null) {
+            cookies = indexCookies(request.getCookies());
+        }
+        return Optional.fromNullable(cookies.get(name));
+    }
+
+    private static Map<String, String> indexCookies(final Cookie[] cookies) {
+        if (cookies == null || cookies.length == 0) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> map = new HashMap<String, String>(cookies.length * 2);
+        for (Cookie cookie : cookies) {
+            if (!map.containsKey(cookie.getName())) {
+                map.put(cookie.getName(), cookie.getValue());
+            }
+        }
+        return map;
+    }
+
+}
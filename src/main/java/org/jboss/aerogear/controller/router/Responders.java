@@ -17,15 +17,19 @@
 
 package org.jboss.aerogear.controller.router;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
 import org.jboss.aerogear.controller.log.ExceptionBundle;
-import org.jboss.aerogear.controller.util.RequestUtils;
+import org.jboss.aerogear.controller.router.async.ElementStream;
+import org.jboss.aerogear.controller.router.async.ElementStreams;
+import org.jboss.aerogear.controller.util.AcceptHeader;
 
 import com.google.common.base.Optional;
 
@@ -37,6 +41,7 @@ import com.google.common.base.Optional;
 public class Responders {
 
     private final Map<MediaType, Responder> responders = new LinkedHashMap<MediaType, Responder>();
+    private final ConcurrentMap<Route, ResponderTable> responderTables = new ConcurrentHashMap<Route, ResponderTable>();
 
     @Inject
     public Responders(final Instance<Responder> responders) {
@@ -52,43 +57,74 @@ public class Responders {
      * the media types that the Route is capable of producing ({@link Route#produces()}) <br>
      * If no match is found for the values in the Accept header, or if the Accept header was empty or "*&#47;*" then any
      * Responder that accepts "*&#47;*" will be used to respond.
+     * </p>
+     * The media ranges of the Accept header are tried in order of their quality values. The Responders of each Route are
+     * looked up once and kept in a table keyed by media range, so negotiating is a map lookup per media range.
+     * </p>
+     * An {@link ElementStream} result is written asynchronously by {@link ElementStreams}, which requires the Responder
+     * to be a {@link StreamingResponder}.
      * 
      * @param routeContext the current route context
      * @param result the result from invoking the Route's target endpoint method.
      * @throws Exception if an exception is thrown while trying to respond.
      */
     public void respond(final RouteContext routeContext, final Object result) throws Exception {
-        final Set<String> acceptHeaders = RequestUtils.extractAcceptHeader(routeContext.getRequest());
-        final Set<MediaType> routeMediaTypes = routeContext.getRoute().produces();
-        final Optional<MediaType> optionalMediaType = RequestUtils.getAcceptedMediaType(acceptHeaders, routeMediaTypes);
-        if (optionalMediaType.isPresent()) {
-            if (respond(optionalMediaType.get(), result, routeContext)) {
-                return;
+        final AcceptHeader acceptHeader = AcceptHeader.parse(routeContext.getRequest().getHeader("Accept"));
+        final Responder responder = select(routeContext.getRoute(), acceptHeader);
+        if (responder != null) {
+            if (result instanceof ElementStream) {
+                stream((ElementStream<?>) result, responder, routeContext);
+            } else {
+                responder.respond(result, routeContext);
             }
+        } else if (!acceptHeader.acceptsAny()) {
+            throw ExceptionBundle.MESSAGES.noResponderForRequestedMediaType(routeContext.getRequest().getHeader("Accept"), this);
         }
+    }
 
-        if (acceptHeaders.contains(MediaType.ANY) || acceptHeaders.isEmpty()) {
-            respondAny(routeMediaTypes, result, routeContext);
-        } else {
-            throw ExceptionBundle.MESSAGES.noResponderForRequestedMediaType(routeContext.getRequest().getHeader("Accept"), this);
+    /**
+     * Returns the media type of the {@link Responder} that {@link #respond(RouteContext, Object)} would use for the
+     * passed-in RouteContext.
+     * 
+     * @param routeContext the current route context.
+     * @return {@code Optional<MediaType>} the negotiated media type, or absent if no Responder matches.
+     */
+    public Optional<MediaType> negotiate(final RouteContext routeContext) {
+        final Responder responder = select(routeContext.getRoute(),
+                AcceptHeader.parse(routeContext.getRequest().getHeader("Accept")));
+        return responder == null ? Optional.<MediaType> absent() : Optional.of(responder.getMediaType());
+    }
+
+    private static void stream(final ElementStream<?> stream, final Responder responder, final RouteContext routeContext)
+            throws Exception {
+        if (!(responder instanceof StreamingResponder)) {
+            stream.cancel();
+            throw ExceptionBundle.MESSAGES.responderCannotStream(responder.getMediaType());
         }
+        ElementStreams.subscribe(stream, (StreamingResponder) responder, routeContext);
     }
 
-    private boolean respond(final MediaType mediaType, final Object result, final RouteContext routeContext) throws Exception {
-        if (responders.containsKey(mediaType)) {
-            responders.get(mediaType).respond(result, routeContext);
-            return true;
+    private Responder select(final Route route, final AcceptHeader acceptHeader) {
+        final ResponderTable responderTable = responderTable(route);
+        for (String mediaRange : acceptHeader.getMediaRanges()) {
+            final Responder responder = responderTable.lookup(mediaRange);
+            if (responder != null) {
+                return responder;
+            }
         }
-        return false;
+        return acceptHeader.acceptsAny() ? responderTable.any : null;
     }
 
-    private void respondAny(final Set<MediaType> mediaTypes, final Object result, final RouteContext routeContext)
-            throws Exception {
-        for (MediaType mediaType : mediaTypes) {
-            if (respond(mediaType, result, routeContext)) {
-                break;
+    private ResponderTable responderTable(final Route route) {
+        ResponderTable responderTable = responderTables.get(route);
+        if (responderTable == null) {
+            responderTable = new ResponderTable(route, responders);
+            final ResponderTable existing = responderTables.putIfAbsent(route, responderTable);
+            if (existing != null) {
+                responderTable = existing;
             }
         }
+        return responderTable;
     }
 
     @Override
@@ -96,4 +132,46 @@ public class Responders {
         return "Responders[" + responders + "]";
     }
 
+    /**
+     * The Responders for the media types that a single Route produces, keyed by the media ranges that select them.
+     */
+    private static final class ResponderTable {
+
+        private final Map<String, Responder> byMediaRange = new HashMap<String, Responder>();
+        private final Responder any;
+
+        ResponderTable(final Route route, final Map<MediaType, Responder> responders) {
+            Responder first = null;
+            for (MediaType mediaType : route.produces()) {
+                final Responder responder = responders.get(mediaType);
+                if (responder == null) {
+                    continue;
+                }
+                if (first == null) {
+                    first = responder;
+                }
+                final String type = mediaType.getType();
+                putIfAbsent(type, responder);
+                final int slash = type.indexOf('/');
+                if (slash != -1) {
+                    putIfAbsent(type.substring(0, slash + 1) + '*', responder);
+                }
+            }
+            any = first;
+            if (any != null) {
+                byMediaRange.put(MediaType.ANY, any);
+            }
+        }
+
+        private void putIfAbsent(final String mediaRange, final Responder responder) {
+            if (!byMediaRange.containsKey(mediaRange)) {
+                byMediaRange.put(mediaRange, responder);
+            }
+        }
+
+        Responder lookup(final String mediaRange) {
+            return byMediaRange.get(mediaRange);
+        }
+    }
+
 }
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.jboss.aerogear.controller.router.parameter.Parameter;
+import org.jboss.aerogear.controller.util.BindingPlan;
 
 /**
  * An object that contains information required to route HTTP requests to a target class's method.
@@ -42,6 +43,13 @@ public interface Route {
      */
     String getPath();
 
+    /**
+     * Gets the precompiled {@link PathTemplate} of this Route's path.
+     * 
+     * @return the path template for this route, or null if no path exists for this Route.
+     */
+    PathTemplate getPathTemplate();
+
     /**
      * Gets the {@link Method} of the target class for this Route.
      * 
@@ -49,6 +57,13 @@ public interface Route {
      */
     Method getTargetMethod();
 
+    /**
+     * Gets the {@link MethodInvoker} bound to the target method of this Route.
+     * 
+     * @return the invoker for the target method.
+     */
+    MethodInvoker getTargetInvoker();
+
     /**
      * Gets the target class for this Route
      * 
@@ -102,6 +117,13 @@ public interface Route {
      */
     boolean canHandle(Throwable throwable);
 
+    /**
+     * Returns the {@link Throwable} types that this Route handles.
+     * 
+     * @return the throwable types this route is an error route for, or an empty set if this is not an error route.
+     */
+    Set<Class<? extends Throwable>> getThrowables();
+
     /**
      * Returns the media types that this Route is capable of serving.
      * 
@@ -116,6 +138,13 @@ public interface Route {
      */
     List<Parameter<?>> getParameters();
 
+    /**
+     * Returns the {@link BindingPlan} compiled from the parameters of this route.
+     * 
+     * @return the {@link BindingPlan} used to bind the arguments of the target method.
+     */
+    BindingPlan getBindingPlan();
+
     /**
      * Returns the media types that this Route is capable of consuming.
      * 
@@ -123,4 +152,54 @@ public interface Route {
      */
     Set<String> consumes();
 
+    /**
+     * Determines if the responses of this Route should be compressed.
+     * 
+     * @return {@code true} if compression was enabled for this route.
+     */
+    boolean isCompressed();
+
+    /**
+     * Determines if the responses of this Route should carry an 'ETag' computed from their body.
+     * 
+     * @return {@code true} if ETags were enabled for this route.
+     */
+    boolean isETagEnabled();
+
+    /**
+     * Returns the time, in milliseconds, that responses of this Route are kept in the response cache.
+     * 
+     * @return {@code long} the time to live of cached responses, or 0 if the responses are not cached.
+     */
+    long getCacheTtl();
+
+    /**
+     * Returns the maximum number of bytes that the cached responses of this Route may use.
+     * 
+     * @return {@code long} the maximum size, or 0 if the configured default applies.
+     */
+    long getCacheMaximumSize();
+
+    /**
+     * Determines if concurrent, identical, requests to this Route share a single invocation of its endpoint.
+     * 
+     * @return {@code true} if request coalescing was enabled for this route.
+     */
+    boolean isCoalesced();
+
+    /**
+     * Returns how long a request may wait for the {@link java.util.concurrent.Future} returned by this Route's endpoint.
+     * 
+     * @return {@code long} the timeout in milliseconds, or {@code 0} if the container's default is used.
+     */
+    long getAsyncTimeout();
+
+    /**
+     * Returns the name of the isolation group whose thread pool invokes this Route's endpoint.
+     * 
+     * @return {@code String} the name of the isolation group, or {@code null} if the endpoint is invoked by the container
+     *         thread.
+     */
+    String getIsolationGroup();
+
 }
@@ -17,6 +17,10 @@
 
 package org.jboss.aerogear.controller.router;
 
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.router.parameter.Converters;
+
 /**
  * RouteBuilder builds a {@link Route} using a fluent API. 
  * </p> 
@@ -104,6 +108,91 @@ public interface RouteBuilder {
          */
         TargetEndpoint produces(MediaType... mediaTypes);
 
+        /**
+         * Specifies that the responses of this endpoint should be compressed, if the client accepts a compressed
+         * response and the body is larger than the configured minimum size.
+         * 
+         * @return {@link TargetEndpoint} to support method chaining.
+         * @see org.jboss.aerogear.controller.router.rest.compression.CompressionConfiguration
+         */
+        TargetEndpoint compressed();
+
+        /**
+         * Specifies that the responses to GET and HEAD requests of this endpoint should carry an 'ETag' computed from
+         * the serialized body, so that a request with a matching 'If-None-Match' header is answered with
+         * '304 Not Modified' and no body.
+         * </p>
+         * Entities implementing {@link org.jboss.aerogear.controller.router.rest.Versioned} always get an ETag derived
+         * from their version, whether or not this was specified.
+         * 
+         * @return {@link TargetEndpoint} to support method chaining.
+         */
+        TargetEndpoint etag();
+
+        /**
+         * Specifies that the responses to GET requests of this endpoint may be served from the server side response
+         * cache for the passed-in duration, without invoking the endpoint.
+         * </p>
+         * Responses are cached per request path, query string, negotiated media type and content encoding. The
+         * memory used by the responses of this route is bounded by
+         * {@link org.jboss.aerogear.controller.router.decorators.cache.ResponseCacheConfiguration#getMaximumRouteSize()}.
+         * Routes that require roles are never cached.
+         * 
+         * @param ttl the time that a response stays cached.
+         * @param unit the {@link TimeUnit} of the ttl.
+         * @return {@link TargetEndpoint} to support method chaining.
+         */
+        TargetEndpoint cached(long ttl, TimeUnit unit);
+
+        /**
+         * Specifies that the responses to GET requests of this endpoint may be served from the server side response
+         * cache, using at most the passed-in number of bytes.
+         * 
+         * @param ttl the time that a response stays cached.
+         * @param unit the {@link TimeUnit} of the ttl.
+         * @param maximumSize the maximum number of bytes that the cached responses of this route may use.
+         * @return {@link TargetEndpoint} to support method chaining.
+         * @see #cached(long, TimeUnit)
+         */
+        TargetEndpoint cached(long ttl, TimeUnit unit, long maximumSize);
+
+        /**
+         * Specifies that concurrent, identical, GET requests to this endpoint should share a single invocation of the
+         * endpoint. Requests are identical if they have the same bound arguments and negotiated media type.
+         * </p>
+         * Nothing is kept once the invocation completes, a request arriving afterwards invokes the endpoint again.
+         * 
+         * @return {@link TargetEndpoint} to support method chaining.
+         * @see RequestCoalescer
+         */
+        TargetEndpoint coalesced();
+
+        /**
+         * Specifies how long a request may wait for the {@link java.util.concurrent.Future} returned by this endpoint.
+         * </p>
+         * Endpoints returning a {@code Future} are processed asynchronously, and once the timeout expires the request
+         * fails with a '503 Service Unavailable'. If no timeout is specified the container's default is used.
+         * 
+         * @param timeout the maximum time to wait for the result of the endpoint.
+         * @param unit the {@link TimeUnit} of the timeout.
+         * @return {@link TargetEndpoint} to support method chaining.
+         */
+        TargetEndpoint asyncTimeout(long timeout, TimeUnit unit);
+
+        /**
+         * Specifies that this endpoint is invoked by the thread pool of the passed-in isolation group, instead of by the
+         * container thread, so that a slow endpoint cannot use up all container threads.
+         * </p>
+         * When the pool and its queue are full, requests are rejected right away with a '503 Service Unavailable'.
+         * Endpoints annotated with {@link org.jboss.aerogear.controller.router.rest.pagination.Paginated} cannot be
+         * isolated.
+         * 
+         * @param group the name of the isolation group, routes with the same name share a thread pool.
+         * @return {@link TargetEndpoint} to support method chaining.
+         * @see org.jboss.aerogear.controller.router.bulkhead.Bulkheads
+         */
+        TargetEndpoint isolated(String group);
+
         /**
          * Specifies the target Class for the {@link Route}.
          * 
@@ -119,4 +208,12 @@ public interface RouteBuilder {
      * @return {@link Route} a Route instance configured by the this builder.
      */
     Route build();
+
+    /**
+     * Builds a {@link Route} using the information gathered from this builder.
+     * 
+     * @param converters the {@link Converters} used to convert the values of the route's request parameters.
+     * @return {@link Route} a Route instance configured by the this builder.
+     */
+    Route build(Converters converters);
 }
@@ -22,6 +22,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.jboss.aerogear.controller.router.parameter.Converters;
+
 /**
  * Concrete implementation of {@link RouteBuilder}.
  * 
@@ -42,6 +44,11 @@ public class RouteBuilderImpl implements RouteBuilder, RouteDescriptorAccessor {
         return new DefaultRoute(routeDescriptor);
     }
 
+    @Override
+    public Route build(final Converters converters) {
+        return new DefaultRoute(routeDescriptor, converters);
+    }
+
     @Override
     public String toString() {
         return "RouteBuilderImpl{" + "routeDescriptor=" + routeDescriptor + '}';
@@ -0,0 +1,200 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.jboss.aerogear.controller.util.RequestUtils.extractMethod;
+import static org.jboss.aerogear.controller.util.RequestUtils.extractPath;
+import static org.jboss.aerogear.controller.util.RequestUtils.parseAcceptHeader;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+
+/**
+ * RouteCache is a bounded, least recently used, cache of the {@link RouteMatch}es resolved by {@link Routes}.
+ * </p>
+ * Entries are keyed by the {@link RequestMethod}, the request path without trailing slashes, and the raw 'Accept'
+ * header, so a repeated request skips both the parsing of the 'Accept' header and the route lookup. Matches of routes
+ * with static paths and of routes with parameterized paths are kept in separate caches, sized by
+ * {@link RouteCacheConfiguration}, so that a parameterized route like '/cars/{id}' cannot evict the hot static entries.
+ * Requests that do not match any route are not cached.
+ */
+public class RouteCache {
+
+    private static final CacheLoader<Key, RouteMatch> RESOLVED_MATCH = new CacheLoader<Key, RouteMatch>() {
+        @Override
+        public RouteMatch load(final Key key) {
+            return key.resolved;
+        }
+    };
+
+    private final Routes routes;
+    private final RouteCacheConfiguration config;
+    private final Cache<Key, RouteMatch> staticMatches;
+    private final Cache<Key, RouteMatch> parameterizedMatches;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Sole constructor.
+     * 
+     * @param routes the {@link Routes} that requests are resolved against.
+     * @param config the {@link RouteCacheConfiguration} that sizes this cache.
+     */
+    public RouteCache(final Routes routes, final RouteCacheConfiguration config) {
+        this.routes = routes;
+        this.config = config;
+        this.staticMatches = CacheBuilder.newBuilder().maximumSize(config.getMaximumStaticEntries()).build(RESOLVED_MATCH);
+        this.parameterizedMatches = CacheBuilder.newBuilder().maximumSize(config.getMaximumParameterizedEntries())
+                .build(RESOLVED_MATCH);
+    }
+
+    /**
+     * Resolves the passed-in request to a {@link RouteMatch}, using a cached match if one exists.
+     * 
+     * @param request the {@link HttpServletRequest} to resolve.
+     * @return {@code Optional<RouteMatch>} containing the match, or an absent Optional if no {@link Route} can serve the
+     *         request.
+     */
+    public Optional<RouteMatch> match(final HttpServletRequest request) {
+        final RequestMethod method = extractMethod(request);
+        final String acceptHeader = request.getHeader("Accept");
+        if (!config.isEnabled()) {
+            return routes.match(method, extractPath(request), parseAcceptHeader(acceptHeader));
+        }
+        final Key key = new Key(method, normalize(extractPath(request)), acceptHeader);
+        RouteMatch routeMatch = staticMatches.asMap().get(key);
+        if (routeMatch == null) {
+            routeMatch = parameterizedMatches.asMap().get(key);
+        }
+        if (routeMatch != null) {
+            hitCount.incrementAndGet();
+            return Optional.of(routeMatch);
+        }
+        missCount.incrementAndGet();
+        final Optional<RouteMatch> resolved = routes.match(method, key.path, parseAcceptHeader(acceptHeader));
+        if (resolved.isPresent()) {
+            key.resolved = resolved.get();
+            if (key.resolved.getRoute().isParameterized()) {
+                parameterizedMatches.getUnchecked(key);
+            } else {
+                staticMatches.getUnchecked(key);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Returns the number of requests that were served from this cache.
+     * 
+     * @return {@code long} the number of cache hits.
+     */
+    public long hitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of requests that had to be resolved by {@link Routes}.
+     * 
+     * @return {@code long} the number of cache misses.
+     */
+    public long missCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the ratio of requests that were served from this cache.
+     * 
+     * @return {@code double} the hit rate, or {@code 1.0} if no requests have been resolved yet.
+     */
+    public double hitRate() {
+        final long hits = hitCount.get();
+        final long total = hits + missCount.get();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    /**
+     * Returns the number of cached matches.
+     * 
+     * @return {@code long} the number of entries in the static and parameterized caches.
+     */
+    public long size() {
+        return staticMatches.size() + parameterizedMatches.size();
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("RouteCache[")
+                .append("config=").append(config)
+                .append(", hitCount=").append(hitCount)
+                .append(", missCount=").append(missCount)
+                .append("]").toString();
+    }
+
+    static String normalize(final String path) {
+        int end = path.length();
+        while (end > 1 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return end == path.length() ? path : path.substring(0, end);
+    }
+
+    /*
+     * Guava's cache only populates entries through its CacheLoader, so the match resolved for a key is handed to
+     * the loader by the key itself. 'resolved' is not part of the key's identity.
+     */
+    private static final class Key {
+
+        private final RequestMethod method;
+        private final String path;
+        private final String acceptHeader;
+        private RouteMatch resolved;
+
+        Key(final RequestMethod method, final String path, final String acceptHeader) {
+            this.method = method;
+            this.path = path;
+            this.acceptHeader = acceptHeader;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return method == other.method && path.equals(other.path) && Objects.equal(acceptHeader, other.acceptHeader);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = method.hashCode();
+            result = 31 * result + path.hashCode();
+            return 31 * result + (acceptHeader == null ? 0 : acceptHeader.hashCode());
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+/**
+ * Concrete implementation of {@link RouteCacheConfiguration}.
+ * </p>
+ * Example of producing a custom configuration:
+ * <pre>
+ * &#64;Produces
+ * public RouteCacheConfiguration routeCacheConfig() {
+ *     return RouteCacheConfig.maximumStaticEntries(500).maximumParameterizedEntries(5000).build();
+ * }
+ * </pre>
+ * 
+ * @see RouteCache
+ */
+public class RouteCacheConfig implements RouteCacheConfiguration {
+
+    private static final int DEFAULT_MAXIMUM_STATIC_ENTRIES = 1000;
+    private static final int DEFAULT_MAXIMUM_PARAMETERIZED_ENTRIES = 1000;
+
+    private final boolean enabled;
+    private final int maximumStaticEntries;
+    private final int maximumParameterizedEntries;
+
+    private RouteCacheConfig(final Builder builder) {
+        this.enabled = builder.enabled;
+        this.maximumStaticEntries = builder.maximumStaticEntries;
+        this.maximumParameterizedEntries = builder.maximumParameterizedEntries;
+    }
+
+    /**
+     * Returns a {@link Builder} with the maximum number of entries for routes with static paths set.
+     * 
+     * @param maximum the maximum number of entries.
+     * @return {@link Builder} to be used to configure and build a {@link RouteCacheConfiguration} instance.
+     */
+    public static Builder maximumStaticEntries(final int maximum) {
+        return new Builder().maximumStaticEntries(maximum);
+    }
+
+    /**
+     * Returns a {@link Builder} with the maximum number of entries for routes with parameterized paths set.
+     * 
+     * @param maximum the maximum number of entries.
+     * @return {@link Builder} to be used to configure and build a {@link RouteCacheConfiguration} instance.
+     */
+    public static Builder maximumParameterizedEntries(final int maximum) {
+        return new Builder().maximumParameterizedEntries(maximum);
+    }
+
+    /**
+     * Returns a {@link RouteCacheConfiguration} which disables the route cache.
+     * 
+     * @return {@link RouteCacheConfiguration} with caching disabled.
+     */
+    public static RouteCacheConfiguration disableRouteCache() {
+        return new Builder().disable();
+    }
+
+    /**
+     * Returns a {@link RouteCacheConfiguration} instance with the default values for all properties.
+     * 
+     * @return {@link RouteCacheConfiguration} with default properties set.
+     */
+    public static RouteCacheConfiguration defaultConfig() {
+        return new Builder().build();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public int getMaximumStaticEntries() {
+        return maximumStaticEntries;
+    }
+
+    @Override
+    public int getMaximumParameterizedEntries() {
+        return maximumParameterizedEntries;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("RouteCacheConfiguration[")
+                .append("enabled=").append(enabled)
+                .append(", maximumStaticEntries=").append(maximumStaticEntries)
+                .append(", maximumParameterizedEntries=").append(maximumParameterizedEntries)
+                .append("]").toString();
+    }
+
+    public static class Builder {
+        private boolean enabled = true;
+        private int maximumStaticEntries = DEFAULT_MAXIMUM_STATIC_ENTRIES;
+        private int maximumParameterizedEntries = DEFAULT_MAXIMUM_PARAMETERIZED_ENTRIES;
+
+        private Builder() {
+        }
+
+        public Builder maximumStaticEntries(final int maximum) {
+            maximumStaticEntries = maximum;
+            return this;
+        }
+
+        public Builder maximumParameterizedEntries(final int maximum) {
+            maximumParameterizedEntries = maximum;
+            return this;
+        }
+
+        private RouteCacheConfiguration disable() {
+            enabled = false;
+            return build();
+        }
+
+        public RouteCacheConfiguration build() {
+            return new RouteCacheConfig(this);
+        }
+    }
+
+}
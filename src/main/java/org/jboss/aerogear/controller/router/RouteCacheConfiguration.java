@@ -0,0 +1,53 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+/**
+ * Configuration for the cache of resolved routes used by {@link DefaultRouter}.
+ * </p>
+ * Routes with a static path and routes with a parameterized path, for example '/cars/{id}', are held in separate caches
+ * so that the many distinct paths served by a parameterized route cannot evict the entries of the static ones.
+ * </p>
+ * To override the default configuration, provide a CDI producer for this type.
+ * 
+ * @see RouteCacheConfig
+ */
+public interface RouteCacheConfiguration {
+
+    /**
+     * Determines if resolved routes should be cached.
+     * 
+     * @return {@code true} if the route cache is enabled.
+     */
+    boolean isEnabled();
+
+    /**
+     * Returns the maximum number of resolved requests for routes with static paths to keep.
+     * 
+     * @return {@code int} the maximum number of entries in the static route cache.
+     */
+    int getMaximumStaticEntries();
+
+    /**
+     * Returns the maximum number of resolved requests for routes with parameterized paths to keep.
+     * 
+     * @return {@code int} the maximum number of entries in the parameterized route cache.
+     */
+    int getMaximumParameterizedEntries();
+
+}
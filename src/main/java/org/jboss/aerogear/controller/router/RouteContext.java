@@ -32,6 +32,8 @@ public class RouteContext {
     private final HttpServletRequest request;
     private final HttpServletResponse response;
     private final Routes routes;
+    private PathParameters pathParameters;
+    private RequestSnapshot requestSnapshot;
 
     /**
      * Constructor.
@@ -48,8 +50,25 @@ public class RouteContext {
 
     public RouteContext(final Route route, final String requestPath, final HttpServletRequest request,
             final HttpServletResponse response, final Routes routes) {
+        this(route, requestPath, null, request, response, routes);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param route the {@link Route}.
+     * @param requestPath the request path minus the context path.
+     * @param pathParameters the {@link PathParameters} bound when the route was matched, or {@code null} to have them
+     *        bound from the request path when first requested.
+     * @param request the {@link HttpServletRequest}.
+     * @param response the {@link HttpServletResponse}.
+     * @param routes the {@link Routes} to enables querying of information about configured routes.
+     */
+    public RouteContext(final Route route, final String requestPath, final PathParameters pathParameters,
+            final HttpServletRequest request, final HttpServletResponse response, final Routes routes) {
         this.route = route;
         this.requestPath = requestPath;
+        this.pathParameters = pathParameters;
         this.request = request;
         this.response = response;
         this.routes = routes;
@@ -73,6 +92,31 @@ public class RouteContext {
         return requestPath;
     }
 
+    /**
+     * Returns the path parameters of the current request.
+     * 
+     * @return {@link PathParameters} the values of the current route's path placeholders.
+     */
+    public PathParameters getPathParameters() {
+        if (pathParameters == null) {
+            final PathTemplate template = route.getPathTemplate();
+            pathParameters = template == null ? PathParameters.EMPTY : template.bind(requestPath);
+        }
+        return pathParameters;
+    }
+
+    /**
+     * Returns the {@link RequestSnapshot} of the current request, which is created when first requested.
+     * 
+     * @return {@link RequestSnapshot} giving indexed access to the parameters and cookies of the current request.
+     */
+    public RequestSnapshot getRequestSnapshot() {
+        if (requestSnapshot == null) {
+            requestSnapshot = new RequestSnapshot(request);
+        }
+        return requestSnapshot;
+    }
+
     /**
      * Returns the current {@link HttpServletRequest}.
      * 
@@ -21,10 +21,15 @@ import static org.jboss.aerogear.controller.router.parameter.Parameter.constant;
 import static org.jboss.aerogear.controller.router.parameter.Parameter.param;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import net.sf.cglib.proxy.Callback;
 import net.sf.cglib.proxy.CallbackFilter;
@@ -33,11 +38,14 @@ import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
 import net.sf.cglib.proxy.NoOp;
 
+import org.jboss.aerogear.controller.log.ExceptionBundle;
 import org.jboss.aerogear.controller.router.RouteBuilder.TargetEndpoint;
 import org.jboss.aerogear.controller.router.parameter.Parameter;
 import org.jboss.aerogear.controller.router.rest.pagination.Paginated;
 import org.jboss.aerogear.controller.util.RequestUtils;
 
+import com.google.common.base.Defaults;
+
 /**
  * Describes/configures a single route in AeroGear controller.
  */
@@ -52,6 +60,13 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
     private final List<Parameter<?>> parameters = new LinkedList<Parameter<?>>();
     private MediaType[] produces;
     private Set<Class<? extends Throwable>> throwables;
+    private boolean compressed;
+    private boolean etag;
+    private long cacheTtl;
+    private long cacheMaximumSize;
+    private boolean coalesced;
+    private long asyncTimeout;
+    private String isolationGroup;
     private final static FinalizeFilter FINALIZE_FILTER = new FinalizeFilter();
 
     public RouteDescriptor() {
@@ -125,7 +140,7 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
             
             final List<Parameter<?>> methodParams = new LinkedList<Parameter<?>>();
             processPaginatedAnnotation(method, methodParams);
-            mergeRequestParamsWithConstants(args, methodParams);
+            mergeRequestParamsWithConstants(method, args, methodParams);
             return null;
         }
         
@@ -135,9 +150,14 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
          * will processed in the same manner as they would have if they had been explicitely specified
          * as method parameter to the target method. They will be extracted from the request just
          * as any other parameter. Later, these values will be available to the PaginationStrategy in use.
+         * The PaginationStrategy needs the results of the endpoint straight away, so the endpoint can neither be
+         * isolated nor return a Future.
          */
         private void processPaginatedAnnotation(Method method, List<Parameter<?>> methodParams) {
             if (method.getAnnotation(Paginated.class) != null) {
+                if (routeDescriptor.getIsolationGroup() != null || Future.class.isAssignableFrom(method.getReturnType())) {
+                    throw ExceptionBundle.MESSAGES.paginatedEndpointMustBeSynchronous(method);
+                }
                 final Paginated paginated = method.getAnnotation(Paginated.class);
                 methodParams.add(param(paginated.offsetParamName(), String.valueOf(paginated.defaultOffset()), String.class));
                 methodParams.add(param(paginated.limitParamName(), String.valueOf(paginated.defaultLimit()), String.class));
@@ -150,13 +170,15 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
          * to the target method. So those parameters have already been added to the underlying route descriptors
          * parameter list. Below, we are combining those params with any constant parameter that were supplied.
          */
-        private void mergeRequestParamsWithConstants(Object[] args, List<Parameter<?>> destination) {
+        private void mergeRequestParamsWithConstants(Method method, Object[] args, List<Parameter<?>> destination) {
             final List<Parameter<?>> requestParams = routeDescriptor.getParameters();
-            final boolean hasRequestParams = !requestParams.isEmpty();
+            final Class<?>[] parameterTypes = method.getParameterTypes();
+            final Type[] genericParameterTypes = method.getGenericParameterTypes();
+            verifyPlaceholders(method, args, requestParams.size());
             for (int i = 0, requestParam = 0; i < args.length; i++ ) {
                 final Object arg = args[i];
-                if (arg == null && hasRequestParams) {
-                    destination.add(requestParams.get(requestParam++));
+                if (requestParam < requestParams.size() && isPlaceholder(arg, parameterTypes[i])) {
+                    destination.add(elementsIfIterator(requestParams.get(requestParam++), genericParameterTypes[i]));
                 } else {
                     if (arg instanceof String) {
                         final String str = (String) arg;
@@ -172,6 +194,53 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
             requestParams.clear();
             requestParams.addAll(destination);
         }
+
+        /*
+         * Entity parameters of type Iterator are read element by element, the element type is taken from the
+         * generic type of the target method's argument.
+         */
+        private static Parameter<?> elementsIfIterator(final Parameter<?> parameter, final Type genericType) {
+            if (parameter.getParameterType() != Parameter.Type.ENTITY || parameter.getType() != Iterator.class) {
+                return parameter;
+            }
+            if (genericType instanceof ParameterizedType) {
+                final Type elementType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+                if (elementType instanceof Class) {
+                    return Parameter.elements((Class<?>) elementType);
+                }
+            }
+            return Parameter.elements(Object.class);
+        }
+
+        /*
+         * A primitive constant equal to its default value looks just like the placeholder returned for a primitive
+         * request parameter. That is only unambiguous if every such argument is a placeholder, that is if there are
+         * no more candidate placeholders than request parameters.
+         */
+        private static void verifyPlaceholders(final Method method, final Object[] args, final int requestParams) {
+            final Class<?>[] parameterTypes = method.getParameterTypes();
+            int placeholders = 0;
+            int firstPrimitive = -1;
+            for (int i = 0; i < args.length; i++) {
+                if (isPlaceholder(args[i], parameterTypes[i])) {
+                    placeholders++;
+                    if (args[i] != null && firstPrimitive < 0) {
+                        firstPrimitive = i;
+                    }
+                }
+            }
+            if (firstPrimitive >= 0 && placeholders > requestParams) {
+                throw ExceptionBundle.MESSAGES.ambiguousPrimitiveArgument(firstPrimitive, method);
+            }
+        }
+
+        /*
+         * The param methods return null, or the default value for primitive types, as a placeholder for the request
+         * parameter that they added.
+         */
+        private static boolean isPlaceholder(final Object arg, final Class<?> parameterType) {
+            return arg == null || parameterType.isPrimitive() && arg.equals(Defaults.defaultValue(parameterType));
+        }
     }
 
     @Override
@@ -203,6 +272,76 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
         return produces;
     }
 
+    @Override
+    public TargetEndpoint compressed() {
+        this.compressed = true;
+        return this;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    @Override
+    public TargetEndpoint etag() {
+        this.etag = true;
+        return this;
+    }
+
+    public boolean isETagEnabled() {
+        return etag;
+    }
+
+    @Override
+    public TargetEndpoint cached(final long ttl, final TimeUnit unit) {
+        return cached(ttl, unit, 0);
+    }
+
+    @Override
+    public TargetEndpoint cached(final long ttl, final TimeUnit unit, final long maximumSize) {
+        this.cacheTtl = unit.toMillis(ttl);
+        this.cacheMaximumSize = maximumSize;
+        return this;
+    }
+
+    public long getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public long getCacheMaximumSize() {
+        return cacheMaximumSize;
+    }
+
+    @Override
+    public TargetEndpoint coalesced() {
+        this.coalesced = true;
+        return this;
+    }
+
+    public boolean isCoalesced() {
+        return coalesced;
+    }
+
+    @Override
+    public TargetEndpoint asyncTimeout(final long timeout, final TimeUnit unit) {
+        this.asyncTimeout = unit.toMillis(timeout);
+        return this;
+    }
+
+    public long getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
+    @Override
+    public TargetEndpoint isolated(final String group) {
+        this.isolationGroup = group;
+        return this;
+    }
+
+    public String getIsolationGroup() {
+        return isolationGroup;
+    }
+
     @Override
     public TargetEndpoint consumes(String... consumes) {
         this.consumes.addAll(Arrays.asList(consumes));
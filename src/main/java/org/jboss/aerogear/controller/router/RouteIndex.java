@@ -0,0 +1,279 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.aerogear.controller.util.RequestUtils;
+
+/**
+ * RouteIndex is a prefix tree built from the paths of a list of {@link Route}s.
+ * </p>
+ * Each level of the tree represents one path segment. Static segments are looked up by name, while a single
+ * placeholder node per level matches any non-empty segment. The routes that end at a node are held by a
+ * {@link FilterNode} which applies the {@link RequestMethod} and 'Accept' header checks. A lookup therefore only
+ * costs the depth of the requested path instead of the number of configured routes.
+ * </p>
+ * The requested path is scanned by character index and static children are found by a binary search over the
+ * path region, so a lookup does not allocate.
+ * </p>
+ * The order in which the routes were passed in is recorded so that, just like a linear scan, the first route that
+ * matches wins.
+ */
+final class RouteIndex {
+
+    private static final Comparator<StaticNode> SEGMENT_ORDER = new Comparator<StaticNode>() {
+        @Override
+        public int compare(final StaticNode first, final StaticNode second) {
+            return first.segment.compareTo(second.segment);
+        }
+    };
+
+    private final StaticNode root = new StaticNode("");
+
+    RouteIndex(final List<Route> routes) {
+        for (int i = 0; i < routes.size(); i++) {
+            final Route route = routes.get(i);
+            if (route.getPathTemplate() != null) {
+                add(new RouteEntry(i, route));
+            }
+        }
+        root.freeze();
+    }
+
+    private void add(final RouteEntry entry) {
+        final PathTemplate template = entry.route.getPathTemplate();
+        Node node = root;
+        node.recordOrder(entry.order);
+        for (int i = 0; i < template.size(); i++) {
+            node = template.isPlaceholder(i) ? node.placeholderChild() : node.staticChild(template.segment(i));
+            node.recordOrder(entry.order);
+        }
+        node.filterNode().add(entry);
+    }
+
+    /**
+     * Finds the first {@link Route}, in the order the routes were added, that can handle the passed-in
+     * {@link RequestMethod}/path/accept headers combination.
+     *
+     * @param method the HTTP {@link RequestMethod}.
+     * @param path the request path.
+     * @param acceptHeaders the accept headers provided, or an empty set if none were provided.
+     * @return {@code Route} the matching route, or {@code null} if no route matches.
+     */
+    Route lookup(final RequestMethod method, final String path, final Set<String> acceptHeaders) {
+        final RouteEntry entry = root.lookup(path, PathTemplate.nextSegment(path, 0), method, acceptHeaders, null);
+        return entry == null ? null : entry.route;
+    }
+
+    /**
+     * A node in the tree representing a single path segment.
+     */
+    private abstract static class Node {
+
+        private Map<String, StaticNode> staticChildren;
+        private StaticNode[] sortedChildren;
+        private PlaceholderNode placeholderChild;
+        private FilterNode filterNode;
+        private int minOrder = Integer.MAX_VALUE;
+
+        void recordOrder(final int order) {
+            minOrder = Math.min(minOrder, order);
+        }
+
+        StaticNode staticChild(final String segment) {
+            if (staticChildren == null) {
+                staticChildren = new HashMap<String, StaticNode>();
+            }
+            StaticNode child = staticChildren.get(segment);
+            if (child == null) {
+                child = new StaticNode(segment);
+                staticChildren.put(segment, child);
+            }
+            return child;
+        }
+
+        PlaceholderNode placeholderChild() {
+            if (placeholderChild == null) {
+                placeholderChild = new PlaceholderNode();
+            }
+            return placeholderChild;
+        }
+
+        FilterNode filterNode() {
+            if (filterNode == null) {
+                filterNode = new FilterNode();
+            }
+            return filterNode;
+        }
+
+        /*
+         * Copies the static children into an array sorted by segment so that lookups can binary search them.
+         */
+        void freeze() {
+            if (staticChildren != null) {
+                sortedChildren = staticChildren.values().toArray(new StaticNode[staticChildren.size()]);
+                Arrays.sort(sortedChildren, SEGMENT_ORDER);
+                staticChildren = null;
+                for (StaticNode child : sortedChildren) {
+                    child.freeze();
+                }
+            }
+            if (placeholderChild != null) {
+                placeholderChild.freeze();
+            }
+        }
+
+        /*
+         * Walks the static and the placeholder branches for the segment starting at 'start'. Both have to be considered as
+         * a placeholder route may have been added before a static one. Subtrees that only contain routes added
+         * after the current best match are skipped.
+         */
+        RouteEntry lookup(final String path, final int start, final RequestMethod method,
+                final Set<String> acceptHeaders, final RouteEntry best) {
+            if (best != null && best.order <= minOrder) {
+                return best;
+            }
+            if (start == path.length()) {
+                return filterNode == null ? best : filterNode.lookup(method, acceptHeaders, best);
+            }
+            final int end = PathTemplate.segmentEnd(path, start);
+            final int next = PathTemplate.nextSegment(path, end);
+            RouteEntry result = best;
+            if (sortedChildren != null) {
+                final StaticNode child = findChild(path, start, end);
+                if (child != null) {
+                    result = child.lookup(path, next, method, acceptHeaders, result);
+                }
+            }
+            if (placeholderChild != null) {
+                result = placeholderChild.lookup(path, next, method, acceptHeaders, result);
+            }
+            return result;
+        }
+
+        private StaticNode findChild(final String path, final int start, final int end) {
+            int low = 0;
+            int high = sortedChildren.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final int cmp = compare(sortedChildren[mid].segment, path, start, end);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return sortedChildren[mid];
+                }
+            }
+            return null;
+        }
+
+        /*
+         * Compares the segment with the characters of the path between 'start' and 'end', using the same ordering
+         * as String.compareTo.
+         */
+        private static int compare(final String segment, final String path, final int start, final int end) {
+            final int length = Math.min(segment.length(), end - start);
+            for (int i = 0; i < length; i++) {
+                final int diff = segment.charAt(i) - path.charAt(start + i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return segment.length() - (end - start);
+        }
+    }
+
+    /**
+     * A node matching a single, literal, path segment.
+     */
+    private static final class StaticNode extends Node {
+
+        private final String segment;
+
+        StaticNode(final String segment) {
+            this.segment = segment;
+        }
+
+        @Override
+        public String toString() {
+            return "StaticNode[segment=" + segment + "]";
+        }
+    }
+
+    /**
+     * A node matching any non-empty path segment, for example '{id}'.
+     */
+    private static final class PlaceholderNode extends Node {
+
+        @Override
+        public String toString() {
+            return "PlaceholderNode";
+        }
+    }
+
+    /**
+     * Holds the routes whose path ends at the owning node, and filters them by {@link RequestMethod} and the
+     * media types they produce.
+     */
+    private static final class FilterNode {
+
+        private final List<RouteEntry> entries = new ArrayList<RouteEntry>();
+
+        void add(final RouteEntry entry) {
+            entries.add(entry);
+        }
+
+        RouteEntry lookup(final RequestMethod method, final Set<String> acceptHeaders, final RouteEntry best) {
+            final int size = entries.size();
+            for (int i = 0; i < size; i++) {
+                final RouteEntry entry = entries.get(i);
+                if (best != null && best.order < entry.order) {
+                    return best;
+                }
+                if (entry.methods.contains(method) && RequestUtils.acceptsMediaType(acceptHeaders, entry.produces)) {
+                    return entry;
+                }
+            }
+            return best;
+        }
+    }
+
+    private static final class RouteEntry {
+
+        private final int order;
+        private final Route route;
+        private final Set<RequestMethod> methods;
+        private final Set<MediaType> produces;
+
+        RouteEntry(final int order, final Route route) {
+            this.order = order;
+            this.route = route;
+            this.methods = route.getMethods();
+            this.produces = route.produces();
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+/**
+ * RouteMatch is the result of resolving a request against the configured {@link Routes}.
+ * </p>
+ * A RouteMatch is stored as a request attribute by {@link DefaultRouter#hasRouteFor(javax.servlet.http.HttpServletRequest)}
+ * so that {@link DefaultRouter#dispatch} can reuse it instead of resolving the same request a second time.
+ */
+public class RouteMatch {
+
+    /**
+     * The name of the request attribute under which the RouteMatch for the current request is stored.
+     */
+    public static final String ATTRIBUTE_NAME = "org.jboss.aerogear.controller.routeMatch";
+
+    private final Route route;
+    private final String requestPath;
+    private final PathParameters pathParameters;
+
+    /**
+     * Sole constructor.
+     *
+     * @param route the {@link Route} that matched the request.
+     * @param requestPath the request path, minus the context path, that was matched.
+     * @param pathParameters the {@link PathParameters} bound while matching the request path.
+     */
+    public RouteMatch(final Route route, final String requestPath, final PathParameters pathParameters) {
+        this.route = route;
+        this.requestPath = requestPath;
+        this.pathParameters = pathParameters;
+    }
+
+    /**
+     * Returns the matched {@link Route}.
+     *
+     * @return {@link Route} the route that matched the request.
+     */
+    public Route getRoute() {
+        return route;
+    }
+
+    /**
+     * Returns the request path, minus the context path, that was matched.
+     *
+     * @return {@code String} the request path that was matched.
+     */
+    public String getRequestPath() {
+        return requestPath;
+    }
+
+    /**
+     * Returns the path parameters that were bound while matching the request path.
+     *
+     * @return {@link PathParameters} the path parameters of the request.
+     */
+    public PathParameters getPathParameters() {
+        return pathParameters;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteMatch[route=" + route + ", requestPath=" + requestPath + ", pathParameters=" + pathParameters + "]";
+    }
+
+}
@@ -20,26 +20,45 @@ package org.jboss.aerogear.controller.router;
 import org.jboss.aerogear.controller.log.AeroGearLogger;
 import org.jboss.aerogear.controller.log.ExceptionBundle;
 import org.jboss.aerogear.controller.router.error.ErrorRoute;
+import org.jboss.aerogear.controller.router.parameter.Converters;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.Optional;
 
 /**
  * Routes is a collection of {@link Route} instances that are able to handle certain {@link RequestMethod}/requestURI
  * combinations. 
  * </p>
  * 
+ * Lookups are performed against a prefix tree of the route paths which is built once, when the Routes instance is
+ * created. When more than one route can handle a request, the route that was configured first is returned.
+ * </p>
+ * 
+ * Error routes are resolved to the route configured for the most specific superclass of the thrown exception, and
+ * the result is cached per exception class. As a Routes instance is immutable, the cache lives and dies with it.
+ * </p>
+ * 
  * This class also provides static factory methods for creating Routes instances.
  */
 public class Routes {
 
     private final List<Route> routes = new ArrayList<Route>();
+    private final RouteIndex routeIndex;
+    private final ConcurrentMap<Class<? extends Throwable>, Route> errorRoutes =
+            new ConcurrentHashMap<Class<? extends Throwable>, Route>();
 
-    private Routes(List<RouteBuilder> routeBuilders) {
+    private Routes(List<RouteBuilder> routeBuilders, Converters converters) {
         for (RouteBuilder routeBuilder : routeBuilders) {
-            routes.add(routeBuilder.build());
+            routes.add(routeBuilder.build(converters));
         }
+        routeIndex = new RouteIndex(routes);
     }
 
     /**
@@ -58,7 +77,42 @@ public class Routes {
      * @return {@link Routes} with the {@link Route}s from the passed in list of {@link RouteBuilder}s.
      */
     public static Routes from(List<RouteBuilder> routes) {
-        return new Routes(routes);
+        return from(routes, new Converters());
+    }
+
+    /**
+     * Factory method that constructs a {@link Routes} instance using the list of {@link RouteBuilder}s provided.
+     * 
+     * @param routes the list of {@link RouteBuilder}s which will be used to create the {@link Route}s.
+     * @param converters the {@link Converters} used to convert the values of the routes' request parameters.
+     * @return {@link Routes} with the {@link Route}s from the passed in list of {@link RouteBuilder}s.
+     */
+    public static Routes from(List<RouteBuilder> routes, Converters converters) {
+        return new Routes(routes, converters);
+    }
+
+    /**
+     * Returns the {@link Route}s in this Routes instance, in configuration order.
+     * 
+     * @return {@code List<Route>} an unmodifiable view of the configured routes.
+     */
+    public List<Route> getRoutes() {
+        return Collections.unmodifiableList(routes);
+    }
+
+    /**
+     * Returns the target endpoint classes of the {@link Route}s in this Routes instance, in configuration order.
+     * 
+     * @return {@code Set<Class<?>>} the target classes of the configured routes.
+     */
+    public Set<Class<?>> getTargetClasses() {
+        final Set<Class<?>> targetClasses = new LinkedHashSet<Class<?>>();
+        for (Route route : routes) {
+            if (route.getTargetClass() != null) {
+                targetClasses.add(route.getTargetClass());
+            }
+        }
+        return targetClasses;
     }
 
     @Override
@@ -76,12 +130,26 @@ public class Routes {
      */
     public boolean hasRouteFor(RequestMethod method, String requestURI, Set<String> acceptHeaders) {
         AeroGearLogger.LOGGER.requestedRoute(method, requestURI);
-        for (Route route : routes) {
-            if (route.matches(method, requestURI, acceptHeaders)) {
-                return true;
-            }
+        return routeIndex.lookup(method, requestURI, acceptHeaders) != null;
+    }
+
+    /**
+     * Resolves the {@link RequestMethod}/URI combination to a {@link RouteMatch}, binding the path parameters of the
+     * matched route.
+     * 
+     * @param method the HTTP {@link RequestMethod}.
+     * @param requestURI the URI.
+     * @param acceptHeaders the accept headers provided, or an empty set if none were provided.
+     * @return {@code Optional<RouteMatch>} containing the match, or an absent Optional if no {@link Route} can serve the
+     *         {@link RequestMethod}/URI combination.
+     */
+    public Optional<RouteMatch> match(RequestMethod method, String requestURI, Set<String> acceptHeaders) {
+        AeroGearLogger.LOGGER.requestedRoute(method, requestURI);
+        final Route route = routeIndex.lookup(method, requestURI, acceptHeaders);
+        if (route == null) {
+            return Optional.absent();
         }
-        return false;
+        return Optional.of(new RouteMatch(route, requestURI, route.getPathTemplate().bind(requestURI)));
     }
 
     /**
@@ -94,25 +162,40 @@ public class Routes {
      *         the specified RequestMethod/URI combination is not supported by this Routes instance.
      */
     public Route routeFor(RequestMethod method, String requestURI, Set<String> acceptHeaders) {
-        for (Route route : routes) {
-            if (route.matches(method, requestURI, acceptHeaders)) {
-                return route;
-            }
+        final Route route = routeIndex.lookup(method, requestURI, acceptHeaders);
+        if (route != null) {
+            return route;
         }
         throw ExceptionBundle.MESSAGES.routeNotFound(method, requestURI, acceptHeaders);
     }
 
     /**
      * Returns the {@link Route} for the specified {@link Throwable}.
+     * </p>
+     * The error route configured for the throwable's own class is preferred over one configured for its superclass,
+     * and so on up the class hierarchy. Routes configured for the same class are picked in configuration order.
      * 
      * @param throwable the {@link Throwable} to match with a {@link Route}
      * @return {@link Route} an error {@link Route} that can the type of the passed-in {@link Throwable}, or if no error route
      *         was specified a {@link ErrorRoute#DEFAULT} will be returned.
      */
     public Route routeFor(Throwable throwable) {
-        for (Route route : routes) {
-            if (route.canHandle(throwable)) {
-                return route;
+        final Class<? extends Throwable> type = throwable.getClass();
+        final Route route = errorRoutes.get(type);
+        if (route != null) {
+            return route;
+        }
+        final Route resolved = resolveErrorRoute(type);
+        final Route existing = errorRoutes.putIfAbsent(type, resolved);
+        return existing == null ? resolved : existing;
+    }
+
+    private Route resolveErrorRoute(final Class<? extends Throwable> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Route route : routes) {
+                if (route.getThrowables().contains(c)) {
+                    return route;
+                }
             }
         }
         return ErrorRoute.DEFAULT.getRoute();
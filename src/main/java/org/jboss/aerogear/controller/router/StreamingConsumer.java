@@ -0,0 +1,45 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.Iterator;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * A StreamingConsumer is a {@link Consumer} that can unmarshall a request body holding a sequence of elements, like
+ * a JSON array, one element at a time.
+ * </p>
+ * It is used for entity parameters declared as {@code Iterator<T>}, so that the endpoint only holds the element it
+ * is processing instead of the whole payload. Consumers that do not implement this interface have the body
+ * unmarshalled into an array of the element type instead.
+ */
+public interface StreamingConsumer extends Consumer {
+
+    /**
+     * Returns an Iterator that unmarshalls the elements of the request body as they are requested.
+     * </p>
+     * The returned Iterator reads from the request, and is only valid while the request is being processed.
+     * 
+     * @param request the {@link HttpServletRequest}.
+     * @param elementType the type that the elements should be unmarshalled to.
+     * @return {@code Iterator<T>} over the elements of the request body.
+     */
+    <T> Iterator<T> unmarshallElements(HttpServletRequest request, Class<T> elementType);
+
+}
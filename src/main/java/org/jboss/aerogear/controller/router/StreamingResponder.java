@@ -0,0 +1,40 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+/**
+ * A StreamingResponder is a {@link Responder} that can write a response body holding a sequence of elements, like a
+ * JSON array, one element at a time.
+ * </p>
+ * It is used for endpoints returning an {@link org.jboss.aerogear.controller.router.async.ElementStream}, so that only
+ * the element being written is held in memory. Responders that do not implement this interface cannot respond to such
+ * endpoints.
+ */
+public interface StreamingResponder extends Responder {
+
+    /**
+     * Prepares the response, setting its headers just like {@link #respond(Object, RouteContext)} does, and returns an
+     * ElementWriter for its body.
+     * 
+     * @param routeContext the current {@link RouteContext}.
+     * @return {@link ElementWriter} that writes the elements of the response body.
+     * @throws Exception if the response could not be prepared.
+     */
+    ElementWriter openStream(RouteContext routeContext) throws Exception;
+
+}
@@ -0,0 +1,91 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.async;
+
+/**
+ * Concrete implementation of {@link AsyncConfiguration}.
+ * </p>
+ * By default 10 threads wait for plain {@link java.util.concurrent.Future}s.
+ * </p>
+ * Example of producing a custom configuration:
+ * <pre>
+ * &#64;Produces
+ * public AsyncConfiguration asyncConfig() {
+ *     return AsyncConfig.threads(20).build();
+ * }
+ * </pre>
+ * 
+ * @see AsyncDispatcher
+ */
+public class AsyncConfig implements AsyncConfiguration {
+
+    private static final int DEFAULT_THREADS = 10;
+
+    private final int threads;
+
+    private AsyncConfig(final Builder builder) {
+        this.threads = builder.threads;
+    }
+
+    /**
+     * Returns a {@link Builder} with the number of threads waiting for plain futures set.
+     * 
+     * @param threads the maximum number of threads waiting for plain futures.
+     * @return {@link Builder} to be used to configure and build an {@link AsyncConfiguration} instance.
+     */
+    public static Builder threads(final int threads) {
+        return new Builder().threads(threads);
+    }
+
+    /**
+     * Returns an {@link AsyncConfiguration} instance with the default values for all properties.
+     * 
+     * @return {@link AsyncConfiguration} with default properties set.
+     */
+    public static AsyncConfiguration defaultConfig() {
+        return new Builder().build();
+    }
+
+    @Override
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncConfiguration[threads=" + threads + "]";
+    }
+
+    public static class Builder {
+        private int threads = DEFAULT_THREADS;
+
+        private Builder() {
+        }
+
+        public Builder threads(final int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public AsyncConfiguration build() {
+            return new AsyncConfig(this);
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.async;
+
+/**
+ * Configuration for the {@link AsyncDispatcher}.
+ * </p>
+ * To override the default configuration, provide a CDI producer for this type.
+ * 
+ * @see AsyncConfig
+ */
+public interface AsyncConfiguration {
+
+    /**
+     * Returns the number of threads that wait for plain {@link java.util.concurrent.Future}s, which offer no way of
+     * being notified when they complete. When all of them are busy, futures are waited for on the container thread.
+     * 
+     * @return {@code int} the maximum number of threads waiting for plain futures.
+     */
+    int getThreads();
+
+}
@@ -0,0 +1,251 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.async;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+
+import org.jboss.aerogear.controller.log.AeroGearLogger;
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+import org.jboss.aerogear.controller.router.RouteContext;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * AsyncDispatcher releases the container thread of a request whose endpoint returned a {@link Future}.
+ * </p>
+ * The request is put into asynchronous mode using {@link HttpServletRequest#startAsync()}, and when the future
+ * completes its outcome is stored as an {@link AsyncResult} and the request is dispatched again. The second time around
+ * the outcome is handed to the processing chain in place of invoking the endpoint, so responding and error handling work
+ * exactly as they do for synchronous endpoints.
+ * </p>
+ * A {@link ListenableFuture} is listened to directly. A plain {@link Future} offers no way of being notified, so it is
+ * waited for by a thread of this class instead of a container thread. The number of these threads is bounded by the
+ * {@link AsyncConfiguration}. When all of them are busy the request is not put into asynchronous mode, and the future is
+ * waited for on the container thread for at most the route's timeout. If the future does not complete within the
+ * route's {@link org.jboss.aerogear.controller.router.Route#getAsyncTimeout() timeout} it is cancelled and the request
+ * fails with an {@link AsyncTimeoutException}.
+ * </p>
+ * If the request does not support asynchronous processing, for example because a filter in front of AeroGear does not,
+ * the future is waited for on the container thread.
+ */
+@ApplicationScoped
+public class AsyncDispatcher {
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore waiters;
+
+    /**
+     * Constructs an AsyncDispatcher using the default configuration. Also required by CDI so that it can generate
+     * proxies for instances of this class.
+     */
+    public AsyncDispatcher() {
+        this(AsyncConfig.defaultConfig());
+    }
+
+    @Inject
+    public AsyncDispatcher(final Instance<AsyncConfiguration> asyncConfigInstance) {
+        this(asyncConfigInstance.isUnsatisfied() ? AsyncConfig.defaultConfig() : asyncConfigInstance.get());
+    }
+
+    public AsyncDispatcher(final AsyncConfiguration config) {
+        final int threads = config.getThreads();
+        waiters = new Semaphore(threads);
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("aerogear-async-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the {@link AsyncResult} of a request that was dispatched after its future completed, and removes it from
+     * the request.
+     * 
+     * @param request the current {@link HttpServletRequest}.
+     * @return {@code Optional<AsyncResult>} the outcome of the future, or absent if the request was not dispatched by
+     *         this class.
+     */
+    public Optional<AsyncResult> resumed(final HttpServletRequest request) {
+        final AsyncResult asyncResult = (AsyncResult) request.getAttribute(AsyncResult.ATTRIBUTE_NAME);
+        if (asyncResult != null) {
+            request.removeAttribute(AsyncResult.ATTRIBUTE_NAME);
+        }
+        return Optional.fromNullable(asyncResult);
+    }
+
+    /**
+     * Handles the result of an endpoint. Results that are not a {@link Future} are returned as is.
+     * </p>
+     * A future that has already completed is unwrapped. Otherwise, the request is put into asynchronous mode and
+     * {@code null} is returned, in which case {@link HttpServletRequest#isAsyncStarted()} is {@code true} and the
+     * caller must not respond.
+     * 
+     * @param routeContext the {@link RouteContext} of the current request.
+     * @param result the result returned by the endpoint.
+     * @return {@code Object} the result to respond with.
+     * @throws Exception if the future failed, or did not complete in time while waiting on the container thread.
+     */
+    public Object handle(final RouteContext routeContext, final Object result) throws Exception {
+        if (!(result instanceof Future)) {
+            return result;
+        }
+        final Future<?> future = (Future<?>) result;
+        final HttpServletRequest request = routeContext.getRequest();
+        if (future.isDone() || !request.isAsyncSupported()) {
+            return await(routeContext, future);
+        }
+        final boolean listenable = future instanceof ListenableFuture;
+        if (!listenable && !waiters.tryAcquire()) {
+            return await(routeContext, future);
+        }
+        final Completion completion;
+        try {
+            final AsyncContext asyncContext = request.startAsync();
+            final long timeout = routeContext.getRoute().getAsyncTimeout();
+            if (timeout > 0) {
+                asyncContext.setTimeout(timeout);
+            }
+            completion = new Completion(routeContext, asyncContext, future);
+            asyncContext.addListener(completion);
+        } catch (final RuntimeException e) {
+            if (!listenable) {
+                waiters.release();
+            }
+            throw e;
+        }
+        if (listenable) {
+            ((ListenableFuture<?>) future).addListener(completion, MoreExecutors.sameThreadExecutor());
+        } else {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        completion.run();
+                    } finally {
+                        waiters.release();
+                    }
+                }
+            });
+        }
+        return null;
+    }
+
+    private static Object await(final RouteContext routeContext, final Future<?> future) throws Exception {
+        final long timeout = routeContext.getRoute().getAsyncTimeout();
+        try {
+            return timeout > 0 ? future.get(timeout, TimeUnit.MILLISECONDS) : future.get();
+        } catch (final ExecutionException e) {
+            return AsyncResult.failed(e.getCause()).get();
+        } catch (final TimeoutException e) {
+            future.cancel(true);
+            throw ExceptionBundle.MESSAGES.asyncTimeout(routeContext.getRequestPath(), timeout);
+        }
+    }
+
+    /**
+     * Stops the threads waiting for plain futures.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Dispatches the request once the future completed, or the asynchronous timeout expired, whichever happens first.
+     */
+    private static final class Completion implements Runnable, AsyncListener {
+
+        private final RouteContext routeContext;
+        private final AsyncContext asyncContext;
+        private final Future<?> future;
+        private final AtomicBoolean dispatched = new AtomicBoolean();
+
+        Completion(final RouteContext routeContext, final AsyncContext asyncContext, final Future<?> future) {
+            this.routeContext = routeContext;
+            this.asyncContext = asyncContext;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            try {
+                dispatch(AsyncResult.of(future.get()));
+            } catch (final ExecutionException e) {
+                dispatch(AsyncResult.failed(e.getCause()));
+            } catch (final CancellationException e) {
+                dispatch(AsyncResult.failed(e));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dispatch(AsyncResult.failed(e));
+            }
+        }
+
+        @Override
+        public void onTimeout(final AsyncEvent event) throws IOException {
+            dispatch(AsyncResult.failed(ExceptionBundle.MESSAGES.asyncTimeout(routeContext.getRequestPath(),
+                    asyncContext.getTimeout())));
+            future.cancel(true);
+        }
+
+        @Override
+        public void onError(final AsyncEvent event) throws IOException {
+            dispatched.set(true);
+            future.cancel(true);
+        }
+
+        @Override
+        public void onComplete(final AsyncEvent event) throws IOException {
+        }
+
+        @Override
+        public void onStartAsync(final AsyncEvent event) throws IOException {
+        }
+
+        private void dispatch(final AsyncResult asyncResult) {
+            if (dispatched.compareAndSet(false, true)) {
+                try {
+                    asyncContext.getRequest().setAttribute(AsyncResult.ATTRIBUTE_NAME, asyncResult);
+                    asyncContext.dispatch();
+                } catch (final IllegalStateException e) {
+                    // the container has already completed the request, for example because the client went away.
+                    AeroGearLogger.LOGGER.asyncDispatchFailed(routeContext.getRequestPath(), e);
+                }
+            }
+        }
+    }
+
+}
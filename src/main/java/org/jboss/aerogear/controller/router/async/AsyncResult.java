@@ -0,0 +1,85 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.async;
+
+import org.jboss.aerogear.controller.router.AeroGearException;
+
+import com.google.common.base.Throwables;
+
+/**
+ * The outcome of a {@link java.util.concurrent.Future} returned by an endpoint, either its value or the exception it
+ * failed with.
+ * </p>
+ * An AsyncResult is stored as a request attribute, named {@link #ATTRIBUTE_NAME}, before the request is dispatched
+ * again, so that the outcome is handled as if the endpoint had returned, or thrown, it directly.
+ */
+public final class AsyncResult {
+
+    /**
+     * The name of the request attribute under which the AsyncResult of a dispatched request is stored.
+     */
+    public static final String ATTRIBUTE_NAME = "org.jboss.aerogear.controller.asyncResult";
+
+    private final Object value;
+    private final Throwable failure;
+
+    private AsyncResult(final Object value, final Throwable failure) {
+        this.value = value;
+        this.failure = failure;
+    }
+
+    /**
+     * Creates an AsyncResult for a future that completed with a value.
+     * 
+     * @param value the value of the future, may be {@code null}.
+     * @return {@link AsyncResult} holding the value.
+     */
+    public static AsyncResult of(final Object value) {
+        return new AsyncResult(value, null);
+    }
+
+    /**
+     * Creates an AsyncResult for a future that failed.
+     * 
+     * @param failure the cause of the failure.
+     * @return {@link AsyncResult} holding the failure.
+     */
+    public static AsyncResult failed(final Throwable failure) {
+        return new AsyncResult(null, failure);
+    }
+
+    /**
+     * Returns the value of the future, or throws the exception it failed with.
+     * 
+     * @return {@code Object} the value of the future.
+     * @throws Exception the exception the future failed with.
+     */
+    public Object get() throws Exception {
+        if (failure != null) {
+            Throwables.propagateIfPossible(failure, Exception.class);
+            throw new AeroGearException(failure);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncResult[value=" + value + ", failure=" + failure + "]";
+    }
+
+}
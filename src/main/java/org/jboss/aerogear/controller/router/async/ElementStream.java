@@ -0,0 +1,50 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.async;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * An ElementStream is an asynchronous sequence of elements that is consumed on demand, for example an event feed.
+ * </p>
+ * An endpoint returning an ElementStream has its elements written to the client by a
+ * {@link org.jboss.aerogear.controller.router.StreamingResponder} as they become available, without holding a container
+ * thread. The next element is only requested once the previous one has been written, so a slow client slows down the
+ * stream instead of having elements pile up in memory.
+ * 
+ * @param <T> the type of the elements.
+ * @see ElementStreams
+ */
+public interface ElementStream<T> {
+
+    /**
+     * Requests the next element. This method is not called again before the returned future has completed.
+     * 
+     * @return {@code ListenableFuture<Optional<T>>} completing with the next element, or with absent when the stream has
+     *         ended. A failed future ends the stream with an error.
+     */
+    ListenableFuture<Optional<T>> next();
+
+    /**
+     * Cancels the stream, called when the response ended before the stream did, for example because the client went
+     * away or the route's asynchronous timeout expired.
+     */
+    void cancel();
+
+}
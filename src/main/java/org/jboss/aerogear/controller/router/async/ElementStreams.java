@@ -0,0 +1,264 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.async;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+
+import org.jboss.aerogear.controller.log.AeroGearLogger;
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+import org.jboss.aerogear.controller.router.AeroGearException;
+import org.jboss.aerogear.controller.router.ElementWriter;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.StreamingResponder;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Writes the elements of an {@link ElementStream} to the response using a {@link StreamingResponder}.
+ * </p>
+ * The request is put into asynchronous mode, so the container thread is released while the stream has no element
+ * available. Each element is written by the thread that completed its future, and only then is the next element
+ * requested. Elements are therefore written no faster than the client reads them, and the memory used per response
+ * does not depend on the length of the stream. Whenever the stream has to be waited for, the elements written so far
+ * are flushed to the client.
+ * </p>
+ * The route's {@link org.jboss.aerogear.controller.router.Route#getAsyncTimeout() asynchronous timeout} limits how long
+ * the whole stream may take, once it expires the stream is cancelled and the response is abandoned, so that the client
+ * cannot mistake the truncated response for a complete one. Without a timeout the stream runs until it ends. Likewise,
+ * a stream that fails after its response was started cannot be answered by an error route, instead the response is
+ * abandoned and the failure is logged.
+ * </p>
+ * If the request does not support asynchronous processing the stream is written on the container thread.
+ */
+public final class ElementStreams {
+
+    private ElementStreams() {
+    }
+
+    /**
+     * Starts writing the passed-in stream to the response of the current request.
+     * 
+     * @param stream the {@link ElementStream} returned by the endpoint.
+     * @param responder the {@link StreamingResponder} for the negotiated media type.
+     * @param routeContext the {@link RouteContext} of the current request.
+     * @throws Exception if the response could not be started, or if writing on the container thread fails.
+     */
+    public static void subscribe(final ElementStream<?> stream, final StreamingResponder responder,
+            final RouteContext routeContext) throws Exception {
+        final ElementWriter writer;
+        try {
+            writer = responder.openStream(routeContext);
+        } catch (final Exception e) {
+            stream.cancel();
+            throw e;
+        }
+        final HttpServletRequest request = routeContext.getRequest();
+        if (!request.isAsyncSupported()) {
+            drain(stream, writer);
+            return;
+        }
+        final AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(Math.max(routeContext.getRoute().getAsyncTimeout(), 0));
+        final Subscription subscription = new Subscription(stream, writer, asyncContext, routeContext.getRequestPath());
+        asyncContext.addListener(subscription);
+        subscription.request();
+    }
+
+    private static void drain(final ElementStream<?> stream, final ElementWriter writer) throws Exception {
+        boolean completed = false;
+        try {
+            Optional<?> element = await(stream.next(), writer);
+            while (element.isPresent()) {
+                writer.write(element.get());
+                element = await(stream.next(), writer);
+            }
+            writer.close();
+            completed = true;
+        } finally {
+            if (!completed) {
+                stream.cancel();
+                writer.abort();
+            }
+        }
+    }
+
+    private static Optional<?> await(final Future<? extends Optional<?>> next, final ElementWriter writer)
+            throws Exception {
+        if (!next.isDone()) {
+            writer.flush();
+        }
+        try {
+            return next.get();
+        } catch (final ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause(), Exception.class);
+            throw new AeroGearException(e.getCause());
+        }
+    }
+
+    /**
+     * Requests and writes the elements of a stream, one at a time, until the stream ends, fails, or the asynchronous
+     * request ends.
+     */
+    private static final class Subscription implements AsyncListener {
+
+        private final ElementStream<?> stream;
+        private final ElementWriter writer;
+        private final AsyncContext asyncContext;
+        private final String requestPath;
+        private boolean done;
+
+        Subscription(final ElementStream<?> stream, final ElementWriter writer, final AsyncContext asyncContext,
+                final String requestPath) {
+            this.stream = stream;
+            this.writer = writer;
+            this.asyncContext = asyncContext;
+            this.requestPath = requestPath;
+        }
+
+        /*
+         * Writes the elements that are available right away in a loop, so that a stream of completed futures does not
+         * recurse, and registers a listener for the first one that is not.
+         */
+        void request() {
+            while (true) {
+                synchronized (this) {
+                    if (done) {
+                        return;
+                    }
+                }
+                final ListenableFuture<? extends Optional<?>> next = stream.next();
+                if (!next.isDone()) {
+                    if (flush()) {
+                        next.addListener(new Runnable() {
+                            @Override
+                            public void run() {
+                                if (onNext(next)) {
+                                    request();
+                                }
+                            }
+                        }, MoreExecutors.sameThreadExecutor());
+                    }
+                    return;
+                }
+                if (!onNext(next)) {
+                    return;
+                }
+            }
+        }
+
+        private synchronized boolean flush() {
+            if (done) {
+                return false;
+            }
+            try {
+                writer.flush();
+                return true;
+            } catch (final Exception e) {
+                fail(e);
+                return false;
+            }
+        }
+
+        private synchronized boolean onNext(final Future<? extends Optional<?>> next) {
+            if (done) {
+                return false;
+            }
+            try {
+                final Optional<?> element = next.get();
+                if (!element.isPresent()) {
+                    complete();
+                    return false;
+                }
+                writer.write(element.get());
+                return true;
+            } catch (final ExecutionException e) {
+                fail(e.getCause());
+            } catch (final Exception e) {
+                fail(e);
+            }
+            return false;
+        }
+
+        @Override
+        public synchronized void onTimeout(final AsyncEvent event) throws IOException {
+            if (!done) {
+                fail(ExceptionBundle.MESSAGES.asyncTimeout(requestPath, asyncContext.getTimeout()));
+            }
+        }
+
+        @Override
+        public synchronized void onError(final AsyncEvent event) throws IOException {
+            if (!done) {
+                done = true;
+                stream.cancel();
+                writer.abort();
+            }
+        }
+
+        @Override
+        public void onComplete(final AsyncEvent event) throws IOException {
+        }
+
+        @Override
+        public void onStartAsync(final AsyncEvent event) throws IOException {
+        }
+
+        private void complete() {
+            done = true;
+            try {
+                writer.close();
+            } catch (final Exception e) {
+                writer.abort();
+                AeroGearLogger.LOGGER.streamFailed(requestPath, e);
+            } finally {
+                completeAsync();
+            }
+        }
+
+        private void fail(final Throwable t) {
+            done = true;
+            try {
+                stream.cancel();
+                writer.abort();
+                AeroGearLogger.LOGGER.streamFailed(requestPath, t);
+            } finally {
+                completeAsync();
+            }
+        }
+
+        private void completeAsync() {
+            try {
+                asyncContext.complete();
+            } catch (final IllegalStateException e) {
+                // the container has already completed the request, for example because the client went away.
+                AeroGearLogger.LOGGER.asyncDispatchFailed(requestPath, e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,175 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.bulkhead;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Concrete implementation of {@link BulkheadConfiguration}.
+ * </p>
+ * By default each isolation group has 10 threads and a queue of 10 requests, and rejected requests are told to retry
+ * after 1 second. The threads and queue size can be set for all groups, and overridden per group.
+ * </p>
+ * Example of producing a custom configuration:
+ * <pre>
+ * &#64;Produces
+ * public BulkheadConfiguration bulkheadConfig() {
+ *     return BulkheadConfig.threads(20).queueSize(50).group("reports", 2, 4).retryAfter(30).build();
+ * }
+ * </pre>
+ * 
+ * @see Bulkheads
+ */
+public class BulkheadConfig implements BulkheadConfiguration {
+
+    private static final int DEFAULT_THREADS = 10;
+    private static final int DEFAULT_QUEUE_SIZE = 10;
+    private static final int DEFAULT_RETRY_AFTER = 1;
+
+    private final int threads;
+    private final int queueSize;
+    private final int retryAfter;
+    private final Map<String, GroupSize> groups;
+
+    private BulkheadConfig(final Builder builder) {
+        this.threads = builder.threads;
+        this.queueSize = builder.queueSize;
+        this.retryAfter = builder.retryAfter;
+        this.groups = new HashMap<String, GroupSize>(builder.groups);
+    }
+
+    /**
+     * Returns a {@link Builder} with the default number of threads per isolation group set.
+     * 
+     * @param threads the default size of the thread pool of a group.
+     * @return {@link Builder} to be used to configure and build a {@link BulkheadConfiguration} instance.
+     */
+    public static Builder threads(final int threads) {
+        return new Builder().threads(threads);
+    }
+
+    /**
+     * Returns a {@link Builder} with the default queue size per isolation group set.
+     * 
+     * @param queueSize the default size of the queue of a group.
+     * @return {@link Builder} to be used to configure and build a {@link BulkheadConfiguration} instance.
+     */
+    public static Builder queueSize(final int queueSize) {
+        return new Builder().queueSize(queueSize);
+    }
+
+    /**
+     * Returns a {@link Builder} with the number of threads and queue size of a single isolation group set.
+     * 
+     * @param group the name of the isolation group.
+     * @param threads the size of the group's thread pool.
+     * @param queueSize the size of the group's queue.
+     * @return {@link Builder} to be used to configure and build a {@link BulkheadConfiguration} instance.
+     */
+    public static Builder group(final String group, final int threads, final int queueSize) {
+        return new Builder().group(group, threads, queueSize);
+    }
+
+    /**
+     * Returns a {@link Builder} with the number of seconds sent in the 'Retry-After' header set.
+     * 
+     * @param seconds the number of seconds after which a rejected request may be retried.
+     * @return {@link Builder} to be used to configure and build a {@link BulkheadConfiguration} instance.
+     */
+    public static Builder retryAfter(final int seconds) {
+        return new Builder().retryAfter(seconds);
+    }
+
+    /**
+     * Returns a {@link BulkheadConfiguration} instance with the default values for all properties.
+     * 
+     * @return {@link BulkheadConfiguration} with default properties set.
+     */
+    public static BulkheadConfiguration defaultConfig() {
+        return new Builder().build();
+    }
+
+    @Override
+    public int getThreads(final String group) {
+        final GroupSize groupSize = groups.get(group);
+        return groupSize == null ? threads : groupSize.threads;
+    }
+
+    @Override
+    public int getQueueSize(final String group) {
+        final GroupSize groupSize = groups.get(group);
+        return groupSize == null ? queueSize : groupSize.queueSize;
+    }
+
+    @Override
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkheadConfiguration[threads=" + threads + ", queueSize=" + queueSize + ", retryAfter=" + retryAfter
+                + ", groups=" + groups.keySet() + "]";
+    }
+
+    public static class Builder {
+        private int threads = DEFAULT_THREADS;
+        private int queueSize = DEFAULT_QUEUE_SIZE;
+        private int retryAfter = DEFAULT_RETRY_AFTER;
+        private final Map<String, GroupSize> groups = new HashMap<String, GroupSize>();
+
+        private Builder() {
+        }
+
+        public Builder threads(final int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder queueSize(final int queueSize) {
+            this.queueSize = queueSize;
+            return this;
+        }
+
+        public Builder group(final String group, final int threads, final int queueSize) {
+            groups.put(group, new GroupSize(threads, queueSize));
+            return this;
+        }
+
+        public Builder retryAfter(final int seconds) {
+            this.retryAfter = seconds;
+            return this;
+        }
+
+        public BulkheadConfiguration build() {
+            return new BulkheadConfig(this);
+        }
+    }
+
+    private static final class GroupSize {
+        private final int threads;
+        private final int queueSize;
+
+        GroupSize(final int threads, final int queueSize) {
+            this.threads = threads;
+            this.queueSize = queueSize;
+        }
+    }
+
+}
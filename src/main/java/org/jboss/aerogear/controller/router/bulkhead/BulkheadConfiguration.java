@@ -0,0 +1,55 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.bulkhead;
+
+/**
+ * Configuration for the thread pools of the isolation groups declared with
+ * {@link org.jboss.aerogear.controller.router.RouteBuilder.TargetEndpoint#isolated(String)}.
+ * </p>
+ * To override the default configuration, provide a CDI producer for this type.
+ * 
+ * @see BulkheadConfig
+ * @see Bulkheads
+ */
+public interface BulkheadConfiguration {
+
+    /**
+     * Returns the number of threads invoking the endpoints of the passed-in isolation group.
+     * 
+     * @param group the name of the isolation group.
+     * @return {@code int} the size of the group's thread pool.
+     */
+    int getThreads(String group);
+
+    /**
+     * Returns the number of requests of the passed-in isolation group that may wait for a thread. Requests that arrive
+     * when the queue is full are rejected.
+     * 
+     * @param group the name of the isolation group.
+     * @return {@code int} the size of the group's queue, {@code 0} to reject requests as soon as all threads are busy.
+     */
+    int getQueueSize(String group);
+
+    /**
+     * Returns the number of seconds sent in the 'Retry-After' header of rejected requests.
+     * 
+     * @return {@code int} the number of seconds after which a rejected request may be retried.
+     */
+    int getRetryAfter();
+
+}
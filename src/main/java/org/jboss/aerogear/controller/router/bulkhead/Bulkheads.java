@@ -0,0 +1,179 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.bulkhead;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+import org.jboss.aerogear.controller.router.RouteContext;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Bulkheads holds a bounded thread pool per isolation group, declared on routes with
+ * {@link org.jboss.aerogear.controller.router.RouteBuilder.TargetEndpoint#isolated(String)}.
+ * </p>
+ * The endpoint of an isolated route is invoked by its group's pool, and the request waits for the returned future
+ * without holding a container thread, see {@link org.jboss.aerogear.controller.router.async.AsyncDispatcher}. A slow
+ * group can therefore only use up its own threads. When all threads of a group are busy and its queue is full,
+ * requests are rejected right away with a {@link BulkheadRejectedException}, answered with '503 Service Unavailable'
+ * and a 'Retry-After' header, instead of piling up.
+ * </p>
+ * The pools are created when a group is first used, sized by the {@link BulkheadConfiguration}. Their queue depth,
+ * active threads and rejected requests can be queried per group. Note that CDI's request scope is not active on the
+ * threads of the pools.
+ */
+@ApplicationScoped
+public class Bulkheads {
+
+    private final BulkheadConfiguration config;
+    private final ConcurrentMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<String, Bulkhead>();
+
+    /**
+     * Constructs Bulkheads using the default configuration. Also required by CDI so that it can generate proxies for
+     * instances of this class.
+     */
+    public Bulkheads() {
+        this(BulkheadConfig.defaultConfig());
+    }
+
+    @Inject
+    public Bulkheads(final Instance<BulkheadConfiguration> bulkheadConfigInstance) {
+        this(bulkheadConfigInstance.isUnsatisfied() ? BulkheadConfig.defaultConfig() : bulkheadConfigInstance.get());
+    }
+
+    public Bulkheads(final BulkheadConfiguration config) {
+        this.config = config;
+    }
+
+    /**
+     * Submits the invocation of the endpoint of the route in the passed-in {@link RouteContext} to the thread pool of
+     * the route's isolation group.
+     * 
+     * @param routeContext the {@link RouteContext} of the current request.
+     * @param invocation the invocation of the endpoint.
+     * @return {@code ListenableFuture<T>} that completes with the result of the invocation.
+     * @throws BulkheadRejectedException if the group's thread pool and queue are full, in which case the 'Retry-After'
+     *         header has been set on the response.
+     */
+    public <T> ListenableFuture<T> submit(final RouteContext routeContext, final Callable<T> invocation) {
+        final String group = routeContext.getRoute().getIsolationGroup();
+        final Bulkhead bulkhead = bulkhead(group);
+        final ListenableFutureTask<T> future = ListenableFutureTask.create(invocation);
+        try {
+            bulkhead.executor.execute(future);
+        } catch (final RejectedExecutionException e) {
+            bulkhead.rejected.incrementAndGet();
+            routeContext.getResponse().setHeader("Retry-After", String.valueOf(config.getRetryAfter()));
+            throw ExceptionBundle.MESSAGES.bulkheadFull(group, routeContext.getRequestPath());
+        }
+        return future;
+    }
+
+    /**
+     * Returns the number of requests of the passed-in isolation group that are waiting for a thread.
+     * 
+     * @param group the name of the isolation group.
+     * @return {@code int} the depth of the group's queue.
+     */
+    public int queueDepth(final String group) {
+        final Bulkhead bulkhead = bulkheads.get(group);
+        return bulkhead == null ? 0 : bulkhead.executor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of threads of the passed-in isolation group that are invoking an endpoint.
+     * 
+     * @param group the name of the isolation group.
+     * @return {@code int} the number of busy threads of the group.
+     */
+    public int activeCount(final String group) {
+        final Bulkhead bulkhead = bulkheads.get(group);
+        return bulkhead == null ? 0 : bulkhead.executor.getActiveCount();
+    }
+
+    /**
+     * Returns the number of requests of the passed-in isolation group that were rejected because it was full.
+     * 
+     * @param group the name of the isolation group.
+     * @return {@code long} the number of rejected requests.
+     */
+    public long rejectedCount(final String group) {
+        final Bulkhead bulkhead = bulkheads.get(group);
+        return bulkhead == null ? 0 : bulkhead.rejected.get();
+    }
+
+    /**
+     * Stops the thread pools of all isolation groups.
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            bulkhead.executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Bulkheads[groups=" + bulkheads.keySet() + ", config=" + config + "]";
+    }
+
+    private Bulkhead bulkhead(final String group) {
+        Bulkhead bulkhead = bulkheads.get(group);
+        if (bulkhead == null) {
+            bulkhead = new Bulkhead(group, config.getThreads(group), config.getQueueSize(group));
+            final Bulkhead existing = bulkheads.putIfAbsent(group, bulkhead);
+            if (existing != null) {
+                bulkhead.executor.shutdown();
+                bulkhead = existing;
+            }
+        }
+        return bulkhead;
+    }
+
+    private static final class Bulkhead {
+
+        private final ThreadPoolExecutor executor;
+        private final AtomicLong rejected = new AtomicLong();
+
+        Bulkhead(final String group, final int threads, final int queueSize) {
+            final BlockingQueue<Runnable> queue = queueSize > 0 ? new ArrayBlockingQueue<Runnable>(queueSize)
+                    : new SynchronousQueue<Runnable>();
+            executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue, new ThreadFactoryBuilder()
+                    .setNameFormat("aerogear-bulkhead-" + group.replace("%", "%%") + "-%d").setDaemon(true).build());
+            executor.allowCoreThreadTimeOut(true);
+        }
+    }
+
+}
@@ -34,6 +34,7 @@ import org.jboss.aerogear.controller.router.RouteProcessor;
 import org.jboss.aerogear.controller.router.error.ErrorRoute;
 import org.jboss.aerogear.controller.spi.HttpStatusAwareException;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Throwables;
 
 /**
@@ -60,8 +61,9 @@ public class ErrorHandler implements RouteProcessor {
         try {
             return delegate.process(routeContext);
         } catch (final Throwable t) {
-            if (t instanceof HttpStatusAwareException) {
-                routeContext.getResponse().setStatus(((HttpStatusAwareException) t).getStatus());
+            final Optional<HttpStatusAwareException> statusAware = statusAware(t);
+            if (statusAware.isPresent()) {
+                routeContext.getResponse().setStatus(statusAware.get().getStatus());
             }
             final Throwable rootCause = Throwables.getRootCause(t);
             final RouteContext errorContext = errorContext(rootCause, routeContext);
@@ -71,6 +73,19 @@ public class ErrorHandler implements RouteProcessor {
         }
     }
 
+    /*
+     * An HttpStatusAwareException may have been wrapped, for example an IOException thrown while a Consumer read the
+     * request body.
+     */
+    private static Optional<HttpStatusAwareException> statusAware(final Throwable t) {
+        for (Throwable cause : Throwables.getCausalChain(t)) {
+            if (cause instanceof HttpStatusAwareException) {
+                return Optional.of((HttpStatusAwareException) cause);
+            }
+        }
+        return Optional.absent();
+    }
+
     private Object invokeErrorMethod(final RouteContext errorContext, final Throwable rootCause) throws Exception {
         return endpointInvoker.invoke(errorContext, getMethodArguments(errorContext, rootCause));
     }
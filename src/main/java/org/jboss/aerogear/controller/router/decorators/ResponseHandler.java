@@ -25,33 +25,81 @@ import org.jboss.aerogear.controller.router.InvocationResult;
 import org.jboss.aerogear.controller.router.Responders;
 import org.jboss.aerogear.controller.router.RouteContext;
 import org.jboss.aerogear.controller.router.RouteProcessor;
+import org.jboss.aerogear.controller.router.async.ElementStream;
+import org.jboss.aerogear.controller.router.decorators.cache.CapturingResponse;
+import org.jboss.aerogear.controller.router.decorators.cache.ResponseCache;
+
+import com.google.common.base.Optional;
 
 /**
  * ResponseHandler is a CDI Decorator that decorates a {@link RouteProcessor} and is responsible for handling
  * the result from the invoked endpoint. 
+ * </p>
+ * GET requests to routes that are cached are answered from the {@link ResponseCache} if possible, in which case neither
+ * the endpoint nor a {@link org.jboss.aerogear.controller.router.Responder} is invoked. Otherwise the response written
+ * is recorded and cached.
+ * </p>
+ * Requests that were put into asynchronous mode are not responded to, they are responded to once they are dispatched
+ * again by the {@link org.jboss.aerogear.controller.router.async.AsyncDispatcher}. {@link ElementStream} results,
+ * which are written asynchronously after the response was started, are not cached.
  */
 @Decorator
 public class ResponseHandler implements RouteProcessor {
 
     private final RouteProcessor delegate;
     private final Responders responders;
+    private final ResponseCache responseCache;
+
+    /**
+     * Constructs a ResponseHandler with a {@link ResponseCache} using the default configuration.
+     * 
+     * @param delegate the {@link RouteProcessor} that this class decorates.
+     * @param responders the {@link Responders} class that will handle the response processing.
+     */
+    public ResponseHandler(final RouteProcessor delegate, final Responders responders) {
+        this(delegate, responders, new ResponseCache());
+    }
 
     /**
-     * Sole contructor which will have its parameters injected by CDI.
+     * Constructor which will have its parameters injected by CDI.
      * 
      * @param delegate the {@link RouteProcessor} that this class decorates.
      * @param responders the {@link Responders} class that will handle the response processing.
+     * @param responseCache the {@link ResponseCache} holding the responses of cached routes.
      */
     @Inject
-    public ResponseHandler(final @Delegate RouteProcessor delegate, final Responders responders) {
+    public ResponseHandler(final @Delegate RouteProcessor delegate, final Responders responders,
+            final ResponseCache responseCache) {
         this.delegate = delegate;
         this.responders = responders;
+        this.responseCache = responseCache;
     }
 
     @Override
     public InvocationResult process(final RouteContext routeContext) throws Exception {
-        final InvocationResult result = delegate.process(routeContext);
+        final Optional<String> cacheKey = responseCache.keyFor(routeContext, responders);
+        if (!cacheKey.isPresent()) {
+            final InvocationResult result = delegate.process(routeContext);
+            if (routeContext.getRequest().isAsyncStarted()) {
+                return result;
+            }
+            responders.respond(result.getRouteContext(), result.getResult());
+            return result;
+        }
+        if (responseCache.respond(cacheKey.get(), routeContext)) {
+            return new InvocationResult(null, routeContext);
+        }
+        final CapturingResponse capturingResponse = responseCache.capture(routeContext);
+        final InvocationResult result = delegate.process(new RouteContext(routeContext.getRoute(),
+                routeContext.getRequestPath(), routeContext.getPathParameters(), routeContext.getRequest(),
+                capturingResponse, routeContext.getRoutes()));
+        if (routeContext.getRequest().isAsyncStarted()) {
+            return result;
+        }
         responders.respond(result.getRouteContext(), result.getResult());
+        if (result.getRouteContext().getRoute() == routeContext.getRoute() && !(result.getResult() instanceof ElementStream)) {
+            responseCache.put(cacheKey.get(), routeContext.getRoute(), capturingResponse);
+        }
         return result;
     }
 
@@ -0,0 +1,101 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.decorators.cache;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.rest.EntityTags;
+
+/**
+ * A response held by the {@link ResponseCache}: the serialized body, as written to the client, and the headers that
+ * were set while responding.
+ */
+final class CachedResponse {
+
+    private static final int HEADER_OVERHEAD = 32;
+
+    private final Route route;
+    private final String contentType;
+    private final String characterEncoding;
+    private final List<String[]> headers;
+    private final byte[] body;
+    private final long expiresAt;
+    private final long weight;
+
+    CachedResponse(final Route route, final String contentType, final String characterEncoding,
+            final List<String[]> headers, final byte[] body, final long expiresAt) {
+        this.route = route;
+        this.contentType = contentType;
+        this.characterEncoding = characterEncoding;
+        this.headers = headers;
+        this.body = body;
+        this.expiresAt = expiresAt;
+        long headerWeight = 0;
+        for (String[] header : headers) {
+            headerWeight += header[0].length() + header[1].length() + HEADER_OVERHEAD;
+        }
+        this.weight = body.length + headerWeight;
+    }
+
+    Route getRoute() {
+        return route;
+    }
+
+    /**
+     * Returns the approximate number of bytes held by this response.
+     */
+    long getWeight() {
+        return weight;
+    }
+
+    boolean isExpired(final long now) {
+        return now - expiresAt >= 0;
+    }
+
+    /*
+     * A cached response that carries an ETag matching the request's 'If-None-Match' header is answered with
+     * '304 Not Modified'.
+     */
+    void writeTo(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        String etag = null;
+        for (String[] header : headers) {
+            response.addHeader(header[0], header[1]);
+            if (etag == null && "ETag".equalsIgnoreCase(header[0])) {
+                etag = header[1];
+            }
+        }
+        if (etag != null && EntityTags.matches(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+        if (characterEncoding != null) {
+            response.setCharacterEncoding(characterEncoding);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+}
@@ -0,0 +1,246 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.decorators.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.jboss.aerogear.controller.router.Route;
+
+import com.google.common.base.Optional;
+
+/**
+ * A response wrapper that passes everything through to the wrapped response while keeping a copy of the body and of
+ * the headers set, so that the response can be stored in the {@link ResponseCache}.
+ * </p>
+ * Only the headers set through this wrapper are kept, headers that were set on the wrapped response beforehand, for
+ * example CORS headers, are not. Once the body exceeds the maximum size the copy is dropped and the response will not
+ * be cached.
+ */
+public final class CapturingResponse extends HttpServletResponseWrapper {
+
+    private final long maximumSize;
+    private final List<String[]> headers = new ArrayList<String[]>();
+    private final ServletOutputStream stream = new TeeOutputStream();
+    private ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private ServletOutputStream out;
+    private PrintWriter writer;
+    private String contentType;
+    private String characterEncoding;
+    private int status = SC_OK;
+
+    CapturingResponse(final HttpServletResponse response, final long maximumSize) {
+        super(response);
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            final String charset = getCharacterEncoding();
+            writer = new PrintWriter(new OutputStreamWriter(stream, charset == null ? "ISO-8859-1" : charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void setContentType(final String type) {
+        contentType = type;
+        super.setContentType(type);
+    }
+
+    @Override
+    public void setCharacterEncoding(final String charset) {
+        characterEncoding = charset;
+        super.setCharacterEncoding(charset);
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        removeHeader(name);
+        headers.add(new String[] { name, value });
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+        headers.add(new String[] { name, value });
+        super.addHeader(name, value);
+    }
+
+    @Override
+    public void setIntHeader(final String name, final int value) {
+        removeHeader(name);
+        headers.add(new String[] { name, Integer.toString(value) });
+        super.setIntHeader(name, value);
+    }
+
+    @Override
+    public void addIntHeader(final String name, final int value) {
+        headers.add(new String[] { name, Integer.toString(value) });
+        super.addIntHeader(name, value);
+    }
+
+    @Override
+    public void setDateHeader(final String name, final long date) {
+        removeHeader(name);
+        headers.add(new String[] { name, formatDate(date) });
+        super.setDateHeader(name, date);
+    }
+
+    @Override
+    public void addDateHeader(final String name, final long date) {
+        headers.add(new String[] { name, formatDate(date) });
+        super.addDateHeader(name, date);
+    }
+
+    @Override
+    public void setStatus(final int sc) {
+        status = sc;
+        super.setStatus(sc);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void setStatus(final int sc, final String sm) {
+        status = sc;
+        super.setStatus(sc, sm);
+    }
+
+    @Override
+    public void sendError(final int sc) throws IOException {
+        status = sc;
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(final int sc, final String msg) throws IOException {
+        status = sc;
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(final String location) throws IOException {
+        status = SC_FOUND;
+        super.sendRedirect(location);
+    }
+
+    /**
+     * Returns the captured response, provided that it was successful and its body did not exceed the maximum size.
+     * 
+     * @param route the {@link Route} that produced the response.
+     * @param expiresAt the time, as returned by the cache's ticker, when the response expires.
+     * @return {@code Optional<CachedResponse>} the response to cache, or absent if it cannot be cached.
+     */
+    Optional<CachedResponse> toCachedResponse(final Route route, final long expiresAt) {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (status != SC_OK || body == null) {
+            return Optional.absent();
+        }
+        return Optional.of(new CachedResponse(route, contentType, characterEncoding, headers, body.toByteArray(),
+                expiresAt));
+    }
+
+    private void removeHeader(final String name) {
+        for (Iterator<String[]> it = headers.iterator(); it.hasNext();) {
+            if (it.next()[0].equalsIgnoreCase(name)) {
+                it.remove();
+            }
+        }
+    }
+
+    private static String formatDate(final long date) {
+        final SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format.format(new Date(date));
+    }
+
+    private void capture(final byte[] b, final int off, final int len) {
+        if (body != null) {
+            if (body.size() + len > maximumSize) {
+                body = null;
+            } else {
+                body.write(b, off, len);
+            }
+        }
+    }
+
+    private ServletOutputStream out() throws IOException {
+        if (out == null) {
+            out = CapturingResponse.super.getOutputStream();
+        }
+        return out;
+    }
+
+    private final class TeeOutputStream extends ServletOutputStream {
+
+        private final byte[] single = new byte[1];
+
+        @Override
+        public void write(final int b) throws IOException {
+            out().write(b);
+            single[0] = (byte) b;
+            capture(single, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out().write(b, off, len);
+            capture(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out().flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out().close();
+        }
+    }
+
+}
@@ -0,0 +1,308 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.decorators.cache;
+
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.RequestSnapshot;
+import org.jboss.aerogear.controller.router.RequestMethod;
+import org.jboss.aerogear.controller.router.Responders;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.rest.compression.ContentEncoding;
+import org.jboss.aerogear.controller.util.BindingPlan;
+import org.jboss.aerogear.controller.util.RequestUtils;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Ticker;
+
+/**
+ * ResponseCache holds the serialized responses of GET requests to routes that were declared with
+ * {@link org.jboss.aerogear.controller.router.RouteBuilder.TargetEndpoint#cached(long, TimeUnit)}, so that
+ * {@link org.jboss.aerogear.controller.router.decorators.ResponseHandler} can answer a repeated request without
+ * invoking the endpoint or serializing its result.
+ * </p>
+ * Entries are keyed by the request path, the query string, the media type negotiated by {@link Responders}, and the
+ * content encoding negotiated from the 'Accept-Encoding' header. A request parameter of the route that is not in the
+ * query string is bound from a header or cookie of the same name instead, see {@link BindingPlan}, so the value of
+ * that header or cookie is part of the key as well. Entries expire after the route's time to live, and are
+ * evicted in least recently used order once the cached bodies exceed the per route or overall maximum size configured
+ * by {@link ResponseCacheConfiguration}.
+ * </p>
+ * Routes that require roles are never cached, as a cached response is served before the security checks. Routes
+ * whose endpoint reads other headers or cookies, for example through the injected request, must not be declared
+ * cached, as those values are not part of the key.
+ */
+@ApplicationScoped
+public class ResponseCache {
+
+    private final ResponseCacheConfiguration config;
+    private final Ticker ticker;
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true);
+    private final Map<Route, Long> routeWeights = new IdentityHashMap<Route, Long>();
+    private long weight;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public ResponseCache() {
+        this(ResponseCacheConfig.defaultConfig());
+    }
+
+    @Inject
+    public ResponseCache(final Instance<ResponseCacheConfiguration> responseCacheConfigInstance) {
+        this(responseCacheConfigInstance.isUnsatisfied() ? ResponseCacheConfig.defaultConfig()
+                : responseCacheConfigInstance.get());
+    }
+
+    public ResponseCache(final ResponseCacheConfiguration config) {
+        this(config, Ticker.systemTicker());
+    }
+
+    ResponseCache(final ResponseCacheConfiguration config, final Ticker ticker) {
+        this.config = config;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Returns the key that the response to the current request is cached under.
+     * 
+     * @param routeContext the {@link RouteContext} of the current request.
+     * @param responders the {@link Responders} used to negotiate the media type of the response.
+     * @return {@code Optional<String>} the cache key, or absent if the response to this request cannot be cached.
+     */
+    public Optional<String> keyFor(final RouteContext routeContext, final Responders responders) {
+        final Route route = routeContext.getRoute();
+        final HttpServletRequest request = routeContext.getRequest();
+        if (route == null || route.getCacheTtl() <= 0 || !route.getRoles().isEmpty()
+                || !RequestMethod.GET.toString().equalsIgnoreCase(request.getMethod())) {
+            return Optional.absent();
+        }
+        final Optional<MediaType> mediaType = responders.negotiate(routeContext);
+        if (!mediaType.isPresent()) {
+            return Optional.absent();
+        }
+        final Optional<ContentEncoding> encoding = ContentEncoding.negotiate(request.getHeader("Accept-Encoding"));
+        final String path = routeContext.getRequestPath() != null ? routeContext.getRequestPath() : RequestUtils.extractPath(request);
+        final String query = request.getQueryString();
+        final StringBuilder key = new StringBuilder(path.length() + 64).append(path);
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        key.append(' ').append(mediaType.get().getType());
+        key.append(' ').append(encoding.isPresent() ? encoding.get().getToken() : "identity");
+        appendHeadersAndCookies(key, routeContext);
+        return Optional.of(key.toString());
+    }
+
+    /*
+     * Appends the header or cookie values that the request parameters of the route are bound from. Values are length
+     * prefixed so that they cannot be crafted to match the key of another request.
+     */
+    private static void appendHeadersAndCookies(final StringBuilder key, final RouteContext routeContext) {
+        final Route route = routeContext.getRoute();
+        final BindingPlan bindingPlan = route.getBindingPlan() != null ? route.getBindingPlan() : BindingPlan
+                .compile(route.getParameters());
+        final RequestSnapshot snapshot = routeContext.getRequestSnapshot();
+        for (String name : bindingPlan.getRequestParameterNames()) {
+            if (snapshot.getParameterMap().containsKey(name)) {
+                continue;
+            }
+            final String header = routeContext.getRequest().getHeader(name);
+            if (header != null) {
+                appendValue(key, " header:", name, header);
+                continue;
+            }
+            final Optional<String> cookie = snapshot.getCookie(name);
+            if (cookie.isPresent()) {
+                appendValue(key, " cookie:", name, cookie.get());
+            }
+        }
+    }
+
+    private static void appendValue(final StringBuilder key, final String source, final String name, final String value) {
+        key.append(source).append(name).append('=').append(value.length()).append(':').append(value);
+    }
+
+    /**
+     * Writes the response cached under the passed-in key, if there is one that has not expired.
+     * 
+     * @param key the cache key, as returned by {@link #keyFor(RouteContext, Responders)}.
+     * @param routeContext the {@link RouteContext} of the current request.
+     * @return {@code true} if the response was written from the cache.
+     * @throws IOException if writing the response fails.
+     */
+    public boolean respond(final String key, final RouteContext routeContext) throws IOException {
+        final CachedResponse cached = get(key);
+        if (cached == null) {
+            missCount.incrementAndGet();
+            return false;
+        }
+        hitCount.incrementAndGet();
+        cached.writeTo(routeContext.getRequest(), routeContext.getResponse());
+        return true;
+    }
+
+    /**
+     * Returns a response wrapper that records the response written for the current request, so that it can be
+     * {@link #put(String, Route, CapturingResponse)} in the cache once it is complete.
+     * 
+     * @param routeContext the {@link RouteContext} of the current request.
+     * @return {@link CapturingResponse} wrapping the current response.
+     */
+    public CapturingResponse capture(final RouteContext routeContext) {
+        return new CapturingResponse(routeContext.getResponse(), Math.min(maximumSize(routeContext.getRoute()),
+                config.getMaximumSize()));
+    }
+
+    /**
+     * Caches the response recorded by the passed-in {@link CapturingResponse}, if it was successful and fits.
+     * 
+     * @param key the cache key, as returned by {@link #keyFor(RouteContext, Responders)}.
+     * @param route the {@link Route} that produced the response.
+     * @param capturingResponse the response that was written.
+     */
+    public void put(final String key, final Route route, final CapturingResponse capturingResponse) {
+        final long expiresAt = ticker.read() + TimeUnit.MILLISECONDS.toNanos(route.getCacheTtl());
+        final Optional<CachedResponse> cached = capturingResponse.toCachedResponse(route, expiresAt);
+        if (cached.isPresent() && cached.get().getWeight() <= Math.min(maximumSize(route), config.getMaximumSize())) {
+            put(key, cached.get());
+        }
+    }
+
+    /**
+     * Returns the number of requests that were answered from this cache.
+     * 
+     * @return {@code long} the number of cache hits.
+     */
+    public long hitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of cacheable requests that had to be handled by their endpoint.
+     * 
+     * @return {@code long} the number of cache misses.
+     */
+    public long missCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of cached responses.
+     * 
+     * @return {@code int} the number of entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the approximate number of bytes used by the cached responses.
+     * 
+     * @return {@code long} the weight of all entries.
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    /**
+     * Returns the approximate number of bytes used by the cached responses of the passed-in route.
+     * 
+     * @param route the {@link Route}.
+     * @return {@code long} the weight of the route's entries.
+     */
+    public synchronized long weight(final Route route) {
+        final Long routeWeight = routeWeights.get(route);
+        return routeWeight == null ? 0 : routeWeight;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("ResponseCache[")
+                .append("config=").append(config)
+                .append(", hitCount=").append(hitCount)
+                .append(", missCount=").append(missCount)
+                .append("]").toString();
+    }
+
+    private synchronized CachedResponse get(final String key) {
+        final CachedResponse cached = entries.get(key);
+        if (cached != null && cached.isExpired(ticker.read())) {
+            remove(entries.remove(key));
+            return null;
+        }
+        return cached;
+    }
+
+    /*
+     * The entries are kept in access order, so evicting starts with the least recently used entry. The route's own
+     * entries are evicted first, so that a route exceeding its maximum does not evict the entries of other routes.
+     */
+    private synchronized void put(final String key, final CachedResponse cached) {
+        remove(entries.put(key, cached));
+        final Route route = cached.getRoute();
+        weight += cached.getWeight();
+        routeWeights.put(route, weight(route) + cached.getWeight());
+        final long routeMaximum = maximumSize(route);
+        for (Iterator<CachedResponse> it = entries.values().iterator(); it.hasNext() && weight(route) > routeMaximum;) {
+            final CachedResponse eldest = it.next();
+            if (eldest.getRoute() == route) {
+                it.remove();
+                remove(eldest);
+            }
+        }
+        for (Iterator<CachedResponse> it = entries.values().iterator(); it.hasNext() && weight > config.getMaximumSize();) {
+            final CachedResponse eldest = it.next();
+            it.remove();
+            remove(eldest);
+        }
+    }
+
+    /*
+     * Updates the weights for an entry that was removed from the map.
+     */
+    private void remove(final CachedResponse removed) {
+        if (removed == null) {
+            return;
+        }
+        weight -= removed.getWeight();
+        final long routeWeight = weight(removed.getRoute()) - removed.getWeight();
+        if (routeWeight <= 0) {
+            routeWeights.remove(removed.getRoute());
+        } else {
+            routeWeights.put(removed.getRoute(), routeWeight);
+        }
+    }
+
+    private long maximumSize(final Route route) {
+        return route.getCacheMaximumSize() > 0 ? route.getCacheMaximumSize() : config.getMaximumRouteSize();
+    }
+
+}
@@ -0,0 +1,114 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.decorators.cache;
+
+/**
+ * Concrete implementation of {@link ResponseCacheConfiguration}.
+ * </p>
+ * By default the cached responses may use 64 MB in total, and 8 MB per route.
+ * </p>
+ * Example of producing a custom configuration:
+ * <pre>
+ * &#64;Produces
+ * public ResponseCacheConfiguration responseCacheConfig() {
+ *     return ResponseCacheConfig.maximumSize(256 * 1024 * 1024).maximumRouteSize(32 * 1024 * 1024).build();
+ * }
+ * </pre>
+ * 
+ * @see ResponseCache
+ */
+public class ResponseCacheConfig implements ResponseCacheConfiguration {
+
+    private static final long DEFAULT_MAXIMUM_SIZE = 64L * 1024 * 1024;
+    private static final long DEFAULT_MAXIMUM_ROUTE_SIZE = 8L * 1024 * 1024;
+
+    private final long maximumSize;
+    private final long maximumRouteSize;
+
+    private ResponseCacheConfig(final Builder builder) {
+        this.maximumSize = builder.maximumSize;
+        this.maximumRouteSize = builder.maximumRouteSize;
+    }
+
+    /**
+     * Returns a {@link Builder} with the maximum number of bytes of all cached responses set.
+     * 
+     * @param bytes the maximum size of the response cache.
+     * @return {@link Builder} to be used to configure and build a {@link ResponseCacheConfiguration} instance.
+     */
+    public static Builder maximumSize(final long bytes) {
+        return new Builder().maximumSize(bytes);
+    }
+
+    /**
+     * Returns a {@link Builder} with the default maximum number of bytes of the cached responses of a route set.
+     * 
+     * @param bytes the default maximum size per route.
+     * @return {@link Builder} to be used to configure and build a {@link ResponseCacheConfiguration} instance.
+     */
+    public static Builder maximumRouteSize(final long bytes) {
+        return new Builder().maximumRouteSize(bytes);
+    }
+
+    /**
+     * Returns a {@link ResponseCacheConfiguration} instance with the default values for all properties.
+     * 
+     * @return {@link ResponseCacheConfiguration} with default properties set.
+     */
+    public static ResponseCacheConfiguration defaultConfig() {
+        return new Builder().build();
+    }
+
+    @Override
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    @Override
+    public long getMaximumRouteSize() {
+        return maximumRouteSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCacheConfiguration[maximumSize=" + maximumSize + ", maximumRouteSize=" + maximumRouteSize + "]";
+    }
+
+    public static class Builder {
+        private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+        private long maximumRouteSize = DEFAULT_MAXIMUM_ROUTE_SIZE;
+
+        private Builder() {
+        }
+
+        public Builder maximumSize(final long bytes) {
+            maximumSize = bytes;
+            return this;
+        }
+
+        public Builder maximumRouteSize(final long bytes) {
+            maximumRouteSize = bytes;
+            return this;
+        }
+
+        public ResponseCacheConfiguration build() {
+            return new ResponseCacheConfig(this);
+        }
+    }
+
+}
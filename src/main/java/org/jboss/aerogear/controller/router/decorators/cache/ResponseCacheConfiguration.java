@@ -0,0 +1,48 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.decorators.cache;
+
+/**
+ * Configuration for the {@link ResponseCache} that serves the GET requests of routes declared with
+ * {@link org.jboss.aerogear.controller.router.RouteBuilder.TargetEndpoint#cached(long, java.util.concurrent.TimeUnit)}.
+ * </p>
+ * The cache is bounded by the number of bytes of the cached bodies, as a whole and per route, so that a single route
+ * with many distinct query strings cannot evict the responses of all other routes.
+ * </p>
+ * To override the default configuration, provide a CDI producer for this type.
+ * 
+ * @see ResponseCacheConfig
+ */
+public interface ResponseCacheConfiguration {
+
+    /**
+     * Returns the maximum number of bytes that all cached responses together may use.
+     * 
+     * @return {@code long} the maximum size of the response cache.
+     */
+    long getMaximumSize();
+
+    /**
+     * Returns the maximum number of bytes that the cached responses of a single route may use, unless the route
+     * specified its own maximum.
+     * 
+     * @return {@code long} the default maximum size per route.
+     */
+    long getMaximumRouteSize();
+
+}
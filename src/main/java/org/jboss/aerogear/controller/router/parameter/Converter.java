@@ -0,0 +1,38 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.parameter;
+
+/**
+ * A Converter turns the string value of a request parameter, header, cookie or path segment into an instance of the
+ * type of the target endpoint method's parameter.
+ * </p>
+ * Custom converters can be registered by producing a {@link ConverterConfiguration}, see {@link ConverterConfig}.
+ * 
+ * @param T the type this converter produces.
+ */
+public interface Converter<T> {
+
+    /**
+     * Converts the passed-in value.
+     * 
+     * @param value the string value from the request, never {@code null}.
+     * @return {@code T} the converted value.
+     */
+    T convert(String value);
+
+}
@@ -0,0 +1,94 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.parameter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Concrete implementation of {@link ConverterConfiguration}.
+ * </p>
+ * By default no converters are registered, so only the built in ones are used.
+ * </p>
+ * Example of producing a custom configuration:
+ * <pre>
+ * &#64;Produces
+ * public ConverterConfiguration converterConfig() {
+ *     return ConverterConfig.converter(Money.class, new MoneyConverter()).build();
+ * }
+ * </pre>
+ * 
+ * @see Converters
+ */
+public class ConverterConfig implements ConverterConfiguration {
+
+    private final Map<Class<?>, Converter<?>> converters;
+
+    private ConverterConfig(final Builder builder) {
+        this.converters = Collections.unmodifiableMap(new HashMap<Class<?>, Converter<?>>(builder.converters));
+    }
+
+    /**
+     * Returns a {@link Builder} with a {@link Converter} for the passed-in type registered.
+     * 
+     * @param type the type the converter produces.
+     * @param converter the {@link Converter} to register.
+     * @return {@link Builder} to be used to configure and build a {@link ConverterConfiguration} instance.
+     */
+    public static <T> Builder converter(final Class<T> type, final Converter<? extends T> converter) {
+        return new Builder().converter(type, converter);
+    }
+
+    /**
+     * Returns a {@link ConverterConfiguration} instance without any registered converters.
+     * 
+     * @return {@link ConverterConfiguration} with default properties set.
+     */
+    public static ConverterConfiguration defaultConfig() {
+        return new Builder().build();
+    }
+
+    @Override
+    public Map<Class<?>, Converter<?>> getConverters() {
+        return converters;
+    }
+
+    @Override
+    public String toString() {
+        return "ConverterConfiguration[converters=" + converters.keySet() + "]";
+    }
+
+    public static class Builder {
+        private final Map<Class<?>, Converter<?>> converters = new HashMap<Class<?>, Converter<?>>();
+
+        private Builder() {
+        }
+
+        public <T> Builder converter(final Class<T> type, final Converter<? extends T> converter) {
+            converters.put(type, converter);
+            return this;
+        }
+
+        public ConverterConfiguration build() {
+            return new ConverterConfig(this);
+        }
+    }
+
+}
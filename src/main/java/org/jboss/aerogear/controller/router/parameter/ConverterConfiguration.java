@@ -0,0 +1,41 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.parameter;
+
+import java.util.Map;
+
+/**
+ * Configuration for the {@link Converters} used to bind request values to target endpoint method parameters.
+ * </p>
+ * To register converters for types that are not supported out of the box, or to override the built in ones, provide a
+ * CDI producer for this type.
+ * 
+ * @see ConverterConfig
+ */
+public interface ConverterConfiguration {
+
+    /**
+     * Returns the {@link Converter}s to use in addition to, or instead of, the built in ones, keyed by the type they
+     * produce.
+     * 
+     * @return {@code Map} of the types to their {@link Converter}s.
+     */
+    Map<Class<?>, Converter<?>> getConverters();
+
+}
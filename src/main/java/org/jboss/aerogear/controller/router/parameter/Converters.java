@@ -0,0 +1,248 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.parameter;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+
+import com.google.common.base.Throwables;
+
+/**
+ * Converters is the registry of {@link Converter}s used to bind request values to target endpoint method parameters.
+ * </p>
+ * Converters are resolved once per parameter when a route is built. Out of the box the following types are supported:
+ * <ul>
+ * <li>{@code String}</li>
+ * <li>the primitive types and their wrappers, which are parsed directly instead of through a reflective constructor</li>
+ * <li>{@code enum} types, by constant name</li>
+ * <li>{@code UUID}</li>
+ * <li>any other type that has a constructor, or a static {@code valueOf} method, taking a single {@code String}</li>
+ * </ul>
+ * Converters for other types, or to override the ones above, are registered by providing a CDI producer for a
+ * {@link ConverterConfiguration}, see {@link ConverterConfig}.
+ */
+@ApplicationScoped
+public class Converters {
+
+    private static final Map<Class<?>, Converter<?>> BUILT_IN = new HashMap<Class<?>, Converter<?>>();
+
+    static {
+        final Converter<String> string = new Converter<String>() {
+            @Override
+            public String convert(final String value) {
+                return value;
+            }
+        };
+        final Converter<Long> longConverter = new Converter<Long>() {
+            @Override
+            public Long convert(final String value) {
+                return Long.valueOf(Long.parseLong(value));
+            }
+        };
+        final Converter<Integer> intConverter = new Converter<Integer>() {
+            @Override
+            public Integer convert(final String value) {
+                return Integer.valueOf(Integer.parseInt(value));
+            }
+        };
+        final Converter<Short> shortConverter = new Converter<Short>() {
+            @Override
+            public Short convert(final String value) {
+                return Short.valueOf(Short.parseShort(value));
+            }
+        };
+        final Converter<Byte> byteConverter = new Converter<Byte>() {
+            @Override
+            public Byte convert(final String value) {
+                return Byte.valueOf(Byte.parseByte(value));
+            }
+        };
+        final Converter<Double> doubleConverter = new Converter<Double>() {
+            @Override
+            public Double convert(final String value) {
+                return Double.valueOf(Double.parseDouble(value));
+            }
+        };
+        final Converter<Float> floatConverter = new Converter<Float>() {
+            @Override
+            public Float convert(final String value) {
+                return Float.valueOf(Float.parseFloat(value));
+            }
+        };
+        final Converter<Boolean> booleanConverter = new Converter<Boolean>() {
+            @Override
+            public Boolean convert(final String value) {
+                return Boolean.valueOf(value);
+            }
+        };
+        final Converter<Character> charConverter = new Converter<Character>() {
+            @Override
+            public Character convert(final String value) {
+                if (value.length() != 1) {
+                    throw new IllegalArgumentException("Cannot convert '" + value + "' to a char");
+                }
+                return Character.valueOf(value.charAt(0));
+            }
+        };
+        final Converter<UUID> uuidConverter = new Converter<UUID>() {
+            @Override
+            public UUID convert(final String value) {
+                return UUID.fromString(value);
+            }
+        };
+        BUILT_IN.put(String.class, string);
+        BUILT_IN.put(Object.class, string);
+        BUILT_IN.put(CharSequence.class, string);
+        BUILT_IN.put(long.class, longConverter);
+        BUILT_IN.put(Long.class, longConverter);
+        BUILT_IN.put(int.class, intConverter);
+        BUILT_IN.put(Integer.class, intConverter);
+        BUILT_IN.put(short.class, shortConverter);
+        BUILT_IN.put(Short.class, shortConverter);
+        BUILT_IN.put(byte.class, byteConverter);
+        BUILT_IN.put(Byte.class, byteConverter);
+        BUILT_IN.put(double.class, doubleConverter);
+        BUILT_IN.put(Double.class, doubleConverter);
+        BUILT_IN.put(float.class, floatConverter);
+        BUILT_IN.put(Float.class, floatConverter);
+        BUILT_IN.put(boolean.class, booleanConverter);
+        BUILT_IN.put(Boolean.class, booleanConverter);
+        BUILT_IN.put(char.class, charConverter);
+        BUILT_IN.put(Character.class, charConverter);
+        BUILT_IN.put(UUID.class, uuidConverter);
+    }
+
+    private final Map<Class<?>, Converter<?>> registered;
+
+    /**
+     * Constructs Converters with only the built in converters. Also required by CDI so that it can generate proxies for
+     * instances of this class.
+     */
+    public Converters() {
+        this(ConverterConfig.defaultConfig());
+    }
+
+    @Inject
+    public Converters(final Instance<ConverterConfiguration> converterConfigInstance) {
+        this(converterConfigInstance.isUnsatisfied() ? ConverterConfig.defaultConfig() : converterConfigInstance.get());
+    }
+
+    public Converters(final ConverterConfiguration config) {
+        this.registered = new HashMap<Class<?>, Converter<?>>(config.getConverters());
+    }
+
+    /**
+     * Returns the {@link Converter} for the passed-in type.
+     * </p>
+     * If a type cannot be converted the returned converter throws when it is used, so that routes with parameters that
+     * are never read from a string can still be built.
+     * 
+     * @param type the type of the parameter to be converted.
+     * @return {@link Converter} for the passed-in type.
+     */
+    public Converter<?> converterFor(final Class<?> type) {
+        final Converter<?> converter = registered.get(type);
+        if (converter != null) {
+            return converter;
+        }
+        final Converter<?> builtIn = BUILT_IN.get(type);
+        if (builtIn != null) {
+            return builtIn;
+        }
+        if (type.isEnum()) {
+            return enumConverterFor(type);
+        }
+        return reflectiveConverter(type);
+    }
+
+    /*
+     * The caller has checked Class.isEnum(), which the compiler cannot relate to the bound of enumConverter.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Converter<?> enumConverterFor(final Class<?> type) {
+        return enumConverter((Class) type);
+    }
+
+    private static <E extends Enum<E>> Converter<E> enumConverter(final Class<E> type) {
+        return new Converter<E>() {
+            @Override
+            public E convert(final String value) {
+                return Enum.valueOf(type, value);
+            }
+        };
+    }
+
+    /*
+     * Looks up a String constructor, or a static valueOf(String) method, once for types that are not built in.
+     */
+    private static Converter<?> reflectiveConverter(final Class<?> type) {
+        try {
+            final Constructor<?> constructor = type.getDeclaredConstructor(String.class);
+            constructor.setAccessible(true);
+            return new Converter<Object>() {
+                @Override
+                public Object convert(final String value) {
+                    try {
+                        return constructor.newInstance(value);
+                    } catch (final InvocationTargetException e) {
+                        throw Throwables.propagate(e.getCause());
+                    } catch (final Exception e) {
+                        throw Throwables.propagate(e);
+                    }
+                }
+            };
+        } catch (final NoSuchMethodException ignored) {
+        }
+        try {
+            final Method valueOf = type.getMethod("valueOf", String.class);
+            if (Modifier.isStatic(valueOf.getModifiers()) && type.isAssignableFrom(valueOf.getReturnType())) {
+                return new Converter<Object>() {
+                    @Override
+                    public Object convert(final String value) {
+                        try {
+                            return valueOf.invoke(null, value);
+                        } catch (final InvocationTargetException e) {
+                            throw Throwables.propagate(e.getCause());
+                        } catch (final Exception e) {
+                            throw Throwables.propagate(e);
+                        }
+                    }
+                };
+            }
+        } catch (final NoSuchMethodException ignored) {
+        }
+        return new Converter<Object>() {
+            @Override
+            public Object convert(final String value) {
+                throw ExceptionBundle.MESSAGES.noConverterForType(type);
+            }
+        };
+    }
+
+}
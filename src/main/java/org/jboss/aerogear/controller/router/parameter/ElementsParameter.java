@@ -0,0 +1,69 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.parameter;
+
+import java.lang.reflect.Array;
+import java.util.Iterator;
+
+/**
+ * An ElementsParameter is an entity parameter of type {@link Iterator}, whose elements are read from the request body
+ * as the endpoint iterates over them.
+ * </p>
+ * The element type is taken from the generic type of the target method's argument, for example {@code Car} for an
+ * argument declared as {@code Iterator<Car>}, or {@code Object} if the argument does not declare one.
+ * 
+ * @see org.jboss.aerogear.controller.router.StreamingConsumer
+ */
+@SuppressWarnings("rawtypes")
+public class ElementsParameter<T> extends Parameter<Iterator> {
+
+    private final Class<T> elementType;
+    private final Class<T[]> arrayType;
+
+    @SuppressWarnings("unchecked")
+    public ElementsParameter(final Class<T> elementType) {
+        super(Parameter.Type.ENTITY, Iterator.class);
+        this.elementType = elementType;
+        this.arrayType = (Class<T[]>) Array.newInstance(elementType, 0).getClass();
+    }
+
+    /**
+     * Returns the type of the elements of the request body.
+     * 
+     * @return {@code Class} the type of the elements.
+     */
+    public Class<T> getElementType() {
+        return elementType;
+    }
+
+    /**
+     * Returns the array type of the elements, which is used to unmarshall the request body in one go by consumers
+     * that cannot stream it.
+     * 
+     * @return {@code Class} the array type of the elements.
+     */
+    public Class<T[]> getArrayType() {
+        return arrayType;
+    }
+
+    @Override
+    public String toString() {
+        return "ElementsParameter[elementType=" + elementType + "]";
+    }
+
+}
@@ -38,6 +38,10 @@ public class Parameter<T> {
         return new RequestParameter<T>(name, Type.REQUEST, defaultValue, type);
     }
     
+    public static <T> ElementsParameter<T> elements(final Class<T> elementType) {
+        return new ElementsParameter<T>(elementType);
+    }
+
     public static <T> Parameter<T> constant(final T value, final Class<T> type) {
         return new ConstantParameter<T>(value, type);
     }
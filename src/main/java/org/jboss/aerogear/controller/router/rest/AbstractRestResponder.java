@@ -22,19 +22,41 @@ import java.util.Map.Entry;
 
 import javax.servlet.http.HttpServletResponse;
 
+import org.jboss.aerogear.controller.router.ElementWriter;
+import org.jboss.aerogear.controller.router.RequestMethod;
 import org.jboss.aerogear.controller.router.Responder;
 import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.error.ErrorResponse;
+import org.jboss.aerogear.controller.router.rest.compression.CompressingResponse;
+import org.jboss.aerogear.controller.router.rest.compression.ContentEncoding;
+import org.jboss.aerogear.controller.router.rest.compression.ResponseCompressor;
+
+import com.google.common.base.Optional;
 
 /**
  * AbstractRestResponder is a Responder capable of returning a response to a request. </p> This class handles common task such
  * as implementing {@link #accepts(String)} and making sure that certain HTTP headers are always set on the
  * {@link HttpServletResponse}, for example that the 'Content-Type' header is set to the media type that this Responder accepts.
- * 
+ * </p>
+ * The body is compressed if the {@link ResponseCompressor} determines that it should be, in which case the
+ * {@link RouteContext} passed to {@link #writeResponse(Object, RouteContext)} holds a {@link CompressingResponse}.
+ * </p>
+ * Responses to GET and HEAD requests get an 'ETag' if the entity is {@link Versioned}, or if the route has ETags enabled,
+ * in which case the body is buffered and hashed. A request whose 'If-None-Match' header matches the tag is answered with
+ * '304 Not Modified' and no body, and a versioned entity is not serialized at all. The tag only carries the content
+ * encoding if the body is actually compressed, which it is not when it stays below the minimum size.
  */
 public abstract class AbstractRestResponder implements Responder {
 
+    private final ResponseCompressor compressor;
+
     public AbstractRestResponder() {
+        this(new ResponseCompressor());
+    }
+
+    public AbstractRestResponder(final ResponseCompressor compressor) {
+        this.compressor = compressor;
     }
     
     /**
@@ -47,6 +69,17 @@ public abstract class AbstractRestResponder implements Responder {
      */
     public abstract void writeResponse(final Object entity, final RouteContext routeContext) throws Exception;
 
+    /**
+     * Returns the character encoding of the responses written by this Responder, which is 'UTF-8' by default.
+     * </p>
+     * Responders of binary media types return {@code null}, in which case no character encoding is set.
+     * 
+     * @return {@code String} the character encoding, or {@code null} if the responses are not character data.
+     */
+    protected String getCharacterEncoding() {
+        return "UTF-8";
+    }
+
     @Override
     public boolean accepts(final String mediaType) {
         return getMediaType().getType().equals(mediaType);
@@ -54,9 +87,62 @@ public abstract class AbstractRestResponder implements Responder {
 
     @Override
     public void respond(final Object entity, final RouteContext routeContext) throws Exception {
-        final HttpServletResponse response = routeContext.getResponse();
+        setHeaders(entity, routeContext.getResponse());
+        final Optional<CompressingResponse> compressingResponse = compressor.compress(routeContext);
+        if (!compressingResponse.isPresent()) {
+            respond(entity, routeContext, routeContext, compressingResponse);
+            return;
+        }
+        boolean written = false;
+        try {
+            respond(entity, routeContext, withResponse(routeContext, compressingResponse.get()), compressingResponse);
+            written = true;
+        } finally {
+            if (written) {
+                compressingResponse.get().finish();
+            } else {
+                compressingResponse.get().abort();
+            }
+        }
+    }
+
+    /**
+     * Prepares the response of a streamed body, setting its headers just like {@link #respond(Object, RouteContext)}
+     * does, and returns the {@link ElementWriter} created by {@link #openElementWriter(RouteContext)}.
+     * </p>
+     * Streamed bodies are not compressed, as the deflater cannot flush the elements written so far while the next one
+     * is waited for, and they do not get an 'ETag'.
+     * </p>
+     * Responders that support streaming implement {@link org.jboss.aerogear.controller.router.StreamingResponder} and
+     * override {@link #openElementWriter(RouteContext)}.
+     * 
+     * @param routeContext the current {@link RouteContext}.
+     * @return {@link ElementWriter} that writes the elements of the response body.
+     * @throws Exception if the response could not be prepared.
+     */
+    public ElementWriter openStream(final RouteContext routeContext) throws Exception {
+        setHeaders(null, routeContext.getResponse());
+        return openElementWriter(routeContext);
+    }
+
+    /**
+     * Returns an {@link ElementWriter} for the body of the response in the passed-in {@link RouteContext}.
+     * </p>
+     * This implementation does not support streaming and throws an {@link UnsupportedOperationException}.
+     * 
+     * @param writeContext the {@link RouteContext} holding the response to write to.
+     * @return {@link ElementWriter} that writes the elements of the response body.
+     * @throws Exception if the ElementWriter could not be created.
+     */
+    protected ElementWriter openElementWriter(final RouteContext writeContext) throws Exception {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support streamed responses");
+    }
+
+    private void setHeaders(final Object entity, final HttpServletResponse response) {
         response.setContentType(getMediaType().getType());
-        response.setCharacterEncoding("UTF-8");
+        if (getCharacterEncoding() != null) {
+            response.setCharacterEncoding(getCharacterEncoding());
+        }
         if (entity instanceof ResponseHeaders) {
             final ResponseHeaders responseHeaders = (ResponseHeaders) entity;
             final Map<String, String> headers = responseHeaders.headers();
@@ -64,7 +150,78 @@ public abstract class AbstractRestResponder implements Responder {
                 response.setHeader(entrySet.getKey(), entrySet.getValue());
             }
         }
-        writeResponse(entity, routeContext);
+    }
+
+    private void respond(final Object entity, final RouteContext routeContext, final RouteContext writeContext,
+            final Optional<CompressingResponse> compressingResponse) throws Exception {
+        if (!isConditional(entity, routeContext)) {
+            writeResponse(entity, writeContext);
+            return;
+        }
+        final Optional<String> versionTag = EntityTags.fromVersion(entity, getMediaType(), Optional.<ContentEncoding> absent());
+        if (versionTag.isPresent()) {
+            if (!notModified(versionTag(entity, versionTag.get(), routeContext, compressingResponse), routeContext)) {
+                writeResponse(entity, writeContext);
+            }
+            return;
+        }
+        if (!routeContext.getRoute().isETagEnabled()) {
+            writeResponse(entity, writeContext);
+            return;
+        }
+        final BufferingResponse bufferingResponse = new BufferingResponse(routeContext.getResponse());
+        writeResponse(entity, withResponse(routeContext, bufferingResponse));
+        final byte[] body = bufferingResponse.toByteArray();
+        final Optional<ContentEncoding> encoding = compressingResponse.isPresent() && compressingResponse.get().compresses(body.length)
+                ? Optional.of(compressingResponse.get().getEncoding()) : Optional.<ContentEncoding> absent();
+        if (!notModified(EntityTags.fromBody(body, encoding), routeContext)) {
+            writeContext.getResponse().getOutputStream().write(body);
+        }
+    }
+
+    /*
+     * Whether the body of a versioned entity is compressed is only known once it has been written, so the tag of the
+     * uncompressed representation is set and replaced when compression starts. A request for the compressed
+     * representation is matched against its tag, as the body of an unchanged version is compressed again.
+     */
+    private String versionTag(final Object entity, final String tag, final RouteContext routeContext,
+            final Optional<CompressingResponse> compressingResponse) {
+        if (!compressingResponse.isPresent()) {
+            return tag;
+        }
+        final String compressedTag = EntityTags.fromVersion(entity, getMediaType(),
+                Optional.of(compressingResponse.get().getEncoding())).get();
+        if (EntityTags.matches(routeContext.getRequest().getHeader("If-None-Match"), compressedTag)) {
+            return compressedTag;
+        }
+        compressingResponse.get().setCompressedTag(compressedTag);
+        return tag;
+    }
+
+    /*
+     * Only successful responses to GET and HEAD requests carry an ETag.
+     */
+    private static boolean isConditional(final Object entity, final RouteContext routeContext) {
+        if (entity == null || entity instanceof ErrorResponse || routeContext.getRoute() == null) {
+            return false;
+        }
+        final String method = routeContext.getRequest().getMethod();
+        return RequestMethod.GET.toString().equalsIgnoreCase(method) || RequestMethod.HEAD.toString().equalsIgnoreCase(method);
+    }
+
+    private static boolean notModified(final String tag, final RouteContext routeContext) {
+        final HttpServletResponse response = routeContext.getResponse();
+        response.setHeader("ETag", tag);
+        if (EntityTags.matches(routeContext.getRequest().getHeader("If-None-Match"), tag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    private static RouteContext withResponse(final RouteContext routeContext, final HttpServletResponse response) {
+        return new RouteContext(routeContext.getRoute(), routeContext.getRequestPath(), routeContext.getPathParameters(),
+                routeContext.getRequest(), response, routeContext.getRoutes());
     }
 
 }
@@ -0,0 +1,91 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * A response wrapper that collects the body in memory, so that it can be inspected before it is written to the
+ * wrapped response. Headers and status are passed through.
+ */
+class BufferingResponse extends HttpServletResponseWrapper {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final ServletOutputStream stream = new ServletOutputStream() {
+        @Override
+        public void write(final int b) {
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            buffer.write(b, off, len);
+        }
+    };
+    private PrintWriter writer;
+
+    BufferingResponse(final HttpServletResponse response) {
+        super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            final String charset = getCharacterEncoding();
+            writer = new PrintWriter(new OutputStreamWriter(stream, charset == null ? "ISO-8859-1" : charset));
+        }
+        return writer;
+    }
+
+    /**
+     * Ignored, the length of the body is determined when it is written to the wrapped response.
+     */
+    @Override
+    public void setContentLength(final int length) {
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Returns the body written so far.
+     * 
+     * @return {@code byte[]} the bytes of the body.
+     */
+    byte[] toByteArray() {
+        flushBuffer();
+        return buffer.toByteArray();
+    }
+
+}
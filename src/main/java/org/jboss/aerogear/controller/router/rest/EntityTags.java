@@ -0,0 +1,123 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.rest.compression.ContentEncoding;
+
+import com.google.common.base.Optional;
+
+/**
+ * Creates and matches the strong entity tags used for conditional GET requests, see RFC 2616, section 14.19.
+ * </p>
+ * A compressed response is a different representation from the uncompressed one, so the content encoding is appended to
+ * the opaque value of its tag. The tag of a {@link Versioned} entity also carries the media type it is written as, as
+ * the same version is written differently by, for example, the JSON and Smile responders. Tags computed from the body
+ * differ per media type already.
+ */
+public final class EntityTags {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private EntityTags() {
+    }
+
+    /**
+     * Returns the tag for a {@link Versioned} entity.
+     * 
+     * @param entity the entity returned by the endpoint.
+     * @param mediaType the {@link MediaType} the entity is written as.
+     * @param encoding the content encoding of the response, if it is compressed.
+     * @return {@code Optional<String>} the quoted tag, or absent if the entity is not versioned.
+     */
+    static Optional<String> fromVersion(final Object entity, final MediaType mediaType,
+            final Optional<ContentEncoding> encoding) {
+        if (entity instanceof Versioned) {
+            final String version = ((Versioned) entity).version();
+            if (version != null) {
+                final String type = mediaType.getType();
+                return Optional.of(quote(version + '-' + type.substring(type.indexOf('/') + 1), encoding));
+            }
+        }
+        return Optional.absent();
+    }
+
+    /**
+     * Returns the tag for a serialized body, a hex encoded MD5 hash of its bytes.
+     * 
+     * @param body the serialized, uncompressed, body.
+     * @param encoding the content encoding of the response, if it is compressed.
+     * @return {@code String} the quoted tag.
+     */
+    static String fromBody(final byte[] body, final Optional<ContentEncoding> encoding) {
+        final byte[] digest = md5().digest(body);
+        final char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+        }
+        return quote(new String(hex), encoding);
+    }
+
+    /**
+     * Determines if the value of an 'If-None-Match' request header matches a tag, using the weak comparison function
+     * as required for that header.
+     * 
+     * @param ifNoneMatch the value of the 'If-None-Match' header, which may be {@code null}.
+     * @param tag the quoted tag of the current representation.
+     * @return {@code true} if the header lists the tag, or is '*'.
+     */
+    public static boolean matches(final String ifNoneMatch, final String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*")) {
+                return true;
+            }
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String quote(final String value, final Optional<ContentEncoding> encoding) {
+        final StringBuilder sb = new StringBuilder(value.length() + 10).append('"').append(value);
+        if (encoding.isPresent()) {
+            sb.append('-').append(encoding.get().getToken());
+        }
+        return sb.append('"').toString();
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
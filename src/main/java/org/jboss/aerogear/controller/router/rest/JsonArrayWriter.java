@@ -0,0 +1,83 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.jboss.aerogear.controller.router.ElementWriter;
+
+import com.google.common.io.Closeables;
+
+/**
+ * An {@link ElementWriter} that writes its elements as a JSON array, using the generator of a {@link JsonCodec}.
+ * </p>
+ * The array is opened when the writer is created. The response is flushed as configured by
+ * {@link JsonConfiguration#getStreamFlushElements()} and {@link JsonConfiguration#getStreamFlushBytes()}, and whenever
+ * {@link #flush()} is called.
+ */
+class JsonArrayWriter implements ElementWriter {
+
+    private final JsonCodec codec;
+    private final int flushElements;
+    private final ThresholdFlushingOutputStream out;
+    private final JsonGenerator generator;
+    private int elements;
+
+    JsonArrayWriter(final JsonCodec codec, final OutputStream out) throws IOException {
+        this.codec = codec;
+        this.flushElements = codec.getConfiguration().getStreamFlushElements();
+        this.out = new ThresholdFlushingOutputStream(out, codec.getConfiguration().getStreamFlushBytes());
+        this.generator = codec.createGenerator(this.out);
+        generator.writeStartArray();
+    }
+
+    @Override
+    public void write(final Object element) throws IOException {
+        if (element == null) {
+            generator.writeNull();
+        } else {
+            codec.writerFor(element.getClass()).writeValue(generator, element);
+        }
+        generator.flush();
+        if (flushElements > 0 && ++elements == flushElements) {
+            out.flushThrough();
+            elements = 0;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+        out.flushThrough();
+        elements = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    @Override
+    public void abort() {
+        Closeables.closeQuietly(out);
+    }
+
+}
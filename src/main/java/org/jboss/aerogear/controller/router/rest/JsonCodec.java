@@ -0,0 +1,215 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.MappingJsonFactory;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectReader;
+import org.codehaus.jackson.map.ObjectWriter;
+import org.codehaus.jackson.map.SerializationConfig;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.Routes;
+import org.jboss.aerogear.controller.router.parameter.ElementsParameter;
+import org.jboss.aerogear.controller.router.parameter.Parameter;
+import org.jboss.aerogear.controller.router.rest.pagination.PaginationInfo;
+
+/**
+ * JsonCodec holds the single Jackson {@link ObjectMapper} used by {@link JsonConsumer} and {@link JsonResponder}, 
+ * configured once from the {@link JsonConfiguration}.
+ * </p>
+ * An {@link ObjectReader} is cached per target type and an {@link ObjectWriter} per runtime type of the entities
+ * written. Both are immutable and thread safe, so requests do not pay for creating or configuring a mapper.
+ * </p>
+ * When the {@link Routes} are built the readers and writers for the entity parameter types and the return types of
+ * the target methods are created, and the Jackson (de)serializers for them resolved, up front.
+ */
+@ApplicationScoped
+public class JsonCodec {
+
+    private final JsonConfiguration jsonConfig;
+    private final ObjectMapper mapper;
+    private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<Class<?>, ObjectReader>();
+    private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<Class<?>, ObjectWriter>();
+
+    public JsonCodec() {
+        this(JsonConfig.defaultConfig());
+    }
+
+    @Inject
+    public JsonCodec(final Instance<JsonConfiguration> jsonConfigInstance) {
+        this(jsonConfigInstance.isUnsatisfied() ? JsonConfig.defaultConfig() : jsonConfigInstance.get());
+    }
+
+    public JsonCodec(final JsonConfiguration jsonConfig) {
+        this(jsonConfig, new MappingJsonFactory());
+    }
+
+    /**
+     * Constructor for codecs of other formats supported by Jackson, like Smile.
+     * 
+     * @param jsonConfig the {@link JsonConfiguration} to configure the mapper with.
+     * @param jsonFactory the {@link JsonFactory} creating the parsers and generators for the format.
+     */
+    protected JsonCodec(final JsonConfiguration jsonConfig, final JsonFactory jsonFactory) {
+        this.jsonConfig = jsonConfig;
+        mapper = new ObjectMapper(jsonFactory);
+        for (Entry<DeserializationConfig.Feature, Boolean> feature : jsonConfig.getDeserializationFeatures().entrySet()) {
+            mapper.configure(feature.getKey(), feature.getValue());
+        }
+        for (Entry<SerializationConfig.Feature, Boolean> feature : jsonConfig.getSerializationFeatures().entrySet()) {
+            mapper.configure(feature.getKey(), feature.getValue());
+        }
+    }
+
+    /**
+     * Returns the {@link ObjectReader} for the passed-in type.
+     * 
+     * @param type the type that JSON content should be read into.
+     * @return {@link ObjectReader} that reads instances of the passed-in type.
+     */
+    public ObjectReader readerFor(final Class<?> type) {
+        final ObjectReader reader = readers.get(type);
+        if (reader != null) {
+            return reader;
+        }
+        final ObjectReader created = mapper.reader(type);
+        final ObjectReader existing = readers.putIfAbsent(type, created);
+        return existing == null ? created : existing;
+    }
+
+    /**
+     * Returns the {@link ObjectWriter} for the passed-in type.
+     * 
+     * @param type the runtime type of the entities to be written.
+     * @return {@link ObjectWriter} that writes instances of the passed-in type.
+     */
+    public ObjectWriter writerFor(final Class<?> type) {
+        final ObjectWriter writer = writers.get(type);
+        if (writer != null) {
+            return writer;
+        }
+        final ObjectWriter created = mapper.writerWithType(type);
+        final ObjectWriter existing = writers.putIfAbsent(type, created);
+        return existing == null ? created : existing;
+    }
+
+    /**
+     * Creates a {@link JsonGenerator} writing UTF-8 encoded JSON to the passed-in stream, for content that is written
+     * incrementally.
+     * 
+     * @param out the {@link OutputStream} to write to.
+     * @return {@link JsonGenerator} which uses the pretty printer if output indentation is enabled.
+     * @throws IOException if the generator could not be created.
+     */
+    public JsonGenerator createGenerator(final OutputStream out) throws IOException {
+        final JsonGenerator generator = mapper.getJsonFactory().createJsonGenerator(out, JsonEncoding.UTF8);
+        if (mapper.getSerializationConfig().isEnabled(SerializationConfig.Feature.INDENT_OUTPUT)) {
+            generator.useDefaultPrettyPrinter();
+        }
+        return generator;
+    }
+
+    /**
+     * Creates a {@link JsonParser} reading JSON from the passed-in stream, for content that is read incrementally.
+     * 
+     * @param in the {@link InputStream} to read from.
+     * @return {@link JsonParser} reading from the passed-in stream.
+     * @throws IOException if the parser could not be created.
+     */
+    public JsonParser createParser(final InputStream in) throws IOException {
+        return mapper.getJsonFactory().createJsonParser(in);
+    }
+
+    /**
+     * Returns the {@link JsonConfiguration} this codec was configured with.
+     * 
+     * @return {@link JsonConfiguration} the JSON configuration.
+     */
+    public JsonConfiguration getConfiguration() {
+        return jsonConfig;
+    }
+
+    /**
+     * Creates the readers for the entity parameters, and the writers for the return types, of the passed-in routes.
+     * </p>
+     * Only concrete return types are prepared, as writers are looked up by the runtime type of the returned entity.
+     * 
+     * @param routes the {@link Routes} that were built for the application.
+     */
+    public void warmUp(@Observes final Routes routes) {
+        for (Route route : routes.getRoutes()) {
+            for (Parameter<?> parameter : route.getParameters()) {
+                if (parameter instanceof ElementsParameter) {
+                    final Class<?> elementType = ((ElementsParameter<?>) parameter).getElementType();
+                    readerFor(elementType);
+                    mapper.canDeserialize(mapper.constructType(elementType));
+                } else if (parameter.getParameterType() == Parameter.Type.ENTITY && parameter.getType() != PaginationInfo.class) {
+                    readerFor(parameter.getType());
+                    mapper.canDeserialize(mapper.constructType(parameter.getType()));
+                }
+            }
+            final Method targetMethod = route.getTargetMethod();
+            if (targetMethod != null && isConcrete(targetMethod.getReturnType())) {
+                writerFor(targetMethod.getReturnType());
+                mapper.canSerialize(targetMethod.getReturnType());
+            }
+        }
+    }
+
+    Set<Class<?>> getReaderTypes() {
+        return Collections.unmodifiableSet(readers.keySet());
+    }
+
+    Set<Class<?>> getWriterTypes() {
+        return Collections.unmodifiableSet(writers.keySet());
+    }
+
+    private static boolean isConcrete(final Class<?> type) {
+        if (type.isArray()) {
+            return true;
+        }
+        return !type.isPrimitive() && !type.isInterface() && !Modifier.isAbstract(type.getModifiers());
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[readers=" + readers.keySet() + ", writers=" + writers.keySet() + "]";
+    }
+
+}
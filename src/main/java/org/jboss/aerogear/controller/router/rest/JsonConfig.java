@@ -0,0 +1,206 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.SerializationConfig;
+
+/**
+ * Concrete implementation of {@link JsonConfiguration}.
+ * </p>
+ * Unknown properties in a request body are ignored by default, that is
+ * {@link DeserializationConfig.Feature#FAIL_ON_UNKNOWN_PROPERTIES} is disabled. Streamed JSON arrays are flushed
+ * every 32768 bytes.
+ * </p>
+ * Example of producing a custom configuration:
+ * <pre>
+ * &#64;Produces
+ * public JsonConfiguration jsonConfig() {
+ *     return JsonConfig.enable(SerializationConfig.Feature.INDENT_OUTPUT).build();
+ * }
+ * </pre>
+ */
+public class JsonConfig implements JsonConfiguration {
+
+    private static final int DEFAULT_STREAM_FLUSH_BYTES = 32768;
+
+    private final Map<DeserializationConfig.Feature, Boolean> deserializationFeatures;
+    private final Map<SerializationConfig.Feature, Boolean> serializationFeatures;
+    private final int streamFlushElements;
+    private final int streamFlushBytes;
+
+    private JsonConfig(final Builder builder) {
+        this.deserializationFeatures = Collections.unmodifiableMap(
+                new EnumMap<DeserializationConfig.Feature, Boolean>(builder.deserializationFeatures));
+        this.serializationFeatures = Collections.unmodifiableMap(
+                new EnumMap<SerializationConfig.Feature, Boolean>(builder.serializationFeatures));
+        this.streamFlushElements = builder.streamFlushElements;
+        this.streamFlushBytes = builder.streamFlushBytes;
+    }
+
+    /**
+     * Returns a {@link Builder} with the passed-in deserialization feature enabled.
+     * 
+     * @param feature the {@link DeserializationConfig.Feature} to enable.
+     * @return {@link Builder} to be used to configure and build a {@link JsonConfiguration} instance.
+     */
+    public static Builder enable(final DeserializationConfig.Feature feature) {
+        return new Builder().enable(feature);
+    }
+
+    /**
+     * Returns a {@link Builder} with the passed-in deserialization feature disabled.
+     * 
+     * @param feature the {@link DeserializationConfig.Feature} to disable.
+     * @return {@link Builder} to be used to configure and build a {@link JsonConfiguration} instance.
+     */
+    public static Builder disable(final DeserializationConfig.Feature feature) {
+        return new Builder().disable(feature);
+    }
+
+    /**
+     * Returns a {@link Builder} with the passed-in serialization feature enabled.
+     * 
+     * @param feature the {@link SerializationConfig.Feature} to enable.
+     * @return {@link Builder} to be used to configure and build a {@link JsonConfiguration} instance.
+     */
+    public static Builder enable(final SerializationConfig.Feature feature) {
+        return new Builder().enable(feature);
+    }
+
+    /**
+     * Returns a {@link Builder} with the passed-in serialization feature disabled.
+     * 
+     * @param feature the {@link SerializationConfig.Feature} to disable.
+     * @return {@link Builder} to be used to configure and build a {@link JsonConfiguration} instance.
+     */
+    public static Builder disable(final SerializationConfig.Feature feature) {
+        return new Builder().disable(feature);
+    }
+
+    /**
+     * Returns a {@link Builder} with the number of elements after which a streamed JSON array is flushed set.
+     * 
+     * @param elements the number of elements between flushes, or {@code 0} to not flush by element count.
+     * @return {@link Builder} to be used to configure and build a {@link JsonConfiguration} instance.
+     */
+    public static Builder streamFlushElements(final int elements) {
+        return new Builder().streamFlushElements(elements);
+    }
+
+    /**
+     * Returns a {@link Builder} with the number of bytes after which a streamed JSON array is flushed set.
+     * 
+     * @param bytes the number of bytes between flushes, or {@code 0} to not flush by size.
+     * @return {@link Builder} to be used to configure and build a {@link JsonConfiguration} instance.
+     */
+    public static Builder streamFlushBytes(final int bytes) {
+        return new Builder().streamFlushBytes(bytes);
+    }
+
+    /**
+     * Returns a {@link JsonConfiguration} instance with the default values for all properties.
+     * 
+     * @return {@link JsonConfiguration} with default properties set.
+     */
+    public static JsonConfiguration defaultConfig() {
+        return new Builder().build();
+    }
+
+    @Override
+    public Map<DeserializationConfig.Feature, Boolean> getDeserializationFeatures() {
+        return deserializationFeatures;
+    }
+
+    @Override
+    public Map<SerializationConfig.Feature, Boolean> getSerializationFeatures() {
+        return serializationFeatures;
+    }
+
+    @Override
+    public int getStreamFlushElements() {
+        return streamFlushElements;
+    }
+
+    @Override
+    public int getStreamFlushBytes() {
+        return streamFlushBytes;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("JsonConfiguration[")
+                .append("deserializationFeatures=").append(deserializationFeatures)
+                .append(", serializationFeatures=").append(serializationFeatures)
+                .append(", streamFlushElements=").append(streamFlushElements)
+                .append(", streamFlushBytes=").append(streamFlushBytes)
+                .append("]").toString();
+    }
+
+    public static class Builder {
+        private final Map<DeserializationConfig.Feature, Boolean> deserializationFeatures =
+                new EnumMap<DeserializationConfig.Feature, Boolean>(DeserializationConfig.Feature.class);
+        private final Map<SerializationConfig.Feature, Boolean> serializationFeatures =
+                new EnumMap<SerializationConfig.Feature, Boolean>(SerializationConfig.Feature.class);
+        private int streamFlushElements;
+        private int streamFlushBytes = DEFAULT_STREAM_FLUSH_BYTES;
+
+        private Builder() {
+            deserializationFeatures.put(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        }
+
+        public Builder enable(final DeserializationConfig.Feature feature) {
+            deserializationFeatures.put(feature, true);
+            return this;
+        }
+
+        public Builder disable(final DeserializationConfig.Feature feature) {
+            deserializationFeatures.put(feature, false);
+            return this;
+        }
+
+        public Builder enable(final SerializationConfig.Feature feature) {
+            serializationFeatures.put(feature, true);
+            return this;
+        }
+
+        public Builder disable(final SerializationConfig.Feature feature) {
+            serializationFeatures.put(feature, false);
+            return this;
+        }
+
+        public Builder streamFlushElements(final int elements) {
+            streamFlushElements = elements;
+            return this;
+        }
+
+        public Builder streamFlushBytes(final int bytes) {
+            streamFlushBytes = bytes;
+            return this;
+        }
+
+        public JsonConfiguration build() {
+            return new JsonConfig(this);
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.util.Map;
+
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.SerializationConfig;
+
+/**
+ * Configuration of the JSON support provided by {@link JsonConsumer} and {@link JsonResponder}.
+ * </p>
+ * The Jackson {@code ObjectMapper} they share is created once, by {@link JsonCodec}, and is not reconfigured afterwards.
+ * The same configuration applies to the Smile support provided by {@link SmileConsumer} and {@link SmileResponder}.
+ * </p>
+ * To override the default configuration, provide a CDI producer for this type.
+ * 
+ * @see JsonConfig
+ */
+public interface JsonConfiguration {
+
+    /**
+     * Returns the deserialization features to be enabled, {@code true}, or disabled, {@code false}.
+     * 
+     * @return {@code Map} of the deserialization features that differ from Jackson's defaults.
+     */
+    Map<DeserializationConfig.Feature, Boolean> getDeserializationFeatures();
+
+    /**
+     * Returns the serialization features to be enabled, {@code true}, or disabled, {@code false}.
+     * 
+     * @return {@code Map} of the serialization features that differ from Jackson's defaults.
+     */
+    Map<SerializationConfig.Feature, Boolean> getSerializationFeatures();
+
+    /**
+     * Returns the number of elements after which a streamed JSON array is flushed to the client.
+     * 
+     * @return {@code int} the number of elements between flushes, or {@code 0} to not flush by element count.
+     */
+    int getStreamFlushElements();
+
+    /**
+     * Returns the number of bytes after which a streamed JSON array is flushed to the client.
+     * 
+     * @return {@code int} the number of bytes between flushes, or {@code 0} to not flush by size.
+     */
+    int getStreamFlushBytes();
+
+}
@@ -18,20 +18,37 @@
 package org.jboss.aerogear.controller.router.rest;
 
 import java.io.IOException;
+import java.util.Iterator;
 
+import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 
-import org.codehaus.jackson.map.DeserializationConfig.Feature;
-import org.codehaus.jackson.map.ObjectMapper;
 import org.jboss.aerogear.controller.router.AeroGearException;
-import org.jboss.aerogear.controller.router.Consumer;
 import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.StreamingConsumer;
 
 /**
  * Concrete Consumer that is able to unmarshall a Http request body into a Java representation. </p> JSON support is provided by
  * Jackson.
+ * </p>
+ * The request body is read by the {@link org.codehaus.jackson.map.ObjectReader} that the shared {@link JsonCodec} holds
+ * for the target type.
+ * </p>
+ * As a {@link StreamingConsumer} it reads a JSON array one element at a time, for endpoints that take an
+ * {@code Iterator<T>}.
  */
-public class JsonConsumer implements Consumer {
+public class JsonConsumer implements StreamingConsumer {
+
+    private final JsonCodec codec;
+
+    public JsonConsumer() {
+        this(new JsonCodec());
+    }
+
+    @Inject
+    public JsonConsumer(final JsonCodec codec) {
+        this.codec = codec;
+    }
 
     @Override
     public String mediaType() {
@@ -41,9 +58,16 @@ public class JsonConsumer implements Consumer {
     @Override
     public <T> T unmarshall(final HttpServletRequest request, final Class<T> type) {
         try {
-            final ObjectMapper om = new ObjectMapper();
-            om.configure(Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            return om.readValue(request.getInputStream(), type);
+            return codec.readerFor(type).<T> readValue(request.getInputStream());
+        } catch (final IOException e) {
+            throw new AeroGearException(e);
+        }
+    }
+
+    @Override
+    public <T> Iterator<T> unmarshallElements(final HttpServletRequest request, final Class<T> elementType) {
+        try {
+            return new JsonElementIterator<T>(codec.createParser(request.getInputStream()), codec.readerFor(elementType));
         } catch (final IOException e) {
             throw new AeroGearException(e);
         }
@@ -0,0 +1,90 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.ObjectReader;
+import org.jboss.aerogear.controller.router.AeroGearException;
+
+/**
+ * An Iterator that reads the elements of a JSON array from a {@link JsonParser} as they are requested, so that only
+ * the current element is held in memory.
+ * </p>
+ * A JSON document that is not an array is treated as an array holding that single value. The parser is closed once
+ * the end of the array has been reached, or when this Iterator is closed.
+ */
+class JsonElementIterator<T> implements Iterator<T>, Closeable {
+
+    private final JsonParser parser;
+    private final ObjectReader reader;
+    private final boolean array;
+    private JsonToken next;
+
+    JsonElementIterator(final JsonParser parser, final ObjectReader reader) throws IOException {
+        this.parser = parser;
+        this.reader = reader;
+        next = parser.nextToken();
+        array = next == JsonToken.START_ARRAY;
+        if (array) {
+            next = parser.nextToken();
+        }
+        if (next == null || next == JsonToken.END_ARRAY) {
+            close();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null && next != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            final T element = reader.<T> readValue(parser);
+            next = array ? parser.nextToken() : null;
+            if (!hasNext()) {
+                close();
+            }
+            return element;
+        } catch (final IOException e) {
+            throw new AeroGearException(e);
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() throws IOException {
+        next = null;
+        parser.close();
+    }
+
+}
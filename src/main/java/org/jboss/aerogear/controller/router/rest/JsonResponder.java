@@ -17,22 +17,55 @@
 
 package org.jboss.aerogear.controller.router.rest;
 
-import org.codehaus.jackson.map.ObjectMapper;
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.Iterator;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.router.ElementWriter;
 import org.jboss.aerogear.controller.router.MediaType;
 import org.jboss.aerogear.controller.router.RequestMethod;
 import org.jboss.aerogear.controller.router.Responder;
 import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.StreamingResponder;
 import org.jboss.aerogear.controller.router.error.ErrorResponse;
+import org.jboss.aerogear.controller.router.rest.compression.ResponseCompressor;
+
+import com.google.common.io.Closeables;
 
 /**
  * A RESTFul {@link Responder} that is able to return JSON responses. </p> This implementation uses Jackson for JSON support.
+ * </p>
+ * Entities are written by the {@link org.codehaus.jackson.map.ObjectWriter} that the shared {@link JsonCodec} holds
+ * for their runtime type.
+ * </p>
+ * An endpoint returning an {@link Iterator}, or an {@link Iterable} that is not a {@link Collection}, for example a
+ * database cursor, has its elements streamed to the client as a JSON array, one element at a time, so that they do
+ * not have to be held in memory. The response is flushed as configured by {@link JsonConfiguration#getStreamFlushElements()}
+ * and {@link JsonConfiguration#getStreamFlushBytes()}. If the returned iterator or iterable is {@link Closeable} it is
+ * closed once the response has been written.
+ * </p>
+ * An endpoint returning an {@link org.jboss.aerogear.controller.router.async.ElementStream} has its elements written
+ * as a JSON array as they become available, see {@link org.jboss.aerogear.controller.router.async.ElementStreams}.
  */
-public class JsonResponder extends AbstractRestResponder {
+public class JsonResponder extends AbstractRestResponder implements StreamingResponder {
 
-    private final ObjectMapper mapper;
+    private final JsonCodec codec;
 
     public JsonResponder() {
-        mapper = new ObjectMapper();
+        this(new JsonCodec());
+    }
+
+    public JsonResponder(final JsonCodec codec) {
+        this(codec, new ResponseCompressor());
+    }
+
+    @Inject
+    public JsonResponder(final JsonCodec codec, final ResponseCompressor compressor) {
+        super(compressor);
+        this.codec = codec;
     }
 
     @Override
@@ -41,6 +74,8 @@ public class JsonResponder extends AbstractRestResponder {
             final ErrorResponse errorResponse = (ErrorResponse) entity;
             routeContext.getResponse().setStatus(errorResponse.statusCode());
             writeJsonResponse(errorResponse.content(), routeContext);
+        } else if (isStreamable(entity)) {
+            streamJsonResponse(entity, routeContext);
         } else {
             if (entity != null) {
                 writeJsonResponse(entity, routeContext);
@@ -49,9 +84,89 @@ public class JsonResponder extends AbstractRestResponder {
     }
 
     private void writeJsonResponse(final Object entity, final RouteContext routeContext) throws Exception {
-        String requestMethod = routeContext.getRequest().getMethod() ;
-        if (requestMethod != null && !requestMethod.equalsIgnoreCase(RequestMethod.OPTIONS.toString())) {
-            mapper.writeValue(routeContext.getResponse().getWriter(), entity);
+        if (hasBody(routeContext)) {
+            writeEntity(entity, routeContext.getResponse());
+        }
+    }
+
+    /**
+     * Writes a single entity to the response using the {@link JsonCodec} of this Responder.
+     * 
+     * @param entity the entity to write, which is written as {@code null} if it is null.
+     * @param response the {@link HttpServletResponse} to write to.
+     * @throws Exception if the entity could not be written.
+     */
+    protected void writeEntity(final Object entity, final HttpServletResponse response) throws Exception {
+        codec.writerFor(typeOf(entity)).writeValue(response.getWriter(), entity);
+    }
+
+    /**
+     * Returns the type to look up the {@link org.codehaus.jackson.map.ObjectWriter} for the passed-in entity by.
+     * 
+     * @param entity the entity to be written, may be null.
+     * @return {@code Class} the runtime type of the entity, or {@code Object} for a null entity.
+     */
+    protected static Class<?> typeOf(final Object entity) {
+        return entity == null ? Object.class : entity.getClass();
+    }
+
+    /**
+     * Returns the {@link JsonCodec} used by this Responder.
+     * 
+     * @return {@link JsonCodec} the codec used to write entities.
+     */
+    protected JsonCodec getCodec() {
+        return codec;
+    }
+
+    private void streamJsonResponse(final Object entity, final RouteContext routeContext) throws Exception {
+        final Iterator<?> iterator = entity instanceof Iterator ? (Iterator<?>) entity : ((Iterable<?>) entity).iterator();
+        boolean threw = true;
+        try {
+            if (hasBody(routeContext)) {
+                writeJsonArray(iterator, routeContext.getResponse());
+            }
+            threw = false;
+        } finally {
+            try {
+                closeIfCloseable(iterator, threw);
+            } finally {
+                if (entity != iterator) {
+                    closeIfCloseable(entity, threw);
+                }
+            }
+        }
+    }
+
+    private void writeJsonArray(final Iterator<?> iterator, final HttpServletResponse response) throws Exception {
+        final JsonArrayWriter writer = new JsonArrayWriter(codec, response.getOutputStream());
+        while (iterator.hasNext()) {
+            writer.write(iterator.next());
+        }
+        writer.close();
+    }
+
+    /**
+     * Returns an {@link ElementWriter} that writes the elements of an
+     * {@link org.jboss.aerogear.controller.router.async.ElementStream} as a JSON array.
+     */
+    @Override
+    protected ElementWriter openElementWriter(final RouteContext writeContext) throws Exception {
+        return new JsonArrayWriter(codec, writeContext.getResponse().getOutputStream());
+    }
+
+    private static boolean hasBody(final RouteContext routeContext) {
+        final String requestMethod = routeContext.getRequest().getMethod();
+        return requestMethod != null && !requestMethod.equalsIgnoreCase(RequestMethod.OPTIONS.toString());
+    }
+
+    private static boolean isStreamable(final Object entity) {
+        return entity instanceof Iterator || (entity instanceof Iterable && !(entity instanceof Collection));
+    }
+
+    private static void closeIfCloseable(final Object object, final boolean swallowIOException) throws Exception {
+        if (object instanceof Closeable) {
+            Closeables.close((Closeable) object, swallowIOException);
         }
     }
 
@@ -0,0 +1,51 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
+import javax.enterprise.inject.Typed;
+import javax.inject.Inject;
+
+import org.codehaus.jackson.smile.SmileFactory;
+
+/**
+ * SmileCodec is the {@link JsonCodec} for Smile, the binary JSON format of Jackson, used by {@link SmileConsumer} and
+ * {@link SmileResponder}.
+ * </p>
+ * It is configured by the same {@link JsonConfiguration} as the JSON codec, and warms up its readers and writers for
+ * the {@link org.jboss.aerogear.controller.router.Routes} in the same way.
+ */
+@ApplicationScoped
+@Typed(SmileCodec.class)
+public class SmileCodec extends JsonCodec {
+
+    public SmileCodec() {
+        this(JsonConfig.defaultConfig());
+    }
+
+    @Inject
+    public SmileCodec(final Instance<JsonConfiguration> jsonConfigInstance) {
+        this(jsonConfigInstance.isUnsatisfied() ? JsonConfig.defaultConfig() : jsonConfigInstance.get());
+    }
+
+    public SmileCodec(final JsonConfiguration jsonConfig) {
+        super(jsonConfig, new SmileFactory());
+    }
+
+}
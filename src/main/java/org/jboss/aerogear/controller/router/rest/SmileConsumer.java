@@ -0,0 +1,50 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import javax.inject.Inject;
+
+import org.jboss.aerogear.controller.router.MediaType;
+
+/**
+ * Concrete Consumer that is able to unmarshall a Http request body in the Smile format, the binary JSON format of
+ * Jackson, into a Java representation.
+ * </p>
+ * Apart from the encoding it behaves like the {@link JsonConsumer}, including reading arrays one element at a time.
+ */
+public class SmileConsumer extends JsonConsumer {
+
+    public SmileConsumer() {
+        this(new SmileCodec());
+    }
+
+    @Inject
+    public SmileConsumer(final SmileCodec codec) {
+        super(codec);
+    }
+
+    @Override
+    public String mediaType() {
+        return MediaType.SMILE.getType();
+    }
+
+    @Override
+    public String toString() {
+        return "SmileConsumer[mediaType=" + mediaType() + "]";
+    }
+}
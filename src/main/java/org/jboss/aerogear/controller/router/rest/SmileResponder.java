@@ -0,0 +1,60 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.Responder;
+import org.jboss.aerogear.controller.router.rest.compression.ResponseCompressor;
+
+/**
+ * A RESTFul {@link Responder} that is able to return responses in the Smile format, the binary JSON format of Jackson.
+ * </p>
+ * Smile is more compact than JSON and faster to parse, which makes it a good fit for mobile clients that include
+ * {@link MediaType#SMILE} in their 'Accept' header. Apart from the encoding it behaves like the {@link JsonResponder},
+ * including streaming Iterator results.
+ */
+public class SmileResponder extends JsonResponder {
+
+    public SmileResponder() {
+        this(new SmileCodec(), new ResponseCompressor());
+    }
+
+    @Inject
+    public SmileResponder(final SmileCodec codec, final ResponseCompressor compressor) {
+        super(codec, compressor);
+    }
+
+    @Override
+    protected void writeEntity(final Object entity, final HttpServletResponse response) throws Exception {
+        getCodec().writerFor(typeOf(entity)).writeValue(response.getOutputStream(), entity);
+    }
+
+    @Override
+    protected String getCharacterEncoding() {
+        return null;
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return MediaType.SMILE;
+    }
+
+}
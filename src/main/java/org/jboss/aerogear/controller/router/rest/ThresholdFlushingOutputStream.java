@@ -0,0 +1,86 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An OutputStream that only flushes the underlying stream once a number of bytes have been written to it since the
+ * previous flush, or when explicitly asked to by {@link #flushThrough()}.
+ * </p>
+ * Jackson flushes its generator after each value that is written, which would otherwise flush the response for every
+ * element of a streamed JSON array.
+ */
+class ThresholdFlushingOutputStream extends FilterOutputStream {
+
+    private final int flushBytes;
+    private long pending;
+
+    /**
+     * Sole constructor.
+     * 
+     * @param out the underlying {@link OutputStream}.
+     * @param flushBytes the number of bytes after which {@link #flush()} is passed on, or {@code 0} to only flush the
+     *        underlying stream when {@link #flushThrough()} is called.
+     */
+    ThresholdFlushingOutputStream(final OutputStream out, final int flushBytes) {
+        super(out);
+        this.flushBytes = flushBytes;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        out.write(b);
+        pending++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        out.write(b, off, len);
+        pending += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (flushBytes > 0 && pending >= flushBytes) {
+            flushThrough();
+        }
+    }
+
+    /**
+     * Flushes the underlying stream regardless of the number of bytes written since the previous flush.
+     * 
+     * @throws IOException if flushing the underlying stream fails.
+     */
+    void flushThrough() throws IOException {
+        out.flush();
+        pending = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushThrough();
+        } finally {
+            out.close();
+        }
+    }
+
+}
@@ -0,0 +1,36 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+/**
+ * Implemented by entities that know their own version, for example from a version column, so that an 'ETag' can be
+ * set on GET responses without serializing the entity.
+ * </p>
+ * If the client's 'If-None-Match' header matches, the response is '304 Not Modified' and the entity is never written.
+ */
+public interface Versioned {
+
+    /**
+     * The version of this entity, which must change whenever its representation changes.
+     * 
+     * @return {@code String} the version, used in the opaque value of the ETag. Should not contain double quotes.
+     *         Returning {@code null} means that no ETag is set from the version.
+     */
+    String version();
+
+}
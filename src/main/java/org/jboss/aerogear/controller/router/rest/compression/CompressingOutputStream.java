@@ -0,0 +1,206 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * A ServletOutputStream that buffers the start of a response body, and only starts compressing once the body exceeds
+ * the minimum size. Smaller bodies are written uncompressed when the stream is finished.
+ * </p>
+ * The 'Content-Encoding' header, and the 'ETag' of the compressed representation if there is one, are set when
+ * compression starts, before anything is written to the response. The
+ * {@link Deflater} is borrowed from a {@link DeflaterPool} at that point and returned when the stream is finished or
+ * aborted. The gzip header and trailer are written by this class, as {@link java.util.zip.GZIPOutputStream} cannot
+ * use a pooled deflater.
+ * </p>
+ * Flushing does not flush the data held by the deflater, only the data it has already produced.
+ */
+class CompressingOutputStream extends ServletOutputStream {
+
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+    private static final int DEFLATER_BUFFER_SIZE = 8192;
+
+    private final HttpServletResponse response;
+    private final ContentEncoding encoding;
+    private final DeflaterPool pool;
+    private byte[] buffer;
+    private int count;
+    private OutputStream out;
+    private Deflater deflater;
+    private DeflaterOutputStream deflaterOut;
+    private CRC32 crc;
+    private String compressedTag;
+    private boolean finished;
+
+    CompressingOutputStream(final HttpServletResponse response, final ContentEncoding encoding, final int minimumSize,
+            final DeflaterPool pool) {
+        this.response = response;
+        this.encoding = encoding;
+        this.pool = pool;
+        this.buffer = new byte[minimumSize];
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (finished) {
+            throw new IOException("Stream has been closed");
+        }
+        if (deflaterOut == null) {
+            if (count + len <= buffer.length) {
+                System.arraycopy(b, off, buffer, count, len);
+                count += len;
+                return;
+            }
+            startCompression();
+        }
+        compress(b, off, len);
+    }
+
+    private void startCompression() throws IOException {
+        response.setHeader("Content-Encoding", encoding.getToken());
+        if (compressedTag != null) {
+            response.setHeader("ETag", compressedTag);
+        }
+        out = response.getOutputStream();
+        deflater = pool.borrow();
+        if (encoding == ContentEncoding.GZIP) {
+            crc = new CRC32();
+            out.write(GZIP_HEADER);
+        }
+        deflaterOut = new DeflaterOutputStream(out, deflater, DEFLATER_BUFFER_SIZE);
+        compress(buffer, 0, count);
+        buffer = null;
+    }
+
+    private void compress(final byte[] b, final int off, final int len) throws IOException {
+        deflaterOut.write(b, off, len);
+        if (crc != null) {
+            crc.update(b, off, len);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Sets the 'ETag' that replaces the one of the uncompressed representation if the body gets compressed.
+     * 
+     * @param tag the quoted tag of the compressed representation.
+     */
+    void setCompressedTag(final String tag) {
+        this.compressedTag = tag;
+    }
+
+    /**
+     * Determines if a body of the passed-in length is compressed, which is the case if it exceeds the minimum size.
+     * 
+     * @param length the length of the uncompressed body.
+     * @return {@code true} if a body of the passed-in length is compressed.
+     */
+    boolean compresses(final int length) {
+        return buffer == null ? deflaterOut != null : count + length > buffer.length;
+    }
+
+    /**
+     * Determines if the body is being compressed, which is the case once it exceeded the minimum size.
+     * 
+     * @return {@code true} if the body is being compressed.
+     */
+    boolean isCompressing() {
+        return deflaterOut != null;
+    }
+
+    /**
+     * Completes the response body. The buffered body is written uncompressed if it did not exceed the minimum size,
+     * otherwise the remaining compressed data, and for gzip the trailer, are written.
+     * 
+     * @throws IOException if writing to the response fails.
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (deflaterOut == null) {
+            if (count > 0) {
+                out = response.getOutputStream();
+                out.write(buffer, 0, count);
+            }
+            buffer = null;
+            return;
+        }
+        try {
+            deflaterOut.finish();
+            if (crc != null) {
+                writeInt((int) crc.getValue());
+                writeInt((int) deflater.getBytesRead());
+            }
+        } finally {
+            releaseDeflater();
+        }
+    }
+
+    /**
+     * Discards the buffered body and returns the deflater to the pool, without completing the response body.
+     */
+    void abort() {
+        finished = true;
+        buffer = null;
+        if (deflater != null) {
+            releaseDeflater();
+        }
+    }
+
+    private void releaseDeflater() {
+        pool.release(deflater);
+        deflater = null;
+    }
+
+    private void writeInt(final int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >> 8) & 0xff);
+        out.write((value >> 16) & 0xff);
+        out.write((value >> 24) & 0xff);
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        if (out != null) {
+            out.close();
+        }
+    }
+
+}
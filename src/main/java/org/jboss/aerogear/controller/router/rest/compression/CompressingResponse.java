@@ -0,0 +1,133 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.compression;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * A response wrapper whose body is compressed, once it exceeds the minimum size, with the negotiated
+ * {@link ContentEncoding}.
+ * </p>
+ * Either {@link #finish()} or {@link #abort()} has to be called once the body has been written, so that the buffered
+ * data is written and the pooled deflater returned.
+ */
+public final class CompressingResponse extends HttpServletResponseWrapper {
+
+    private final ContentEncoding encoding;
+    private final CompressingOutputStream stream;
+    private PrintWriter writer;
+
+    CompressingResponse(final HttpServletResponse response, final ContentEncoding encoding, final int minimumSize,
+            final DeflaterPool pool) {
+        super(response);
+        this.encoding = encoding;
+        this.stream = new CompressingOutputStream(response, encoding, minimumSize, pool);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    /**
+     * Ignored, as the length of the compressed body is not known up front.
+     */
+    @Override
+    public void setContentLength(final int length) {
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        stream.flush();
+    }
+
+    /**
+     * Returns the content encoding that the body is compressed with, once it exceeds the minimum size.
+     * 
+     * @return {@link ContentEncoding} the negotiated content encoding.
+     */
+    public ContentEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Sets the 'ETag' of the compressed representation, which replaces the 'ETag' of the response once the body
+     * exceeds the minimum size and is compressed.
+     * 
+     * @param tag the quoted tag of the compressed representation.
+     */
+    public void setCompressedTag(final String tag) {
+        stream.setCompressedTag(tag);
+    }
+
+    /**
+     * Determines if a body of the passed-in length, written in full to this response, is compressed.
+     * 
+     * @param length the length of the uncompressed body.
+     * @return {@code true} if the body exceeds the minimum size.
+     */
+    public boolean compresses(final int length) {
+        return stream.compresses(length);
+    }
+
+    /**
+     * Determines if the body is being compressed, which is the case once it exceeded the minimum size.
+     * 
+     * @return {@code true} if the body is being compressed.
+     */
+    public boolean isCompressing() {
+        return stream.isCompressing();
+    }
+
+    /**
+     * Completes the body of the response.
+     * 
+     * @throws IOException if writing to the response fails.
+     */
+    public void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        stream.finish();
+    }
+
+    /**
+     * Discards the buffered body, for example because writing it failed, and releases the resources held.
+     */
+    public void abort() {
+        stream.abort();
+    }
+
+}
@@ -0,0 +1,190 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.compression;
+
+import java.util.zip.Deflater;
+
+/**
+ * Concrete implementation of {@link CompressionConfiguration}.
+ * </p>
+ * By default only routes that opted in are compressed, response bodies have to be larger than 1024 bytes, the default
+ * compression level is used, and twice the number of available processors deflaters are pooled. Compressed request
+ * bodies may decompress to at most 10 MB.
+ * </p>
+ * Example of producing a custom configuration:
+ * <pre>
+ * &#64;Produces
+ * public CompressionConfiguration compressionConfig() {
+ *     return CompressionConfig.enableForAllRoutes().minimumSize(4096).build();
+ * }
+ * </pre>
+ */
+public class CompressionConfig implements CompressionConfiguration {
+
+    private static final int DEFAULT_MINIMUM_SIZE = 1024;
+    private static final long DEFAULT_MAXIMUM_DECOMPRESSED_SIZE = 10L * 1024 * 1024;
+
+    private final boolean enabledForAllRoutes;
+    private final int minimumSize;
+    private final int level;
+    private final int poolSize;
+    private final long maximumDecompressedSize;
+
+    private CompressionConfig(final Builder builder) {
+        this.enabledForAllRoutes = builder.enabledForAllRoutes;
+        this.minimumSize = builder.minimumSize;
+        this.level = builder.level;
+        this.poolSize = builder.poolSize;
+        this.maximumDecompressedSize = builder.maximumDecompressedSize;
+    }
+
+    /**
+     * Returns a {@link Builder} with compression enabled for all routes.
+     * 
+     * @return {@link Builder} to be used to configure and build a {@link CompressionConfiguration} instance.
+     */
+    public static Builder enableForAllRoutes() {
+        return new Builder().enableForAllRoutes();
+    }
+
+    /**
+     * Returns a {@link Builder} with the size that a response body has to exceed to be compressed set.
+     * 
+     * @param bytes the minimum size in bytes.
+     * @return {@link Builder} to be used to configure and build a {@link CompressionConfiguration} instance.
+     */
+    public static Builder minimumSize(final int bytes) {
+        return new Builder().minimumSize(bytes);
+    }
+
+    /**
+     * Returns a {@link Builder} with the compression level set.
+     * 
+     * @param level the compression level, from 0 to 9, or -1 for the default level.
+     * @return {@link Builder} to be used to configure and build a {@link CompressionConfiguration} instance.
+     */
+    public static Builder level(final int level) {
+        return new Builder().level(level);
+    }
+
+    /**
+     * Returns a {@link Builder} with the maximum number of pooled deflaters set.
+     * 
+     * @param size the maximum number of idle deflaters to keep, per content encoding.
+     * @return {@link Builder} to be used to configure and build a {@link CompressionConfiguration} instance.
+     */
+    public static Builder poolSize(final int size) {
+        return new Builder().poolSize(size);
+    }
+
+    /**
+     * Returns a {@link Builder} with the maximum size that a compressed request body may decompress to set.
+     * 
+     * @param bytes the maximum size in bytes of a decompressed request body.
+     * @return {@link Builder} to be used to configure and build a {@link CompressionConfiguration} instance.
+     */
+    public static Builder maximumDecompressedSize(final long bytes) {
+        return new Builder().maximumDecompressedSize(bytes);
+    }
+
+    /**
+     * Returns a {@link CompressionConfiguration} instance with the default values for all properties.
+     * 
+     * @return {@link CompressionConfiguration} with default properties set.
+     */
+    public static CompressionConfiguration defaultConfig() {
+        return new Builder().build();
+    }
+
+    @Override
+    public boolean isEnabledForAllRoutes() {
+        return enabledForAllRoutes;
+    }
+
+    @Override
+    public int getMinimumSize() {
+        return minimumSize;
+    }
+
+    @Override
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    @Override
+    public long getMaximumDecompressedSize() {
+        return maximumDecompressedSize;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("CompressionConfiguration[")
+                .append("enabledForAllRoutes=").append(enabledForAllRoutes)
+                .append(", minimumSize=").append(minimumSize)
+                .append(", level=").append(level)
+                .append(", poolSize=").append(poolSize)
+                .append(", maximumDecompressedSize=").append(maximumDecompressedSize)
+                .append("]").toString();
+    }
+
+    public static class Builder {
+        private boolean enabledForAllRoutes;
+        private int minimumSize = DEFAULT_MINIMUM_SIZE;
+        private int level = Deflater.DEFAULT_COMPRESSION;
+        private int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+        private long maximumDecompressedSize = DEFAULT_MAXIMUM_DECOMPRESSED_SIZE;
+
+        private Builder() {
+        }
+
+        public Builder enableForAllRoutes() {
+            enabledForAllRoutes = true;
+            return this;
+        }
+
+        public Builder minimumSize(final int bytes) {
+            minimumSize = bytes;
+            return this;
+        }
+
+        public Builder level(final int level) {
+            this.level = level;
+            return this;
+        }
+
+        public Builder poolSize(final int size) {
+            poolSize = size;
+            return this;
+        }
+
+        public Builder maximumDecompressedSize(final long bytes) {
+            maximumDecompressedSize = bytes;
+            return this;
+        }
+
+        public CompressionConfiguration build() {
+            return new CompressionConfig(this);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.compression;
+
+/**
+ * Configuration for the compression of the responses written by {@link org.jboss.aerogear.controller.router.rest.AbstractRestResponder}s.
+ * </p>
+ * Compression can be enabled for all routes, or per route using
+ * {@link org.jboss.aerogear.controller.router.RouteBuilder.TargetEndpoint#compressed()}. A response is only compressed if
+ * the client accepts the 'gzip' or 'deflate' content encoding, and its body is larger than {@link #getMinimumSize()}.
+ * </p>
+ * Request bodies sent with a 'gzip' or 'deflate' 'Content-Encoding' are decompressed before they are handed to a
+ * {@link org.jboss.aerogear.controller.router.Consumer}, up to {@link #getMaximumDecompressedSize()} bytes.
+ * </p>
+ * To override the default configuration, provide a CDI producer for this type.
+ * 
+ * @see CompressionConfig
+ */
+public interface CompressionConfiguration {
+
+    /**
+     * Determines if compression is enabled for all routes, instead of only for the routes that opted in.
+     * 
+     * @return {@code true} if the responses of all routes should be compressed.
+     */
+    boolean isEnabledForAllRoutes();
+
+    /**
+     * Returns the size in bytes that a response body has to exceed to be compressed.
+     * 
+     * @return {@code int} the minimum size of a response body to be compressed.
+     */
+    int getMinimumSize();
+
+    /**
+     * Returns the compression level, from 0 to 9, or -1 for the default level of {@link java.util.zip.Deflater}.
+     * 
+     * @return {@code int} the compression level.
+     */
+    int getLevel();
+
+    /**
+     * Returns the maximum number of idle {@link java.util.zip.Deflater}s, and {@link java.util.zip.Inflater}s, that are
+     * kept for reuse, per content encoding.
+     * 
+     * @return {@code int} the maximum number of pooled deflaters and inflaters.
+     */
+    int getPoolSize();
+
+    /**
+     * Returns the maximum number of bytes that a compressed request body may decompress to. Reading past this limit
+     * fails the request with a '413 Request Entity Too Large' status.
+     * 
+     * @return {@code long} the maximum size of a decompressed request body.
+     */
+    long getMaximumDecompressedSize();
+
+}
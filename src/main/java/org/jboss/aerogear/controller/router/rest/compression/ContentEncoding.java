@@ -0,0 +1,134 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.compression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+
+import com.google.common.base.Optional;
+
+/**
+ * The content encodings that responses can be compressed with, and that compressed request bodies are decompressed
+ * from.
+ */
+public enum ContentEncoding {
+
+    /**
+     * The gzip file format, see RFC 1952.
+     */
+    GZIP("gzip"),
+
+    /**
+     * The zlib format, see RFC 1950.
+     */
+    DEFLATE("deflate");
+
+    private final String token;
+
+    private ContentEncoding(final String token) {
+        this.token = token;
+    }
+
+    /**
+     * Returns the token identifying this content encoding in HTTP headers.
+     * 
+     * @return {@code String} the content coding token, for example 'gzip'.
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Selects the content encoding to compress a response with from the value of an 'Accept-Encoding' request header.
+     * </p>
+     * The encoding with the highest quality value is selected, gzip wins a tie. A quality value of zero excludes an
+     * encoding, and '*' stands for any encoding not listed explicitly.
+     * 
+     * @param acceptEncoding the value of the 'Accept-Encoding' header, which may be {@code null}.
+     * @return {@code Optional<ContentEncoding>} the encoding to use, or absent if the client accepts neither.
+     */
+    public static Optional<ContentEncoding> negotiate(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return Optional.absent();
+        }
+        float gzip = -1;
+        float deflate = -1;
+        float any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            final int semicolon = coding.indexOf(';');
+            final String name = (semicolon == -1 ? coding : coding.substring(0, semicolon)).trim();
+            final float quality = semicolon == -1 ? 1 : quality(coding.substring(semicolon + 1));
+            if (GZIP.token.equalsIgnoreCase(name) || "x-gzip".equalsIgnoreCase(name)) {
+                gzip = quality;
+            } else if (DEFLATE.token.equalsIgnoreCase(name)) {
+                deflate = quality;
+            } else if ("*".equals(name)) {
+                any = quality;
+            }
+        }
+        gzip = gzip == -1 ? any : gzip;
+        deflate = deflate == -1 ? any : deflate;
+        if (gzip > 0 && gzip >= deflate) {
+            return Optional.of(GZIP);
+        }
+        return deflate > 0 ? Optional.of(DEFLATE) : Optional.<ContentEncoding> absent();
+    }
+
+    /**
+     * Parses the value of a 'Content-Encoding' request header into the encodings that were applied to the request body,
+     * in the order they were applied. The 'identity' encoding is skipped.
+     * 
+     * @param contentEncoding the value of the 'Content-Encoding' header, which may be {@code null}.
+     * @return {@code List<ContentEncoding>} the encodings applied to the body, empty if it was not encoded.
+     * @throws UnsupportedContentEncodingException if the header lists an encoding other than gzip, deflate or identity.
+     */
+    public static List<ContentEncoding> parse(final String contentEncoding) {
+        final List<ContentEncoding> encodings = new ArrayList<ContentEncoding>(1);
+        if (contentEncoding == null) {
+            return encodings;
+        }
+        for (String coding : contentEncoding.split(",")) {
+            final String name = coding.trim();
+            if (GZIP.token.equalsIgnoreCase(name) || "x-gzip".equalsIgnoreCase(name)) {
+                encodings.add(GZIP);
+            } else if (DEFLATE.token.equalsIgnoreCase(name)) {
+                encodings.add(DEFLATE);
+            } else if (!"identity".equalsIgnoreCase(name) && name.length() > 0) {
+                throw ExceptionBundle.MESSAGES.unsupportedContentEncoding(name);
+            }
+        }
+        return encodings;
+    }
+
+    private static float quality(final String parameters) {
+        for (String parameter : parameters.split(";")) {
+            final String trimmed = parameter.trim();
+            if (trimmed.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(trimmed.substring(2).trim());
+                } catch (final NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+}
@@ -0,0 +1,97 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.compression;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * A request wrapper whose body is decompressed, in reverse order, from the {@link ContentEncoding}s listed in the
+ * request's 'Content-Encoding' header.
+ * </p>
+ * {@link #release()} has to be called once the request has been processed so that the pooled inflaters are returned,
+ * even if the body was not read to the end.
+ */
+public final class DecompressingRequest extends HttpServletRequestWrapper {
+
+    private final List<ContentEncoding> encodings;
+    private final Map<ContentEncoding, InflaterPool> pools;
+    private final long maximumSize;
+    private final List<InflatingInputStream> streams = new ArrayList<InflatingInputStream>(1);
+    private ServletInputStream stream;
+    private BufferedReader reader;
+
+    DecompressingRequest(final HttpServletRequest request, final List<ContentEncoding> encodings,
+            final Map<ContentEncoding, InflaterPool> pools, final long maximumSize) {
+        super(request);
+        this.encodings = encodings;
+        this.pools = pools;
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (stream == null) {
+            ServletInputStream in = super.getInputStream();
+            for (int i = encodings.size() - 1; i >= 0; i--) {
+                final ContentEncoding encoding = encodings.get(i);
+                final InflatingInputStream inflating = new InflatingInputStream(in, encoding, pools.get(encoding),
+                        maximumSize);
+                streams.add(inflating);
+                in = inflating;
+            }
+            stream = in;
+        }
+        return stream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            final String charset = getCharacterEncoding();
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), charset == null ? "ISO-8859-1" : charset));
+        }
+        return reader;
+    }
+
+    /**
+     * Returns -1, as the length of the decompressed body is not known up front.
+     */
+    @Override
+    public int getContentLength() {
+        return -1;
+    }
+
+    /**
+     * Returns the inflaters used to decompress the body to their pool.
+     */
+    public void release() {
+        for (InflatingInputStream inflating : streams) {
+            inflating.release();
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.compression;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Inflater;
+
+/**
+ * A bounded pool of {@link Inflater}s, the decompressing counterpart of {@link DeflaterPool}.
+ */
+class InflaterPool {
+
+    private final boolean nowrap;
+    private final BlockingQueue<Inflater> idle;
+
+    /**
+     * Sole constructor.
+     * 
+     * @param nowrap {@code true} for inflaters reading raw deflate data, as used by gzip, {@code false} for zlib data.
+     * @param size the maximum number of idle inflaters to keep.
+     */
+    InflaterPool(final boolean nowrap, final int size) {
+        this.nowrap = nowrap;
+        this.idle = new ArrayBlockingQueue<Inflater>(Math.max(1, size));
+    }
+
+    Inflater borrow() {
+        final Inflater inflater = idle.poll();
+        return inflater != null ? inflater : new Inflater(nowrap);
+    }
+
+    void release(final Inflater inflater) {
+        inflater.reset();
+        if (!idle.offer(inflater)) {
+            inflater.end();
+        }
+    }
+
+    int idle() {
+        return idle.size();
+    }
+
+}
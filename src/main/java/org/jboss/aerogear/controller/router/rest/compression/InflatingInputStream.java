@@ -0,0 +1,224 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.compression;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import javax.servlet.ServletInputStream;
+
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+
+/**
+ * A ServletInputStream that decompresses a gzip or deflate encoded request body using a pooled {@link Inflater}.
+ * </p>
+ * The gzip header and trailer are read by this class, instead of using {@link java.util.zip.GZIPInputStream}, so that
+ * a raw inflater from the pool can be used. The inflater is borrowed on the first read and released once the end of
+ * the compressed data was reached, or when the stream is closed or {@link #release()}d.
+ * </p>
+ * Reading more than the configured maximum number of decompressed bytes throws a
+ * {@link RequestEntityTooLargeException}.
+ */
+class InflatingInputStream extends ServletInputStream {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final InputStream in;
+    private final ContentEncoding encoding;
+    private final InflaterPool pool;
+    private final long maximumSize;
+    private final byte[] buffer = new byte[8192];
+    private final byte[] single = new byte[1];
+    private final CRC32 crc;
+    private Inflater inflater;
+    private int filled;
+    private long inflated;
+    private boolean eof;
+
+    InflatingInputStream(final InputStream in, final ContentEncoding encoding, final InflaterPool pool,
+            final long maximumSize) {
+        this.in = in;
+        this.encoding = encoding;
+        this.pool = pool;
+        this.maximumSize = maximumSize;
+        this.crc = encoding == ContentEncoding.GZIP ? new CRC32() : null;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (eof) {
+            return -1;
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (inflater == null) {
+            start();
+        }
+        int n;
+        try {
+            while ((n = inflater.inflate(b, off, len)) == 0) {
+                if (inflater.finished()) {
+                    finish();
+                    return -1;
+                }
+                if (inflater.needsDictionary()) {
+                    throw new ZipException("Compressed request body requires a preset dictionary");
+                }
+                fill();
+            }
+        } catch (final DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        }
+        inflated += n;
+        if (inflated > maximumSize) {
+            release();
+            throw ExceptionBundle.MESSAGES.requestEntityTooLarge(maximumSize);
+        }
+        if (crc != null) {
+            crc.update(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        release();
+        in.close();
+    }
+
+    /**
+     * Returns the borrowed inflater to the pool. Subsequent reads return end of stream.
+     */
+    void release() {
+        eof = true;
+        if (inflater != null) {
+            pool.release(inflater);
+            inflater = null;
+        }
+    }
+
+    private void start() throws IOException {
+        if (encoding == ContentEncoding.GZIP) {
+            readHeader();
+        }
+        inflater = pool.borrow();
+    }
+
+    private void fill() throws IOException {
+        filled = in.read(buffer, 0, buffer.length);
+        if (filled == -1) {
+            throw new EOFException("Unexpected end of compressed request body");
+        }
+        inflater.setInput(buffer, 0, filled);
+    }
+
+    private void finish() throws IOException {
+        if (encoding == ContentEncoding.GZIP) {
+            readTrailer();
+        }
+        release();
+    }
+
+    /*
+     * See RFC 1952, section 2.3.
+     */
+    private void readHeader() throws IOException {
+        if (readUShort(in) != GZIP_MAGIC) {
+            throw new ZipException("Request body is not in gzip format");
+        }
+        if (readUByte(in) != 8) {
+            throw new ZipException("Unsupported gzip compression method");
+        }
+        final int flags = readUByte(in);
+        skip(in, 6);
+        if ((flags & FEXTRA) != 0) {
+            skip(in, readUShort(in));
+        }
+        if ((flags & FNAME) != 0) {
+            skipZeroTerminated(in);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            skipZeroTerminated(in);
+        }
+        if ((flags & FHCRC) != 0) {
+            skip(in, 2);
+        }
+    }
+
+    /*
+     * The trailer starts with the input the inflater did not consume, the remainder is read from the request.
+     */
+    private void readTrailer() throws IOException {
+        final int remaining = inflater.getRemaining();
+        final InputStream trailer = new InputStream() {
+            private int position = filled - remaining;
+
+            @Override
+            public int read() throws IOException {
+                return position < filled ? buffer[position++] & 0xff : in.read();
+            }
+        };
+        if (readUInt(trailer) != crc.getValue() || readUInt(trailer) != (inflated & 0xffffffffL)) {
+            throw new ZipException("Corrupt gzip trailer in request body");
+        }
+    }
+
+    private static long readUInt(final InputStream in) throws IOException {
+        return readUShort(in) | ((long) readUShort(in) << 16);
+    }
+
+    private static int readUShort(final InputStream in) throws IOException {
+        return readUByte(in) | (readUByte(in) << 8);
+    }
+
+    private static int readUByte(final InputStream in) throws IOException {
+        final int b = in.read();
+        if (b == -1) {
+            throw new EOFException("Unexpected end of compressed request body");
+        }
+        return b;
+    }
+
+    private static void skip(final InputStream in, final int n) throws IOException {
+        for (int i = 0; i < n; i++) {
+            readUByte(in);
+        }
+    }
+
+    private static void skipZeroTerminated(final InputStream in) throws IOException {
+        while (readUByte(in) != 0) {
+            continue;
+        }
+    }
+
+}
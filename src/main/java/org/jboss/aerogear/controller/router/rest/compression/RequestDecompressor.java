@@ -0,0 +1,90 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.compression;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+
+import com.google.common.base.Optional;
+
+/**
+ * RequestDecompressor decompresses request bodies that were sent with a 'gzip' or 'deflate' 'Content-Encoding', before
+ * they are unmarshalled by a {@link org.jboss.aerogear.controller.router.Consumer}.
+ * </p>
+ * The {@link java.util.zip.Inflater}s used are pooled per content encoding, and a body that decompresses to more than
+ * {@link CompressionConfiguration#getMaximumDecompressedSize()} bytes is rejected.
+ */
+@ApplicationScoped
+public class RequestDecompressor {
+
+    private final CompressionConfiguration config;
+    private final Map<ContentEncoding, InflaterPool> pools = new EnumMap<ContentEncoding, InflaterPool>(ContentEncoding.class);
+
+    public RequestDecompressor() {
+        this(CompressionConfig.defaultConfig());
+    }
+
+    @Inject
+    public RequestDecompressor(final Instance<CompressionConfiguration> compressionConfigInstance) {
+        this(compressionConfigInstance.isUnsatisfied() ? CompressionConfig.defaultConfig() : compressionConfigInstance.get());
+    }
+
+    public RequestDecompressor(final CompressionConfiguration config) {
+        this.config = config;
+        pools.put(ContentEncoding.GZIP, new InflaterPool(true, config.getPoolSize()));
+        pools.put(ContentEncoding.DEFLATE, new InflaterPool(false, config.getPoolSize()));
+    }
+
+    /**
+     * Returns a request to read the decompressed body of the passed-in request from, if its body is compressed.
+     * 
+     * @param request the current {@link HttpServletRequest}.
+     * @return {@code Optional<DecompressingRequest>} wrapping the passed-in request, or absent if the body is not
+     *         compressed.
+     * @throws UnsupportedContentEncodingException if the body was compressed with an encoding that is not supported.
+     */
+    public Optional<DecompressingRequest> decompress(final HttpServletRequest request) {
+        final List<ContentEncoding> encodings = ContentEncoding.parse(request.getHeader("Content-Encoding"));
+        if (encodings.isEmpty()) {
+            return Optional.absent();
+        }
+        return Optional.of(new DecompressingRequest(request, encodings, pools, config.getMaximumDecompressedSize()));
+    }
+
+    /**
+     * Returns the number of idle inflaters pooled for the passed-in encoding.
+     * 
+     * @param encoding the {@link ContentEncoding}.
+     * @return {@code int} the number of inflaters available for reuse.
+     */
+    public int getIdleInflaters(final ContentEncoding encoding) {
+        return pools.get(encoding).idle();
+    }
+
+    @Override
+    public String toString() {
+        return "RequestDecompressor[config=" + config + "]";
+    }
+
+}
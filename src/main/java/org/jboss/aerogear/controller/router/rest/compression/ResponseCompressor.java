@@ -0,0 +1,102 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.compression;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+
+import com.google.common.base.Optional;
+
+/**
+ * ResponseCompressor decides if a response should be compressed, and holds the {@link java.util.zip.Deflater} pools
+ * shared by all responses.
+ * </p>
+ * A response is wrapped in a {@link CompressingResponse} if compression is enabled for all routes or for its
+ * {@link Route}, and the client accepts gzip or deflate. Whenever compression is enabled for a route the
+ * 'Vary: Accept-Encoding' header is added, as the response then depends on that request header.
+ * 
+ * @see CompressionConfiguration
+ */
+@ApplicationScoped
+public class ResponseCompressor {
+
+    private final CompressionConfiguration config;
+    private final Map<ContentEncoding, DeflaterPool> pools = new EnumMap<ContentEncoding, DeflaterPool>(ContentEncoding.class);
+
+    public ResponseCompressor() {
+        this(CompressionConfig.defaultConfig());
+    }
+
+    @Inject
+    public ResponseCompressor(final Instance<CompressionConfiguration> compressionConfigInstance) {
+        this(compressionConfigInstance.isUnsatisfied() ? CompressionConfig.defaultConfig() : compressionConfigInstance.get());
+    }
+
+    public ResponseCompressor(final CompressionConfiguration config) {
+        this.config = config;
+        pools.put(ContentEncoding.GZIP, new DeflaterPool(config.getLevel(), true, config.getPoolSize()));
+        pools.put(ContentEncoding.DEFLATE, new DeflaterPool(config.getLevel(), false, config.getPoolSize()));
+    }
+
+    /**
+     * Returns the response to write the body of the current request to, if it should be compressed.
+     * 
+     * @param routeContext the {@link RouteContext} of the current request.
+     * @return {@code Optional<CompressingResponse>} wrapping the current response, or absent if the response should not
+     *         be compressed.
+     */
+    public Optional<CompressingResponse> compress(final RouteContext routeContext) {
+        final Route route = routeContext.getRoute();
+        if (!config.isEnabledForAllRoutes() && (route == null || !route.isCompressed())) {
+            return Optional.absent();
+        }
+        final HttpServletResponse response = routeContext.getResponse();
+        response.addHeader("Vary", "Accept-Encoding");
+        final Optional<ContentEncoding> encoding = ContentEncoding.negotiate(routeContext.getRequest().getHeader(
+                "Accept-Encoding"));
+        if (!encoding.isPresent() || response.containsHeader("Content-Encoding")) {
+            return Optional.absent();
+        }
+        return Optional.of(new CompressingResponse(response, encoding.get(), config.getMinimumSize(),
+                pools.get(encoding.get())));
+    }
+
+    /**
+     * Returns the number of idle deflaters pooled for the passed-in encoding.
+     * 
+     * @param encoding the {@link ContentEncoding}.
+     * @return {@code int} the number of deflaters available for reuse.
+     */
+    public int getIdleDeflaters(final ContentEncoding encoding) {
+        return pools.get(encoding).idle();
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCompressor[config=" + config + "]";
+    }
+
+}
@@ -32,13 +32,23 @@ import javax.servlet.http.HttpServletResponse;
 import org.jboss.aerogear.controller.router.Consumer;
 import org.jboss.aerogear.controller.router.EndpointInvoker;
 import org.jboss.aerogear.controller.router.InvocationResult;
+import org.jboss.aerogear.controller.router.RequestCoalescer;
 import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.RouteContext;
 import org.jboss.aerogear.controller.router.RouteProcessor;
+import org.jboss.aerogear.controller.router.rest.compression.DecompressingRequest;
+import org.jboss.aerogear.controller.router.rest.compression.RequestDecompressor;
+
+import com.google.common.base.Optional;
 
 /**
  * PaginationHandler is a CDI Decorator that decorates a {@link RouteProcessor} and is responsible for handling
  * paginated invocations on endpoints that support it.
+ * </p>
+ * Like the {@link org.jboss.aerogear.controller.router.DefaultRouteProcessor}, a compressed request body is
+ * decompressed by the {@link RequestDecompressor} before the arguments are extracted, and a coalesced route is
+ * invoked through the {@link RequestCoalescer}. Paginated endpoints are always invoked synchronously, they can neither
+ * be isolated nor return a {@link java.util.concurrent.Future}, which is verified when the route is built.
  */
 @Decorator
 public class PaginationHandler implements RouteProcessor {
@@ -47,22 +57,41 @@ public class PaginationHandler implements RouteProcessor {
     private final PaginationStrategy pagingStrategy;
     private final Map<String, Consumer> consumers = new HashMap<String, Consumer>();
     private final EndpointInvoker endpointInvoker;
+    private final RequestDecompressor decompressor;
+    private final RequestCoalescer coalescer;
+
+    public PaginationHandler(final RouteProcessor delegate, final Instance<PaginationStrategy> pagingStrategies,
+            final Instance<Consumer> consumers, final EndpointInvoker endpointInvoker) {
+        this(delegate, pagingStrategies, consumers, endpointInvoker, new RequestDecompressor());
+    }
+
+    public PaginationHandler(final RouteProcessor delegate, final Instance<PaginationStrategy> pagingStrategies,
+            final Instance<Consumer> consumers, final EndpointInvoker endpointInvoker,
+            final RequestDecompressor decompressor) {
+        this(delegate, pagingStrategies, consumers, endpointInvoker, decompressor, new RequestCoalescer());
+    }
 
     /**
-     * Sole contructor which will have its parameters injected by CDI.
+     * Constructor which will have its parameters injected by CDI.
      * 
      * @param delegate the {@link RouteProcessor} that this class decorates.
      * @param pagingStrategies a CDI {@link Instance} of {@link PaginationStrategy}s enabling the strategy to be configured.
      * @param consumers CDI {@link Instance} of {@link Consumer} that are used for unmarshalling a HTTP request body into
      *      a Java Object representation. 
      * @param endpointInvoker {@link EndpointInvoker} which is responsible for invoking endpoints.
+     * @param decompressor {@link RequestDecompressor} used to decompress a compressed request body before it is
+     *      unmarshalled.
+     * @param coalescer {@link RequestCoalescer} that lets identical requests to a coalesced route share an invocation.
      */
     @Inject
     public PaginationHandler(final @Delegate RouteProcessor delegate, final Instance<PaginationStrategy> pagingStrategies,
-            final Instance<Consumer> consumers, final EndpointInvoker endpointInvoker) {
+            final Instance<Consumer> consumers, final EndpointInvoker endpointInvoker,
+            final RequestDecompressor decompressor, final RequestCoalescer coalescer) {
         this.delegate = delegate;
         this.pagingStrategy = pagingStrategies.isUnsatisfied() ? defaultPagingStrategy() : pagingStrategies.get();
         this.endpointInvoker = endpointInvoker;
+        this.decompressor = decompressor;
+        this.coalescer = coalescer;
         for (Consumer consumer : consumers) {
             this.consumers.put(consumer.mediaType(), consumer);
         }
@@ -71,16 +100,38 @@ public class PaginationHandler implements RouteProcessor {
     @Override
     public InvocationResult process(final RouteContext routeContext) throws Exception {
         if (hasPaginatedAnnotation(routeContext.getRoute())) {
-            final Map<String, Object> requestArgs = extractArguments(routeContext, consumers);
-            final PaginationInfo paginationInfo = pagingStrategy.createPaginationInfo(routeContext, requestArgs);
-            final Object[] args = pagingStrategy.preInvocation(paginationInfo, requestArgs);
-            final Collection<?> results = (Collection<?>) endpointInvoker.invoke(routeContext, args);
-            return new InvocationResult(pagingStrategy.postInvocation(results, routeContext, paginationInfo), routeContext);
+            final Optional<DecompressingRequest> decompressing = decompressor.decompress(routeContext.getRequest());
+            if (!decompressing.isPresent()) {
+                return paginate(routeContext, extractArguments(routeContext, consumers));
+            }
+            final RouteContext decompressingContext = new RouteContext(routeContext.getRoute(),
+                    routeContext.getRequestPath(), routeContext.getPathParameters(), decompressing.get(),
+                    routeContext.getResponse(), routeContext.getRoutes());
+            try {
+                return paginate(routeContext, extractArguments(decompressingContext, consumers));
+            } finally {
+                decompressing.get().release();
+            }
         } else {
             return delegate.process(routeContext);
         }
     }
 
+    private InvocationResult paginate(final RouteContext routeContext, final Map<String, Object> requestArgs)
+            throws Exception {
+        final PaginationInfo paginationInfo = pagingStrategy.createPaginationInfo(routeContext, requestArgs);
+        final Object[] args = pagingStrategy.preInvocation(paginationInfo, requestArgs);
+        final Collection<?> results = (Collection<?>) invoke(routeContext, args);
+        return new InvocationResult(pagingStrategy.postInvocation(results, routeContext, paginationInfo), routeContext);
+    }
+
+    private Object invoke(final RouteContext routeContext, final Object[] args) throws Exception {
+        if (routeContext.getRoute().isCoalesced()) {
+            return coalescer.invoke(routeContext, args, endpointInvoker);
+        }
+        return endpointInvoker.invoke(routeContext, args);
+    }
+
     private boolean hasPaginatedAnnotation(final Route route) {
         return route.getTargetMethod().getAnnotation(Paginated.class) != null;
     }
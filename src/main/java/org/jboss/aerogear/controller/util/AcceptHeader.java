@@ -0,0 +1,159 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.jboss.aerogear.controller.router.MediaType;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+
+/**
+ * AcceptHeader is the parsed form of an HTTP 'Accept' header.
+ * </p>
+ * The media ranges are ordered by their quality value, 'q', highest first. Media ranges with the same quality keep
+ * the order in which they appear in the header, and media ranges with a quality of zero are dropped as they are not
+ * acceptable. Media range parameters other than 'q' are ignored.
+ * </p>
+ * As the number of distinct 'Accept' headers sent by clients is small, parsed headers are cached by their value.
+ */
+public final class AcceptHeader {
+
+    /**
+     * An AcceptHeader without media ranges, which is the same as accepting any media type.
+     */
+    public static final AcceptHeader EMPTY = new AcceptHeader(Collections.<String> emptySet());
+
+    private static final int MAXIMUM_CACHED_HEADERS = 256;
+
+    private static final Cache<String, AcceptHeader> PARSED_HEADERS = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_CACHED_HEADERS).build(new CacheLoader<String, AcceptHeader>() {
+                @Override
+                public AcceptHeader load(final String header) {
+                    return new AcceptHeader(parseMediaRanges(header));
+                }
+            });
+
+    private final Set<String> mediaRanges;
+
+    private AcceptHeader(final Set<String> mediaRanges) {
+        this.mediaRanges = mediaRanges;
+    }
+
+    /**
+     * Returns the parsed form of the passed-in 'Accept' header value.
+     * 
+     * @param header the value of the 'Accept' header, may be {@code null}.
+     * @return {@link AcceptHeader} for the header, or {@link #EMPTY} if the header was {@code null}.
+     */
+    public static AcceptHeader parse(final String header) {
+        return header == null ? EMPTY : PARSED_HEADERS.getUnchecked(header);
+    }
+
+    /**
+     * Returns the media ranges of this header ordered by preference.
+     * 
+     * @return {@code Set<String>} unmodifiable set of media ranges, for example 'application/json' or 'text/*'.
+     */
+    public Set<String> getMediaRanges() {
+        return mediaRanges;
+    }
+
+    /**
+     * Determines if any media type is acceptable, which is the case if the header contained '*&#47;*' or no media ranges
+     * at all.
+     * 
+     * @return {@code true} if any media type is acceptable.
+     */
+    public boolean acceptsAny() {
+        return mediaRanges.isEmpty() || mediaRanges.contains(MediaType.ANY);
+    }
+
+    @Override
+    public String toString() {
+        return "AcceptHeader[mediaRanges=" + mediaRanges + "]";
+    }
+
+    private static Set<String> parseMediaRanges(final String header) {
+        final List<MediaRange> ranges = new ArrayList<MediaRange>();
+        final int length = header.length();
+        int start = 0;
+        while (start < length) {
+            int end = header.indexOf(',', start);
+            if (end == -1) {
+                end = length;
+            }
+            final MediaRange range = parseMediaRange(header.substring(start, end));
+            if (range != null && range.quality > 0) {
+                ranges.add(range);
+            }
+            start = end + 1;
+        }
+        Collections.sort(ranges);
+        final Set<String> mediaRanges = new LinkedHashSet<String>();
+        for (MediaRange range : ranges) {
+            mediaRanges.add(range.type);
+        }
+        return Collections.unmodifiableSet(mediaRanges);
+    }
+
+    private static MediaRange parseMediaRange(final String range) {
+        final String[] parts = range.split(";");
+        final String type = parts[0].trim().toLowerCase(Locale.ENGLISH);
+        final int slash = type.indexOf('/');
+        if (slash < 1 || slash == type.length() - 1) {
+            return null;
+        }
+        float quality = 1.0f;
+        for (int i = 1; i < parts.length; i++) {
+            final String param = parts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    quality = Float.parseFloat(param.substring(2).trim());
+                } catch (final NumberFormatException ignored) {
+                    // a malformed quality value is treated as the default quality.
+                }
+            }
+        }
+        return new MediaRange(type, quality);
+    }
+
+    private static final class MediaRange implements Comparable<MediaRange> {
+
+        private final String type;
+        private final float quality;
+
+        MediaRange(final String type, final float quality) {
+            this.type = type;
+            this.quality = quality;
+        }
+
+        @Override
+        public int compareTo(final MediaRange other) {
+            return Float.compare(other.quality, quality);
+        }
+    }
+
+}
@@ -0,0 +1,282 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.aerogear.controller.router.Consumer;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.parameter.ConstantParameter;
+import org.jboss.aerogear.controller.router.parameter.Converter;
+import org.jboss.aerogear.controller.router.parameter.Converters;
+import org.jboss.aerogear.controller.router.parameter.ElementsParameter;
+import org.jboss.aerogear.controller.router.parameter.Parameter;
+import org.jboss.aerogear.controller.router.parameter.ReplacementParameter;
+import org.jboss.aerogear.controller.router.parameter.RequestParameter;
+import org.jboss.aerogear.controller.router.rest.pagination.PaginationInfo;
+
+import com.google.common.base.Optional;
+
+/**
+ * BindingPlan is the compiled form of a route's {@link Parameter}s, used to bind the arguments of the target endpoint
+ * method for a request.
+ * </p>
+ * A plan is compiled once, when the route is built. Every argument gets a fixed slot in the argument array: constant
+ * parameters are written into a template array up front, and each of the remaining parameters has a binder that writes
+ * its value from the request straight into its slot. The strings of {@link ReplacementParameter}s are split on their
+ * placeholders at compile time, so binding them only has to append the literal parts and the parameter values.
+ * </p>
+ * Entity parameters get the form binder compiled for their type, and the {@link Converter} of each request parameter
+ * is resolved from {@link Converters}, at compile time. Default values are converted once. {@link ElementsParameter}s
+ * are bound to an Iterator over the elements of the request body.
+ * </p>
+ * {@link PaginationInfo} entity parameters do not get a slot, as they are supplied by the pagination support.
+ */
+public final class BindingPlan {
+
+    private final Object[] template;
+    private final String[] names;
+    private final Binder[] binders;
+    private final Set<String> requestParameterNames;
+
+    private BindingPlan(final Object[] template, final String[] names, final Binder[] binders,
+            final Set<String> requestParameterNames) {
+        this.template = template;
+        this.names = names;
+        this.binders = binders;
+        this.requestParameterNames = Collections.unmodifiableSet(requestParameterNames);
+    }
+
+    /**
+     * Compiles the passed-in parameters into a BindingPlan, using the built in {@link Converters}.
+     * 
+     * @param parameters the {@link Parameter}s of a route, in the order of the target method's arguments.
+     * @return {@link BindingPlan} the plan for binding the parameters.
+     */
+    public static BindingPlan compile(final List<Parameter<?>> parameters) {
+        return compile(parameters, new Converters());
+    }
+
+    /**
+     * Compiles the passed-in parameters into a BindingPlan.
+     * 
+     * @param parameters the {@link Parameter}s of a route, in the order of the target method's arguments.
+     * @param converters the {@link Converters} used to resolve the {@link Converter} of each request parameter.
+     * @return {@link BindingPlan} the plan for binding the parameters.
+     */
+    public static BindingPlan compile(final List<Parameter<?>> parameters, final Converters converters) {
+        final Object[] template = new Object[parameters.size()];
+        final String[] names = new String[parameters.size()];
+        final Binder[] binders = new Binder[parameters.size()];
+        final Set<String> requestParameterNames = new LinkedHashSet<String>();
+        int slot = 0;
+        int binderCount = 0;
+        for (int i = 0; i < parameters.size(); i++) {
+            final Parameter<?> parameter = parameters.get(i);
+            switch (parameter.getParameterType()) {
+                case ENTITY:
+                    if (PaginationInfo.class.isAssignableFrom(parameter.getType())) {
+                        continue;
+                    }
+                    names[slot] = "entityParam";
+                    binders[binderCount++] = parameter instanceof ElementsParameter ? new ElementsBinder(slot,
+                            (ElementsParameter<?>) parameter) : new EntityBinder(slot, parameter);
+                    break;
+                case REQUEST:
+                    final RequestParameter<?> rp = (RequestParameter<?>) parameter;
+                    names[slot] = rp.getName();
+                    requestParameterNames.add(rp.getName());
+                    binders[binderCount++] = new RequestBinder(slot, rp, converters.converterFor(rp.getType()));
+                    break;
+                case CONSTANT:
+                    names[slot] = "constantParam-" + i;
+                    template[slot] = ((ConstantParameter<?>) parameter).getValue();
+                    break;
+                case REPLACEMENT:
+                    names[slot] = "replacementParam-" + i;
+                    final ReplacementBinder replacementBinder = new ReplacementBinder(slot, (ReplacementParameter<?>) parameter);
+                    for (int part = 1; part < replacementBinder.parts.length; part += 2) {
+                        requestParameterNames.add(replacementBinder.parts[part]);
+                    }
+                    binders[binderCount++] = replacementBinder;
+                    break;
+            }
+            slot++;
+        }
+        return new BindingPlan(Arrays.copyOf(template, slot), Arrays.copyOf(names, slot), Arrays.copyOf(binders,
+                binderCount), requestParameterNames);
+    }
+
+    /**
+     * Returns the names of the request parameters bound by this plan, including the placeholders of replacement
+     * parameters. Their values are taken from the query or form parameters, or else from a header or cookie of the same
+     * name.
+     * 
+     * @return {@code Set<String>} the names of the request parameters, in the order of the parameters.
+     */
+    public Set<String> getRequestParameterNames() {
+        return requestParameterNames;
+    }
+
+    /**
+     * Binds the arguments for the target endpoint method from the current request.
+     * 
+     * @param routeContext the {@link RouteContext} of the current request.
+     * @param consumers the {@link Consumer}s that will be used to try to unmarshall the request body.
+     * @return {@code Object[]} the arguments for the target endpoint method.
+     * @throws Exception if an argument could not be bound.
+     */
+    public Object[] bind(final RouteContext routeContext, final Map<String, Consumer> consumers) throws Exception {
+        final Object[] args = template.clone();
+        for (Binder binder : binders) {
+            binder.bind(routeContext, consumers, args);
+        }
+        return args;
+    }
+
+    /**
+     * Binds the arguments for the target endpoint method from the current request, keyed by parameter name.
+     * </p>
+     * Entity parameters are keyed by 'entityParam', and constant and replacement parameters by 'constantParam-' and
+     * 'replacementParam-' followed by the parameter index.
+     * 
+     * @param routeContext the {@link RouteContext} of the current request.
+     * @param consumers the {@link Consumer}s that will be used to try to unmarshall the request body.
+     * @return {@code Map<String, Object>} containing parameter name -> value mapping.
+     * @throws Exception if an argument could not be bound.
+     */
+    public Map<String, Object> bindMap(final RouteContext routeContext, final Map<String, Consumer> consumers)
+            throws Exception {
+        final Object[] args = bind(routeContext, consumers);
+        final Map<String, Object> map = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < args.length; i++) {
+            map.put(names[i], args[i]);
+        }
+        return map;
+    }
+
+    /**
+     * Writes the value of a single parameter into its slot of the argument array.
+     */
+    private abstract static class Binder {
+
+        protected final int slot;
+
+        Binder(final int slot) {
+            this.slot = slot;
+        }
+
+        abstract void bind(RouteContext routeContext, Map<String, Consumer> consumers, Object[] args) throws Exception;
+    }
+
+    private static final class EntityBinder extends Binder {
+
+        private final Parameter<?> parameter;
+        private final FormBinder formBinder;
+
+        EntityBinder(final int slot, final Parameter<?> parameter) {
+            super(slot);
+            this.parameter = parameter;
+            this.formBinder = FormBinder.of(parameter.getType());
+        }
+
+        @Override
+        void bind(final RouteContext routeContext, final Map<String, Consumer> consumers, final Object[] args) {
+            final Optional<?> iogiParam = ParameterExtractor.extractIogiParam(routeContext, formBinder);
+            args[slot] = iogiParam.isPresent() ? iogiParam.get() : ParameterExtractor.extractBody(routeContext, parameter,
+                    consumers);
+        }
+    }
+
+    private static final class ElementsBinder extends Binder {
+
+        private final ElementsParameter<?> parameter;
+
+        ElementsBinder(final int slot, final ElementsParameter<?> parameter) {
+            super(slot);
+            this.parameter = parameter;
+        }
+
+        @Override
+        void bind(final RouteContext routeContext, final Map<String, Consumer> consumers, final Object[] args) {
+            args[slot] = ParameterExtractor.extractElements(routeContext, parameter, consumers);
+        }
+    }
+
+    private static final class RequestBinder extends Binder {
+
+        private final String name;
+        private final Converter<?> converter;
+        private final Optional<?> defaultValue;
+
+        RequestBinder(final int slot, final RequestParameter<?> parameter, final Converter<?> converter) {
+            super(slot);
+            this.name = parameter.getName();
+            this.converter = converter;
+            this.defaultValue = parameter.getDefaultValue().isPresent() ? Optional.of(converter.convert(parameter
+                    .getDefaultValue().get().toString())) : Optional.absent();
+        }
+
+        @Override
+        void bind(final RouteContext routeContext, final Map<String, Consumer> consumers, final Object[] args)
+                throws Exception {
+            args[slot] = ParameterExtractor.extractRequestParam(routeContext, name, converter, defaultValue);
+        }
+    }
+
+    /*
+     * The parts of the replacement string alternate between literal text and placeholder names, starting and ending
+     * with literal text.
+     */
+    private static final class ReplacementBinder extends Binder {
+
+        private static final Converter<?> STRING = new Converters().converterFor(String.class);
+
+        private final String[] parts;
+        private final int length;
+
+        ReplacementBinder(final int slot, final ReplacementParameter<?> parameter) {
+            super(slot);
+            this.parts = RequestUtils.splitOnPlaceHolders(parameter.getString());
+            int literals = 0;
+            for (int i = 0; i < parts.length; i += 2) {
+                literals += parts[i].length();
+            }
+            this.length = literals;
+        }
+
+        @Override
+        void bind(final RouteContext routeContext, final Map<String, Consumer> consumers, final Object[] args)
+                throws Exception {
+            final StringBuilder sb = new StringBuilder(length + 16 * (parts.length / 2));
+            sb.append(parts[0]);
+            for (int i = 1; i < parts.length; i += 2) {
+                sb.append(ParameterExtractor.extractRequestParam(routeContext, parts[i], STRING, Optional.absent()));
+                sb.append(parts[i + 1]);
+            }
+            args[slot] = sb.toString();
+        }
+    }
+
+}
@@ -0,0 +1,284 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.util;
+
+import static br.com.caelum.iogi.conversion.FallbackConverter.fallbackTo;
+import static br.com.caelum.iogi.conversion.FallbackConverter.fallbackToNull;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.aerogear.controller.log.AeroGearLogger;
+
+import br.com.caelum.iogi.Iogi;
+import br.com.caelum.iogi.conversion.BigDecimalConverter;
+import br.com.caelum.iogi.conversion.BigIntegerConverter;
+import br.com.caelum.iogi.conversion.BooleanPrimitiveConverter;
+import br.com.caelum.iogi.conversion.BooleanWrapperConverter;
+import br.com.caelum.iogi.conversion.BytePrimitiveConverter;
+import br.com.caelum.iogi.conversion.ByteWrapperConverter;
+import br.com.caelum.iogi.conversion.CharacterPrimitiveConverter;
+import br.com.caelum.iogi.conversion.CharacterWrapperConverter;
+import br.com.caelum.iogi.conversion.DoublePrimitiveConverter;
+import br.com.caelum.iogi.conversion.DoubleWrapperConverter;
+import br.com.caelum.iogi.conversion.EnumConverter;
+import br.com.caelum.iogi.conversion.FloatPrimitiveConverter;
+import br.com.caelum.iogi.conversion.FloatWrapperConverter;
+import br.com.caelum.iogi.conversion.IntegerPrimitiveConverter;
+import br.com.caelum.iogi.conversion.IntegerWrapperConverter;
+import br.com.caelum.iogi.conversion.LongPrimitiveConverter;
+import br.com.caelum.iogi.conversion.LongWrapperConverter;
+import br.com.caelum.iogi.conversion.ShortPrimitiveConverter;
+import br.com.caelum.iogi.conversion.ShortWrapperConverter;
+import br.com.caelum.iogi.conversion.StringConverter;
+import br.com.caelum.iogi.conversion.TypeConverter;
+import br.com.caelum.iogi.parameters.Parameter;
+import br.com.caelum.iogi.parameters.Parameters;
+import br.com.caelum.iogi.reflection.Target;
+import br.com.caelum.iogi.util.DefaultLocaleProvider;
+import br.com.caelum.iogi.util.NullDependencyProvider;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+
+/**
+ * FormBinder instantiates an entity parameter from request parameters named after its properties, for example
+ * 'car.color' and 'car.brand' for a parameter of type Car.
+ * </p>
+ * A FormBinder is compiled once per entity type. The IOGI {@link Target} is created up front, and for types that are
+ * plain beans, that is types whose only public constructor takes no arguments, a setter plan is compiled: each
+ * writable property of a simple type is mapped to its setter and to the IOGI converter for its type. A request whose
+ * parameters only address such properties is bound through the plan, with the same conversions IOGI would apply,
+ * while any other request, for example one using nested properties or lists, is handed to IOGI.
+ * </p>
+ * Requests without parameters do not touch IOGI at all.
+ */
+final class FormBinder {
+
+    private static final Iogi IOGI = new Iogi(new NullDependencyProvider(), new DefaultLocaleProvider());
+    private static final List<TypeConverter<?>> CONVERTERS = converters();
+    private static final ConcurrentMap<Class<?>, FormBinder> BINDERS = new ConcurrentHashMap<Class<?>, FormBinder>();
+
+    private final Target<?> target;
+    private final String prefix;
+    private final Constructor<?> constructor;
+    private final Map<String, Property> properties;
+
+    private FormBinder(final Class<?> type) {
+        target = new Target<Object>(type, StringUtils.downCaseFirst(type.getSimpleName()));
+        prefix = target.getName() + ".";
+        constructor = beanConstructor(type);
+        properties = constructor == null ? Collections.<String, Property> emptyMap() : properties(type);
+    }
+
+    /**
+     * Returns the FormBinder for the passed-in type, compiling it on first use.
+     * 
+     * @param type the type of the entity parameter.
+     * @return {@link FormBinder} for the passed-in type.
+     */
+    static FormBinder of(final Class<?> type) {
+        final FormBinder binder = BINDERS.get(type);
+        if (binder != null) {
+            return binder;
+        }
+        final FormBinder compiled = new FormBinder(type);
+        final FormBinder existing = BINDERS.putIfAbsent(type, compiled);
+        return existing == null ? compiled : existing;
+    }
+
+    /**
+     * Instantiates the entity from the passed-in request parameters.
+     * 
+     * @param parameters the request parameters.
+     * @return {@code Optional} containing the instantiated entity, or an absent Optional if the parameters do not
+     *         address the entity.
+     */
+    Optional<?> bind(final Map<String, String[]> parameters) {
+        if (parameters.isEmpty()) {
+            return Optional.absent();
+        }
+        if (constructor != null && isCoveredByProperties(parameters)) {
+            return bindProperties(parameters);
+        }
+        return bindWithIogi(parameters);
+    }
+
+    /*
+     * Returns true if every single valued parameter addressing the entity is a property in the setter plan.
+     */
+    private boolean isCoveredByProperties(final Map<String, String[]> parameters) {
+        for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+            final String name = entry.getKey();
+            if (name.startsWith(target.getName()) && entry.getValue().length == 1
+                    && !properties.containsKey(propertyName(name))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Like IOGI, returns an empty instance if none of the single valued parameters addresses the entity, and an absent
+     * Optional only if there are no single valued parameters at all.
+     */
+    private Optional<?> bindProperties(final Map<String, String[]> parameters) {
+        Object instance = null;
+        for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+            final String[] value = entry.getValue();
+            if (value.length != 1) {
+                AeroGearLogger.LOGGER.multivaluedParamsUnsupported();
+                continue;
+            }
+            try {
+                if (instance == null) {
+                    instance = constructor.newInstance();
+                }
+                if (entry.getKey().startsWith(prefix)) {
+                    properties.get(propertyName(entry.getKey())).set(instance, value[0]);
+                }
+            } catch (final InvocationTargetException e) {
+                throw Throwables.propagate(e.getCause());
+            } catch (final Exception e) {
+                throw Throwables.propagate(e);
+            }
+        }
+        return Optional.fromNullable(instance);
+    }
+
+    Optional<?> bindWithIogi(final Map<String, String[]> parameters) {
+        final List<Parameter> iogiParameters = new ArrayList<Parameter>(parameters.size());
+        for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+            final String[] value = entry.getValue();
+            if (value.length == 1) {
+                iogiParameters.add(new Parameter(entry.getKey(), value[0]));
+            } else {
+                AeroGearLogger.LOGGER.multivaluedParamsUnsupported();
+            }
+        }
+        if (iogiParameters.isEmpty()) {
+            return Optional.absent();
+        }
+        return Optional.fromNullable(IOGI.instantiate(target, new Parameters(iogiParameters)));
+    }
+
+    private String propertyName(final String parameterName) {
+        return parameterName.length() > prefix.length() && parameterName.startsWith(prefix) ? parameterName
+                .substring(prefix.length()) : parameterName;
+    }
+
+    private static Constructor<?> beanConstructor(final Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || !Modifier.isPublic(type.getModifiers())
+                || type.getEnclosingClass() != null && !Modifier.isStatic(type.getModifiers())) {
+            return null;
+        }
+        final Constructor<?>[] constructors = type.getConstructors();
+        if (constructors.length == 1 && constructors[0].getParameterTypes().length == 0) {
+            return constructors[0];
+        }
+        return null;
+    }
+
+    private static Map<String, Property> properties(final Class<?> type) {
+        final Map<String, Property> properties = new HashMap<String, Property>();
+        for (Method method : type.getMethods()) {
+            final String name = method.getName();
+            if (name.length() > 3 && name.startsWith("set") && method.getParameterTypes().length == 1
+                    && !Modifier.isStatic(method.getModifiers())) {
+                final String propertyName = StringUtils.downCaseFirst(name.substring(3));
+                final Target<Object> propertyTarget = new Target<Object>(method.getGenericParameterTypes()[0],
+                        propertyName);
+                final TypeConverter<?> converter = converterFor(propertyTarget);
+                if (converter != null && !properties.containsKey(propertyName)) {
+                    properties.put(propertyName, new Property(method, propertyTarget, converter));
+                }
+            }
+        }
+        return properties;
+    }
+
+    private static TypeConverter<?> converterFor(final Target<?> target) {
+        for (TypeConverter<?> converter : CONVERTERS) {
+            if (converter.isAbleToInstantiate(target)) {
+                return converter;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * The converters IOGI uses for simple types, in the same order. Calendars are left to IOGI.
+     */
+    private static List<TypeConverter<?>> converters() {
+        final List<TypeConverter<?>> converters = new ArrayList<TypeConverter<?>>();
+        converters.add(fallbackToNull(new BigDecimalConverter()));
+        converters.add(fallbackToNull(new BigIntegerConverter()));
+        converters.add(fallbackToNull(new BooleanWrapperConverter()));
+        converters.add(fallbackToNull(new ByteWrapperConverter()));
+        converters.add(fallbackToNull(new CharacterWrapperConverter()));
+        converters.add(fallbackToNull(new DoubleWrapperConverter()));
+        converters.add(fallbackToNull(new IntegerWrapperConverter()));
+        converters.add(fallbackToNull(new EnumConverter()));
+        converters.add(fallbackToNull(new FloatWrapperConverter()));
+        converters.add(fallbackToNull(new LongWrapperConverter()));
+        converters.add(fallbackToNull(new ShortWrapperConverter()));
+        converters.add(fallbackToNull(new StringConverter()));
+        converters.add(fallbackTo(new BooleanPrimitiveConverter(), false));
+        converters.add(fallbackTo(new BytePrimitiveConverter(), (byte) 0));
+        converters.add(fallbackTo(new CharacterPrimitiveConverter(), (char) 0));
+        converters.add(fallbackTo(new DoublePrimitiveConverter(), 0d));
+        converters.add(fallbackTo(new FloatPrimitiveConverter(), 0f));
+        converters.add(fallbackTo(new IntegerPrimitiveConverter(), 0));
+        converters.add(fallbackTo(new LongPrimitiveConverter(), 0L));
+        converters.add(fallbackTo(new ShortPrimitiveConverter(), (short) 0));
+        return converters;
+    }
+
+    /**
+     * A writable property of a simple type.
+     */
+    private static final class Property {
+
+        private final Method setter;
+        private final Target<?> target;
+        private final TypeConverter<?> converter;
+
+        Property(final Method setter, final Target<?> target, final TypeConverter<?> converter) {
+            this.setter = setter;
+            this.target = target;
+            this.converter = converter;
+        }
+
+        void set(final Object instance, final String value) throws Exception {
+            final Object converted = converter.instantiate(target, new Parameters(new Parameter(target.getName(), value)));
+            if (converted != null) {
+                setter.invoke(instance, converted);
+            }
+        }
+    }
+
+}
@@ -17,38 +17,31 @@
 
 package org.jboss.aerogear.controller.util;
 
-import java.lang.reflect.Constructor;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
 import javax.activation.MimeType;
 import javax.activation.MimeTypeParseException;
-import javax.servlet.http.Cookie;
 
-import org.jboss.aerogear.controller.log.AeroGearLogger;
 import org.jboss.aerogear.controller.log.ExceptionBundle;
 import org.jboss.aerogear.controller.router.Consumer;
+import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.RouteContext;
-import org.jboss.aerogear.controller.router.parameter.ConstantParameter;
+import org.jboss.aerogear.controller.router.StreamingConsumer;
+import org.jboss.aerogear.controller.router.parameter.Converter;
+import org.jboss.aerogear.controller.router.parameter.Converters;
+import org.jboss.aerogear.controller.router.parameter.ElementsParameter;
 import org.jboss.aerogear.controller.router.parameter.Parameter;
-import org.jboss.aerogear.controller.router.parameter.ReplacementParameter;
 import org.jboss.aerogear.controller.router.parameter.RequestParameter;
-import org.jboss.aerogear.controller.router.rest.pagination.PaginationInfo;
 
-import br.com.caelum.iogi.Iogi;
-import br.com.caelum.iogi.reflection.Target;
-import br.com.caelum.iogi.util.DefaultLocaleProvider;
-import br.com.caelum.iogi.util.NullDependencyProvider;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.Iterators;
 
 public class ParameterExtractor {
 
-    private static final Iogi IOGI = new Iogi(new NullDependencyProvider(), new DefaultLocaleProvider());
+    private static final Converters BUILT_IN_CONVERTERS = new Converters();
 
     /**
      * Extracts the arguments from the current request for the target route.
@@ -58,82 +51,85 @@ public class ParameterExtractor {
      * @return {@code Map<String, Object} containing parameter name -> value mapping.
      */
     public static Map<String, Object> extractArguments(final RouteContext routeContext, final Map<String, Consumer> consumers) throws Exception {
-        final Map<String, Object> argsMap = new LinkedHashMap<String, Object>();
-        final List<Parameter<?>> parameters = routeContext.getRoute().getParameters();
-        final int size = parameters.size();
-        for (int i = 0; i < size; i++) {
-            final Parameter<?> parameter = parameters.get(i);
-            switch (parameter.getParameterType()) {
-                case ENTITY:
-                    if (PaginationInfo.class.isAssignableFrom(parameter.getType())) {
-                        break;
-                    }
-                    if (!addIfPresent(extractIogiParam(routeContext), "entityParam", argsMap)) {
-                        argsMap.put("entityParam", extractBody(routeContext, parameter, getConsumer(routeContext, consumers, parameter)));
-                    }
-                    break;
-                case REQUEST:
-                    final RequestParameter<?> rp = (RequestParameter<?>) parameter;
-                    extractRequestParam(rp.getName(), rp.getType(), rp.getDefaultValue(), argsMap, routeContext);
-                    break;
-                case CONSTANT:
-                    final ConstantParameter<?> cp = (ConstantParameter<?>) parameter;
-                    argsMap.put("constantParam-" + i, cp.getValue());
-                    break;
-                case REPLACEMENT:
-                    final ReplacementParameter<?> replacementParam = (ReplacementParameter<?>) parameter;
-                    final Map<String, Object> paramsMap = extractRequestParams(replacementParam, routeContext);
-                    argsMap.put("replacementParam-" + i, RequestUtils.injectParamValues(replacementParam.getString(), paramsMap));
-                    break;
-            }
-        }
-        return argsMap;
+        return bindingPlan(routeContext.getRoute()).bindMap(routeContext, consumers);
     }
-    
-    private static Map<String, Object> extractRequestParam(
+
+    /**
+     * Extracts the arguments from the current request for the target route, in the order of the target method's
+     * parameters.
+     * 
+     * @param routeContext the {@link org.jboss.aerogear.controller.router.RouteContext}.
+     * @param consumers the {@link Consumer}s that will be used to try to unmarshall the request body.
+     * @return {@code Object[]} the arguments for the target endpoint method.
+     */
+    public static Object[] extractArgumentValues(final RouteContext routeContext, final Map<String, Consumer> consumers) throws Exception {
+        return bindingPlan(routeContext.getRoute()).bind(routeContext, consumers);
+    }
+
+    /*
+     * Routes compile their BindingPlan when they are built, a Route implementation that does not provide one gets a
+     * plan compiled for the current request.
+     */
+    private static BindingPlan bindingPlan(final Route route) {
+        final BindingPlan bindingPlan = route.getBindingPlan();
+        return bindingPlan != null ? bindingPlan : BindingPlan.compile(route.getParameters());
+    }
+
+    /*
+     * Looks the parameter up in the query/form parameters, headers and cookies, then falls back to the default value,
+     * which has already been converted, and finally to the path parameters.
+     */
+    static Object extractRequestParam(
+            final RouteContext routeContext,
             final String paramName, 
-            final Class<?> type, 
-            final Optional<?> defaultValue,
-            final Map<String, Object> map,
-            final RouteContext routeContext) throws Exception {
-        if (addIfPresent(extractParam(routeContext, paramName, type), paramName, map)) {
-            return map;
+            final Converter<?> converter, 
+            final Optional<?> defaultValue) throws Exception {
+        Optional<?> value = extractParam(routeContext, paramName, converter);
+        if (value.isPresent()) {
+            return value.get();
         }
-        if (addIfPresent(extractHeaderParam(routeContext, paramName), paramName, map)) {
-            return map;
+        value = extractHeaderParam(routeContext, paramName, converter);
+        if (value.isPresent()) {
+            return value.get();
         }
-        if (addIfPresent(extractCookieParam(routeContext, paramName, type), paramName, map)) {
-            return map;
+        value = extractCookieParam(routeContext, paramName, converter);
+        if (value.isPresent()) {
+            return value.get();
         }
-        if (addIfPresent(extractDefaultParam(type, defaultValue), paramName, map)) {
-            return map;
+        if (defaultValue.isPresent()) {
+            return defaultValue.get();
         }
-        if (addIfPresent(extractPathParam(routeContext, paramName, type), paramName, map)) {
-             return map;
-        } else {
-            throw ExceptionBundle.MESSAGES.missingParameterInRequest(paramName);
+        value = extractPathParam(routeContext, paramName, converter);
+        if (value.isPresent()) {
+            return value.get();
         }
+        throw ExceptionBundle.MESSAGES.missingParameterInRequest(paramName);
     }
     
-    private static Map<String, Object> extractRequestParams(final ReplacementParameter<?> replacementParam, final RouteContext routeContext) throws Exception {
-        final Map<String, Object> map = new HashMap<String, Object>();
-        for (String paramName : replacementParam.getParamNames()) {
-            extractRequestParam(paramName, String.class, Optional.absent(), map, routeContext);
-        }
-        return map;
+    static Object extractBody(final RouteContext routeContext, final Parameter<?> parameter,
+            final Map<String, Consumer> consumers) {
+        return getConsumer(routeContext, consumers, parameter).unmarshall(routeContext.getRequest(), parameter.getType());
     }
     
-    private static Optional<?> extractDefaultParam(final Class<?> type, final Optional<?> defaultValue) throws Exception {
-        if(defaultValue.isPresent()) {
-            return Optional.of(createInstance(type, defaultValue.get().toString()));
+    /**
+     * Returns an Iterator over the elements of the request body. A {@link StreamingConsumer} unmarshalls the elements
+     * as they are iterated over, other consumers unmarshall the body into an array of the element type.
+     * 
+     * @param routeContext the {@link RouteContext} of the current request.
+     * @param parameter the {@link ElementsParameter} to bind.
+     * @param consumers the {@link Consumer}s that will be used to try to unmarshall the request body.
+     * @return {@code Iterator} over the elements of the request body.
+     */
+    static Iterator<?> extractElements(final RouteContext routeContext, final ElementsParameter<?> parameter,
+            final Map<String, Consumer> consumers) {
+        final Consumer consumer = getConsumer(routeContext, consumers, parameter);
+        if (consumer instanceof StreamingConsumer) {
+            return ((StreamingConsumer) consumer).unmarshallElements(routeContext.getRequest(), parameter.getElementType());
         }
-        return Optional.absent();
+        final Object[] elements = consumer.unmarshall(routeContext.getRequest(), parameter.getArrayType());
+        return elements == null ? Iterators.emptyIterator() : Iterators.forArray(elements);
     }
 
-    private static Object extractBody(final RouteContext routeContext, final Parameter<?> parameter, final Consumer consumer) {
-        return consumer.unmarshall(routeContext.getRequest(), parameter.getType());
-    }
-    
     private static Consumer getConsumer(final RouteContext routeContext, final Map<String, Consumer> consumers, 
             final Parameter<?> parameter) {
         final Set<String> mediaTypes = routeContext.getRoute().consumes();
@@ -176,17 +172,18 @@ public class ParameterExtractor {
      * 
      * @param routeContext the {@link org.jboss.aerogear.controller.router.RouteContext} to extract a path parameter from.
      * @param paramName the name of the parameter to be extracted.
-     * @param type the parameter type.
+     * @param type the parameter type, the value is converted using the built in {@link Converters}.
      * @return {@code Optional<String>} containing the extracted path param if present in the request path.
      */
     public static Optional<?> extractPathParam(final RouteContext routeContext, final String paramName, final Class<?> type) throws Exception {
-        final String requestPath = routeContext.getRequestPath();
-        final Map<String, String> pathParams = RequestUtils.mapPathParams(requestPath, routeContext.getRoute().getPath());
-        if (pathParams.containsKey(paramName)) {
-            final String value = pathParams.get(paramName);
-            if (value != null) {
-                return Optional.of(createInstance(type, pathParams.get(paramName)));
-            }
+        return extractPathParam(routeContext, paramName, BUILT_IN_CONVERTERS.converterFor(type));
+    }
+
+    private static Optional<?> extractPathParam(final RouteContext routeContext, final String paramName,
+            final Converter<?> converter) {
+        final Optional<String> value = routeContext.getPathParameters().get(paramName);
+        if (value.isPresent()) {
+            return Optional.of(converter.convert(value.get()));
         }
         return Optional.absent();
     }
@@ -198,63 +195,41 @@ public class ParameterExtractor {
      * @return {@link com.google.common.base.Optional} may contain the instantiated instance, else isPresent will return false.
      */
     public static Optional<?> extractIogiParam(final RouteContext routeContext) {
-        final LinkedList<br.com.caelum.iogi.parameters.Parameter> parameters = new LinkedList<br.com.caelum.iogi.parameters.Parameter>();
-        for (Map.Entry<String, String[]> entry : routeContext.getRequest().getParameterMap().entrySet()) {
-            final String[] value = entry.getValue();
-            if (value.length == 1) {
-                parameters.add(new br.com.caelum.iogi.parameters.Parameter(entry.getKey(), value[0]));
-            } else {
-                AeroGearLogger.LOGGER.multivaluedParamsUnsupported();
-            }
-        }
-        if (!parameters.isEmpty()) {
-            final Class<?>[] parameterTypes = routeContext.getRoute().getTargetMethod().getParameterTypes();
-            final Class<?> parameterType = parameterTypes[0];
-            final Target<?> target = Target.create(parameterType, StringUtils.downCaseFirst(parameterType.getSimpleName()));
-            return Optional.fromNullable(IOGI.instantiate(target,
-                    parameters.toArray(new br.com.caelum.iogi.parameters.Parameter[parameters.size()])));
-        }
-        return Optional.absent();
+        final Class<?>[] parameterTypes = routeContext.getRoute().getTargetMethod().getParameterTypes();
+        return extractIogiParam(routeContext, parameterTypes[0]);
     }
 
-    private static boolean addIfPresent(final Optional<?> op, final String paramName, final Map<String, Object> args) {
-        if (op.isPresent()) {
-            args.put(paramName, op.get());
-            return true;
-        }
-        return false;
+    static Optional<?> extractIogiParam(final RouteContext routeContext, final FormBinder formBinder) {
+        return formBinder.bind(routeContext.getRequestSnapshot().getParameterMap());
     }
 
-    private static Optional<?> extractHeaderParam(final RouteContext routeContext, final String paramName) {
-        return Optional.fromNullable(routeContext.getRequest().getHeader(paramName));
+    private static Optional<?> extractIogiParam(final RouteContext routeContext, final Class<?> type) {
+        final Map<String, String[]> parameters = routeContext.getRequestSnapshot().getParameterMap();
+        return parameters.isEmpty() ? Optional.absent() : FormBinder.of(type).bind(parameters);
+    }
+
+    private static Optional<?> extractHeaderParam(final RouteContext routeContext, final String paramName,
+            final Converter<?> converter) {
+        final String value = routeContext.getRequest().getHeader(paramName);
+        return value == null ? Optional.absent() : Optional.fromNullable(converter.convert(value));
     }
     
-    private static Optional<?> extractCookieParam(final RouteContext routeContext, final String paramName, final Class<?> type) throws Exception {
-        final Cookie[] cookies = routeContext.getRequest().getCookies();
-        if (cookies != null) {
-            for (Cookie cookie : cookies) {
-                if (cookie.getName().equals(paramName)) {
-                    return Optional.fromNullable(createInstance(type, cookie.getValue()));
-                }
-            }
-        }
-        return Optional.absent();
+    private static Optional<?> extractCookieParam(final RouteContext routeContext, final String paramName,
+            final Converter<?> converter) {
+        final Optional<String> value = routeContext.getRequestSnapshot().getCookie(paramName);
+        return value.isPresent() ? Optional.fromNullable(converter.convert(value.get())) : Optional.absent();
     }
     
-    private static Optional<?> extractParam(final RouteContext routeContext, final String name, final Class<?> type) throws Exception {
-        final String[] values = routeContext.getRequest().getParameterMap().get(name);
+    private static Optional<?> extractParam(final RouteContext routeContext, final String name,
+            final Converter<?> converter) {
+        final String[] values = routeContext.getRequestSnapshot().getParameterMap().get(name);
         if (values != null) {
             if (values.length == 1) {
-                return Optional.of(createInstance(type, values[0]));
+                return Optional.of(converter.convert(values[0]));
             } else {
                 throw ExceptionBundle.MESSAGES.multivaluedParamsUnsupported(name);
             }
         }
         return Optional.absent();
     }
-
-    private static Object createInstance(Class<?> type, String arg) throws Exception {
-        final Constructor<?> constructor = type.getDeclaredConstructor(String.class);
-        return constructor.newInstance(arg);
-    }
  }
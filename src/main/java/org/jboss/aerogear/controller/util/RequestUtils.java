@@ -18,10 +18,8 @@
 package org.jboss.aerogear.controller.util;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,6 +29,7 @@ import java.util.regex.Pattern;
 import javax.servlet.http.HttpServletRequest;
 
 import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.PathTemplate;
 import org.jboss.aerogear.controller.router.RequestMethod;
 
 import com.google.common.base.Optional;
@@ -44,8 +43,6 @@ public class RequestUtils {
     private final static Pattern PATH_PLACEHOLDER_PATTERN = Pattern.compile("/\\{?([^/}?]+)\\}?");
     private final static Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{([a-zA-Z]*)\\}");
     private final static Pattern PATH_PATTERN = Pattern.compile("/(?:([^/]+))");
-    private final static String MEDIA_RANGE = "(\\*|\\w)+";
-    private final static Pattern ACCEPT_HEADER_PATTERN = Pattern.compile("(" + MEDIA_RANGE + "/" + MEDIA_RANGE +")");
 
     private RequestUtils() {
     }
@@ -81,16 +78,18 @@ public class RequestUtils {
      * @return {@code Set<String>} of the values of the Http Accept Header, or an empty list if there was not Accept header
      */
     public static Set<String> extractAcceptHeader(final HttpServletRequest request) {
-        final String acceptHeader = request.getHeader("Accept");
-        if (acceptHeader == null) {
-            return Collections.emptySet();
-        }
-        final Set<String> acceptHeaders = new LinkedHashSet<String>();
-        final Matcher m = ACCEPT_HEADER_PATTERN.matcher(acceptHeader);
-        while (m.find()) {
-            acceptHeaders.add(m.group(1));
-        }
-        return acceptHeaders;
+        return parseAcceptHeader(request.getHeader("Accept"));
+    }
+
+    /**
+     * Parses the media ranges of an {@code Accept header} value.
+     * 
+     * @param acceptHeader the value of the Http Accept Header, may be {@code null}.
+     * @return {@code Set<String>} of the media ranges ordered by quality, or an empty set if the header was {@code null}.
+     * @see AcceptHeader
+     */
+    public static Set<String> parseAcceptHeader(final String acceptHeader) {
+        return AcceptHeader.parse(acceptHeader).getMediaRanges();
     }
     
     /**
@@ -179,19 +178,23 @@ public class RequestUtils {
     public static Optional<MediaType> getAcceptedMediaType(final Set<String> acceptHeaders, final Set<MediaType> produces) {
         for (String acceptHeader : acceptHeaders) {
             for (MediaType mediaType : produces) {
-                if (acceptHeader.equals(mediaType.getType())) {
+                if (acceptHeader.equals(mediaType.getType()) || matchesSubtypeWildcard(acceptHeader, mediaType.getType())) {
                     return Optional.of(mediaType);
-                } else {
-                    final String[] types = acceptHeader.split("/");
-                    if (mediaType.getType().startsWith(types[0]) && types[1].equals("*")) {
-                        return Optional.of(mediaType);
-                    }
                 }
             }
         }
         return Optional.absent();
     }
     
+    /*
+     * Determines if the media range is of the form 'type/*' and the media type is of the same type.
+     */
+    private static boolean matchesSubtypeWildcard(final String mediaRange, final String mediaType) {
+        final int length = mediaRange.length();
+        return length > 2 && mediaRange.charAt(length - 1) == '*' && mediaRange.charAt(length - 2) == '/'
+                && mediaType.regionMatches(0, mediaRange, 0, length - 1);
+    }
+    
     /**
      * Will extract any placeholders, {name}, from the passed-in string.
      * 
@@ -207,6 +210,26 @@ public class RequestUtils {
         return params;
     }
     
+    /**
+     * Splits the passed-in string on its placeholders, {name}. The returned array alternates between literal text and
+     * placeholder names, and always starts and ends with literal text. For example 'a{b}c' is split into 'a', 'b', 'c'.
+     * 
+     * @param str the string containing placeholders.
+     * @return {@code String[]} the literal parts and placeholder names of the string.
+     */
+    public static String[] splitOnPlaceHolders(final String str) {
+        final Matcher matcher = PLACEHOLDER_PATTERN.matcher(str);
+        final List<String> parts = new ArrayList<String>();
+        int start = 0;
+        while (matcher.find()) {
+            parts.add(str.substring(start, matcher.start()));
+            parts.add(matcher.group(1));
+            start = matcher.end();
+        }
+        parts.add(str.substring(start));
+        return parts.toArray(new String[parts.size()]);
+    }
+    
     /**
      * Injects/replaces the placeholders in the passed-in string with the corresponding values from the passed-in map.
      * 
@@ -227,31 +250,14 @@ public class RequestUtils {
     /**
      * Determines whether to paths match in terms of having the same number of segments and the same segment names. 
      * </p>
+     * This compiles the placeholder path on every call. Routes hold a precompiled {@link PathTemplate} instead.
+     * </p>
      * @param placeHolderPath path that may contain placeholders.
      * @param realPath the actual path of the request.
      * @return {@code true} if the number of segments match and the segments names match.
      */
     public static boolean segmentsMatch(final String placeHolderPath, final String realPath) {
-        final List<String> placeholderSegments = pathSegements(placeHolderPath);
-        final List<String> realPathSegments = pathSegements(realPath);
-        if (placeholderSegments.size() != realPathSegments.size()) {
-            return false;
-        }
-        final int segments = placeholderSegments.size();
-        for (int i = 0; i < segments; i++ ) {
-            final String placeholderSegment = placeholderSegments.get(i);
-            final String realPathSegment = realPathSegments.get(i);
-            if (placeholderSegment.charAt(0) == '{') {
-                if (realPathSegment == null || realPathSegment.equals("")) {
-                    return false;
-                }
-            } else {
-                if (!placeholderSegment.equals(realPathSegment)) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return new PathTemplate(placeHolderPath).matches(realPath);
     }
     
     /**
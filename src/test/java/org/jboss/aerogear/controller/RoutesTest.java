@@ -30,6 +30,7 @@ import org.jboss.aerogear.controller.router.MediaType;
 import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.RouteContext;
 import org.jboss.aerogear.controller.router.Routes;
+import org.jboss.aerogear.controller.router.error.ErrorRoute;
 import org.jboss.aerogear.controller.router.error.ErrorTarget;
 import org.jboss.aerogear.controller.router.rest.AbstractRestResponder;
 import org.junit.Test;
@@ -147,6 +148,98 @@ public class RoutesTest {
         assertThat(genErrorRoute.getTargetMethod().getName()).isEqualTo("error");
     }
 
+    @Test
+    public void mostSpecificExceptionRoute() {
+        Routes routes = new AbstractRoutingModule() {
+            @Override
+            public void configuration() throws Exception {
+                route().on(Exception.class).to(SampleController.class).error(param(Exception.class));
+                route().on(SuperException.class).to(SampleController.class).superException();
+                route().on(SubException.class).to(SampleController.class).subException();
+            }
+        }.build();
+        assertThat(routes.routeFor(new SubException()).getTargetMethod().getName()).isEqualTo("subException");
+        assertThat(routes.routeFor(new SuperException()).getTargetMethod().getName()).isEqualTo("superException");
+        assertThat(routes.routeFor(new IllegalStateException()).getTargetMethod().getName()).isEqualTo("error");
+        assertThat(routes.routeFor(new Throwable())).isSameAs(ErrorRoute.DEFAULT.getRoute());
+        assertThat(routes.routeFor(new SubException())).isSameAs(routes.routeFor(new SubException()));
+    }
+
+    @Test
+    public void firstMatchingRouteWins() {
+        Routes routes = new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route().from("/car/{id}").on(GET).to(SampleController.class).find(param("id"));
+                route().from("/car/new").on(GET).to(SampleController.class).index();
+                route().from("/car/admin").on(GET).to(SampleController.class).admin();
+            }
+        }.build();
+        assertThat(routes.routeFor(GET, "/car/new", acceptHeaders(MediaType.HTML.getType())).getTargetMethod().getName())
+                .isEqualTo("find");
+    }
+
+    @Test
+    public void staticRouteConfiguredBeforePlaceholderRoute() {
+        Routes routes = new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route().from("/car/new").on(GET).to(SampleController.class).index();
+                route().from("/car/{id}").on(GET).to(SampleController.class).find(param("id"));
+            }
+        }.build();
+        assertThat(routes.routeFor(GET, "/car/new", acceptHeaders(MediaType.HTML.getType())).getTargetMethod().getName())
+                .isEqualTo("index");
+        assertThat(routes.routeFor(GET, "/car/12", acceptHeaders(MediaType.HTML.getType())).getTargetMethod().getName())
+                .isEqualTo("find");
+    }
+
+    @Test
+    public void routeSelectedByMethodAndProduces() {
+        Routes routes = new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route().from("/cars").on(POST).to(SampleController.class).save(param(Car.class));
+                route().from("/cars").on(GET).produces(MediaType.JSON).to(SampleController.class).lol();
+                route().from("/cars").on(GET).produces(MediaType.HTML).to(SampleController.class).index();
+            }
+        }.build();
+        assertThat(routes.routeFor(GET, "/cars", acceptHeaders(MediaType.HTML.getType())).getTargetMethod().getName())
+                .isEqualTo("index");
+        assertThat(routes.routeFor(GET, "/cars", acceptHeaders(MediaType.JSON.getType())).getTargetMethod().getName())
+                .isEqualTo("lol");
+        assertThat(routes.routeFor(POST, "/cars", acceptHeaders(MediaType.ANY)).getTargetMethod().getName())
+                .isEqualTo("save");
+    }
+
+    @Test
+    public void placeholderBacktracking() {
+        Routes routes = new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route().from("/car/new/{color}/{brand}").on(GET).to(SampleController.class).find(param("color"), param("brand"));
+                route().from("/car/{id}").on(GET).to(SampleController.class).find(param("id"));
+                route().from("/car/{id}/{brand}").on(GET).to(SampleController.class).admin();
+            }
+        }.build();
+        assertThat(routes.routeFor(GET, "/car/new/red", acceptHeaders()).getTargetMethod().getName()).isEqualTo("admin");
+        assertThat(routes.routeFor(GET, "/car/new/red/bmw/", acceptHeaders()).getTargetMethod().getName()).isEqualTo("find");
+        assertThat(routes.hasRouteFor(GET, "/car", acceptHeaders())).isFalse();
+        assertThat(routes.hasRouteFor(GET, "/car/new/red/bmw/x", acceptHeaders())).isFalse();
+    }
+
+    @Test (expected = RuntimeException.class)
+    public void noRouteFound() {
+        Routes routes = new AbstractRoutingModule() {
+            @Override
+            public void configuration() throws Exception {
+                route().on(SubException.class).to(SampleController.class).subException();
+                route().from("/home").on(GET).to(SampleController.class).index();
+            }
+        }.build();
+        routes.routeFor(POST, "/home", acceptHeaders());
+    }
+
     public static class SuperException extends Exception {
         private static final long serialVersionUID = 1L;
     }
@@ -19,7 +19,9 @@ package org.jboss.aerogear.controller;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Future;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -52,6 +54,9 @@ public class SampleController {
     public void save(Car car, String metadata) {
     }
 
+    public void importCars(Iterator<Car> cars) {
+    }
+
     public void find(String id) {
     }
     
@@ -67,6 +72,12 @@ public class SampleController {
     public void find(Long id) {
     }
 
+    public void findItem(long id) {
+    }
+
+    public void findItemPage(long id, int page) {
+    }
+
     @Paginated
     public List<Integer> findBy(PaginationInfo pinfo, String query) {
         return ints(pinfo.getOffset(), pinfo.getLimit(), 50);
@@ -92,6 +103,16 @@ public class SampleController {
         return ints(pinfo.getOffset(), pinfo.getLimit(), 50);
     }
 
+    @Paginated
+    public List<Integer> findByExample(PaginationInfo pinfo, Car example) {
+        return ints(pinfo.getOffset(), pinfo.getLimit(), 50);
+    }
+
+    @Paginated
+    public Future<List<Integer>> findByAsync(PaginationInfo pinfo, String query) {
+        return null;
+    }
+
     private List<Integer> ints(final int offset, final int limit, final int total) {
         final ArrayList<Integer> ints = new ArrayList<Integer>();
         if (offset >= total) {
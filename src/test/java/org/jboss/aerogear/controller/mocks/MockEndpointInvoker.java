@@ -24,6 +24,7 @@ import static org.mockito.Mockito.when;
 import javax.enterprise.inject.spi.BeanManager;
 
 import org.jboss.aerogear.controller.router.ControllerFactory;
+import org.jboss.aerogear.controller.router.ControllerInstance;
 import org.jboss.aerogear.controller.router.EndpointInvoker;
 import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.error.ErrorTarget;
@@ -44,7 +45,7 @@ public class MockEndpointInvoker {
 
     private void instrumentErrorController() {
         errorTarget = spy(new ErrorTarget());
-        when(controllerFactory.createController(eq(ErrorTarget.class), eq(beanManager))).thenReturn(errorTarget);
+        when(controllerFactory.createController(eq(ErrorTarget.class), eq(beanManager))).thenReturn(instance(errorTarget));
     }
 
     public EndpointInvoker getEndpointInvoker() {
@@ -55,15 +56,28 @@ public class MockEndpointInvoker {
         if (controller == null) {
             controller = mock(route.getTargetClass());
         }
-        when(controllerFactory.createController(eq(route.getTargetClass()), eq(beanManager))).thenReturn(controller);
+        when(controllerFactory.createController(eq(route.getTargetClass()), eq(beanManager))).thenReturn(instance(controller));
         return controller;
     }
 
     public MockEndpointInvoker addController(final Object controller) {
-        when(controllerFactory.createController(eq(controller.getClass()), eq(beanManager))).thenReturn(controller);
+        when(controllerFactory.createController(eq(controller.getClass()), eq(beanManager))).thenReturn(instance(controller));
         return this;
     }
 
+    private static ControllerInstance instance(final Object controller) {
+        return new ControllerInstance() {
+            @Override
+            public Object get() {
+                return controller;
+            }
+
+            @Override
+            public void release() {
+            }
+        };
+    }
+
     public ErrorTarget getErrorTarget() {
         return errorTarget;
     }
@@ -78,6 +78,10 @@ public class MockRequest {
     }
 
     public MockRequest body(final String body) {
+        return body(body.getBytes());
+    }
+
+    public MockRequest body(final byte[] body) {
         try {
             when(request.getInputStream()).thenReturn(inputStream(body));
         } catch (final IOException e) {
@@ -86,8 +90,8 @@ public class MockRequest {
         return this;
     }
 
-    private ServletInputStream inputStream(final String json) {
-        final ByteArrayInputStream ba = new ByteArrayInputStream(json.getBytes());
+    private ServletInputStream inputStream(final byte[] body) {
+        final ByteArrayInputStream ba = new ByteArrayInputStream(body);
         return new ServletInputStream() {
             @Override
             public int read() throws IOException {
@@ -25,6 +25,7 @@ import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Set;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
 
@@ -56,6 +57,8 @@ import org.jboss.aerogear.controller.util.RequestUtils;
 import org.jboss.aerogear.controller.view.JspViewResponder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 public class RouteTester {
 
@@ -114,6 +117,11 @@ public class RouteTester {
         return this;
     }
 
+    public RouteTester body(final byte[] body) {
+        mockRequest.body(body);
+        return this;
+    }
+
     public Route routeFor(final String path) {
         mockRequest.setRequestURI(path);
         mockRequest.setRequestURL(path);
@@ -215,8 +223,13 @@ public class RouteTester {
     }
 
     private void instrumentConsumers() {
-        final Iterator<Consumer> iterator = new HashSet<Consumer>(Arrays.asList(new JsonConsumer())).iterator();
-        when(consumers.iterator()).thenReturn(iterator);
+        final Set<Consumer> registered = new HashSet<Consumer>(Arrays.<Consumer> asList(new JsonConsumer()));
+        when(consumers.iterator()).thenAnswer(new Answer<Iterator<Consumer>>() {
+            @Override
+            public Iterator<Consumer> answer(final InvocationOnMock invocation) {
+                return registered.iterator();
+            }
+        });
     }
 
     public RouteTester spyController(final Object controller) {
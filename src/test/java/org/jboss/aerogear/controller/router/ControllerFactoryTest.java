@@ -0,0 +1,146 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Set;
+
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.servlet.http.HttpServletRequest;
+
+import org.jboss.aerogear.controller.SampleController;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class ControllerFactoryTest {
+
+    @Mock
+    private BeanManager beanManager;
+    @Mock
+    private Bean<SampleController> bean;
+    @Mock
+    private CreationalContext<SampleController> creationalContext;
+    @Mock
+    private Set<Bean<?>> beans;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        when(beanManager.getBeans(SampleController.class)).thenReturn(beans);
+        doReturn(bean).when(beanManager).resolve(beans);
+        when(beanManager.createCreationalContext(bean)).thenReturn(creationalContext);
+    }
+
+    @Test
+    public void dependentControllerIsCreatedAndDestroyedPerRequest() {
+        doReturn(Dependent.class).when(bean).getScope();
+        final SampleController first = new SampleController();
+        final SampleController second = new SampleController();
+        when(bean.create(creationalContext)).thenReturn(first, second);
+        final ControllerFactory factory = new ControllerFactory();
+
+        final ControllerInstance firstInstance = factory.createController(SampleController.class, beanManager);
+        assertThat(firstInstance.get()).isSameAs(first);
+        firstInstance.release();
+        verify(bean).destroy(first, creationalContext);
+
+        final ControllerInstance secondInstance = factory.createController(SampleController.class, beanManager);
+        assertThat(secondInstance.get()).isSameAs(second);
+        secondInstance.release();
+        verify(bean).destroy(second, creationalContext);
+        verify(beanManager, times(1)).getBeans(SampleController.class);
+    }
+
+    @Test
+    public void normalScopedControllerReferenceIsReused() {
+        doReturn(RequestScoped.class).when(bean).getScope();
+        final SampleController reference = new SampleController();
+        when(beanManager.getReference(bean, SampleController.class, creationalContext)).thenReturn(reference);
+        final ControllerFactory factory = new ControllerFactory();
+
+        final ControllerInstance first = factory.createController(SampleController.class, beanManager);
+        first.release();
+        final ControllerInstance second = factory.createController(SampleController.class, beanManager);
+        assertThat(first.get()).isSameAs(reference);
+        assertThat(second.get()).isSameAs(reference);
+        verify(beanManager, times(1)).getReference(bean, SampleController.class, creationalContext);
+        verify(bean, never()).create(Matchers.<CreationalContext<SampleController>> any());
+        verify(bean, never()).destroy(any(SampleController.class), Matchers.<CreationalContext<SampleController>> any());
+    }
+
+    @Test
+    public void prepareResolvesBeansUpFront() {
+        doReturn(Dependent.class).when(bean).getScope();
+        final ControllerFactory factory = new ControllerFactory();
+        factory.prepare(Collections.<Class<?>> singleton(SampleController.class), beanManager);
+        verify(beanManager).getBeans(SampleController.class);
+
+        factory.createController(SampleController.class, beanManager);
+        verify(beanManager, times(1)).getBeans(SampleController.class);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void noBeanForTargetClass() {
+        doReturn(null).when(beanManager).resolve(beans);
+        new ControllerFactory().createController(SampleController.class, beanManager);
+    }
+
+    @Test
+    public void controllerIsReleasedWhenInvocationFails() throws Exception {
+        final ControllerFactory factory = mock(ControllerFactory.class);
+        final ControllerInstance controllerInstance = mock(ControllerInstance.class);
+        final SampleController controller = mock(SampleController.class);
+        final Route route = mock(Route.class);
+        final RouteContext routeContext = mock(RouteContext.class);
+        final IllegalStateException exception = new IllegalStateException("failed");
+        doReturn(SampleController.class).when(route).getTargetClass();
+        when(route.getTargetInvoker()).thenReturn(
+                MethodInvoker.of(SampleController.class.getMethod("throwIllegalStateException")));
+        when(routeContext.getRoute()).thenReturn(route);
+        when(routeContext.getRequest()).thenReturn(mock(HttpServletRequest.class));
+        when(factory.createController(SampleController.class, beanManager)).thenReturn(controllerInstance);
+        when(controllerInstance.get()).thenReturn(controller);
+        doThrow(exception).when(controller).throwIllegalStateException();
+        try {
+            new EndpointInvoker(factory, beanManager).invoke(routeContext, new Object[0]);
+            fail("invoke should have thrown");
+        } catch (Exception e) {
+            assertThat(e.getCause()).isSameAs(exception);
+        }
+        verify(controllerInstance).release();
+    }
+
+}
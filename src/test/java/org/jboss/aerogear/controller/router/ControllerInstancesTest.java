@@ -0,0 +1,101 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class ControllerInstancesTest {
+
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private AsyncContext asyncContext;
+    @Mock
+    private ControllerInstance instance;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void releasedRightAwayWithoutDispatch() {
+        ControllerInstances.releaseWhenFinished(request, instance);
+        verify(instance).release();
+    }
+
+    @Test
+    public void releasedWhenDispatchReturns() {
+        final ControllerInstances controllerInstances = attach();
+        ControllerInstances.releaseWhenFinished(request, instance);
+        verify(instance, never()).release();
+        controllerInstances.dispatched(request);
+        verify(instance).release();
+    }
+
+    @Test
+    public void releasedWhenAsyncRequestCompletes() throws Exception {
+        final ControllerInstances controllerInstances = attach();
+        ControllerInstances.releaseWhenFinished(request, instance);
+        when(request.isAsyncStarted()).thenReturn(true);
+        when(request.getAsyncContext()).thenReturn(asyncContext);
+        controllerInstances.dispatched(request);
+        verify(asyncContext).addListener(controllerInstances);
+        verify(instance, never()).release();
+        controllerInstances.onComplete(null);
+        verify(instance).release();
+    }
+
+    @Test
+    public void releasedRightAwayAfterRequestFinished() {
+        final ControllerInstances controllerInstances = attach();
+        controllerInstances.dispatched(request);
+        ControllerInstances.releaseWhenFinished(request, instance);
+        verify(instance).release();
+    }
+
+    @Test
+    public void attachReusesInstances() {
+        final ControllerInstances controllerInstances = attach();
+        final ControllerInstance other = mock(ControllerInstance.class);
+        ControllerInstances.attach(request);
+        ControllerInstances.releaseWhenFinished(request, instance);
+        ControllerInstances.releaseWhenFinished(request, other);
+        controllerInstances.dispatched(request);
+        verify(instance).release();
+        verify(other).release();
+    }
+
+    private ControllerInstances attach() {
+        final ControllerInstances controllerInstances = ControllerInstances.attach(request);
+        when(request.getAttribute(ControllerInstances.ATTRIBUTE_NAME)).thenReturn(controllerInstances);
+        return controllerInstances;
+    }
+
+}
@@ -28,20 +28,42 @@ import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
-
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import javax.enterprise.inject.Instance;
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.jboss.aerogear.controller.Car;
 import org.jboss.aerogear.controller.SampleController;
 import org.jboss.aerogear.controller.mocks.RouteTester;
+import org.jboss.aerogear.controller.router.async.AsyncDispatcher;
+import org.jboss.aerogear.controller.router.bulkhead.Bulkheads;
 import org.jboss.aerogear.controller.router.parameter.MissingRequestParameterException;
 import org.jboss.aerogear.controller.router.rest.AbstractRestResponder;
+import org.jboss.aerogear.controller.router.rest.JsonConsumer;
 import org.jboss.aerogear.controller.router.rest.JsonResponder;
+import org.jboss.aerogear.controller.router.rest.compression.ContentEncoding;
+import org.jboss.aerogear.controller.router.rest.compression.RequestDecompressor;
 import org.jboss.aerogear.controller.router.rest.pagination.PaginationInfo;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 public class DefaultRouteProcessorTest {
 
@@ -96,6 +118,22 @@ public class DefaultRouteProcessorTest {
         verify(routeTester.jsonResponder()).respond(any(), any(RouteContext.class));
     }
 
+    @Test
+    public void testAcceptHeaderQualityValues() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/car/{id}").roles("admin")
+                        .on(GET)
+                        .produces(JSP, JSON)
+                        .to(SampleController.class).find(param("id"));
+            }
+        });
+        routeTester.acceptHeader("text/html;q=0.5, application/json").processGetRequest("/car/3");
+        verify(routeTester.jsonResponder()).respond(any(), any(RouteContext.class));
+    }
+
     @Test
     public void testRestRouteWithTypedPathParam() throws Exception {
         final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
@@ -113,6 +151,22 @@ public class DefaultRouteProcessorTest {
         verify(routeTester.jsonResponder()).respond(any(), any(RouteContext.class));
     }
 
+    @Test
+    public void testRestRouteWithPrimitivePathParam() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/items/{id}")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).findItem(param("id", long.class));
+            }
+        });
+        routeTester.acceptHeader(JSON).processGetRequest("/items/3");
+        verify(routeTester.<SampleController>getController()).findItem(3L);
+    }
+
     @Test
     public void testFormParameters() throws Exception {
         final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
@@ -677,6 +731,161 @@ public class DefaultRouteProcessorTest {
         verify(routeTester.jspResponder()).respond(any(), any(RouteContext.class));
     }
     
+    @Test
+    public void testPagedEndpointWithCompressedBody() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/ints")
+                        .on(POST)
+                        .consumes(JSON)
+                        .produces(JSON)
+                        .to(SampleController.class).findByExample(param(PaginationInfo.class), param(Car.class));
+            }
+        }).spyController(new SampleController()).addResponder(new JsonResponder());
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final GZIPOutputStream gzip = new GZIPOutputStream(body);
+        gzip.write("{\"color\":\"red\",\"brand\":\"Ferrari\"}".getBytes("UTF-8"));
+        gzip.close();
+        routeTester.body(body.toByteArray()).header("Content-Encoding", "gzip").contentType(JSON.getType());
+        routeTester.acceptHeader(JSON).processPostRequest("/ints");
+        final ArgumentCaptor<Car> car = ArgumentCaptor.forClass(Car.class);
+        verify(routeTester.<SampleController>getController()).findByExample(any(PaginationInfo.class), car.capture());
+        assertThat(car.getValue().getBrand()).isEqualTo("Ferrari");
+        assertThat(routeTester.getStringWriter().toString()).isEqualTo("[0,1,2,3,4,5,6,7,8,9]");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void decompressedBodyReleasedWhenIsolatedInvocationCompletes() throws Exception {
+        final Route route = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars")
+                        .on(POST)
+                        .consumes(JSON)
+                        .produces(JSON)
+                        .isolated("reports")
+                        .to(SampleController.class).save(param(Car.class));
+            }
+        }).requestMethod(POST).routeFor("/cars");
+        final Consumer consumer = mock(Consumer.class);
+        when(consumer.mediaType()).thenReturn(JSON.getType());
+        when(consumer.unmarshall(any(HttpServletRequest.class), eq(Car.class))).thenAnswer(new Answer<Car>() {
+            @Override
+            public Car answer(final InvocationOnMock invocation) throws Throwable {
+                ((HttpServletRequest) invocation.getArguments()[0]).getInputStream().read();
+                return new Car("red", "Ferrari");
+            }
+        });
+        final Instance<Consumer> consumers = mock(Instance.class);
+        when(consumers.iterator()).thenReturn(Arrays.asList(consumer).iterator());
+        final CountDownLatch invoked = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+        final EndpointInvoker endpointInvoker = mock(EndpointInvoker.class);
+        when(endpointInvoker.invoke(any(RouteContext.class), any(Object[].class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(final InvocationOnMock invocation) throws Throwable {
+                invoked.countDown();
+                finish.await(5, TimeUnit.SECONDS);
+                return "saved";
+            }
+        });
+        final RequestDecompressor decompressor = new RequestDecompressor();
+        final Bulkheads bulkheads = new Bulkheads();
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final GZIPOutputStream gzip = new GZIPOutputStream(body);
+        gzip.write("{\"color\":\"red\",\"brand\":\"Ferrari\"}".getBytes("UTF-8"));
+        gzip.close();
+        final ByteArrayInputStream in = new ByteArrayInputStream(body.toByteArray());
+        when(request.getInputStream()).thenReturn(new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+        });
+        when(request.getHeader("Content-Encoding")).thenReturn("gzip");
+        when(request.getContentType()).thenReturn(JSON.getType());
+        when(request.isAsyncSupported()).thenReturn(true);
+        when(request.startAsync()).thenReturn(mock(AsyncContext.class));
+        try {
+            final DefaultRouteProcessor processor = new DefaultRouteProcessor(consumers, endpointInvoker, decompressor,
+                    new RequestCoalescer(), new AsyncDispatcher(), bulkheads);
+            processor.process(new RouteContext(route, "/cars", request, mock(HttpServletResponse.class), null));
+            assertThat(invoked.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(decompressor.getIdleInflaters(ContentEncoding.GZIP)).isEqualTo(0);
+            finish.countDown();
+            for (int i = 0; i < 100 && decompressor.getIdleInflaters(ContentEncoding.GZIP) == 0; i++) {
+                Thread.sleep(10);
+            }
+            assertThat(decompressor.getIdleInflaters(ContentEncoding.GZIP)).isEqualTo(1);
+        } finally {
+            finish.countDown();
+            bulkheads.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void decompressedBodyReleasedWhenRequestFinishes() throws Exception {
+        final Route route = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars")
+                        .on(POST)
+                        .consumes(JSON)
+                        .produces(JSON)
+                        .to(SampleController.class).importCars(param(Iterator.class));
+            }
+        }).requestMethod(POST).routeFor("/cars");
+        final Instance<Consumer> consumers = mock(Instance.class);
+        when(consumers.iterator()).thenReturn(Arrays.<Consumer> asList(new JsonConsumer()).iterator());
+        final EndpointInvoker endpointInvoker = mock(EndpointInvoker.class);
+        when(endpointInvoker.invoke(any(RouteContext.class), any(Object[].class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(final InvocationOnMock invocation) throws Throwable {
+                return ((Object[]) invocation.getArguments()[1])[0];
+            }
+        });
+        final RequestDecompressor decompressor = new RequestDecompressor();
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final GZIPOutputStream gzip = new GZIPOutputStream(body);
+        gzip.write('[');
+        for (int i = 0; i < 1000; i++) {
+            gzip.write(((i == 0 ? "" : ",") + "{\"color\":\"red\",\"brand\":\"Ferrari" + i + "\"}").getBytes("UTF-8"));
+        }
+        gzip.write(']');
+        gzip.close();
+        final ByteArrayInputStream in = new ByteArrayInputStream(body.toByteArray());
+        when(request.getInputStream()).thenReturn(new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+        });
+        when(request.getHeader("Content-Encoding")).thenReturn("gzip");
+        when(request.getContentType()).thenReturn(JSON.getType());
+        final ControllerInstances controllerInstances = ControllerInstances.attach(request);
+        when(request.getAttribute(ControllerInstances.ATTRIBUTE_NAME)).thenReturn(controllerInstances);
+
+        final DefaultRouteProcessor processor = new DefaultRouteProcessor(consumers, endpointInvoker, decompressor);
+        final InvocationResult result = processor.process(new RouteContext(route, "/cars", request,
+                mock(HttpServletResponse.class), null));
+        final Iterator<Car> cars = (Iterator<Car>) result.getResult();
+        int count = 0;
+        while (cars.hasNext()) {
+            assertThat(cars.next().getBrand()).isEqualTo("Ferrari" + count++);
+        }
+        assertThat(count).isEqualTo(1000);
+        controllerInstances.dispatched(request);
+        assertThat(decompressor.getIdleInflaters(ContentEncoding.GZIP)).isEqualTo(1);
+    }
+
     private class CustomResponder extends AbstractRestResponder {
         
         private MediaType customMediaType = new MediaType("application/custom", CustomResponder.class); 
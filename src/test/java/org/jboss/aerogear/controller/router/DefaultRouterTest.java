@@ -16,12 +16,26 @@
  */
 package org.jboss.aerogear.controller.router;
 
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Collections;
+
 import javax.enterprise.inject.Instance;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
+import org.jboss.aerogear.controller.SampleController;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -29,10 +43,36 @@ public class DefaultRouterTest {
     
     @Mock
     private Instance<RoutingModule> routingModuleInstance;
+    @Mock
+    private RouteProcessor routeProcessor;
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private ServletContext servletContext;
+    @Mock
+    private FilterChain chain;
+    @Mock
+    private Instance<RouteCacheConfiguration> routeCacheConfigInstance;
+    @Mock
+    private ControllerFactory controllerFactory;
+    @Mock
+    private BeanManager beanManager;
     
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
+        when(routingModuleInstance.get()).thenReturn(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route().from("/car/{id}").on(RequestMethod.GET).to(SampleController.class).find(param("id"));
+            }
+        });
+        when(request.getServletContext()).thenReturn(servletContext);
+        when(servletContext.getContextPath()).thenReturn("/test");
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(request.getHeader("Accept")).thenReturn(MediaType.HTML.getType());
     }
 
     @Test (expected = RuntimeException.class) 
@@ -41,4 +81,58 @@ public class DefaultRouterTest {
         new DefaultRouter(routingModuleInstance, null);
     }
 
+    @Test
+    public void dispatchReusesRouteMatch() throws Exception {
+        when(request.getRequestURI()).thenReturn("/test/car/3");
+        final DefaultRouter router = new DefaultRouter(routingModuleInstance, routeProcessor);
+        assertThat(router.hasRouteFor(request)).isTrue();
+
+        final ArgumentCaptor<RouteMatch> routeMatch = ArgumentCaptor.forClass(RouteMatch.class);
+        verify(request).setAttribute(eq(RouteMatch.ATTRIBUTE_NAME), routeMatch.capture());
+        assertThat(routeMatch.getValue().getRequestPath()).isEqualTo("/car/3");
+        when(request.getAttribute(RouteMatch.ATTRIBUTE_NAME)).thenReturn(routeMatch.getValue());
+
+        router.dispatch(request, response, chain);
+        final ArgumentCaptor<RouteContext> routeContext = ArgumentCaptor.forClass(RouteContext.class);
+        verify(routeProcessor).process(routeContext.capture());
+        assertThat(routeContext.getValue().getRoute()).isSameAs(routeMatch.getValue().getRoute());
+        assertThat(routeContext.getValue().getRequestPath()).isEqualTo("/car/3");
+        assertThat(routeContext.getValue().getPathParameters()).isSameAs(routeMatch.getValue().getPathParameters());
+        assertThat(routeContext.getValue().getPathParameters().get("id").get()).isEqualTo("3");
+        verify(request, times(1)).getHeader("Accept");
+        verify(request).removeAttribute(RouteMatch.ATTRIBUTE_NAME);
+    }
+
+    @Test
+    public void dispatchWithoutRouteMatch() throws Exception {
+        when(request.getRequestURI()).thenReturn("/test/car/3");
+        final DefaultRouter router = new DefaultRouter(routingModuleInstance, routeProcessor);
+        router.dispatch(request, response, chain);
+        final ArgumentCaptor<RouteContext> routeContext = ArgumentCaptor.forClass(RouteContext.class);
+        verify(routeProcessor).process(routeContext.capture());
+        assertThat(routeContext.getValue().getRoute().getPath()).isEqualTo("/car/{id}");
+    }
+
+    @Test
+    public void preparesControllerFactory() {
+        when(routeCacheConfigInstance.isUnsatisfied()).thenReturn(true);
+        new DefaultRouter(routingModuleInstance, routeProcessor, routeCacheConfigInstance, controllerFactory, beanManager);
+        verify(controllerFactory).prepare(Collections.<Class<?>> singleton(SampleController.class), beanManager);
+    }
+
+    @Test
+    public void firesRoutesEvent() {
+        when(routeCacheConfigInstance.isUnsatisfied()).thenReturn(true);
+        new DefaultRouter(routingModuleInstance, routeProcessor, routeCacheConfigInstance, controllerFactory, beanManager);
+        verify(beanManager).fireEvent(any(Routes.class));
+    }
+
+    @Test
+    public void noRouteMatch() throws Exception {
+        when(request.getRequestURI()).thenReturn("/test/cars");
+        final DefaultRouter router = new DefaultRouter(routingModuleInstance, routeProcessor);
+        assertThat(router.hasRouteFor(request)).isFalse();
+        verify(request, times(0)).setAttribute(eq(RouteMatch.ATTRIBUTE_NAME), any());
+    }
+
 }
@@ -0,0 +1,88 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.fest.assertions.Fail;
+import org.jboss.aerogear.controller.Car;
+import org.jboss.aerogear.controller.SampleController;
+import org.junit.Test;
+
+public class MethodInvokerTest {
+
+    @Test
+    public void invokePublicMethod() throws Exception {
+        final MethodInvoker invoker = MethodInvoker.of(Target.class.getMethod("echo", String.class));
+        assertThat(invoker.toString()).startsWith("FastMethodInvoker");
+        assertThat(invoker.invoke(new Target(), new Object[] { "hello" })).isEqualTo("hello");
+    }
+
+    @Test
+    public void invokeOverriddenMethod() throws Exception {
+        final MethodInvoker invoker = MethodInvoker.of(Target.class.getMethod("echo", String.class));
+        assertThat(invoker.invoke(new Target() {
+            @Override
+            public String echo(final String value) {
+                return value + value;
+            }
+        }, new Object[] { "hello" })).isEqualTo("hellohello");
+    }
+
+    @Test
+    public void invokeVoidMethod() throws Exception {
+        final MethodInvoker invoker = MethodInvoker.of(SampleController.class.getMethod("save", Car.class));
+        assertThat(invoker.invoke(new SampleController(), new Object[] { new Car("red", "Ferrari") })).isNull();
+    }
+
+    @Test
+    public void invokeNonPublicClass() throws Exception {
+        final MethodInvoker invoker = MethodInvoker.of(HiddenTarget.class.getMethod("echo", String.class));
+        assertThat(invoker.toString()).startsWith("ReflectiveMethodInvoker");
+    }
+
+    @Test
+    public void exceptionIsWrapped() throws Exception {
+        final MethodInvoker invoker = MethodInvoker.of(Target.class.getMethod("fail"));
+        try {
+            invoker.invoke(new Target(), new Object[] {});
+            Fail.fail("Should have thrown an InvocationTargetException");
+        } catch (final InvocationTargetException e) {
+            assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    public static class Target {
+        public String echo(final String value) {
+            return value;
+        }
+
+        public void fail() {
+            throw new IllegalStateException("fail");
+        }
+    }
+
+    static class HiddenTarget {
+        public String echo(final String value) {
+            return value;
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.aerogear.controller.SampleController;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class PathTemplateTest {
+
+    private static final int ITERATIONS = 10000;
+
+    @Test
+    public void segments() {
+        final PathTemplate template = new PathTemplate("/cars/{color}/{brand}");
+        assertThat(template.size()).isEqualTo(3);
+        assertThat(template.segment(0)).isEqualTo("cars");
+        assertThat(template.isPlaceholder(0)).isFalse();
+        assertThat(template.placeholderName(0)).isNull();
+        assertThat(template.segment(1)).isEqualTo("{color}");
+        assertThat(template.isPlaceholder(1)).isTrue();
+        assertThat(template.placeholderName(1)).isEqualTo("color");
+        assertThat(template.placeholderName(2)).isEqualTo("brand");
+    }
+
+    @Test
+    public void rootPath() {
+        final PathTemplate template = new PathTemplate("/");
+        assertThat(template.size()).isEqualTo(0);
+        assertThat(template.matches("/")).isTrue();
+        assertThat(template.matches("")).isTrue();
+        assertThat(template.matches("/cars")).isFalse();
+    }
+
+    @Test
+    public void matches() {
+        final PathTemplate template = new PathTemplate("/cars/{color}/{brand}");
+        assertThat(template.matches("/cars/red/BMW")).isTrue();
+        assertThat(template.matches("/cars/red/BMW/")).isTrue();
+        assertThat(template.matches("/cars/red")).isFalse();
+        assertThat(template.matches("/cars/red/")).isFalse();
+        assertThat(template.matches("/cars/red/BMW/3")).isFalse();
+        assertThat(template.matches("/carz/red/BMW")).isFalse();
+        assertThat(template.matches("/car/red/BMW")).isFalse();
+    }
+
+    @Test
+    public void matchesStaticSegmentPrefix() {
+        final PathTemplate template = new PathTemplate("/cars");
+        assertThat(template.matches("/cars")).isTrue();
+        assertThat(template.matches("/carsx")).isFalse();
+        assertThat(template.matches("/car")).isFalse();
+    }
+
+    @Test
+    public void bind() {
+        final PathParameters params = new PathTemplate("/cars/{color}/subpath/{brand}").bind("/cars/red/subpath/BMW/");
+        assertThat(params.get("color").get()).isEqualTo("red");
+        assertThat(params.get("brand").get()).isEqualTo("BMW");
+        assertThat(params.contains("brand")).isTrue();
+        assertThat(params.get("subpath").isPresent()).isFalse();
+        assertThat(params.contains("id")).isFalse();
+    }
+
+    @Test
+    public void bindNoMatch() {
+        final PathParameters params = new PathTemplate("/cars/{id}").bind("/c");
+        assertThat(params).isSameAs(PathParameters.EMPTY);
+        assertThat(params.get("id").isPresent()).isFalse();
+    }
+
+    @Test
+    public void noAllocationWhenMatchingStaticSegments() {
+        final PathTemplate template = new PathTemplate("/cars/segment1/segment2");
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                template.matches("/cars/segment1/segment2");
+                template.matches("/cars/segment1/segment3");
+            }
+        });
+    }
+
+    @Test
+    public void noAllocationWhenLookingUpStaticRoutes() {
+        final RouteIndex index = new RouteIndex(routes("/cars", "/cars/{id}", "/cars/segment1/segment2", "/trucks"));
+        final Set<String> acceptHeaders = Collections.emptySet();
+        assertThat(index.lookup(RequestMethod.GET, "/cars/segment1/segment2", acceptHeaders).getPath())
+                .isEqualTo("/cars/segment1/segment2");
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                index.lookup(RequestMethod.GET, "/cars/segment1/segment2", acceptHeaders);
+                index.lookup(RequestMethod.GET, "/trucks", acceptHeaders);
+            }
+        });
+    }
+
+    private static List<Route> routes(final String... paths) {
+        final Route[] routes = new Route[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            final RouteDescriptor rd = new RouteDescriptor();
+            rd.setPath(paths[i]).on(RequestMethod.GET).to(SampleController.class).index();
+            routes[i] = new DefaultRoute(rd);
+        }
+        return Arrays.asList(routes);
+    }
+
+    /*
+     * Runs the task enough times to be compiled and then verifies that the measured iterations allocated less than
+     * a byte per invocation, which leaves room for the bookkeeping of the measurement itself.
+     */
+    private static void assertNoAllocation(final Runnable task) {
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threadBean;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        final long threadId = Thread.currentThread().getId();
+        final long before = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        final long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+        assertThat(allocated).isLessThan(ITERATIONS);
+    }
+
+}
@@ -0,0 +1,232 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.jboss.aerogear.controller.router.async.AsyncTimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RequestCoalescerTest {
+
+    private static final int FOLLOWERS = 4;
+
+    private final Route route = mock(Route.class);
+    private ExecutorService executor;
+    private RequestCoalescer coalescer;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+        coalescer = new RequestCoalescer();
+    }
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentIdenticalRequestsShareInvocation() throws Exception {
+        final BlockingInvoker invoker = new BlockingInvoker("car");
+        final List<Future<Object>> results = invokeConcurrently(invoker, "GET", "3");
+        for (Future<Object> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("car");
+        }
+        assertThat(invoker.invocations.get()).isEqualTo(1);
+        assertThat(coalescer.coalescedCount()).isEqualTo(FOLLOWERS);
+    }
+
+    @Test
+    public void exceptionIsSharedWithWaitingRequests() throws Exception {
+        final BlockingInvoker invoker = new BlockingInvoker(new IllegalStateException("boom"));
+        final List<Future<Object>> results = invokeConcurrently(invoker, "GET", "3");
+        for (Future<Object> result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                fail("Should have thrown the leader's exception");
+            } catch (final java.util.concurrent.ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+                assertThat(e.getCause().getMessage()).isEqualTo("boom");
+            }
+        }
+        assertThat(invoker.invocations.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void nullResultIsShared() throws Exception {
+        final BlockingInvoker invoker = new BlockingInvoker(null);
+        final List<Future<Object>> results = invokeConcurrently(invoker, "GET", "3");
+        for (Future<Object> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isNull();
+        }
+        assertThat(invoker.invocations.get()).isEqualTo(1);
+        assertThat(coalescer.coalescedCount()).isEqualTo(FOLLOWERS);
+    }
+
+    @Test
+    public void followerTimesOutWaitingForLeader() throws Exception {
+        when(route.getAsyncTimeout()).thenReturn(50L);
+        final BlockingInvoker invoker = new BlockingInvoker("car");
+        final Future<Object> leader = executor.submit(call(invoker, "GET", "3"));
+        assertThat(invoker.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        try {
+            coalescer.invoke(routeContext("GET", "application/json"), new Object[] { "3" }, invoker);
+            fail("Should have thrown an AsyncTimeoutException");
+        } catch (final AsyncTimeoutException e) {
+            assertThat(e.getStatus()).isEqualTo(503);
+        }
+        assertThat(invoker.invocations.get()).isEqualTo(1);
+        invoker.release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("car");
+    }
+
+    @Test
+    public void iteratorResultsAreNotShared() throws Exception {
+        final BlockingInvoker invoker = new BlockingInvoker(null) {
+            @Override
+            Object result() {
+                return Arrays.asList("a", "b").iterator();
+            }
+        };
+        final List<Future<Object>> results = invokeConcurrently(invoker, "GET", "3");
+        for (Future<Object> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isInstanceOf(Iterator.class);
+        }
+        assertThat(invoker.invocations.get()).isEqualTo(FOLLOWERS + 1);
+    }
+
+    @Test
+    public void differentArgumentsAreNotCoalesced() throws Exception {
+        final BlockingInvoker invoker = new BlockingInvoker("car");
+        invoker.release.countDown();
+        coalescer.invoke(routeContext("GET", "application/json"), new Object[] { "1" }, invoker);
+        coalescer.invoke(routeContext("GET", "application/json"), new Object[] { "2" }, invoker);
+        assertThat(invoker.invocations.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void completedInvocationIsNotCached() throws Exception {
+        final BlockingInvoker invoker = new BlockingInvoker("car");
+        invoker.release.countDown();
+        coalescer.invoke(routeContext("GET", "application/json"), new Object[] { "1" }, invoker);
+        coalescer.invoke(routeContext("GET", "application/json"), new Object[] { "1" }, invoker);
+        assertThat(invoker.invocations.get()).isEqualTo(2);
+        assertThat(coalescer.coalescedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void postRequestsAreNotCoalesced() throws Exception {
+        final BlockingInvoker invoker = new BlockingInvoker("car");
+        invoker.release.countDown();
+        final List<Future<Object>> results = new ArrayList<Future<Object>>();
+        for (int i = 0; i <= FOLLOWERS; i++) {
+            results.add(executor.submit(call(invoker, "POST", "3")));
+        }
+        for (Future<Object> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("car");
+        }
+        assertThat(invoker.invocations.get()).isEqualTo(FOLLOWERS + 1);
+        assertThat(coalescer.coalescedCount()).isEqualTo(0);
+    }
+
+    /*
+     * Starts a leader, waits until it is inside the endpoint, then starts the followers and only releases the leader
+     * once all of them are waiting for it.
+     */
+    private List<Future<Object>> invokeConcurrently(final BlockingInvoker invoker, final String method, final String arg)
+            throws Exception {
+        final List<Future<Object>> results = new ArrayList<Future<Object>>();
+        results.add(executor.submit(call(invoker, method, arg)));
+        assertThat(invoker.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            results.add(executor.submit(call(invoker, method, arg)));
+        }
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (coalescer.coalescedCount() < FOLLOWERS && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        invoker.release.countDown();
+        return results;
+    }
+
+    private Callable<Object> call(final EndpointInvoker invoker, final String method, final String arg) {
+        return new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return coalescer.invoke(routeContext(method, "application/json"), new Object[] { arg }, invoker);
+            }
+        };
+    }
+
+    private RouteContext routeContext(final String method, final String accept) {
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getHeader("Accept")).thenReturn(accept);
+        return new RouteContext(route, "/cars/1", request, null, null);
+    }
+
+    private static class BlockingInvoker extends EndpointInvoker {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final Object result;
+
+        BlockingInvoker(final Object result) {
+            super(null, null);
+            this.result = result;
+        }
+
+        Object result() {
+            return result;
+        }
+
+        @Override
+        public Object invoke(final RouteContext routeContext, final Object[] args) throws Exception {
+            invocations.incrementAndGet();
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            if (result instanceof Exception) {
+                throw (Exception) result;
+            }
+            return result();
+        }
+    }
+
+}
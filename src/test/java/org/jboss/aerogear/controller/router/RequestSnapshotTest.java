@@ -0,0 +1,91 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Map;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class RequestSnapshotTest {
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void cookiesAreIndexedOnce() {
+        final Cookie[] cookies = { cookie("one", "1"), cookie("two", "2"), cookie("one", "3") };
+        when(request.getCookies()).thenReturn(cookies);
+        final RequestSnapshot snapshot = new RequestSnapshot(request);
+        assertThat(snapshot.getCookie("one").get()).isEqualTo("1");
+        assertThat(snapshot.getCookie("two").get()).isEqualTo("2");
+        assertThat(snapshot.getCookie("three").isPresent()).isFalse();
+        verify(request, times(1)).getCookies();
+    }
+
+    @Test
+    public void noCookies() {
+        final RequestSnapshot snapshot = new RequestSnapshot(request);
+        assertThat(snapshot.getCookie("one").isPresent()).isFalse();
+    }
+
+    @Test
+    public void parameterMapIsReadOnce() {
+        final Map<String, String[]> params = Collections.singletonMap("name", new String[] { "value" });
+        when(request.getParameterMap()).thenReturn(params);
+        final RequestSnapshot snapshot = new RequestSnapshot(request);
+        assertThat(snapshot.getParameterMap().get("name")[0]).isEqualTo("value");
+        assertThat(snapshot.getParameterMap()).isSameAs(params);
+        verify(request, times(1)).getParameterMap();
+    }
+
+    @Test
+    public void nothingIsReadUntilNeeded() {
+        final RouteContext routeContext = new RouteContext(mock(Route.class), "/cars", PathParameters.EMPTY, request,
+                null, null);
+        assertThat(routeContext.getRequestSnapshot()).isSameAs(routeContext.getRequestSnapshot());
+        verify(request, never()).getCookies();
+        verify(request, never()).getParameterMap();
+    }
+
+    private static Cookie cookie(final String name, final String value) {
+        final Cookie cookie = mock(Cookie.class);
+        when(cookie.getName()).thenReturn(name);
+        when(cookie.getValue()).thenReturn(value);
+        return cookie;
+    }
+
+}
@@ -0,0 +1,117 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+
+import org.jboss.aerogear.controller.SampleController;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RouteCacheTest {
+
+    private Routes routes;
+
+    @Before
+    public void setup() {
+        routes = new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route().from("/cars").on(RequestMethod.GET).produces(MediaType.JSON).to(SampleController.class).index();
+                route().from("/cars/{id}").on(RequestMethod.GET).to(SampleController.class).find(param("id"));
+            }
+        }.build();
+    }
+
+    @Test
+    public void hit() {
+        final RouteCache cache = new RouteCache(routes, RouteCacheConfig.defaultConfig());
+        final RouteMatch first = cache.match(request("/cars", MediaType.JSON.getType())).get();
+        final RouteMatch second = cache.match(request("/cars/", MediaType.JSON.getType())).get();
+        assertThat(second).isSameAs(first);
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitRate()).isEqualTo(0.5);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void keyedByAcceptHeader() {
+        final RouteCache cache = new RouteCache(routes, RouteCacheConfig.defaultConfig());
+        assertThat(cache.match(request("/cars", MediaType.JSON.getType())).isPresent()).isTrue();
+        assertThat(cache.match(request("/cars", MediaType.HTML.getType())).isPresent()).isFalse();
+        assertThat(cache.hitCount()).isEqualTo(0);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void parameterizedPathParams() {
+        final RouteCache cache = new RouteCache(routes, RouteCacheConfig.defaultConfig());
+        cache.match(request("/cars/1", null));
+        assertThat(cache.match(request("/cars/2", null)).get().getPathParameters().get("id").get()).isEqualTo("2");
+        assertThat(cache.match(request("/cars/1", null)).get().getPathParameters().get("id").get()).isEqualTo("1");
+        assertThat(cache.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void parameterizedRoutesDoNotEvictStaticRoutes() {
+        final RouteCacheConfiguration config = RouteCacheConfig.maximumStaticEntries(10).maximumParameterizedEntries(10)
+                .build();
+        final RouteCache cache = new RouteCache(routes, config);
+        final RouteMatch staticMatch = cache.match(request("/cars", null)).get();
+        for (int i = 0; i < 1000; i++) {
+            cache.match(request("/cars/" + i, null));
+        }
+        assertThat(cache.match(request("/cars", null)).get()).isSameAs(staticMatch);
+        assertThat(cache.size()).isLessThanOrEqualTo(20);
+    }
+
+    @Test
+    public void disabled() {
+        final RouteCache cache = new RouteCache(routes, RouteCacheConfig.disableRouteCache());
+        final RouteMatch first = cache.match(request("/cars", null)).get();
+        assertThat(cache.match(request("/cars", null)).get()).isNotSameAs(first);
+        assertThat(cache.hitCount()).isEqualTo(0);
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void normalize() {
+        assertThat(RouteCache.normalize("/cars")).isEqualTo("/cars");
+        assertThat(RouteCache.normalize("/cars//")).isEqualTo("/cars");
+        assertThat(RouteCache.normalize("/")).isEqualTo("/");
+        assertThat(RouteCache.normalize("")).isEqualTo("");
+    }
+
+    private static HttpServletRequest request(final String path, final String acceptHeader) {
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        final ServletContext servletContext = mock(ServletContext.class);
+        when(request.getServletContext()).thenReturn(servletContext);
+        when(servletContext.getContextPath()).thenReturn("/test");
+        when(request.getRequestURI()).thenReturn("/test" + path);
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(request.getHeader("Accept")).thenReturn(acceptHeader);
+        return request;
+    }
+
+}
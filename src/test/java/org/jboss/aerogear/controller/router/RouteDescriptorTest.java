@@ -19,7 +19,13 @@ package org.jboss.aerogear.controller.router;
 
 import static org.fest.assertions.Assertions.assertThat;
 
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.Car;
 import org.jboss.aerogear.controller.SampleController;
+import org.jboss.aerogear.controller.router.parameter.ElementsParameter;
+import org.jboss.aerogear.controller.router.parameter.Parameter;
 import org.junit.Test;
 
 public class RouteDescriptorTest {
@@ -34,4 +40,105 @@ public class RouteDescriptorTest {
         assertThat(routeDescriptor.getTargetMethod().getName()).isEqualTo("index");
     }
 
+    @Test
+    public void iteratorEntityParameter() {
+        final RouteDescriptor routeDescriptor = new RouteDescriptor();
+        routeDescriptor.addParameter(Parameter.param(Iterator.class));
+        routeDescriptor.to(SampleController.class).importCars(null);
+        final Parameter<?> parameter = routeDescriptor.getParameters().get(0);
+        assertThat(parameter).isInstanceOf(ElementsParameter.class);
+        assertThat(((ElementsParameter<?>) parameter).getElementType()).isEqualTo(Car.class);
+    }
+
+    @Test
+    public void compressed() {
+        final RouteDescriptor routeDescriptor = new RouteDescriptor();
+        assertThat(routeDescriptor.isCompressed()).isFalse();
+        routeDescriptor.compressed().to(SampleController.class).index();
+        assertThat(new DefaultRoute(routeDescriptor).isCompressed()).isTrue();
+    }
+
+    @Test
+    public void etag() {
+        final RouteDescriptor routeDescriptor = new RouteDescriptor();
+        assertThat(routeDescriptor.isETagEnabled()).isFalse();
+        routeDescriptor.etag().to(SampleController.class).index();
+        assertThat(new DefaultRoute(routeDescriptor).isETagEnabled()).isTrue();
+    }
+
+    @Test
+    public void cached() {
+        final RouteDescriptor routeDescriptor = new RouteDescriptor();
+        routeDescriptor.cached(5, TimeUnit.MINUTES, 1024).to(SampleController.class).index();
+        final DefaultRoute route = new DefaultRoute(routeDescriptor);
+        assertThat(route.getCacheTtl()).isEqualTo(300000);
+        assertThat(route.getCacheMaximumSize()).isEqualTo(1024);
+    }
+
+    @Test
+    public void coalesced() {
+        final RouteDescriptor routeDescriptor = new RouteDescriptor();
+        assertThat(routeDescriptor.isCoalesced()).isFalse();
+        routeDescriptor.coalesced().to(SampleController.class).index();
+        assertThat(new DefaultRoute(routeDescriptor).isCoalesced()).isTrue();
+    }
+
+    @Test
+    public void asyncTimeout() {
+        final RouteDescriptor routeDescriptor = new RouteDescriptor();
+        routeDescriptor.asyncTimeout(2, TimeUnit.SECONDS).to(SampleController.class).index();
+        assertThat(new DefaultRoute(routeDescriptor).getAsyncTimeout()).isEqualTo(2000);
+    }
+
+    @Test
+    public void isolated() {
+        final RouteDescriptor routeDescriptor = new RouteDescriptor();
+        assertThat(routeDescriptor.getIsolationGroup()).isNull();
+        routeDescriptor.isolated("reports").to(SampleController.class).index();
+        assertThat(new DefaultRoute(routeDescriptor).getIsolationGroup()).isEqualTo("reports");
+    }
+
+    @Test
+    public void primitiveRequestParameters() {
+        final RouteDescriptor routeDescriptor = new RouteDescriptor();
+        routeDescriptor.addParameter(Parameter.param("id", long.class));
+        routeDescriptor.addParameter(Parameter.param("page", int.class));
+        routeDescriptor.to(SampleController.class).findItemPage(0L, 0);
+        assertThat(routeDescriptor.getParameters()).hasSize(2);
+        assertThat(routeDescriptor.getParameters().get(1).getType()).isEqualTo(int.class);
+    }
+
+    @Test
+    public void primitiveConstant() {
+        final RouteDescriptor routeDescriptor = new RouteDescriptor();
+        routeDescriptor.addParameter(Parameter.param("id", long.class));
+        routeDescriptor.to(SampleController.class).findItemPage(0L, 2);
+        assertThat(routeDescriptor.getParameters().get(0).getType()).isEqualTo(long.class);
+        assertThat(routeDescriptor.getParameters().get(1).getParameterType()).isEqualTo(Parameter.Type.CONSTANT);
+    }
+
+    @Test (expected = RuntimeException.class)
+    public void primitiveConstantEqualToDefaultIsAmbiguous() {
+        final RouteDescriptor routeDescriptor = new RouteDescriptor();
+        routeDescriptor.addParameter(Parameter.param("page", int.class));
+        routeDescriptor.to(SampleController.class).findItemPage(0L, 0);
+    }
+
+    @Test (expected = RuntimeException.class)
+    public void paginatedEndpointCannotBeIsolated() {
+        new RouteDescriptor().isolated("reports").to(SampleController.class).findBy(null, null);
+    }
+
+    @Test (expected = RuntimeException.class)
+    public void paginatedEndpointCannotReturnFuture() {
+        new RouteDescriptor().to(SampleController.class).findByAsync(null, null);
+    }
+
+    @Test
+    public void paginatedEndpointCanBeCoalesced() {
+        final RouteDescriptor routeDescriptor = new RouteDescriptor();
+        routeDescriptor.coalesced().to(SampleController.class).findBy(null, null);
+        assertThat(new DefaultRoute(routeDescriptor).isCoalesced()).isTrue();
+    }
+
 }
@@ -0,0 +1,261 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.async;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+
+public class AsyncDispatcherTest {
+
+    @Mock
+    private Route route;
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private AsyncContext asyncContext;
+    private RouteContext routeContext;
+    private AsyncDispatcher asyncDispatcher;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        when(request.isAsyncSupported()).thenReturn(true);
+        when(request.startAsync()).thenReturn(asyncContext);
+        when(asyncContext.getRequest()).thenReturn(request);
+        routeContext = new RouteContext(route, "/cars", request, null, null);
+        asyncDispatcher = new AsyncDispatcher();
+    }
+
+    @After
+    public void shutdown() {
+        asyncDispatcher.shutdown();
+    }
+
+    @Test
+    public void resultIsReturnedAsIs() throws Exception {
+        assertThat(asyncDispatcher.handle(routeContext, "car")).isEqualTo("car");
+        verify(request, never()).startAsync();
+    }
+
+    @Test
+    public void completedFutureIsUnwrapped() throws Exception {
+        assertThat(asyncDispatcher.handle(routeContext, Futures.immediateFuture("car"))).isEqualTo("car");
+        verify(request, never()).startAsync();
+    }
+
+    @Test
+    public void failedFutureThrowsCause() throws Exception {
+        try {
+            asyncDispatcher.handle(routeContext, Futures.immediateFailedFuture(new IllegalStateException("boom")));
+            fail("Should have thrown the cause of the failed future");
+        } catch (final IllegalStateException e) {
+            assertThat(e.getMessage()).isEqualTo("boom");
+        }
+    }
+
+    @Test
+    public void listenableFutureIsDispatchedWhenCompleted() throws Exception {
+        when(route.getAsyncTimeout()).thenReturn(5000L);
+        final SettableFuture<String> future = SettableFuture.create();
+        assertThat(asyncDispatcher.handle(routeContext, future)).isNull();
+        verify(asyncContext).setTimeout(5000L);
+        verify(asyncContext, never()).dispatch();
+
+        future.set("car");
+        final AsyncResult asyncResult = dispatchedResult();
+        verify(asyncContext).dispatch();
+        assertThat(asyncResult.get()).isEqualTo("car");
+    }
+
+    @Test
+    public void failedListenableFutureIsDispatched() throws Exception {
+        final SettableFuture<String> future = SettableFuture.create();
+        asyncDispatcher.handle(routeContext, future);
+        verify(asyncContext, never()).setTimeout(any(Long.class));
+
+        future.setException(new IllegalArgumentException("boom"));
+        try {
+            dispatchedResult().get();
+            fail("Should have thrown the cause of the failed future");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e.getMessage()).isEqualTo("boom");
+        }
+    }
+
+    @Test
+    public void plainFutureIsWaitedForOffTheContainerThread() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final FutureTask<String> future = new FutureTask<String>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                latch.await(5, TimeUnit.SECONDS);
+                return "car";
+            }
+        });
+        assertThat(asyncDispatcher.handle(routeContext, future)).isNull();
+        new Thread(future).start();
+        latch.countDown();
+        verify(asyncContext, timeout(5000)).dispatch();
+        assertThat(dispatchedResult().get()).isEqualTo("car");
+    }
+
+    @Test
+    public void plainFutureIsWaitedForOnContainerThreadWhenAllThreadsAreBusy() throws Exception {
+        asyncDispatcher.shutdown();
+        asyncDispatcher = new AsyncDispatcher(AsyncConfig.threads(1).build());
+        final CountDownLatch latch = new CountDownLatch(1);
+        final FutureTask<String> waiting = new FutureTask<String>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                latch.await(5, TimeUnit.SECONDS);
+                return "car";
+            }
+        });
+        asyncDispatcher.handle(routeContext, waiting);
+
+        final FutureTask<String> future = new FutureTask<String>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                Thread.sleep(50);
+                return "bike";
+            }
+        });
+        new Thread(future).start();
+        assertThat(asyncDispatcher.handle(routeContext, future)).isEqualTo("bike");
+        verify(request, times(1)).startAsync();
+
+        new Thread(waiting).start();
+        latch.countDown();
+        verify(asyncContext, timeout(5000).times(1)).dispatch();
+        assertThat(dispatchedResult().get()).isEqualTo("car");
+    }
+
+    @Test
+    public void plainFutureWaitedForOnContainerThreadTimesOut() throws Exception {
+        asyncDispatcher.shutdown();
+        asyncDispatcher = new AsyncDispatcher(AsyncConfig.threads(1).build());
+        asyncDispatcher.handle(routeContext, new FutureTask<String>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return "car";
+            }
+        }));
+
+        when(route.getAsyncTimeout()).thenReturn(50L);
+        final FutureTask<String> future = new FutureTask<String>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return "bike";
+            }
+        });
+        try {
+            asyncDispatcher.handle(routeContext, future);
+            fail("Should have thrown an AsyncTimeoutException");
+        } catch (final AsyncTimeoutException e) {
+            assertThat(e.getStatus()).isEqualTo(503);
+        }
+        assertThat(future.isCancelled()).isTrue();
+        verify(request, times(1)).startAsync();
+    }
+
+    @Test
+    public void asyncConfiguration() {
+        assertThat(AsyncConfig.defaultConfig().getThreads()).isEqualTo(10);
+        assertThat(AsyncConfig.threads(4).build().getThreads()).isEqualTo(4);
+    }
+
+    @Test
+    public void timeoutCancelsFutureAndDispatchesOnce() throws Exception {
+        when(route.getAsyncTimeout()).thenReturn(100L);
+        when(asyncContext.getTimeout()).thenReturn(100L);
+        final SettableFuture<String> future = SettableFuture.create();
+        asyncDispatcher.handle(routeContext, future);
+        final ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(asyncContext).addListener(listener.capture());
+
+        listener.getValue().onTimeout(null);
+        assertThat(future.isCancelled()).isTrue();
+        verify(asyncContext, times(1)).dispatch();
+        try {
+            dispatchedResult().get();
+            fail("Should have thrown an AsyncTimeoutException");
+        } catch (final AsyncTimeoutException e) {
+            assertThat(e.getStatus()).isEqualTo(503);
+        }
+    }
+
+    @Test
+    public void waitsOnContainerThreadIfAsyncIsNotSupported() throws Exception {
+        when(request.isAsyncSupported()).thenReturn(false);
+        when(route.getAsyncTimeout()).thenReturn(10L);
+        final SettableFuture<String> future = SettableFuture.create();
+        try {
+            asyncDispatcher.handle(routeContext, future);
+            fail("Should have thrown an AsyncTimeoutException");
+        } catch (final AsyncTimeoutException e) {
+            assertThat(future.isCancelled()).isTrue();
+        }
+        verify(request, never()).startAsync();
+    }
+
+    @Test
+    public void resumedRemovesResult() throws Exception {
+        final AsyncResult asyncResult = AsyncResult.of("car");
+        when(request.getAttribute(AsyncResult.ATTRIBUTE_NAME)).thenReturn(asyncResult);
+        final Optional<AsyncResult> resumed = asyncDispatcher.resumed(request);
+        assertThat(resumed.get()).isSameAs(asyncResult);
+        verify(request).removeAttribute(AsyncResult.ATTRIBUTE_NAME);
+    }
+
+    private AsyncResult dispatchedResult() {
+        final ArgumentCaptor<AsyncResult> asyncResult = ArgumentCaptor.forClass(AsyncResult.class);
+        verify(request).setAttribute(eq(AsyncResult.ATTRIBUTE_NAME), asyncResult.capture());
+        return asyncResult.getValue();
+    }
+
+}
@@ -0,0 +1,247 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.async;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+
+import org.jboss.aerogear.controller.router.ElementWriter;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.StreamingResponder;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+public class ElementStreamsTest {
+
+    @Mock
+    private Route route;
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private AsyncContext asyncContext;
+    @Mock
+    private StreamingResponder responder;
+    private RecordingWriter writer;
+    private RouteContext routeContext;
+
+    @Before
+    public void setup() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        writer = new RecordingWriter();
+        when(request.isAsyncSupported()).thenReturn(true);
+        when(request.startAsync()).thenReturn(asyncContext);
+        routeContext = new RouteContext(route, "/events", request, null, null);
+        when(responder.openStream(routeContext)).thenReturn(writer);
+    }
+
+    @Test
+    public void availableElementsAreWrittenRightAway() throws Exception {
+        final PendingStream stream = new PendingStream();
+        stream.available("a", "b");
+        ElementStreams.subscribe(stream, responder, routeContext);
+        assertThat(writer.events).containsExactly("a", "b", "flush");
+        verify(asyncContext).setTimeout(0);
+        verify(asyncContext, never()).complete();
+    }
+
+    @Test
+    public void nextElementIsOnlyRequestedOnceWritten() throws Exception {
+        final PendingStream stream = new PendingStream();
+        ElementStreams.subscribe(stream, responder, routeContext);
+        assertThat(stream.requests).isEqualTo(1);
+
+        stream.pending.set(Optional.<Object> of("a"));
+        assertThat(stream.requests).isEqualTo(2);
+        stream.pending.set(Optional.<Object> of("b"));
+        stream.pending.set(Optional.absent());
+        assertThat(writer.events).containsExactly("flush", "a", "flush", "b", "flush", "close");
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    public void failedStreamAbortsResponse() throws Exception {
+        final PendingStream stream = new PendingStream();
+        stream.available("a");
+        ElementStreams.subscribe(stream, responder, routeContext);
+        stream.pending.setException(new IllegalStateException("boom"));
+        assertThat(writer.events).containsExactly("a", "flush", "abort");
+        assertThat(stream.cancelled).isTrue();
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    public void failedWriteCancelsStream() throws Exception {
+        final PendingStream stream = new PendingStream();
+        writer.failOn = "b";
+        stream.available("a", "b", "c");
+        ElementStreams.subscribe(stream, responder, routeContext);
+        assertThat(writer.events).containsExactly("a", "abort");
+        assertThat(stream.cancelled).isTrue();
+        assertThat(stream.requests).isEqualTo(2);
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    public void timeoutCancelsStreamAndAbortsResponse() throws Exception {
+        when(route.getAsyncTimeout()).thenReturn(60000L);
+        final PendingStream stream = new PendingStream();
+        stream.available("a");
+        ElementStreams.subscribe(stream, responder, routeContext);
+        verify(asyncContext).setTimeout(60000L);
+        final ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(asyncContext).addListener(listener.capture());
+
+        listener.getValue().onTimeout(null);
+        assertThat(stream.cancelled).isTrue();
+        stream.pending.set(Optional.<Object> of("b"));
+        assertThat(writer.events).containsExactly("a", "flush", "abort");
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    public void timeoutAfterStreamEndedIsIgnored() throws Exception {
+        final PendingStream stream = new PendingStream();
+        stream.available("a");
+        ElementStreams.subscribe(stream, responder, routeContext);
+        final ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(asyncContext).addListener(listener.capture());
+        stream.pending.set(Optional.absent());
+
+        listener.getValue().onTimeout(null);
+        assertThat(stream.cancelled).isFalse();
+        assertThat(writer.events).containsExactly("a", "flush", "close");
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    public void writtenOnContainerThreadIfAsyncIsNotSupported() throws Exception {
+        when(request.isAsyncSupported()).thenReturn(false);
+        final ElementStream<Object> stream = new ElementStream<Object>() {
+            private int i;
+
+            @Override
+            public ListenableFuture<Optional<Object>> next() {
+                return Futures.immediateFuture(++i <= 2 ? Optional.<Object> of(i) : Optional.absent());
+            }
+
+            @Override
+            public void cancel() {
+            }
+        };
+        ElementStreams.subscribe(stream, responder, routeContext);
+        assertThat(writer.events).containsExactly(1, 2, "close");
+        verify(request, never()).startAsync();
+    }
+
+    @Test
+    public void streamIsCancelledIfResponseCannotBeOpened() throws Exception {
+        final PendingStream stream = new PendingStream();
+        doThrow(new IOException("closed")).when(responder).openStream(routeContext);
+        try {
+            ElementStreams.subscribe(stream, responder, routeContext);
+            fail("Should have thrown an IOException");
+        } catch (final IOException e) {
+            assertThat(stream.cancelled).isTrue();
+            assertThat(stream.requests).isEqualTo(0);
+        }
+    }
+
+    /*
+     * Returns the available elements, and then a future that is completed by the test.
+     */
+    private static class PendingStream implements ElementStream<Object> {
+
+        private final List<Object> available = new ArrayList<Object>();
+        private SettableFuture<Optional<Object>> pending;
+        private int requests;
+        private boolean cancelled;
+
+        void available(final Object... elements) {
+            for (Object element : elements) {
+                available.add(element);
+            }
+        }
+
+        @Override
+        public ListenableFuture<Optional<Object>> next() {
+            requests++;
+            if (!available.isEmpty()) {
+                return Futures.immediateFuture(Optional.of(available.remove(0)));
+            }
+            pending = SettableFuture.create();
+            return pending;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private static class RecordingWriter implements ElementWriter {
+
+        private final List<Object> events = new ArrayList<Object>();
+        private Object failOn;
+
+        @Override
+        public void write(final Object element) throws Exception {
+            if (element.equals(failOn)) {
+                throw new IOException("Broken pipe");
+            }
+            events.add(element);
+        }
+
+        @Override
+        public void flush() {
+            events.add("flush");
+        }
+
+        @Override
+        public void close() {
+            events.add("close");
+        }
+
+        @Override
+        public void abort() {
+            events.add("abort");
+        }
+    }
+
+}
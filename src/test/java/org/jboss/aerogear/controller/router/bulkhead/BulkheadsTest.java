@@ -0,0 +1,141 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.bulkhead;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+public class BulkheadsTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Bulkheads bulkheads;
+
+    @Before
+    public void setup() {
+        bulkheads = new Bulkheads(BulkheadConfig.threads(4).queueSize(4).group("reports", 1, 1).retryAfter(30).build());
+    }
+
+    @After
+    public void shutdown() {
+        release.countDown();
+        bulkheads.shutdown();
+    }
+
+    @Test
+    public void invokesOnGroupThread() throws Exception {
+        final ListenableFuture<String> future = bulkheads.submit(routeContext("crud"), new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return Thread.currentThread().getName();
+            }
+        });
+        assertThat(future.get(5, TimeUnit.SECONDS)).startsWith("aerogear-bulkhead-crud-");
+    }
+
+    @Test
+    public void rejectsWhenGroupIsFull() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        bulkheads.submit(routeContext("reports"), blocking(started));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        bulkheads.submit(routeContext("reports"), blocking(null));
+        assertThat(bulkheads.activeCount("reports")).isEqualTo(1);
+        assertThat(bulkheads.queueDepth("reports")).isEqualTo(1);
+
+        final RouteContext rejected = routeContext("reports");
+        try {
+            bulkheads.submit(rejected, blocking(null));
+            fail("Should have rejected the request");
+        } catch (final BulkheadRejectedException e) {
+            assertThat(e.getStatus()).isEqualTo(503);
+        }
+        verify(rejected.getResponse()).setHeader("Retry-After", "30");
+        assertThat(bulkheads.rejectedCount("reports")).isEqualTo(1);
+    }
+
+    @Test
+    public void groupsAreIsolated() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        bulkheads.submit(routeContext("reports"), blocking(started));
+        bulkheads.submit(routeContext("reports"), blocking(null));
+        final RouteContext crud = routeContext("crud");
+        final ListenableFuture<String> future = bulkheads.submit(crud, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return "car";
+            }
+        });
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("car");
+        verify(crud.getResponse(), never()).setHeader("Retry-After", "30");
+        assertThat(bulkheads.rejectedCount("crud")).isEqualTo(0);
+    }
+
+    @Test
+    public void unknownGroupHasNoCounters() {
+        assertThat(bulkheads.queueDepth("unknown")).isEqualTo(0);
+        assertThat(bulkheads.activeCount("unknown")).isEqualTo(0);
+        assertThat(bulkheads.rejectedCount("unknown")).isEqualTo(0);
+    }
+
+    @Test
+    public void groupConfiguration() {
+        final BulkheadConfiguration config = BulkheadConfig.threads(8).group("reports", 2, 0).build();
+        assertThat(config.getThreads("crud")).isEqualTo(8);
+        assertThat(config.getQueueSize("crud")).isEqualTo(10);
+        assertThat(config.getThreads("reports")).isEqualTo(2);
+        assertThat(config.getQueueSize("reports")).isEqualTo(0);
+        assertThat(config.getRetryAfter()).isEqualTo(1);
+    }
+
+    private Callable<String> blocking(final CountDownLatch started) {
+        return new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                if (started != null) {
+                    started.countDown();
+                }
+                release.await(5, TimeUnit.SECONDS);
+                return "report";
+            }
+        };
+    }
+
+    private static RouteContext routeContext(final String group) {
+        final Route route = mock(Route.class);
+        when(route.getIsolationGroup()).thenReturn(group);
+        return new RouteContext(route, "/reports", null, mock(HttpServletResponse.class), null);
+    }
+
+}
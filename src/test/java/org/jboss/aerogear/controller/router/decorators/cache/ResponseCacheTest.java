@@ -0,0 +1,331 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.decorators.cache;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.router.InvocationResult;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.RequestMethod;
+import org.jboss.aerogear.controller.router.Responders;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.RouteProcessor;
+import org.jboss.aerogear.controller.router.Routes;
+import org.jboss.aerogear.controller.router.async.ElementStream;
+import org.jboss.aerogear.controller.router.decorators.ResponseHandler;
+import org.jboss.aerogear.controller.router.parameter.Parameter;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Ticker;
+
+public class ResponseCacheTest {
+
+    @Mock
+    private RouteProcessor delegate;
+    @Mock
+    private Responders responders;
+    @Mock
+    private Route route;
+    @Mock
+    private Route otherRoute;
+    @Mock
+    private Routes routes;
+
+    private final FakeTicker ticker = new FakeTicker();
+    private ResponseCache responseCache;
+    private ResponseHandler responseHandler;
+    private int invocations;
+
+    @Before
+    public void setup() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(route.getCacheTtl()).thenReturn(TimeUnit.MINUTES.toMillis(1));
+        when(otherRoute.getCacheTtl()).thenReturn(TimeUnit.MINUTES.toMillis(1));
+        when(responders.negotiate(any(RouteContext.class))).thenReturn(Optional.of(MediaType.JSON));
+        when(delegate.process(any(RouteContext.class))).thenAnswer(new Answer<InvocationResult>() {
+            @Override
+            public InvocationResult answer(final InvocationOnMock invocation) {
+                final RouteContext routeContext = (RouteContext) invocation.getArguments()[0];
+                return new InvocationResult("[" + ++invocations + "]", routeContext);
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Exception {
+                final RouteContext routeContext = (RouteContext) invocation.getArguments()[0];
+                final HttpServletResponse response = routeContext.getResponse();
+                response.setContentType(MediaType.JSON.getType());
+                response.setCharacterEncoding("UTF-8");
+                response.setHeader("ETag", "\"" + invocation.getArguments()[1] + "\"");
+                response.getWriter().write(String.valueOf(invocation.getArguments()[1]));
+                response.getWriter().flush();
+                return null;
+            }
+        }).when(responders).respond(any(RouteContext.class), any());
+        useCache(ResponseCacheConfig.defaultConfig());
+    }
+
+    @Test
+    public void hit() throws Exception {
+        assertThat(get(route, "/cars", null).body()).isEqualTo("[1]");
+        final Exchange exchange = get(route, "/cars", null);
+        assertThat(exchange.body()).isEqualTo("[1]");
+        verify(exchange.response).setContentType(MediaType.JSON.getType());
+        verify(exchange.response).setCharacterEncoding("UTF-8");
+        verify(exchange.response).addHeader("ETag", "\"[1]\"");
+        verify(exchange.response).setContentLength(3);
+        verify(delegate, times(1)).process(any(RouteContext.class));
+        assertThat(responseCache.hitCount()).isEqualTo(1);
+        assertThat(responseCache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void hitNotModified() throws Exception {
+        get(route, "/cars", null);
+        final Exchange exchange = get(route, "/cars", null, "\"[1]\"");
+        verify(exchange.response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(exchange.body()).isEmpty();
+    }
+
+    @Test
+    public void expires() throws Exception {
+        get(route, "/cars", null);
+        ticker.advance(TimeUnit.SECONDS.toNanos(59));
+        assertThat(get(route, "/cars", null).body()).isEqualTo("[1]");
+        ticker.advance(TimeUnit.SECONDS.toNanos(1));
+        assertThat(get(route, "/cars", null).body()).isEqualTo("[2]");
+    }
+
+    @Test
+    public void keyedByQueryString() throws Exception {
+        assertThat(get(route, "/cars", "color=red").body()).isEqualTo("[1]");
+        assertThat(get(route, "/cars", "color=blue").body()).isEqualTo("[2]");
+        assertThat(get(route, "/cars", "color=red").body()).isEqualTo("[1]");
+        assertThat(responseCache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void keyedByHeadersAndCookiesBoundToRequestParameters() throws Exception {
+        when(route.getParameters()).thenReturn(Arrays.<Parameter<?>> asList(Parameter.param("tenant", String.class)));
+        assertThat(get(route, "/cars", null, "tenant", "acme", null).body()).isEqualTo("[1]");
+        assertThat(get(route, "/cars", null, "tenant", "other", null).body()).isEqualTo("[2]");
+        assertThat(get(route, "/cars", null, "tenant", null, "acme").body()).isEqualTo("[3]");
+        assertThat(get(route, "/cars", null, "tenant", "acme", "other").body()).isEqualTo("[1]");
+        assertThat(get(route, "/cars", null).body()).isEqualTo("[4]");
+        assertThat(get(route, "/cars", "tenant=acme", "tenant", "other", null).body()).isEqualTo("[5]");
+        assertThat(get(route, "/cars", "tenant=acme", "tenant", null, "acme").body()).isEqualTo("[5]");
+    }
+
+    @Test
+    public void notCachedRoute() throws Exception {
+        when(route.getCacheTtl()).thenReturn(0L);
+        get(route, "/cars", null);
+        assertThat(get(route, "/cars", null).body()).isEqualTo("[2]");
+        assertThat(responseCache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void securedRoute() throws Exception {
+        when(route.getRoles()).thenReturn(Collections.singleton("admin"));
+        get(route, "/cars", null);
+        assertThat(get(route, "/cars", null).body()).isEqualTo("[2]");
+    }
+
+    @Test
+    public void postNotCached() throws Exception {
+        final Exchange exchange = new Exchange(route, "/cars", null, null);
+        when(exchange.request.getMethod()).thenReturn(RequestMethod.POST.toString());
+        responseHandler.process(exchange.routeContext);
+        verify(responders, never()).negotiate(any(RouteContext.class));
+        assertThat(responseCache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void errorStatusNotCached() throws Exception {
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Exception {
+                ((RouteContext) invocation.getArguments()[0]).getResponse().setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return null;
+            }
+        }).when(responders).respond(any(RouteContext.class), any());
+        get(route, "/cars", null);
+        assertThat(responseCache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void errorRouteNotCached() throws Exception {
+        when(delegate.process(any(RouteContext.class))).thenAnswer(new Answer<InvocationResult>() {
+            @Override
+            public InvocationResult answer(final InvocationOnMock invocation) {
+                final RouteContext routeContext = (RouteContext) invocation.getArguments()[0];
+                return new InvocationResult("[]", new RouteContext(otherRoute, "/error", routeContext.getRequest(),
+                        routeContext.getResponse(), routes));
+            }
+        });
+        get(route, "/cars", null);
+        assertThat(responseCache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void elementStreamNotCached() throws Exception {
+        final ElementStream<?> stream = mock(ElementStream.class);
+        when(delegate.process(any(RouteContext.class))).thenAnswer(new Answer<InvocationResult>() {
+            @Override
+            public InvocationResult answer(final InvocationOnMock invocation) {
+                return new InvocationResult(stream, (RouteContext) invocation.getArguments()[0]);
+            }
+        });
+        get(route, "/events", null);
+        verify(responders).respond(any(RouteContext.class), eq(stream));
+        assertThat(responseCache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void routeMaximumSize() throws Exception {
+        useCache(ResponseCacheConfig.maximumRouteSize(60).build());
+        get(otherRoute, "/other", null);
+        get(route, "/cars", "page=1");
+        get(route, "/cars", "page=2");
+        assertThat(responseCache.size()).isEqualTo(2);
+        assertThat(responseCache.weight(route)).isLessThanOrEqualTo(60);
+        assertThat(get(otherRoute, "/other", null).body()).isEqualTo("[1]");
+        assertThat(get(route, "/cars", "page=2").body()).isEqualTo("[3]");
+        assertThat(get(route, "/cars", "page=1").body()).isEqualTo("[4]");
+    }
+
+    @Test
+    public void routeSpecificMaximumSize() throws Exception {
+        when(route.getCacheMaximumSize()).thenReturn(1L);
+        get(route, "/cars", null);
+        assertThat(responseCache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void maximumSizeEvictsLeastRecentlyUsed() throws Exception {
+        useCache(ResponseCacheConfig.maximumSize(100).build());
+        get(route, "/cars", "page=1");
+        get(otherRoute, "/other", null);
+        get(route, "/cars", "page=1");
+        get(route, "/cars", "page=2");
+        assertThat(responseCache.size()).isEqualTo(2);
+        assertThat(responseCache.weight()).isLessThanOrEqualTo(100);
+        assertThat(responseCache.weight(otherRoute)).isEqualTo(0);
+        assertThat(get(route, "/cars", "page=1").body()).isEqualTo("[1]");
+    }
+
+    private void useCache(final ResponseCacheConfiguration config) {
+        responseCache = new ResponseCache(config, ticker);
+        responseHandler = new ResponseHandler(delegate, responders, responseCache);
+    }
+
+    private Exchange get(final Route route, final String path, final String query) throws Exception {
+        return get(route, path, query, null);
+    }
+
+    private Exchange get(final Route route, final String path, final String query, final String ifNoneMatch)
+            throws Exception {
+        final Exchange exchange = new Exchange(route, path, query, ifNoneMatch);
+        responseHandler.process(exchange.routeContext);
+        return exchange;
+    }
+
+    private Exchange get(final Route route, final String path, final String query, final String name,
+            final String header, final String cookie) throws Exception {
+        final Exchange exchange = new Exchange(route, path, query, null);
+        when(exchange.request.getHeader(name)).thenReturn(header);
+        if (query != null) {
+            when(exchange.request.getParameterMap()).thenReturn(
+                    Collections.singletonMap(name, new String[] { query.substring(query.indexOf('=') + 1) }));
+        }
+        if (cookie != null) {
+            when(exchange.request.getCookies()).thenReturn(new Cookie[] { new Cookie(name, cookie) });
+        }
+        responseHandler.process(exchange.routeContext);
+        return exchange;
+    }
+
+    private class Exchange {
+        private final HttpServletRequest request = mock(HttpServletRequest.class);
+        private final HttpServletResponse response = mock(HttpServletResponse.class);
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final RouteContext routeContext;
+
+        Exchange(final Route route, final String path, final String query, final String ifNoneMatch) throws Exception {
+            final ServletOutputStream out = new ServletOutputStream() {
+                @Override
+                public void write(final int b) {
+                    bytes.write(b);
+                }
+            };
+            when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+            when(request.getQueryString()).thenReturn(query);
+            when(request.getHeader("If-None-Match")).thenReturn(ifNoneMatch);
+            when(response.getCharacterEncoding()).thenReturn("UTF-8");
+            when(response.getOutputStream()).thenReturn(out);
+            when(response.getWriter()).thenReturn(new PrintWriter(new OutputStreamWriter(out, "UTF-8"), true));
+            routeContext = new RouteContext(route, path, request, response, routes);
+        }
+
+        String body() {
+            return new String(bytes.toByteArray(), Charset.forName("UTF-8"));
+        }
+    }
+
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        void advance(final long delta) {
+            nanos += delta;
+        }
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.parameter;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ConvertersTest {
+
+    private final Converters converters = new Converters();
+
+    @Test
+    public void primitives() {
+        assertThat(converters.converterFor(long.class).convert("10")).isEqualTo(10L);
+        assertThat(converters.converterFor(Long.class).convert("10")).isEqualTo(10L);
+        assertThat(converters.converterFor(int.class).convert("-3")).isEqualTo(-3);
+        assertThat(converters.converterFor(short.class).convert("7")).isEqualTo((short) 7);
+        assertThat(converters.converterFor(byte.class).convert("1")).isEqualTo((byte) 1);
+        assertThat(converters.converterFor(double.class).convert("1.5")).isEqualTo(1.5d);
+        assertThat(converters.converterFor(float.class).convert("1.5")).isEqualTo(1.5f);
+        assertThat(converters.converterFor(boolean.class).convert("true")).isEqualTo(true);
+        assertThat(converters.converterFor(char.class).convert("c")).isEqualTo('c');
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void invalidNumber() {
+        converters.converterFor(long.class).convert("ten");
+    }
+
+    @Test
+    public void enums() {
+        assertThat(converters.converterFor(TimeUnit.class).convert("SECONDS")).isEqualTo(TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void uuid() {
+        final UUID uuid = UUID.randomUUID();
+        assertThat(converters.converterFor(UUID.class).convert(uuid.toString())).isEqualTo(uuid);
+    }
+
+    @Test
+    public void stringConstructor() {
+        assertThat(converters.converterFor(BigDecimal.class).convert("1.25")).isEqualTo(new BigDecimal("1.25"));
+    }
+
+    @Test
+    public void valueOfMethod() {
+        assertThat(converters.converterFor(Code.class).convert("abc")).isEqualTo(Code.valueOf("abc"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void unsupportedTypeFailsOnConversion() {
+        converters.converterFor(Object[].class).convert("value");
+    }
+
+    @Test
+    public void configuredConverter() {
+        final Converters converters = new Converters(ConverterConfig.converter(Registered.class,
+                new Converter<Registered>() {
+                    @Override
+                    public Registered convert(final String value) {
+                        return new Registered(value.toUpperCase());
+                    }
+                }).build());
+        assertThat(((Registered) converters.converterFor(Registered.class).convert("abc")).value).isEqualTo("ABC");
+    }
+
+    @Test
+    public void configuredConverterOverridesBuiltIn() {
+        final Converters converters = new Converters(ConverterConfig.converter(long.class, new Converter<Long>() {
+            @Override
+            public Long convert(final String value) {
+                return Long.valueOf(value.length());
+            }
+        }).build());
+        assertThat(converters.converterFor(long.class).convert("ten")).isEqualTo(3L);
+        assertThat(this.converters.converterFor(long.class).convert("10")).isEqualTo(10L);
+    }
+
+    public static final class Code {
+        private final String value;
+
+        private Code(final String value) {
+            this.value = value;
+        }
+
+        public static Code valueOf(final String value) {
+            return new Code(value);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Code && ((Code) obj).value.equals(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+    }
+
+    private static final class Registered {
+        private final String value;
+
+        private Registered(final String value) {
+            this.value = value;
+        }
+    }
+
+}
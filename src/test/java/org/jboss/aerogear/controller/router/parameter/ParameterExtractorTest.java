@@ -22,14 +22,19 @@ import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.servlet.ServletContext;
+import javax.servlet.ServletInputStream;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 
@@ -37,8 +42,13 @@ import org.jboss.aerogear.controller.Car;
 import org.jboss.aerogear.controller.SampleController;
 import org.jboss.aerogear.controller.router.Consumer;
 import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.PathTemplate;
+import org.jboss.aerogear.controller.router.RequestSnapshot;
 import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.rest.JsonConsumer;
+import org.jboss.aerogear.controller.router.rest.pagination.PaginationInfo;
+import org.jboss.aerogear.controller.util.BindingPlan;
 import org.jboss.aerogear.controller.util.ParameterExtractor;
 import org.junit.Before;
 import org.junit.Test;
@@ -64,30 +74,27 @@ public class ParameterExtractorTest {
         when(request.getServletContext()).thenReturn(servletContext);
         when(routeContext.getRequest()).thenReturn(request);
         when(routeContext.getRoute()).thenReturn(route);
-        when(route.getPath()).thenReturn("/cars");
-        when(routeContext.getRequestPath()).thenReturn("/cars");
+        when(routeContext.getRequestSnapshot()).thenReturn(new RequestSnapshot(request));
+        requestPath("/cars", "/cars");
     }
 
     @Test
     public void extractPathParameter() throws Exception {
-        when(route.getPath()).thenReturn("/cars/{id}");
-        when(routeContext.getRequestPath()).thenReturn("/cars/2");
+        requestPath("/cars/{id}", "/cars/2");
         final Optional<?> param = ParameterExtractor.extractPathParam(routeContext, "id", String.class);
         assertThat(param.get()).isEqualTo("2");
     }
     
     @Test
     public void extractPathParameters() throws Exception {
-        when(route.getPath()).thenReturn("/cars/{color}/subpath/{brand}");
-        when(routeContext.getRequestPath()).thenReturn("/cars/red/subpath/BMW");
+        requestPath("/cars/{color}/subpath/{brand}", "/cars/red/subpath/BMW");
         assertThat(ParameterExtractor.extractPathParam(routeContext, "color", String.class).get()).isEqualTo("red");
         assertThat(ParameterExtractor.extractPathParam(routeContext, "brand", String.class).get()).isEqualTo("BMW");
     }
 
     @Test
     public void extractPathParameterButNoParamInRequest() throws Exception {
-        when(route.getPath()).thenReturn("/cars/{id}");
-        when(routeContext.getRequestPath()).thenReturn("/c");
+        requestPath("/cars/{id}", "/c");
         assertThat(ParameterExtractor.extractPathParam(routeContext, "id", String.class).isPresent()).isFalse();
     }
 
@@ -114,8 +121,7 @@ public class ParameterExtractorTest {
     public void extractPathParam() throws Exception {
         when(request.getParameterMap()).thenReturn(RequestParams.empty());
         when(route.getParameters()).thenReturn(asList(Parameter.param("id", String.class)));
-        when(route.getPath()).thenReturn("/cars/{id}");
-        when(routeContext.getRequestPath()).thenReturn("/cars/2");
+        requestPath("/cars/{id}", "/cars/2");
         final Map<String, Object> args = ParameterExtractor.extractArguments(routeContext,
                 Collections.<String, Consumer> emptyMap());
         assertThat(args.get("id")).isEqualTo("2");
@@ -125,8 +131,7 @@ public class ParameterExtractorTest {
     public void extractPathParamWithLongType() throws Exception {
         when(request.getParameterMap()).thenReturn(RequestParams.empty());
         when(route.getParameters()).thenReturn(asList(Parameter.param("id", Long.class)));
-        when(route.getPath()).thenReturn("/cars/{id}");
-        when(routeContext.getRequestPath()).thenReturn("/cars/2");
+        requestPath("/cars/{id}", "/cars/2");
         final Map<String, Object> args = ParameterExtractor.extractArguments(routeContext,
                 Collections.<String, Consumer> emptyMap());
         assertThat(args.get("id")).isEqualTo(new Long(2));
@@ -136,8 +141,7 @@ public class ParameterExtractorTest {
     public void extractPathParamWithIntegerType() throws Exception {
         when(request.getParameterMap()).thenReturn(RequestParams.empty());
         when(route.getParameters()).thenReturn(asList(Parameter.param("id", Integer.class)));
-        when(route.getPath()).thenReturn("/cars/{id}");
-        when(routeContext.getRequestPath()).thenReturn("/cars/2");
+        requestPath("/cars/{id}", "/cars/2");
         final Map<String, Object> args = ParameterExtractor.extractArguments(routeContext,
                 Collections.<String, Consumer> emptyMap());
         assertThat(args.get("id")).isEqualTo(new Integer(2));
@@ -198,8 +202,7 @@ public class ParameterExtractorTest {
         when(request.getHeader("x-header")).thenReturn("headerValue");
         final List<Parameter<?>> parameters = asList(Parameter.param("x-header", "def", String.class));
         when(route.getParameters()).thenReturn(parameters);
-        when(route.getPath()).thenReturn("/cars");
-        when(routeContext.getRequestPath()).thenReturn("/cars");
+        requestPath("/cars", "/cars");
         final Map<String, Object> args = ParameterExtractor.extractArguments(routeContext,
                 Collections.<String, Consumer> emptyMap());
         assertThat(args.get("x-header")).isEqualTo("headerValue");
@@ -346,10 +349,115 @@ public class ParameterExtractorTest {
 				arguments.get("entityParam"));
 	}
 
+    @Test
+    public void extractArgumentValuesInParameterOrder() throws Exception {
+        when(request.getParameterMap()).thenReturn(RequestParams.param("brand", "mini").getParamMap());
+        final List<Parameter<?>> parameters = asList(Parameter.constant("first", String.class),
+                Parameter.param("id", Long.class), Parameter.param("brand", String.class),
+                Parameter.constant("last", String.class));
+        when(route.getParameters()).thenReturn(parameters);
+        requestPath("/cars/{id}", "/cars/2");
+        final Object[] args = ParameterExtractor.extractArgumentValues(routeContext,
+                Collections.<String, Consumer> emptyMap());
+        assertThat(Arrays.asList(args)).isEqualTo(Arrays.<Object> asList("first", 2L, "mini", "last"));
+    }
+
+    @Test
+    public void extractArgumentValuesUsesRouteBindingPlan() throws Exception {
+        final List<Parameter<?>> parameters = asList(Parameter.param("id", String.class));
+        when(route.getBindingPlan()).thenReturn(BindingPlan.compile(parameters));
+        requestPath("/cars/{id}", "/cars/2");
+        final Object[] args = ParameterExtractor.extractArgumentValues(routeContext,
+                Collections.<String, Consumer> emptyMap());
+        assertThat(Arrays.asList(args)).isEqualTo(Arrays.<Object> asList("2"));
+    }
+
+    @Test
+    public void extractReplacementParam() throws Exception {
+        when(request.getParameterMap()).thenReturn(RequestParams.param("name", "$fletch").getParamMap());
+        final Set<String> paramNames = new HashSet<String>(Arrays.asList("id", "name"));
+        final List<Parameter<?>> parameters = asList(Parameter.replacementParam("/cars/{id}?name={name}", paramNames,
+                String.class));
+        when(route.getParameters()).thenReturn(parameters);
+        requestPath("/cars/{id}", "/cars/2");
+        final Object[] args = ParameterExtractor.extractArgumentValues(routeContext,
+                Collections.<String, Consumer> emptyMap());
+        assertThat(args[0]).isEqualTo("/cars/2?name=$fletch");
+    }
+
+    @Test
+    public void bindingPlanDoesNotShareArguments() throws Exception {
+        final BindingPlan bindingPlan = BindingPlan.compile(asList(Parameter.constant("value", String.class),
+                Parameter.param(PaginationInfo.class)));
+        final Object[] first = bindingPlan.bind(routeContext, Collections.<String, Consumer> emptyMap());
+        first[0] = "changed";
+        final Object[] second = bindingPlan.bind(routeContext, Collections.<String, Consumer> emptyMap());
+        assertThat(Arrays.asList(second)).isEqualTo(Arrays.<Object> asList("value"));
+    }
+
+    @Test
+    public void extractElementsWithStreamingConsumer() throws Exception {
+        when(route.getParameters()).thenReturn(asList(Parameter.elements(Car.class)));
+        when(request.getContentType()).thenReturn(MediaType.JSON.getType());
+        when(request.getInputStream()).thenReturn(inputStream("[{\"color\":\"red\",\"brand\":\"mini\"},"
+                + "{\"color\":\"blue\",\"brand\":\"bmw\"}]"));
+        final Map<String, Consumer> consumers = new HashMap<String, Consumer>();
+        consumers.put(MediaType.JSON.getType(), new JsonConsumer());
+        final Object[] args = ParameterExtractor.extractArgumentValues(routeContext, consumers);
+        assertThat(colors((Iterator<?>) args[0])).isEqualTo(Arrays.asList("red", "blue"));
+    }
+
+    @Test
+    public void extractElementsWithConsumer() throws Exception {
+        when(route.getParameters()).thenReturn(asList(Parameter.elements(Car.class)));
+        when(request.getContentType()).thenReturn(MediaType.JSON.getType());
+        final Map<String, Consumer> consumers = new HashMap<String, Consumer>();
+        consumers.put(MediaType.JSON.getType(), new Consumer() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T unmarshall(HttpServletRequest request, Class<T> type) {
+                assertThat(type).isEqualTo(Car[].class);
+                return (T) new Car[] { new Car("red", "mini"), new Car("blue", "bmw") };
+            }
+
+            @Override
+            public String mediaType() {
+                return MediaType.JSON.getType();
+            }
+        });
+        final Object[] args = ParameterExtractor.extractArgumentValues(routeContext, consumers);
+        assertThat(colors((Iterator<?>) args[0])).isEqualTo(Arrays.asList("red", "blue"));
+    }
+
+    private static List<String> colors(final Iterator<?> cars) {
+        final List<String> colors = new LinkedList<String>();
+        while (cars.hasNext()) {
+            colors.add(((Car) cars.next()).getColor());
+        }
+        return colors;
+    }
+
+    private static ServletInputStream inputStream(final String content) {
+        final ByteArrayInputStream in = new ByteArrayInputStream(content.getBytes());
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+        };
+    }
+
     private List<Parameter<?>> asList(final Parameter<?>... p) {
         return new LinkedList<Parameter<?>>(Arrays.asList(p));
     }
 
+    private void requestPath(final String path, final String requestPath) {
+        when(route.getPath()).thenReturn(path);
+        when(routeContext.getRequestPath()).thenReturn(requestPath);
+        when(routeContext.getPathParameters()).thenReturn(new PathTemplate(path).bind(requestPath));
+    }
+
     private static class RequestParams {
 
         final Map<String, String[]> paramMap = new HashMap<String, String[]>();
@@ -0,0 +1,86 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.rest.compression.ContentEncoding;
+import org.junit.Test;
+
+import com.google.common.base.Optional;
+
+public class EntityTagsTest {
+
+    private static final Optional<ContentEncoding> IDENTITY = Optional.absent();
+
+    @Test
+    public void fromVersion() {
+        assertThat(EntityTags.fromVersion(new VersionedEntity("42"), MediaType.JSON, IDENTITY).get()).isEqualTo(
+                "\"42-json\"");
+        assertThat(EntityTags.fromVersion(new VersionedEntity("42"), MediaType.JSON, Optional.of(ContentEncoding.GZIP))
+                .get()).isEqualTo("\"42-json-gzip\"");
+    }
+
+    @Test
+    public void fromVersionPerMediaType() {
+        final String json = EntityTags.fromVersion(new VersionedEntity("42"), MediaType.JSON, IDENTITY).get();
+        final String smile = EntityTags.fromVersion(new VersionedEntity("42"), MediaType.SMILE, IDENTITY).get();
+        assertThat(smile).isEqualTo("\"42-x-jackson-smile\"");
+        assertThat(smile).isNotEqualTo(json);
+        assertThat(EntityTags.matches(json, smile)).isFalse();
+    }
+
+    @Test
+    public void fromVersionNotVersioned() {
+        assertThat(EntityTags.fromVersion(new Entity("Larry", 38), MediaType.JSON, IDENTITY).isPresent()).isFalse();
+        assertThat(EntityTags.fromVersion(new VersionedEntity(null), MediaType.JSON, IDENTITY).isPresent()).isFalse();
+    }
+
+    @Test
+    public void fromBody() throws Exception {
+        final String tag = EntityTags.fromBody("[1,2,3]".getBytes("UTF-8"), IDENTITY);
+        assertThat(tag).matches("\"[0-9a-f]{32}\"");
+        assertThat(EntityTags.fromBody("[1,2,3]".getBytes("UTF-8"), IDENTITY)).isEqualTo(tag);
+        assertThat(EntityTags.fromBody("[1,2,4]".getBytes("UTF-8"), IDENTITY)).isNotEqualTo(tag);
+    }
+
+    @Test
+    public void matches() {
+        assertThat(EntityTags.matches(null, "\"42\"")).isFalse();
+        assertThat(EntityTags.matches("\"42\"", "\"42\"")).isTrue();
+        assertThat(EntityTags.matches("\"41\", W/\"42\"", "\"42\"")).isTrue();
+        assertThat(EntityTags.matches("*", "\"42\"")).isTrue();
+        assertThat(EntityTags.matches("\"42-gzip\"", "\"42\"")).isFalse();
+    }
+
+    public static class VersionedEntity extends Entity implements Versioned {
+        private final String version;
+
+        VersionedEntity(final String version) {
+            super("Larry", 38);
+            this.version = version;
+        }
+
+        @Override
+        public String version() {
+            return version;
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.jboss.aerogear.controller.router.RequestMethod.GET;
+import static org.jboss.aerogear.controller.router.RequestMethod.POST;
+
+import java.io.StringWriter;
+
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.JsonMappingException;
+import org.codehaus.jackson.map.SerializationConfig;
+import org.jboss.aerogear.controller.Car;
+import org.jboss.aerogear.controller.SampleController;
+import org.jboss.aerogear.controller.router.AbstractRoutingModule;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.Routes;
+import org.jboss.aerogear.controller.router.rest.pagination.PaginationInfo;
+import org.junit.Test;
+
+public class JsonCodecTest {
+
+    @Test
+    public void ignoresUnknownPropertiesByDefault() throws Exception {
+        final JsonCodec codec = new JsonCodec();
+        final Entity entity = codec.readerFor(Entity.class).readValue("{\"name\":\"Fletch\", \"nickname\":\"Fletch F. Fletch\"}");
+        assertThat(entity.getName()).isEqualTo("Fletch");
+    }
+
+    @Test(expected = JsonMappingException.class)
+    public void failOnUnknownProperties() throws Exception {
+        final JsonCodec codec = new JsonCodec(JsonConfig.enable(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES).build());
+        codec.readerFor(Entity.class).readValue("{\"name\":\"Fletch\", \"nickname\":\"Fletch F. Fletch\"}");
+    }
+
+    @Test
+    public void serializationFeatures() throws Exception {
+        final JsonCodec codec = new JsonCodec(JsonConfig.enable(SerializationConfig.Feature.INDENT_OUTPUT).build());
+        final StringWriter writer = new StringWriter();
+        codec.writerFor(Car.class).writeValue(writer, new Car("red", "Ferrari"));
+        assertThat(writer.toString()).contains("\n");
+    }
+
+    @Test
+    public void readersAndWritersAreCached() {
+        final JsonCodec codec = new JsonCodec();
+        assertThat(codec.readerFor(Entity.class)).isSameAs(codec.readerFor(Entity.class));
+        assertThat(codec.writerFor(Entity.class)).isSameAs(codec.writerFor(Entity.class));
+    }
+
+    @Test
+    public void warmUp() {
+        final Routes routes = new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars")
+                        .on(POST)
+                        .consumes(MediaType.JSON)
+                        .produces(MediaType.JSON)
+                        .to(SampleController.class).save(param(Car.class));
+                route()
+                        .from("/cars")
+                        .on(GET)
+                        .produces(MediaType.JSON)
+                        .to(SampleController.class).save(param("color"), param("brand"));
+                route()
+                        .from("/ints")
+                        .on(GET)
+                        .produces(MediaType.JSON)
+                        .to(SampleController.class).findBy(param(PaginationInfo.class), param("query"));
+            }
+        }.build();
+        final JsonCodec codec = new JsonCodec();
+        codec.warmUp(routes);
+        assertThat(codec.getReaderTypes()).containsOnly(Car.class);
+        assertThat(codec.getWriterTypes()).containsOnly(Car.class);
+    }
+
+}
@@ -22,6 +22,7 @@ import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.Iterator;
 
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
@@ -60,6 +61,24 @@ public class JsonConsumerTest {
         assertThat(entity.getAge()).isEqualTo(44);
     }
 
+    @Test
+    public void unmarshallElements() throws Exception {
+        final JsonConsumer consumer = new JsonConsumer();
+        final String json = "[{\"name\":\"Fletch\", \"age\":\"44\"}, {\"name\":\"Gordon\", \"age\":\"40\"}]";
+        when(request.getInputStream()).thenReturn(from(json));
+        final Iterator<Entity> entities = consumer.unmarshallElements(request, Entity.class);
+        assertThat(entities.next().getName()).isEqualTo("Fletch");
+        assertThat(entities.next().getName()).isEqualTo("Gordon");
+        assertThat(entities.hasNext()).isFalse();
+    }
+
+    @Test
+    public void unmarshallElementsEmptyArray() throws Exception {
+        final JsonConsumer consumer = new JsonConsumer();
+        when(request.getInputStream()).thenReturn(from("[]"));
+        assertThat(consumer.unmarshallElements(request, Entity.class).hasNext()).isFalse();
+    }
+
     private ServletInputStream from(final String json) {
         final ByteArrayInputStream ba = new ByteArrayInputStream(json.getBytes());
         return new ServletInputStream() {
@@ -18,29 +18,46 @@
 package org.jboss.aerogear.controller.router.rest;
 
 import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.codehaus.jackson.map.ObjectMapper;
+import org.jboss.aerogear.controller.router.ElementWriter;
 import org.jboss.aerogear.controller.router.MediaType;
 import org.jboss.aerogear.controller.router.RequestMethod;
 import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.RouteContext;
 import org.jboss.aerogear.controller.router.Routes;
 import org.jboss.aerogear.controller.router.error.ErrorResponseImpl;
+import org.jboss.aerogear.controller.router.rest.compression.CompressionConfig;
+import org.jboss.aerogear.controller.router.rest.compression.ContentEncoding;
+import org.jboss.aerogear.controller.router.rest.compression.ResponseCompressor;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import com.google.common.base.Optional;
+import com.google.common.io.ByteStreams;
+
 public class JsonResponderTest {
 
     @Mock
@@ -107,4 +124,277 @@ public class JsonResponderTest {
         verify(response).setContentType(MediaType.JSON.getType());
     }
 
+    @Test
+    public void errorResponseWithoutContent() throws Exception {
+        final StringWriter stringWriter = new StringWriter();
+        final PrintWriter printWriter = new PrintWriter(stringWriter);
+        when(response.getWriter()).thenReturn(printWriter);
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+
+        new JsonResponder().respond(new ErrorResponseImpl(HttpServletResponse.SC_NO_CONTENT, null), routeContext);
+        verify(response).setStatus(HttpServletResponse.SC_NO_CONTENT);
+        assertThat(stringWriter.toString()).isEqualTo("null");
+    }
+
+    @Test
+    public void streamIterator() throws Exception {
+        final RecordingOutputStream out = new RecordingOutputStream();
+        when(response.getOutputStream()).thenReturn(out);
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        new JsonResponder().respond(Arrays.asList(new Entity("Larry", 38), null, new Entity("Moe", 40)).iterator(), routeContext);
+        verify(response, never()).getWriter();
+        assertThat(out.toString()).isEqualTo("[{\"name\":\"Larry\",\"age\":38},null,{\"name\":\"Moe\",\"age\":40}]");
+        assertThat(out.closed).isTrue();
+    }
+
+    @Test
+    public void streamFlushElements() throws Exception {
+        final RecordingOutputStream out = new RecordingOutputStream();
+        when(response.getOutputStream()).thenReturn(out);
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        final JsonCodec codec = new JsonCodec(JsonConfig.streamFlushElements(2).streamFlushBytes(0).build());
+        new JsonResponder(codec).respond(Arrays.asList(1, 2, 3, 4, 5).iterator(), routeContext);
+        assertThat(out.toString()).isEqualTo("[1,2,3,4,5]");
+        assertThat(out.flushes).isEqualTo(3);
+    }
+
+    @Test
+    public void streamFlushBytes() throws Exception {
+        final RecordingOutputStream out = new RecordingOutputStream();
+        when(response.getOutputStream()).thenReturn(out);
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        final JsonCodec codec = new JsonCodec(JsonConfig.streamFlushBytes(4).build());
+        new JsonResponder(codec).respond(Arrays.asList("abc", "def").iterator(), routeContext);
+        assertThat(out.toString()).isEqualTo("[\"abc\",\"def\"]");
+        assertThat(out.flushes).isEqualTo(3);
+    }
+
+    @Test
+    public void streamClosesCursor() throws Exception {
+        final RecordingOutputStream out = new RecordingOutputStream();
+        when(response.getOutputStream()).thenReturn(out);
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        final Cursor cursor = new Cursor("Larry", "Moe");
+        new JsonResponder().respond(cursor, routeContext);
+        assertThat(out.toString()).isEqualTo("[\"Larry\",\"Moe\"]");
+        assertThat(cursor.closed).isTrue();
+    }
+
+    @Test
+    public void streamOptionsClosesCursor() throws Exception {
+        when(request.getMethod()).thenReturn(RequestMethod.OPTIONS.toString());
+        final Cursor cursor = new Cursor("Larry", "Moe");
+        new JsonResponder().respond(cursor, routeContext);
+        verify(response, never()).getOutputStream();
+        assertThat(cursor.closed).isTrue();
+    }
+
+    @Test
+    public void collectionIsNotStreamed() throws Exception {
+        final StringWriter stringWriter = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(stringWriter));
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        new JsonResponder().respond(Arrays.asList(1, 2, 3), routeContext);
+        verify(response, never()).getOutputStream();
+        assertThat(stringWriter.toString()).isEqualTo("[1,2,3]");
+    }
+
+    private static class Cursor implements Iterable<String>, Closeable {
+
+        private final List<String> values;
+        private boolean closed;
+
+        Cursor(final String... values) {
+            this.values = Arrays.asList(values);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return values.iterator();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void versionedEntity() throws Exception {
+        final StringWriter stringWriter = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(stringWriter));
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        new JsonResponder().respond(new EntityTagsTest.VersionedEntity("7"), routeContext);
+        verify(response).setHeader("ETag", "\"7-json\"");
+        assertThat(stringWriter.toString()).isEqualTo("{\"name\":\"Larry\",\"age\":38}");
+    }
+
+    @Test
+    public void versionedEntityNotModified() throws Exception {
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(request.getHeader("If-None-Match")).thenReturn("\"7-json\"");
+        new JsonResponder().respond(new EntityTagsTest.VersionedEntity("7"), routeContext);
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response, never()).getWriter();
+        verify(response, never()).getOutputStream();
+    }
+
+    @Test
+    public void versionedEntityPost() throws Exception {
+        when(response.getWriter()).thenReturn(new PrintWriter(new StringWriter()));
+        when(request.getMethod()).thenReturn(RequestMethod.POST.toString());
+        when(request.getHeader("If-None-Match")).thenReturn("\"7-json\"");
+        new JsonResponder().respond(new EntityTagsTest.VersionedEntity("7"), routeContext);
+        verify(response, never()).setHeader("ETag", "\"7-json\"");
+        verify(response, never()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+
+    @Test
+    public void etagFromBody() throws Exception {
+        final RecordingOutputStream out = new RecordingOutputStream();
+        when(response.getOutputStream()).thenReturn(out);
+        when(response.getCharacterEncoding()).thenReturn("UTF-8");
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(route.isETagEnabled()).thenReturn(true);
+        new JsonResponder().respond(Arrays.asList(1, 2, 3), routeContext);
+        final String tag = EntityTags.fromBody("[1,2,3]".getBytes("UTF-8"), Optional.<ContentEncoding> absent());
+        verify(response).setHeader("ETag", tag);
+        verify(response, never()).getWriter();
+        assertThat(out.toString()).isEqualTo("[1,2,3]");
+    }
+
+    @Test
+    public void etagFromBodyNotModified() throws Exception {
+        final RecordingOutputStream out = new RecordingOutputStream();
+        when(response.getOutputStream()).thenReturn(out);
+        when(response.getCharacterEncoding()).thenReturn("UTF-8");
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(request.getHeader("If-None-Match")).thenReturn(
+                EntityTags.fromBody("[1,2,3]".getBytes("UTF-8"), Optional.<ContentEncoding> absent()));
+        when(route.isETagEnabled()).thenReturn(true);
+        new JsonResponder().respond(Arrays.asList(1, 2, 3), routeContext);
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(out.toString()).isEmpty();
+    }
+
+    @Test
+    public void etagFromBodyBelowMinimumSize() throws Exception {
+        final RecordingOutputStream out = new RecordingOutputStream();
+        when(response.getOutputStream()).thenReturn(out);
+        when(response.getCharacterEncoding()).thenReturn("UTF-8");
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        when(route.isETagEnabled()).thenReturn(true);
+        when(route.isCompressed()).thenReturn(true);
+        new JsonResponder().respond(Arrays.asList(1, 2, 3), routeContext);
+        verify(response).setHeader("ETag",
+                EntityTags.fromBody("[1,2,3]".getBytes("UTF-8"), Optional.<ContentEncoding> absent()));
+        verify(response, never()).setHeader("Content-Encoding", "gzip");
+        assertThat(out.toString()).isEqualTo("[1,2,3]");
+    }
+
+    @Test
+    public void etagFromCompressedBody() throws Exception {
+        final RecordingOutputStream out = new RecordingOutputStream();
+        when(response.getOutputStream()).thenReturn(out);
+        when(response.getCharacterEncoding()).thenReturn("UTF-8");
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        when(route.isETagEnabled()).thenReturn(true);
+        compressingResponder(4).respond(Arrays.asList(1, 2, 3), routeContext);
+        verify(response).setHeader("ETag",
+                EntityTags.fromBody("[1,2,3]".getBytes("UTF-8"), Optional.of(ContentEncoding.GZIP)));
+        verify(response).setHeader("Content-Encoding", "gzip");
+        assertThat(gunzip(out.bytes.toByteArray())).isEqualTo("[1,2,3]");
+    }
+
+    @Test
+    public void versionedEntityBelowMinimumSize() throws Exception {
+        final RecordingOutputStream out = new RecordingOutputStream();
+        when(response.getOutputStream()).thenReturn(out);
+        when(response.getCharacterEncoding()).thenReturn("UTF-8");
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        compressingResponder(1024).respond(new EntityTagsTest.VersionedEntity("7"), routeContext);
+        verify(response).setHeader("ETag", "\"7-json\"");
+        verify(response, never()).setHeader("ETag", "\"7-json-gzip\"");
+        assertThat(out.toString()).isEqualTo("{\"name\":\"Larry\",\"age\":38}");
+    }
+
+    @Test
+    public void versionedEntityCompressed() throws Exception {
+        final RecordingOutputStream out = new RecordingOutputStream();
+        when(response.getOutputStream()).thenReturn(out);
+        when(response.getCharacterEncoding()).thenReturn("UTF-8");
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        compressingResponder(4).respond(new EntityTagsTest.VersionedEntity("7"), routeContext);
+        verify(response).setHeader("ETag", "\"7-json-gzip\"");
+        verify(response).setHeader("Content-Encoding", "gzip");
+        assertThat(gunzip(out.bytes.toByteArray())).isEqualTo("{\"name\":\"Larry\",\"age\":38}");
+    }
+
+    @Test
+    public void versionedEntityCompressedNotModified() throws Exception {
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        when(request.getHeader("If-None-Match")).thenReturn("\"7-json-gzip\"");
+        compressingResponder(4).respond(new EntityTagsTest.VersionedEntity("7"), routeContext);
+        verify(response).setHeader("ETag", "\"7-json-gzip\"");
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response, never()).getOutputStream();
+    }
+
+    private static JsonResponder compressingResponder(final int minimumSize) {
+        return new JsonResponder(new JsonCodec(), new ResponseCompressor(CompressionConfig.enableForAllRoutes()
+                .minimumSize(minimumSize).build()));
+    }
+
+    private static String gunzip(final byte[] compressed) throws Exception {
+        return new String(ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed))), "UTF-8");
+    }
+
+    @Test
+    public void openStream() throws Exception {
+        final RecordingOutputStream out = new RecordingOutputStream();
+        when(response.getOutputStream()).thenReturn(out);
+        final ElementWriter writer = new JsonResponder().openStream(routeContext);
+        verify(response).setContentType(MediaType.JSON.getType());
+        writer.write(new Entity("Larry", 38));
+        writer.flush();
+        assertThat(out.toString()).isEqualTo("[{\"name\":\"Larry\",\"age\":38}");
+        assertThat(out.flushes).isEqualTo(1);
+        writer.write(null);
+        writer.close();
+        assertThat(out.toString()).isEqualTo("[{\"name\":\"Larry\",\"age\":38},null]");
+        assertThat(out.closed).isTrue();
+    }
+
+    private static class RecordingOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private int flushes;
+        private boolean closed;
+
+        @Override
+        public void write(final int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes.toByteArray(), Charset.forName("UTF-8"));
+        }
+    }
+
 }
@@ -0,0 +1,79 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.jboss.aerogear.controller.router.MediaType;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class SmileConsumerTest {
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void mediaType() {
+        assertThat(new SmileConsumer().mediaType()).isEqualTo(MediaType.SMILE.getType());
+    }
+
+    @Test
+    public void unmarshall() throws Exception {
+        when(request.getInputStream()).thenReturn(smile(new Entity("Fletch", 44)));
+        final Entity entity = new SmileConsumer().unmarshall(request, Entity.class);
+        assertThat(entity.getName()).isEqualTo("Fletch");
+        assertThat(entity.getAge()).isEqualTo(44);
+    }
+
+    @Test
+    public void unmarshallElements() throws Exception {
+        when(request.getInputStream()).thenReturn(smile(Arrays.asList(new Entity("Fletch", 44), new Entity("Gordon", 40))));
+        final Iterator<Entity> entities = new SmileConsumer().unmarshallElements(request, Entity.class);
+        assertThat(entities.next().getName()).isEqualTo("Fletch");
+        assertThat(entities.next().getName()).isEqualTo("Gordon");
+        assertThat(entities.hasNext()).isFalse();
+    }
+
+    private static ServletInputStream smile(final Object value) throws Exception {
+        final ByteArrayInputStream in = new ByteArrayInputStream(new SmileCodec().writerFor(value.getClass())
+                .writeValueAsBytes(value));
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+        };
+    }
+
+}
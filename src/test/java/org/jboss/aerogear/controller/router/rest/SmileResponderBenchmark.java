@@ -0,0 +1,137 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.Profile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares writing and reading a page of one hundred twenty field entities as Smile, which is what
+ * {@link SmileResponder} and {@link SmileConsumer} do, with doing the same as JSON, which is what {@link JsonResponder}
+ * and {@link JsonConsumer} do.
+ * </p>
+ * The payload sizes of both encodings are printed before the benchmarks are run.
+ * </p>
+ * Benchmarks are not run as part of the build, run this class' main method to run them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmileResponderBenchmark {
+
+    private final JsonCodec jsonCodec = new JsonCodec();
+    private final SmileCodec smileCodec = new SmileCodec();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(65536);
+    private Profile[] profiles;
+    private byte[] json;
+    private byte[] smile;
+
+    @Setup
+    public void setup() throws IOException {
+        profiles = profiles(100);
+        json = write(jsonCodec, profiles);
+        smile = write(smileCodec, profiles);
+    }
+
+    @Benchmark
+    public int writeJson() throws IOException {
+        return write(jsonCodec);
+    }
+
+    @Benchmark
+    public int writeSmile() throws IOException {
+        return write(smileCodec);
+    }
+
+    @Benchmark
+    public Object readJson() throws IOException {
+        return jsonCodec.readerFor(Profile[].class).readValue(json);
+    }
+
+    @Benchmark
+    public Object readSmile() throws IOException {
+        return smileCodec.readerFor(Profile[].class).readValue(smile);
+    }
+
+    private int write(final JsonCodec codec) throws IOException {
+        out.reset();
+        codec.writerFor(Profile[].class).writeValue(out, profiles);
+        return out.size();
+    }
+
+    private static byte[] write(final JsonCodec codec, final Profile[] profiles) throws IOException {
+        return codec.writerFor(Profile[].class).writeValueAsBytes(profiles);
+    }
+
+    static Profile[] profiles(final int count) {
+        final Profile[] profiles = new Profile[count];
+        for (int i = 0; i < count; i++) {
+            final Profile profile = new Profile();
+            profile.setFirstName("Fletch" + i);
+            profile.setLastName("Fletcher");
+            profile.setEmail("fletch" + i + "@example.com");
+            profile.setStreet("Main Street " + i);
+            profile.setCity("Los Angeles");
+            profile.setCountry("US");
+            profile.setZipCode("90001");
+            profile.setPhone("555-0100");
+            profile.setAge(20 + i % 50);
+            profile.setAccountId(1000000L + i);
+            profile.setActive(i % 2 == 0);
+            profile.setLogins(i * 3);
+            profile.setVersion(Long.valueOf(i));
+            profile.setScore(i / 3.0);
+            profile.setRating(4.5);
+            profile.setBalance(new BigDecimal("1234.56"));
+            profile.setUnit(TimeUnit.SECONDS);
+            profile.setInitial('F');
+            profile.setLevel((short) (i % 10));
+            profile.setNotes("Investigative reporter");
+            profiles[i] = profile;
+        }
+        return profiles;
+    }
+
+    public static void main(final String... args) throws RunnerException, IOException {
+        final Profile[] profiles = profiles(100);
+        System.out.println("JSON payload:  " + write(new JsonCodec(), profiles).length + " bytes");
+        System.out.println("Smile payload: " + write(new SmileCodec(), profiles).length + " bytes");
+        new Runner(new OptionsBuilder().include(SmileResponderBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,104 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.RequestMethod;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.Routes;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class SmileResponderTest {
+
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private Route route;
+    @Mock
+    private Routes routes;
+    @InjectMocks
+    private RouteContext routeContext;
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    @Before
+    public void setup() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(final int b) {
+                bytes.write(b);
+            }
+        });
+    }
+
+    @Test
+    public void accepts() {
+        assertThat(new SmileResponder().accepts(MediaType.SMILE.getType())).isTrue();
+        assertThat(new SmileResponder().accepts(MediaType.JSON.getType())).isFalse();
+    }
+
+    @Test
+    public void respond() throws Exception {
+        new SmileResponder().respond(new Entity("Larry", 38), routeContext);
+        verify(response).setContentType(MediaType.SMILE.getType());
+        verify(response, never()).setCharacterEncoding("UTF-8");
+        verify(response, never()).getWriter();
+        verify(response).setHeader("Entity-Name", "Larry");
+        final Entity entity = new SmileCodec().readerFor(Entity.class).readValue(bytes.toByteArray());
+        assertThat(entity.getName()).isEqualTo("Larry");
+        assertThat(entity.getAge()).isEqualTo(38);
+    }
+
+    @Test
+    public void streamIterator() throws Exception {
+        new SmileResponder().respond(Arrays.asList(new Entity("Larry", 38), new Entity("Moe", 40)).iterator(), routeContext);
+        final Entity[] entities = new SmileCodec().readerFor(Entity[].class).readValue(bytes.toByteArray());
+        assertThat(entities.length).isEqualTo(2);
+        assertThat(entities[1].getName()).isEqualTo("Moe");
+    }
+
+    @Test
+    public void smallerThanJson() throws Exception {
+        final Object profiles = SmileResponderBenchmark.profiles(10);
+        new SmileResponder().respond(profiles, routeContext);
+        final byte[] json = new JsonCodec().writerFor(profiles.getClass()).writeValueAsBytes(profiles);
+        assertThat(bytes.size()).isLessThan(json.length);
+    }
+
+}
@@ -0,0 +1,78 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.compression;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class ContentEncodingTest {
+
+    @Test
+    public void noHeader() {
+        assertThat(ContentEncoding.negotiate(null).isPresent()).isFalse();
+    }
+
+    @Test
+    public void gzip() {
+        assertThat(ContentEncoding.negotiate("gzip").get()).isEqualTo(ContentEncoding.GZIP);
+    }
+
+    @Test
+    public void gzipPreferredOnTie() {
+        assertThat(ContentEncoding.negotiate("deflate, gzip").get()).isEqualTo(ContentEncoding.GZIP);
+    }
+
+    @Test
+    public void qualityValues() {
+        assertThat(ContentEncoding.negotiate("gzip;q=0.5, deflate;q=0.8").get()).isEqualTo(ContentEncoding.DEFLATE);
+    }
+
+    @Test
+    public void excluded() {
+        assertThat(ContentEncoding.negotiate("gzip;q=0, identity").isPresent()).isFalse();
+    }
+
+    @Test
+    public void wildcard() {
+        assertThat(ContentEncoding.negotiate("*").get()).isEqualTo(ContentEncoding.GZIP);
+        assertThat(ContentEncoding.negotiate("gzip;q=0, *").get()).isEqualTo(ContentEncoding.DEFLATE);
+    }
+
+    @Test
+    public void unsupported() {
+        assertThat(ContentEncoding.negotiate("br, identity").isPresent()).isFalse();
+    }
+
+    @Test
+    public void parse() {
+        assertThat(ContentEncoding.parse(null)).isEmpty();
+        assertThat(ContentEncoding.parse("identity")).isEmpty();
+        assertThat(ContentEncoding.parse("x-gzip")).containsOnly(ContentEncoding.GZIP);
+        assertThat(ContentEncoding.parse("deflate, gzip")).isEqualTo(
+                Arrays.asList(ContentEncoding.DEFLATE, ContentEncoding.GZIP));
+    }
+
+    @Test(expected = UnsupportedContentEncodingException.class)
+    public void parseUnsupported() {
+        ContentEncoding.parse("gzip, br");
+    }
+
+}
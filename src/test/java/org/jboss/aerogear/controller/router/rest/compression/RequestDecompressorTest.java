@@ -0,0 +1,181 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.compression;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.jboss.aerogear.controller.Car;
+import org.jboss.aerogear.controller.router.rest.JsonConsumer;
+import org.junit.Test;
+
+public class RequestDecompressorTest {
+
+    private static final String BODY = "[{\"color\":\"red\",\"brand\":\"Ferrari\"},{\"color\":\"blue\",\"brand\":\"Lada\"}]";
+
+    private final RequestDecompressor decompressor = new RequestDecompressor();
+
+    @Test
+    public void notCompressed() throws Exception {
+        assertThat(decompressor.decompress(request(null, BODY.getBytes("UTF-8"))).isPresent()).isFalse();
+        assertThat(decompressor.decompress(request("identity", BODY.getBytes("UTF-8"))).isPresent()).isFalse();
+    }
+
+    @Test(expected = UnsupportedContentEncodingException.class)
+    public void unsupportedEncoding() throws Exception {
+        decompressor.decompress(request("br", BODY.getBytes("UTF-8")));
+    }
+
+    @Test
+    public void gzip() throws Exception {
+        final DecompressingRequest request = decompressor.decompress(request("gzip", gzip(BODY.getBytes("UTF-8")))).get();
+        assertThat(request.getContentLength()).isEqualTo(-1);
+        assertThat(read(request.getInputStream())).isEqualTo(BODY);
+        assertThat(decompressor.getIdleInflaters(ContentEncoding.GZIP)).isEqualTo(1);
+    }
+
+    @Test
+    public void deflate() throws Exception {
+        final DecompressingRequest request = decompressor.decompress(request("deflate", deflate(BODY.getBytes("UTF-8")))).get();
+        assertThat(read(request.getInputStream())).isEqualTo(BODY);
+        assertThat(decompressor.getIdleInflaters(ContentEncoding.DEFLATE)).isEqualTo(1);
+    }
+
+    @Test
+    public void multipleEncodings() throws Exception {
+        final byte[] body = gzip(deflate(BODY.getBytes("UTF-8")));
+        final DecompressingRequest request = decompressor.decompress(request("deflate, gzip", body)).get();
+        assertThat(read(request.getInputStream())).isEqualTo(BODY);
+    }
+
+    @Test
+    public void reader() throws Exception {
+        final HttpServletRequest request = request("gzip", gzip(BODY.getBytes("UTF-8")));
+        when(request.getCharacterEncoding()).thenReturn("UTF-8");
+        assertThat(decompressor.decompress(request).get().getReader().readLine()).isEqualTo(BODY);
+    }
+
+    @Test
+    public void largeBody() throws Exception {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append(i).append(',');
+        }
+        final DecompressingRequest request = decompressor.decompress(request("gzip", gzip(sb.toString().getBytes("UTF-8")))).get();
+        assertThat(read(request.getInputStream())).isEqualTo(sb.toString());
+    }
+
+    @Test
+    public void maximumDecompressedSize() throws Exception {
+        final RequestDecompressor decompressor = new RequestDecompressor(CompressionConfig.maximumDecompressedSize(1024).build());
+        final DecompressingRequest request = decompressor.decompress(request("gzip", gzip(new byte[4096]))).get();
+        try {
+            read(request.getInputStream());
+            fail("Should have thrown a RequestEntityTooLargeException");
+        } catch (final RequestEntityTooLargeException e) {
+            assertThat(e.getStatus()).isEqualTo(413);
+        }
+        assertThat(decompressor.getIdleInflaters(ContentEncoding.GZIP)).isEqualTo(1);
+        assertThat(request.getInputStream().read()).isEqualTo(-1);
+    }
+
+    @Test (expected = ZipException.class)
+    public void corruptTrailer() throws Exception {
+        final byte[] body = gzip(BODY.getBytes("UTF-8"));
+        body[body.length - 5]++;
+        read(decompressor.decompress(request("gzip", body)).get().getInputStream());
+    }
+
+    @Test (expected = ZipException.class)
+    public void notGzip() throws Exception {
+        read(decompressor.decompress(request("gzip", BODY.getBytes("UTF-8"))).get().getInputStream());
+    }
+
+    @Test
+    public void release() throws Exception {
+        final DecompressingRequest request = decompressor.decompress(request("gzip", gzip(BODY.getBytes("UTF-8")))).get();
+        request.getInputStream().read();
+        assertThat(decompressor.getIdleInflaters(ContentEncoding.GZIP)).isEqualTo(0);
+        request.release();
+        assertThat(decompressor.getIdleInflaters(ContentEncoding.GZIP)).isEqualTo(1);
+    }
+
+    @Test
+    public void jsonConsumer() throws Exception {
+        final DecompressingRequest request = decompressor.decompress(request("gzip", gzip(BODY.getBytes("UTF-8")))).get();
+        final Car[] cars = new JsonConsumer().unmarshall(request, Car[].class);
+        assertThat(cars.length).isEqualTo(2);
+        assertThat(cars[1].getBrand()).isEqualTo("Lada");
+    }
+
+    private static HttpServletRequest request(final String contentEncoding, final byte[] body) throws IOException {
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        final ByteArrayInputStream in = new ByteArrayInputStream(body);
+        final ServletInputStream servletInputStream = new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+        };
+        when(request.getHeader("Content-Encoding")).thenReturn(contentEncoding);
+        when(request.getInputStream()).thenReturn(servletInputStream);
+        return request;
+    }
+
+    private static byte[] gzip(final byte[] data) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(new GZIPOutputStream(bytes), data);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflate(final byte[] data) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(new DeflaterOutputStream(bytes), data);
+        return bytes.toByteArray();
+    }
+
+    private static void write(final OutputStream out, final byte[] data) throws IOException {
+        out.write(data);
+        out.close();
+    }
+
+    private static String read(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), "UTF-8");
+    }
+
+}
@@ -0,0 +1,189 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.compression;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.router.RequestMethod;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.Routes;
+import org.jboss.aerogear.controller.router.rest.JsonCodec;
+import org.jboss.aerogear.controller.router.rest.JsonResponder;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class ResponseCompressorTest {
+
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private Route route;
+    @Mock
+    private Routes routes;
+    @InjectMocks
+    private RouteContext routeContext;
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final ResponseCompressor compressor = new ResponseCompressor(CompressionConfig.minimumSize(16).build());
+
+    @Before
+    public void setup() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(route.isCompressed()).thenReturn(true);
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(response.getCharacterEncoding()).thenReturn("UTF-8");
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(final int b) {
+                bytes.write(b);
+            }
+        });
+    }
+
+    @Test
+    public void notEnabledForRoute() {
+        when(route.isCompressed()).thenReturn(false);
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        assertThat(compressor.compress(routeContext).isPresent()).isFalse();
+        verify(response, never()).addHeader("Vary", "Accept-Encoding");
+    }
+
+    @Test
+    public void enabledForAllRoutes() {
+        when(route.isCompressed()).thenReturn(false);
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        final ResponseCompressor compressor = new ResponseCompressor(CompressionConfig.enableForAllRoutes().build());
+        assertThat(compressor.compress(routeContext).isPresent()).isTrue();
+    }
+
+    @Test
+    public void notAccepted() {
+        assertThat(compressor.compress(routeContext).isPresent()).isFalse();
+        verify(response).addHeader("Vary", "Accept-Encoding");
+    }
+
+    @Test
+    public void gzip() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip, deflate");
+        final CompressingResponse compressingResponse = compressor.compress(routeContext).get();
+        compressingResponse.getWriter().write(body(100));
+        compressingResponse.finish();
+        assertThat(compressingResponse.isCompressing()).isTrue();
+        verify(response).addHeader("Vary", "Accept-Encoding");
+        verify(response).setHeader("Content-Encoding", "gzip");
+        assertThat(read(new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray())))).isEqualTo(body(100));
+        assertThat(bytes.size()).isLessThan(body(100).length());
+    }
+
+    @Test
+    public void deflate() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("deflate");
+        final CompressingResponse compressingResponse = compressor.compress(routeContext).get();
+        compressingResponse.getOutputStream().write(body(100).getBytes("UTF-8"));
+        compressingResponse.finish();
+        verify(response).setHeader("Content-Encoding", "deflate");
+        assertThat(read(new InflaterInputStream(new ByteArrayInputStream(bytes.toByteArray())))).isEqualTo(body(100));
+    }
+
+    @Test
+    public void belowMinimumSize() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        final CompressingResponse compressingResponse = compressor.compress(routeContext).get();
+        compressingResponse.getWriter().write("[1,2,3]");
+        compressingResponse.finish();
+        assertThat(compressingResponse.isCompressing()).isFalse();
+        verify(response, never()).setHeader("Content-Encoding", "gzip");
+        assertThat(new String(bytes.toByteArray(), "UTF-8")).isEqualTo("[1,2,3]");
+    }
+
+    @Test
+    public void abortDiscardsBufferedBody() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        final CompressingResponse compressingResponse = compressor.compress(routeContext).get();
+        compressingResponse.getOutputStream().write("[1,2,3]".getBytes("UTF-8"));
+        compressingResponse.abort();
+        verify(response, never()).getOutputStream();
+    }
+
+    @Test
+    public void deflatersAreReused() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        for (int i = 0; i < 3; i++) {
+            final CompressingResponse compressingResponse = compressor.compress(routeContext).get();
+            compressingResponse.getWriter().write(body(100));
+            compressingResponse.finish();
+        }
+        assertThat(compressor.getIdleDeflaters(ContentEncoding.GZIP)).isEqualTo(1);
+    }
+
+    @Test
+    public void jsonResponder() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        final List<Integer> entity = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            entity.add(i);
+        }
+        new JsonResponder(new JsonCodec(), compressor).respond(entity, routeContext);
+        verify(response, never()).getWriter();
+        verify(response).setHeader("Content-Encoding", "gzip");
+        assertThat(read(new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray())))).isEqualTo(
+                entity.toString().replace(" ", ""));
+        assertThat(compressor.getIdleDeflaters(ContentEncoding.GZIP)).isEqualTo(1);
+    }
+
+    private static String body(final int repeat) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < repeat; i++) {
+            sb.append("{\"name\":\"Fletch\",\"age\":44}");
+        }
+        return sb.toString();
+    }
+
+    private static String read(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), "UTF-8");
+    }
+
+}
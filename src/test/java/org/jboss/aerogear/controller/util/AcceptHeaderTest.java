@@ -0,0 +1,85 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.aerogear.controller.router.MediaType;
+import org.junit.Test;
+
+public class AcceptHeaderTest {
+
+    @Test
+    public void parseNull() {
+        assertThat(AcceptHeader.parse(null)).isSameAs(AcceptHeader.EMPTY);
+        assertThat(AcceptHeader.EMPTY.acceptsAny()).isTrue();
+    }
+
+    @Test
+    public void parse() {
+        final AcceptHeader acceptHeader = AcceptHeader.parse("application/json, application/xml");
+        assertThat(asList(acceptHeader.getMediaRanges())).isEqualTo(Arrays.asList("application/json", "application/xml"));
+        assertThat(acceptHeader.acceptsAny()).isFalse();
+    }
+
+    @Test
+    public void orderedByQuality() {
+        final AcceptHeader acceptHeader = AcceptHeader.parse("text/html;q=0.5, application/json;level=1, text/*;q=0.8");
+        assertThat(asList(acceptHeader.getMediaRanges())).isEqualTo(Arrays.asList("application/json", "text/*", "text/html"));
+    }
+
+    @Test
+    public void zeroQualityNotAcceptable() {
+        final AcceptHeader acceptHeader = AcceptHeader.parse("application/json;q=0, text/html");
+        assertThat(asList(acceptHeader.getMediaRanges())).isEqualTo(Arrays.asList("text/html"));
+    }
+
+    @Test
+    public void malformedQualityUsesDefault() {
+        final AcceptHeader acceptHeader = AcceptHeader.parse("application/json;q=0.1, text/html;q=high");
+        assertThat(asList(acceptHeader.getMediaRanges())).isEqualTo(Arrays.asList("text/html", "application/json"));
+    }
+
+    @Test
+    public void invalidMediaRangesIgnored() {
+        final AcceptHeader acceptHeader = AcceptHeader.parse("json, /html, text/, ,application/vnd.cars+json");
+        assertThat(asList(acceptHeader.getMediaRanges())).isEqualTo(Arrays.asList("application/vnd.cars+json"));
+    }
+
+    @Test
+    public void any() {
+        assertThat(AcceptHeader.parse("*/*;q=0.1, application/json").acceptsAny()).isTrue();
+        assertThat(AcceptHeader.parse("").acceptsAny()).isTrue();
+        assertThat(asList(AcceptHeader.parse(MediaType.ANY).getMediaRanges())).isEqualTo(Arrays.asList(MediaType.ANY));
+    }
+
+    @Test
+    public void cachedByValue() {
+        assertThat(AcceptHeader.parse(new String("application/json"))).isSameAs(AcceptHeader.parse("application/json"));
+    }
+
+    private static List<String> asList(final Set<String> mediaRanges) {
+        return new ArrayList<String>(mediaRanges);
+    }
+
+}
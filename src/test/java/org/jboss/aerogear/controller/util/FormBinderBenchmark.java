@@ -0,0 +1,94 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.util;
+
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.Profile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.caelum.iogi.Iogi;
+import br.com.caelum.iogi.parameters.Parameter;
+import br.com.caelum.iogi.reflection.Target;
+import br.com.caelum.iogi.util.DefaultLocaleProvider;
+import br.com.caelum.iogi.util.NullDependencyProvider;
+
+/**
+ * Compares binding a form with twenty fields through a compiled {@link FormBinder} with binding it through IOGI, both
+ * with a precompiled target and the way every request used to bind it.
+ * </p>
+ * Benchmarks are not run as part of the build, run this class' main method to run them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormBinderBenchmark {
+
+    private static final Iogi IOGI = new Iogi(new NullDependencyProvider(), new DefaultLocaleProvider());
+
+    private Map<String, String[]> params;
+    private FormBinder formBinder;
+
+    @Setup
+    public void setup() {
+        params = FormBinderTest.profileParams();
+        formBinder = FormBinder.of(Profile.class);
+    }
+
+    @Benchmark
+    public Object setterPlan() {
+        return formBinder.bind(params).get();
+    }
+
+    @Benchmark
+    public Object iogi() {
+        return formBinder.bindWithIogi(params).get();
+    }
+
+    @Benchmark
+    public Object iogiPerRequest() {
+        final LinkedList<Parameter> parameters = new LinkedList<Parameter>();
+        for (Map.Entry<String, String[]> entry : params.entrySet()) {
+            parameters.add(new Parameter(entry.getKey(), entry.getValue()[0]));
+        }
+        final Target<?> target = Target.create(Profile.class, StringUtils.downCaseFirst(Profile.class.getSimpleName()));
+        return IOGI.instantiate(target, parameters.toArray(new Parameter[parameters.size()]));
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FormBinderBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,120 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.Car;
+import org.jboss.aerogear.controller.Profile;
+import org.junit.Test;
+
+public class FormBinderTest {
+
+    @Test
+    public void bindsBeanThroughSetterPlan() {
+        final Profile profile = (Profile) FormBinder.of(Profile.class).bind(profileParams()).get();
+        assertProfile(profile);
+    }
+
+    @Test
+    public void setterPlanMatchesIogi() {
+        final Profile profile = (Profile) FormBinder.of(Profile.class).bindWithIogi(profileParams()).get();
+        assertProfile(profile);
+    }
+
+    @Test
+    public void emptyPrimitiveFallsBackToDefault() {
+        final Map<String, String[]> params = params("profile.age", "", "profile.firstName", "Fletch");
+        final Profile profile = (Profile) FormBinder.of(Profile.class).bind(params).get();
+        assertThat(profile.getAge()).isEqualTo(0);
+        assertThat(profile.getFirstName()).isEqualTo("Fletch");
+    }
+
+    @Test
+    public void noParameters() {
+        assertThat(FormBinder.of(Profile.class).bind(Collections.<String, String[]> emptyMap()).isPresent()).isFalse();
+    }
+
+    @Test
+    public void unrelatedParameters() {
+        final Map<String, String[]> params = params("name", "Herbie");
+        final Profile profile = (Profile) FormBinder.of(Profile.class).bind(params).get();
+        assertThat(profile.getFirstName()).isNull();
+        assertThat(profile.getAge()).isEqualTo(0);
+        assertThat(FormBinder.of(Profile.class).bindWithIogi(params).get()).isInstanceOf(Profile.class);
+    }
+
+    @Test
+    public void unknownPropertyIsHandedToIogi() {
+        final Map<String, String[]> params = params("profile.firstName", "Fletch", "profile.nickName", "F");
+        final Profile profile = (Profile) FormBinder.of(Profile.class).bind(params).get();
+        assertThat(profile.getFirstName()).isEqualTo("Fletch");
+    }
+
+    @Test
+    public void constructorBasedTypeIsBoundByIogi() {
+        final Car car = (Car) FormBinder.of(Car.class).bind(params("car.color", "red", "car.brand", "Ferrari")).get();
+        assertThat(car.getColor()).isEqualTo("red");
+        assertThat(car.getBrand()).isEqualTo("Ferrari");
+    }
+
+    @Test
+    public void binderIsCompiledOncePerType() {
+        assertThat(FormBinder.of(Profile.class)).isSameAs(FormBinder.of(Profile.class));
+    }
+
+    static Map<String, String[]> profileParams() {
+        return params("profile.firstName", "Fletch", "profile.lastName", "Fletcher", "profile.email", "fletch@example.com",
+                "profile.street", "Main Street", "profile.city", "Los Angeles", "profile.country", "US",
+                "profile.zipCode", "90001", "profile.phone", "555-0100", "profile.age", "42",
+                "profile.accountId", "1234567890123", "profile.active", "true", "profile.logins", "7",
+                "profile.version", "3", "profile.score", "9.5", "profile.rating", "4.5", "profile.balance", "100.25",
+                "profile.unit", "SECONDS", "profile.initial", "F", "profile.level", "2", "profile.notes", "none");
+    }
+
+    private static void assertProfile(final Profile profile) {
+        assertThat(profile.getFirstName()).isEqualTo("Fletch");
+        assertThat(profile.getZipCode()).isEqualTo("90001");
+        assertThat(profile.getAge()).isEqualTo(42);
+        assertThat(profile.getAccountId()).isEqualTo(1234567890123L);
+        assertThat(profile.isActive()).isTrue();
+        assertThat(profile.getLogins()).isEqualTo(7);
+        assertThat(profile.getVersion()).isEqualTo(3L);
+        assertThat(profile.getScore()).isEqualTo(9.5d);
+        assertThat(profile.getBalance()).isEqualTo(new BigDecimal("100.25"));
+        assertThat(profile.getUnit()).isEqualTo(TimeUnit.SECONDS);
+        assertThat(profile.getInitial()).isEqualTo('F');
+        assertThat(profile.getLevel()).isEqualTo((short) 2);
+        assertThat(profile.getNotes()).isEqualTo("none");
+    }
+
+    private static Map<String, String[]> params(final String... namesAndValues) {
+        final Map<String, String[]> params = new HashMap<String, String[]>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            params.put(namesAndValues[i], new String[] { namesAndValues[i + 1] });
+        }
+        return params;
+    }
+
+}
@@ -173,6 +173,13 @@ public class RequestUtilsTest {
         assertThat(params.size()).isEqualTo(2);
     }
     
+    @Test
+    public void splitOnPlaceHolders() {
+        final String[] parts = RequestUtils.splitOnPlaceHolders("/cars/{id}?param1={firstname}");
+        assertThat(Arrays.asList(parts)).isEqualTo(Arrays.asList("/cars/", "id", "?param1=", "firstname", ""));
+        assertThat(Arrays.asList(RequestUtils.splitOnPlaceHolders("/cars"))).isEqualTo(Arrays.asList("/cars"));
+    }
+
     @Test
     public void injectParamValues() {
         final String uri = "/cars/{id}?param1={firstname}";